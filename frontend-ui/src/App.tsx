@@ -1,19 +1,18 @@
 import React, { useEffect, useState } from 'react';
 import { useAppDispatch, useAppSelector } from './hooks/useRedux';
 import {
-  fetchProducts,
   createProduct,
   updateProduct,
   deleteProduct,
   clearError,
 } from './store/slices/productSlice';
 import {
-  fetchRawMaterials,
   createRawMaterial,
   updateRawMaterial,
   deleteRawMaterial,
   clearError as clearRawMaterialError,
 } from './store/slices/rawMaterialSlice';
+import { syncCatalog } from './store/slices/syncSlice';
 import { Product, ProductRequest } from './types/Product';
 import { RawMaterial, RawMaterialRequest } from './types/RawMaterial';
 import ProductList from './components/ProductList';
@@ -27,6 +26,8 @@ import './App.css';
 
 type ActiveTab = 'products' | 'raw-materials' | 'producible';
 
+const SYNC_INTERVAL_MS = 30000;
+
 function App() {
   const dispatch = useAppDispatch();
   const { products, loading: productsLoading, error: productsError } = useAppSelector((state) => state.products);
@@ -40,9 +41,11 @@ function App() {
   const [deletingProductId, setDeletingProductId] = useState<number | null>(null);
   const [deletingRawMaterialId, setDeletingRawMaterialId] = useState<number | null>(null);
 
+  // The first sync loads the catalog; later ones fetch only what other users changed meanwhile
   useEffect(() => {
-    dispatch(fetchProducts());
-    dispatch(fetchRawMaterials());
+    dispatch(syncCatalog());
+    const interval = setInterval(() => dispatch(syncCatalog()), SYNC_INTERVAL_MS);
+    return () => clearInterval(interval);
   }, [dispatch]);
 
   useEffect(() => {
@@ -283,6 +286,7 @@ function App() {
                     description: editingRawMaterial.description,
                     cost: editingRawMaterial.cost,
                     currentStock: editingRawMaterial.currentStock,
+                    reorderThreshold: editingRawMaterial.reorderThreshold,
                   }
                 : undefined
             }
@@ -1,6 +1,12 @@
 import React, { useEffect, useState } from 'react';
-import { Product } from '../types/Product';
 import { productService } from '../services/productService';
+import { useAppDispatch, useAppSelector } from '../hooks/useRedux';
+import {
+  producibleSnapshotReceived,
+  productBecameProducible,
+  productNoLongerProducible,
+  producibleStreamClosed,
+} from '../store/slices/productSlice';
 import './ProductList.css';
 
 interface ProducibleProductsProps {
@@ -8,25 +14,33 @@ interface ProducibleProductsProps {
 }
 
 const ProducibleProducts: React.FC<ProducibleProductsProps> = ({ onClose }) => {
-  const [producibleProducts, setProducibleProducts] = useState<Product[]>([]);
-  const [loading, setLoading] = useState(true);
+  const dispatch = useAppDispatch();
+  const { producible: producibleProducts, producibleLoaded } = useAppSelector((state) => state.products);
   const [error, setError] = useState<string | null>(null);
 
   useEffect(() => {
-    const fetchProducibleProducts = async () => {
-      try {
-        setLoading(true);
-        const products = await productService.getProducible();
-        setProducibleProducts(products);
-      } catch (err: any) {
-        setError('Erro ao carregar produtos que podem ser produzidos');
-      } finally {
-        setLoading(false);
-      }
+    const source = productService.streamProducible({
+      onSnapshot: (products) => {
+        setError(null);
+        dispatch(producibleSnapshotReceived(products));
+      },
+      onProducible: (product) => dispatch(productBecameProducible(product)),
+      onNotProducible: (productId) => dispatch(productNoLongerProducible(productId)),
+      onError: () => {
+        if (source.readyState === EventSource.CLOSED) {
+          dispatch(producibleStreamClosed());
+          setError('Erro ao carregar produtos que podem ser produzidos');
+        }
+      },
+    });
+
+    return () => {
+      source.close();
+      dispatch(producibleStreamClosed());
     };
+  }, [dispatch]);
 
-    fetchProducibleProducts();
-  }, []);
+  const loading = !producibleLoaded && !error;
 
   const formatCurrency = (value: number) => {
     return new Intl.NumberFormat('pt-BR', {
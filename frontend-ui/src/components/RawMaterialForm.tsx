@@ -20,6 +20,7 @@ const RawMaterialForm: React.FC<RawMaterialFormProps> = ({
     description: '',
     cost: 0,
     currentStock: 0,
+    reorderThreshold: null,
   });
 
   useEffect(() => {
@@ -30,6 +31,10 @@ const RawMaterialForm: React.FC<RawMaterialFormProps> = ({
 
   const handleInputChange = (e: React.ChangeEvent<HTMLInputElement>) => {
     const { name, value, type } = e.target;
+    if (name === 'reorderThreshold') {
+      setFormData(prev => ({ ...prev, reorderThreshold: value === '' ? null : parseFloat(value) }));
+      return;
+    }
     setFormData(prev => ({
       ...prev,
       [name]: type === 'number' ? parseFloat(value) || 0 : value,
@@ -38,7 +43,7 @@ const RawMaterialForm: React.FC<RawMaterialFormProps> = ({
 
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
-    if (!formData.name || formData.cost < 0 || formData.currentStock < 0) {
+    if (!formData.name || formData.cost < 0 || formData.currentStock < 0 || (formData.reorderThreshold ?? 0) < 0) {
       alert('Por favor, preencha todos os campos obrigatórios com valores válidos.');
       return;
     }
@@ -111,6 +116,21 @@ const RawMaterialForm: React.FC<RawMaterialFormProps> = ({
         />
       </div>
 
+      <div className="form-group">
+        <label htmlFor="reorderThreshold">Estoque mínimo</label>
+        <input
+          type="number"
+          id="reorderThreshold"
+          name="reorderThreshold"
+          value={formData.reorderThreshold ?? ''}
+          onChange={handleInputChange}
+          min="0"
+          step="0.01"
+          disabled={isLoading}
+          placeholder="Sem alerta"
+        />
+      </div>
+
       <div className="form-actions">
         <button type="button" className="btn btn-secondary" onClick={onCancel} disabled={isLoading}>
           Cancelar
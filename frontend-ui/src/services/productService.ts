@@ -14,6 +14,13 @@ const api = axios.create({
   },
 });
 
+export interface ProducibleStreamHandlers {
+  onSnapshot: (products: Product[]) => void;
+  onProducible: (product: Product) => void;
+  onNotProducible: (productId: number) => void;
+  onError: () => void;
+}
+
 export const productService = {
   getAll: async (): Promise<Product[]> => {
     const response = await api.get<Product[]>('/products');
@@ -44,6 +51,16 @@ export const productService = {
     return response.data;
   },
 
+  // EventSource reconnects on its own; every (re)connection starts with a fresh snapshot
+  streamProducible: (handlers: ProducibleStreamHandlers): EventSource => {
+    const source = new EventSource(`${API_BASE_URL}/products/producible/stream`);
+    source.addEventListener('snapshot', (event) => handlers.onSnapshot(JSON.parse((event as MessageEvent).data)));
+    source.addEventListener('producible', (event) => handlers.onProducible(JSON.parse((event as MessageEvent).data)));
+    source.addEventListener('not-producible', (event) => handlers.onNotProducible(JSON.parse((event as MessageEvent).data)));
+    source.onerror = handlers.onError;
+    return source;
+  },
+
   addRawMaterial: async (productId: number, rawMaterial: ProductRawMaterial): Promise<void> => {
     await api.post(`/products/${productId}/raw-materials`, rawMaterial);
   },
@@ -0,0 +1,19 @@
+import axios from 'axios';
+import { SyncResponse } from '../types/Sync';
+
+const API_BASE_URL = process.env.REACT_APP_API_URL ||
+  (process.env.NODE_ENV === 'production' ? '' : 'http://localhost:8080');
+
+const api = axios.create({
+  baseURL: API_BASE_URL,
+  headers: {
+    'Content-Type': 'application/json',
+  },
+});
+
+export const syncService = {
+  changesSince: async (since: number): Promise<SyncResponse> => {
+    const response = await api.get<SyncResponse>('/sync', { params: { since } });
+    return response.data;
+  },
+};
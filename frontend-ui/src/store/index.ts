@@ -1,11 +1,13 @@
 import { configureStore } from '@reduxjs/toolkit';
 import productReducer from './slices/productSlice';
 import rawMaterialReducer from './slices/rawMaterialSlice';
+import syncReducer from './slices/syncSlice';
 
 export const store = configureStore({
   reducer: {
     products: productReducer,
     rawMaterials: rawMaterialReducer,
+    sync: syncReducer,
   },
 });
 
@@ -1,9 +1,13 @@
 import { createSlice, createAsyncThunk, PayloadAction } from '@reduxjs/toolkit';
 import { Product, ProductRequest } from '../../types/Product';
 import { productService } from '../../services/productService';
+import { syncCatalog } from './syncSlice';
+import { SyncResponse } from '../../types/Sync';
 
 interface ProductState {
   products: Product[];
+  producible: Product[];
+  producibleLoaded: boolean;
   selectedProduct: Product | null;
   loading: boolean;
   error: string | null;
@@ -11,6 +15,8 @@ interface ProductState {
 
 const initialState: ProductState = {
   products: [],
+  producible: [],
+  producibleLoaded: false,
   selectedProduct: null,
   loading: false,
   error: null,
@@ -83,6 +89,27 @@ const productSlice = createSlice({
     clearError: (state) => {
       state.error = null;
     },
+    // Producibility stream: a snapshot replaces the list, then deltas are applied on top of it
+    producibleSnapshotReceived: (state, action: PayloadAction<Product[]>) => {
+      state.producible = action.payload;
+      state.producibleLoaded = true;
+    },
+    productBecameProducible: (state, action: PayloadAction<Product>) => {
+      const index = state.producible.findIndex((p) => p.id === action.payload.id);
+      if (index !== -1) {
+        state.producible[index] = action.payload;
+      } else {
+        state.producible.push(action.payload);
+      }
+    },
+    productNoLongerProducible: (state, action: PayloadAction<number>) => {
+      state.producible = state.producible.filter((p) => p.id !== action.payload);
+    },
+    // Once the stream is gone the list is no longer kept current; the next one starts from a snapshot
+    producibleStreamClosed: (state) => {
+      state.producible = [];
+      state.producibleLoaded = false;
+    },
   },
   extraReducers: (builder) => {
     builder
@@ -153,10 +180,32 @@ const productSlice = createSlice({
       .addCase(deleteProduct.rejected, (state, action) => {
         state.loading = false;
         state.error = action.payload as string;
+      })
+      // Sync: apply only the rows that changed since the previous version
+      .addCase(syncCatalog.fulfilled, (state, action: PayloadAction<SyncResponse>) => {
+        const deleted = new Set(
+          action.payload.deleted.filter((entity) => entity.type === 'PRODUCT').map((entity) => entity.id)
+        );
+        const changed = new Map(action.payload.products.map((p) => [p.id, p]));
+        state.products = state.products
+          .filter((p) => !deleted.has(p.id))
+          .map((p) => {
+            const update = changed.get(p.id);
+            changed.delete(p.id);
+            return update ?? p;
+          })
+          .concat(Array.from(changed.values()));
       });
   },
 });
 
-export const { clearSelectedProduct, clearError } = productSlice.actions;
+export const {
+  clearSelectedProduct,
+  clearError,
+  producibleSnapshotReceived,
+  productBecameProducible,
+  productNoLongerProducible,
+  producibleStreamClosed,
+} = productSlice.actions;
 export default productSlice.reducer;
 
@@ -1,6 +1,8 @@
 import { createSlice, createAsyncThunk, PayloadAction } from '@reduxjs/toolkit';
 import { RawMaterial, RawMaterialRequest } from '../../types/RawMaterial';
 import { rawMaterialService } from '../../services/rawMaterialService';
+import { syncCatalog } from './syncSlice';
+import { SyncResponse } from '../../types/Sync';
 
 interface RawMaterialState {
   rawMaterials: RawMaterial[];
@@ -153,6 +155,21 @@ const rawMaterialSlice = createSlice({
       .addCase(deleteRawMaterial.rejected, (state, action) => {
         state.loading = false;
         state.error = action.payload as string;
+      })
+      // Sync: apply only the rows that changed since the previous version
+      .addCase(syncCatalog.fulfilled, (state, action: PayloadAction<SyncResponse>) => {
+        const deleted = new Set(
+          action.payload.deleted.filter((entity) => entity.type === 'RAW_MATERIAL').map((entity) => entity.id)
+        );
+        const changed = new Map(action.payload.rawMaterials.map((rm) => [rm.id, rm]));
+        state.rawMaterials = state.rawMaterials
+          .filter((rm) => !deleted.has(rm.id))
+          .map((rm) => {
+            const update = changed.get(rm.id);
+            changed.delete(rm.id);
+            return update ?? rm;
+          })
+          .concat(Array.from(changed.values()));
       });
   },
 });
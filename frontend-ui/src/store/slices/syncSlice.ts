@@ -0,0 +1,53 @@
+import { createSlice, createAsyncThunk, PayloadAction } from '@reduxjs/toolkit';
+import { SyncResponse } from '../../types/Sync';
+import { syncService } from '../../services/syncService';
+
+interface SyncState {
+  version: number;
+  syncing: boolean;
+  error: string | null;
+}
+
+const initialState: SyncState = {
+  version: 0,
+  syncing: false,
+  error: null,
+};
+
+// Fetches only what changed since the last sync; the first call (version 0) loads the whole catalog
+export const syncCatalog = createAsyncThunk<SyncResponse, void, { state: { sync: SyncState } }>(
+  'sync/changes',
+  async (_, { getState, rejectWithValue }) => {
+    try {
+      return await syncService.changesSince(getState().sync.version);
+    } catch (error: any) {
+      return rejectWithValue(error.response?.data?.detail || 'Failed to sync catalog');
+    }
+  },
+  {
+    condition: (_, { getState }) => !getState().sync.syncing,
+  }
+);
+
+const syncSlice = createSlice({
+  name: 'sync',
+  initialState,
+  reducers: {},
+  extraReducers: (builder) => {
+    builder
+      .addCase(syncCatalog.pending, (state) => {
+        state.syncing = true;
+        state.error = null;
+      })
+      .addCase(syncCatalog.fulfilled, (state, action: PayloadAction<SyncResponse>) => {
+        state.syncing = false;
+        state.version = action.payload.version;
+      })
+      .addCase(syncCatalog.rejected, (state, action) => {
+        state.syncing = false;
+        state.error = action.payload as string;
+      });
+  },
+});
+
+export default syncSlice.reducer;
@@ -4,6 +4,7 @@ export interface RawMaterial {
   description: string;
   cost: number;
   currentStock: number;
+  reorderThreshold?: number | null;
 }
 
 export interface RawMaterialRequest {
@@ -11,6 +12,15 @@ export interface RawMaterialRequest {
   description: string;
   cost: number;
   currentStock: number;
+  reorderThreshold?: number | null;
+}
+
+export interface LowStockRawMaterial {
+  rawMaterialId: number;
+  name: string;
+  currentStock: number;
+  reorderThreshold: number;
+  ratio: number;
 }
 
 export interface ProductRawMaterial {
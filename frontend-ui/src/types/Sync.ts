@@ -0,0 +1,24 @@
+import { Product } from './Product';
+import { RawMaterial } from './RawMaterial';
+
+export type SyncEntityType = 'PRODUCT' | 'RAW_MATERIAL' | 'PRODUCT_RAW_MATERIAL';
+
+export interface ProductRawMaterialRow {
+  id: number;
+  productId: number;
+  rawMaterialId: number;
+  quantity: number;
+}
+
+export interface DeletedEntity {
+  type: SyncEntityType;
+  id: number;
+}
+
+export interface SyncResponse {
+  version: number;
+  products: Product[];
+  rawMaterials: RawMaterial[];
+  productRawMaterials: ProductRawMaterialRow[];
+  deleted: DeletedEntity[];
+}
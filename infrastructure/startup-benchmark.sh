@@ -0,0 +1,120 @@
+#!/usr/bin/env bash
+#
+# Compares cold-start behaviour of the three build modes:
+#   jvm    - plain executable jar            (./mvnw package)
+#   cds    - AOT-processed jar + CDS archive (./mvnw -Pfast-startup package)
+#   native - GraalVM native image            (./mvnw -Pnative native:compile)
+#
+# For every run it records the time from process launch until /actuator/health answers 200,
+# the startup time Spring reports in its log, and the latency of the first GET /products.
+# Modes whose artifacts are missing are skipped. The database from infrastructure/compose.yaml
+# must be running:  docker compose -f infrastructure/compose.yaml up -d postgres
+#
+# Usage: infrastructure/startup-benchmark.sh [runs] [modes...]
+#   e.g. infrastructure/startup-benchmark.sh 5 jvm cds
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+shift || true
+if [[ $# -gt 0 ]]; then
+  MODES=("$@")
+else
+  MODES=(jvm cds native)
+fi
+
+PORT="${PORT:-8080}"
+BASE_URL="http://localhost:${PORT}"
+LOG_DIR="target/startup-benchmark"
+mkdir -p "$LOG_DIR"
+
+export PORT
+export SPRING_PROFILES_ACTIVE="${SPRING_PROFILES_ACTIVE:-dev}"
+export DATABASE_URL="${DATABASE_URL:-jdbc:postgresql://localhost:5432/autoflex}"
+export DATABASE_USER="${DATABASE_USER:-postgres}"
+export DATABASE_PASSWORD="${DATABASE_PASSWORD:-postgres}"
+export SHOW_SQL=false
+
+JAR="$(ls target/autoflex-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1 || true)"
+FAST_DIR="target/fast-startup"
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+launch() {
+  local mode="$1" log="$2"
+  case "$mode" in
+    jvm)
+      java -jar "$JAR" > "$log" 2>&1 &
+      ;;
+    cds)
+      (cd "$FAST_DIR" && exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+          -jar "$(basename "$JAR")") > "$log" 2>&1 &
+      ;;
+    native)
+      target/autoflex > "$log" 2>&1 &
+      ;;
+  esac
+  echo $!
+}
+
+available() {
+  case "$1" in
+    jvm) [[ -n "$JAR" ]] ;;
+    cds) [[ -f "$FAST_DIR/application.jsa" ]] ;;
+    native) [[ -x target/autoflex ]] ;;
+    *) return 1 ;;
+  esac
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "-"; else if (NR % 2) print v[(NR + 1) / 2]; else print (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+RESULTS="$LOG_DIR/results.tsv"
+printf "mode\trun\tready_ms\treported_s\tfirst_request_ms\n" > "$RESULTS"
+
+for mode in "${MODES[@]}"; do
+  if ! available "$mode"; then
+    echo "Skipping $mode: artifact not built" >&2
+    continue
+  fi
+
+  for run in $(seq 1 "$RUNS"); do
+    log="$LOG_DIR/$mode-$run.log"
+    start=$(now_ms)
+    pid=$(launch "$mode" "$log")
+
+    until [[ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/actuator/health" || true)" == "200" ]]; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$mode run $run exited before becoming healthy, see $log" >&2
+        exit 1
+      fi
+      sleep 0.02
+    done
+    ready=$(( $(now_ms) - start ))
+
+    first_request=$(curl -s -o /dev/null -w '%{time_total}' "$BASE_URL/products" | awk '{ printf "%.1f", $1 * 1000 }')
+    reported=$(grep -oE 'Started [A-Za-z]+ in [0-9.]+ seconds' "$log" | grep -oE '[0-9.]+ seconds' | cut -d' ' -f1 || true)
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    printf "%s\t%s\t%s\t%s\t%s\n" "$mode" "$run" "$ready" "${reported:--}" "$first_request" | tee -a "$RESULTS"
+  done
+done
+
+echo
+printf "%-8s %14s %14s %20s\n" "mode" "ready (ms)" "reported (s)" "first request (ms)"
+for mode in "${MODES[@]}"; do
+  rows=$(awk -F'\t' -v m="$mode" 'NR > 1 && $1 == m' "$RESULTS")
+  [[ -z "$rows" ]] && continue
+  printf "%-8s %14s %14s %20s\n" "$mode" \
+    "$(cut -f3 <<< "$rows" | median)" \
+    "$(cut -f4 <<< "$rows" | median)" \
+    "$(cut -f5 <<< "$rows" | median)"
+done
+echo "(medians over $RUNS runs; raw numbers in $RESULTS)"
@@ -0,0 +1,100 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.domain.repository.RawMaterialRepository;
+import br.com.autoflex.dto.planning.OrderLineRequest;
+import br.com.autoflex.dto.planning.RequirementsRequest;
+import br.com.autoflex.dto.planning.RequirementsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Material requirements planning against H2 for order books of several sizes, drawn at random
+ * from a catalog of 1000 products with 10 raw materials each, the size of the order book behind
+ * POST /planning/requirements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanningBenchmark {
+
+    private static final int RAW_MATERIALS = 200;
+    private static final int PRODUCTS = 1000;
+    private static final int BOM_SIZE = 10;
+
+    @Param({"100", "1000", "10000"})
+    public int orderLines;
+
+    private ConfigurableApplicationContext context;
+    private PlanningService planningService;
+    private RequirementsRequest orderBook;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = BenchmarkContexts.start("planning-" + orderLines);
+        planningService = context.getBean(PlanningService.class);
+
+        List<RawMaterial> rawMaterials = new ArrayList<>(RAW_MATERIALS);
+        for (int i = 0; i < RAW_MATERIALS; i++) {
+            rawMaterials.add(new RawMaterial(null, "Raw material " + i, "Benchmark raw material", 1.5, 500.0, null, null));
+        }
+        rawMaterials = context.getBean(RawMaterialRepository.class).saveAll(rawMaterials);
+
+        List<Product> catalog = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            catalog.add(new Product(null, "Product " + i, "Benchmark product", BigDecimal.TEN, null));
+        }
+        catalog = context.getBean(ProductRepository.class).saveAll(catalog);
+
+        List<ProductRawMaterial> billsOfMaterials = new ArrayList<>(PRODUCTS * BOM_SIZE);
+        for (int i = 0; i < PRODUCTS; i++) {
+            for (int k = 0; k < BOM_SIZE; k++) {
+                billsOfMaterials.add(new ProductRawMaterial(null, catalog.get(i),
+                        rawMaterials.get((i * 7 + k) % RAW_MATERIALS), 1.0 + k, null));
+            }
+        }
+        context.getBean(ProductRawMaterialRepository.class).saveAll(billsOfMaterials);
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<OrderLineRequest> lines = new ArrayList<>(orderLines);
+        for (int i = 0; i < orderLines; i++) {
+            lines.add(new OrderLineRequest(catalog.get(random.nextInt(PRODUCTS)).getId(), (double) (1 + random.nextInt(50))));
+        }
+        orderBook = new RequirementsRequest(lines, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    @Benchmark
+    public RequirementsResponse calculateRequirements() {
+        return planningService.calculateRequirements(orderBook);
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.domain.repository.RawMaterialRepository;
+import br.com.autoflex.dto.product.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producibility evaluation against H2 for several catalog and bill-of-materials sizes: the full
+ * listing behind GET /products/producible and the targeted re-evaluation the producibility feed
+ * runs for changed products. Half of the products are producible; the other half each miss one
+ * scarce raw material, so both outcomes of the stock check are exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProducibilityBenchmark {
+
+    private static final int RAW_MATERIALS = 200;
+    private static final int PLENTIFUL = RAW_MATERIALS / 2;
+
+    @Param({"100", "1000", "5000"})
+    public int products;
+
+    @Param({"1", "5", "20"})
+    public int bomSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = BenchmarkContexts.start("producibility-" + products + "-" + bomSize);
+        productService = context.getBean(ProductService.class);
+
+        List<RawMaterial> rawMaterials = new ArrayList<>(RAW_MATERIALS);
+        for (int i = 0; i < RAW_MATERIALS; i++) {
+            double stock = i < PLENTIFUL ? 1_000_000.0 : 0.5;
+            rawMaterials.add(new RawMaterial(null, "Raw material " + i, "Benchmark raw material", 1.0, stock, null, null));
+        }
+        rawMaterials = context.getBean(RawMaterialRepository.class).saveAll(rawMaterials);
+
+        List<Product> catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            catalog.add(new Product(null, "Product " + i, "Benchmark product", BigDecimal.TEN, null));
+        }
+        catalog = context.getBean(ProductRepository.class).saveAll(catalog);
+        productIds = catalog.stream().map(Product::getId).toList();
+
+        List<ProductRawMaterial> billsOfMaterials = new ArrayList<>(products * bomSize);
+        for (int i = 0; i < products; i++) {
+            for (int k = 0; k < bomSize; k++) {
+                // Odd products swap their first requirement for a scarce material
+                int rawMaterial = (k == 0 && i % 2 == 1) ? PLENTIFUL + i % PLENTIFUL : (i + k) % PLENTIFUL;
+                billsOfMaterials.add(new ProductRawMaterial(null, catalog.get(i), rawMaterials.get(rawMaterial), 1.0, null));
+            }
+        }
+        context.getBean(ProductRawMaterialRepository.class).saveAll(billsOfMaterials);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> findProductsProducibleWithInventory() {
+        return productService.findProductsProducibleWithInventory();
+    }
+
+    @Benchmark
+    public List<ProductResponse> findProducibleAmongAll() {
+        return productService.findProducibleAmong(productIds);
+    }
+}
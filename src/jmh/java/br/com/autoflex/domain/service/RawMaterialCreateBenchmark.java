@@ -0,0 +1,72 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.repository.RawMaterialRepository;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The merge path of {@link RawMaterialService#create}: posting a raw material whose name already
+ * exists adds to its stock instead of inserting a row. Each call is a full transaction against H2,
+ * including the name lookup, the change stamp and the after-commit listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RawMaterialCreateBenchmark {
+
+    @Param({"100", "10000"})
+    public int existing;
+
+    private ConfigurableApplicationContext context;
+    private RawMaterialService rawMaterialService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = BenchmarkContexts.start("raw-material-create-" + existing);
+        rawMaterialService = context.getBean(RawMaterialService.class);
+
+        List<RawMaterial> rawMaterials = new ArrayList<>(existing);
+        for (int i = 0; i < existing; i++) {
+            rawMaterials.add(new RawMaterial(null, name(i), "Benchmark raw material", 1.0, 100.0, 20.0, null));
+        }
+        context.getBean(RawMaterialRepository.class).saveAll(rawMaterials);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    @Benchmark
+    public RawMaterialResponse mergeIntoExisting() {
+        next = (next + 1) % existing;
+        return rawMaterialService.create(new RawMaterialRequest(name(next), "Benchmark raw material", 1.0, 1.0, null));
+    }
+
+    private static String name(int i) {
+        return "Raw material " + i;
+    }
+}
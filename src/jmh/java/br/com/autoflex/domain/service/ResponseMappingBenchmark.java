@@ -0,0 +1,120 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping followed by serialization of the resulting records, in each encoding the
+ * API negotiates, and the reverse: reading those encoded lists back into records, as a client of
+ * the API does. No Spring context or database is involved: the mappers only read the entity, and
+ * the object mappers are built the way Boot and {@code ContentNegotiationConfig} build them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private static final TypeReference<List<ProductResponse>> PRODUCT_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<List<RawMaterialResponse>> RAW_MATERIAL_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ProductService productService;
+    private RawMaterialService rawMaterialService;
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<RawMaterial> rawMaterials;
+    private byte[] encodedProducts;
+    private byte[] encodedRawMaterials;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductService(null, null, null, null, null, null, null, null);
+        rawMaterialService = new RawMaterialService(null, null, null, null, null);
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+
+        products = new ArrayList<>(size);
+        rawMaterials = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            products.add(new Product(i, "Product " + i, "Oak dining table with four chairs",
+                    new BigDecimal("1299.90"), i));
+            rawMaterials.add(new RawMaterial(i, "Raw material " + i, "Oak wood plank", 50.0, 100.0 + i, 20.0, i));
+        }
+        try {
+            encodedProducts = products();
+            encodedRawMaterials = rawMaterials();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] products() throws JsonProcessingException {
+        List<ProductResponse> responses = products.stream()
+                .map(productService::mapToResponse)
+                .toList();
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] rawMaterials() throws JsonProcessingException {
+        List<RawMaterialResponse> responses = rawMaterials.stream()
+                .map(rawMaterialService::mapToResponse)
+                .toList();
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public List<ProductResponse> readProducts() throws IOException {
+        return objectMapper.readValue(encodedProducts, PRODUCT_LIST);
+    }
+
+    @Benchmark
+    public List<RawMaterialResponse> readRawMaterials() throws IOException {
+        return objectMapper.readValue(encodedRawMaterials, RAW_MATERIAL_LIST);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+    }
+}
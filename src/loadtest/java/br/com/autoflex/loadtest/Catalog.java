@@ -0,0 +1,102 @@
+package br.com.autoflex.loadtest;
+
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.domain.service.RawMaterialService;
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * The seeded catalog the clients work against. Seeding goes through the services rather than the
+ * repositories, so the search index, low-stock index and producibility feed see every row just as
+ * they would in production.
+ */
+final class Catalog {
+
+    private final long[] productIds;
+    private final long[] rawMaterialIds;
+
+    private Catalog(long[] productIds, long[] rawMaterialIds) {
+        this.productIds = productIds;
+        this.rawMaterialIds = rawMaterialIds;
+    }
+
+    /**
+     * Stock levels are spread so that roughly half of the products are producible, and every
+     * tenth material carries a reorder threshold above its stock.
+     */
+    static Catalog seed(LoadTestSettings settings, ProductService productService,
+                        RawMaterialService rawMaterialService, RandomGenerator random) {
+        long[] rawMaterialIds = new long[settings.rawMaterials()];
+        for (int i = 0; i < rawMaterialIds.length; i++) {
+            double stock = random.nextBoolean() ? 10_000 : random.nextInt(5);
+            Double threshold = i % 10 == 0 ? stock + 1 : null;
+            rawMaterialIds[i] = rawMaterialService.create(new RawMaterialRequest(rawMaterialName(i),
+                    "Load test raw material", 1.0 + random.nextInt(100), stock, threshold)).id();
+        }
+
+        long[] productIds = new long[settings.products()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = productService.create(new ProductRequest(productName(i), "Load test product",
+                    BigDecimal.valueOf(10 + random.nextInt(990)))).id();
+
+            List<ProductRawMaterialRequest> billOfMaterials = new ArrayList<>(settings.bomSize());
+            int first = random.nextInt(rawMaterialIds.length);
+            for (int k = 0; k < settings.bomSize(); k++) {
+                billOfMaterials.add(new ProductRawMaterialRequest(rawMaterialIds[(first + k) % rawMaterialIds.length],
+                        1.0 + random.nextInt(3)));
+            }
+            productService.replaceRawMaterials(productIds[i], billOfMaterials);
+        }
+        return new Catalog(productIds, rawMaterialIds);
+    }
+
+    int productCount() {
+        return productIds.length;
+    }
+
+    int rawMaterialCount() {
+        return rawMaterialIds.length;
+    }
+
+    long productId(int index) {
+        return productIds[index];
+    }
+
+    long rawMaterialId(int index) {
+        return rawMaterialIds[index];
+    }
+
+    long randomProductId(RandomGenerator random) {
+        return productIds[random.nextInt(productIds.length)];
+    }
+
+    long randomRawMaterialId(RandomGenerator random) {
+        return rawMaterialIds[random.nextInt(rawMaterialIds.length)];
+    }
+
+    String productJson(int index, int price) {
+        return String.format(Locale.ROOT, "{\"name\":\"%s\",\"description\":\"Load test product\",\"price\":%d}",
+                productName(index), price);
+    }
+
+    String rawMaterialJson(int index, int stock) {
+        return String.format(Locale.ROOT,
+                "{\"name\":\"%s\",\"description\":\"Load test raw material\",\"cost\":10.0,\"currentStock\":%d}",
+                rawMaterialName(index), stock);
+    }
+
+    private static String productName(int index) {
+        return "Product " + index;
+    }
+
+    private static String rawMaterialName(int index) {
+        return "Raw material " + index;
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.autoflex.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures of one operation. Clients record into a wait-free {@link Recorder}, so
+ * measuring adds no contention between them; latencies are kept in microseconds with three
+ * significant digits, up to one minute.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean failed) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /** Discards everything recorded so far, e.g. at the end of the warmup. */
+    void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    Result result(double seconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new Result(histogram.getTotalCount(), errors.sum(), histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /** Throughput in requests per second, latencies in milliseconds. */
+    record Result(long requests, long errors, double throughput,
+                  double p50, double p90, double p99, double p999, double max) {
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.autoflex.loadtest;
+
+import br.com.autoflex.AutoflexApplication;
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.domain.service.RawMaterialService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test: boots the application on an embedded H2 database in PostgreSQL mode with
+ * the "test" profile, seeds a catalog, and has many concurrent clients drive a weighted mix of
+ * REST calls through a real HTTP connection. Per-operation latency percentiles and throughput are
+ * printed and written as JSON; see {@link LoadTestSettings} for the parameters.
+ * <p>
+ * With a fixed {@code rate}, each latency is measured from when the request was due rather than
+ * when it was sent, so a stalled server is charged for the requests it held back instead of
+ * looking fast because clients waited politely (coordinated omission).
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+
+        try (ConfigurableApplicationContext context = start(settings)) {
+            long seedingStarted = System.nanoTime();
+            Catalog catalog = Catalog.seed(settings, context.getBean(ProductService.class),
+                    context.getBean(RawMaterialService.class), new SplittableRandom(settings.seed()));
+            System.out.printf(Locale.ROOT, "Seeded %d products and %d raw materials in %d ms%n",
+                    settings.products(), settings.rawMaterials(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedingStarted));
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Map<Operation, EndpointStats.Result> results = run(settings, catalog, URI.create("http://localhost:" + port));
+            report(settings, results);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestSettings settings) {
+        return new SpringApplicationBuilder(AutoflexApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "autoflex.admission.enabled=" + settings.admission(),
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static Map<Operation, EndpointStats.Result> run(LoadTestSettings settings, Catalog catalog, URI base)
+            throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        settings.mix().keySet().forEach(operation -> stats.put(operation, new EndpointStats()));
+        Operation[] schedule = weightedSchedule(settings.mix());
+
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long warmupEnds = System.nanoTime() + settings.warmup().toNanos();
+        long measurementEnds = warmupEnds + settings.duration().toNanos();
+        long intervalNanos = settings.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate()) : 0;
+
+        ExecutorService clients = Executors.newFixedThreadPool(settings.clients());
+        SplittableRandom seeds = new SplittableRandom(settings.seed());
+        for (int i = 0; i < settings.clients(); i++) {
+            SplittableRandom random = seeds.split();
+            clients.execute(() -> drive(http, base, catalog, schedule, stats, random, intervalNanos, measurementEnds));
+        }
+
+        LockSupport.parkNanos(warmupEnds - System.nanoTime());
+        stats.values().forEach(EndpointStats::reset);
+        System.out.printf(Locale.ROOT, "Warmup done, measuring for %s with %d clients%n",
+                settings.duration(), settings.clients());
+
+        clients.shutdown();
+        clients.awaitTermination(settings.duration().toSeconds() + 60, TimeUnit.SECONDS);
+        double seconds = settings.duration().toNanos() / 1e9;
+
+        Map<Operation, EndpointStats.Result> results = new EnumMap<>(Operation.class);
+        stats.forEach((operation, endpoint) -> results.put(operation, endpoint.result(seconds)));
+        return results;
+    }
+
+    private static void drive(HttpClient http, URI base, Catalog catalog, Operation[] schedule,
+                              Map<Operation, EndpointStats> stats, SplittableRandom random,
+                              long intervalNanos, long endsAt) {
+        long due = System.nanoTime();
+        while (due < endsAt) {
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(due - System.nanoTime());
+            } else {
+                due = System.nanoTime();
+            }
+
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            HttpRequest request = operation.request(base, catalog, random);
+            boolean failed;
+            try {
+                failed = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            stats.get(operation).record(System.nanoTime() - due, failed);
+            due += intervalNanos;
+        }
+    }
+
+    /** Each operation repeated by its weight, so a uniform pick follows the requested mix. */
+    private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+        List<Operation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        return schedule.toArray(Operation[]::new);
+    }
+
+    private static void report(LoadTestSettings settings, Map<Operation, EndpointStats.Result> results)
+            throws IOException {
+        System.out.printf(Locale.ROOT, "%-20s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Map<String, EndpointStats.Result> byLabel = new LinkedHashMap<>();
+        results.forEach((operation, result) -> {
+            byLabel.put(operation.label(), result);
+            System.out.printf(Locale.ROOT, "%-20s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.label(), result.requests(), result.errors(), result.throughput(),
+                    result.p50(), result.p90(), result.p99(), result.p999(), result.max());
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", Map.of(
+                "products", settings.products(),
+                "rawMaterials", settings.rawMaterials(),
+                "bomSize", settings.bomSize(),
+                "clients", settings.clients(),
+                "warmup", settings.warmup().toString(),
+                "duration", settings.duration().toString(),
+                "rate", settings.rate(),
+                "admission", settings.admission(),
+                "seed", settings.seed()));
+        report.put("operations", byLabel);
+
+        if (settings.output().getParent() != null) {
+            Files.createDirectories(settings.output().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(settings.output().toFile(), report);
+        System.out.println("Results written to " + settings.output().toAbsolutePath());
+    }
+}
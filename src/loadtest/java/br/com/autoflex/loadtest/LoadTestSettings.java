@@ -0,0 +1,85 @@
+package br.com.autoflex.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load-test parameters, given as {@code key=value} arguments. Every key is optional:
+ * <ul>
+ *     <li>{@code products}, {@code rawMaterials}, {@code bomSize}: size of the seeded catalog</li>
+ *     <li>{@code clients}: concurrent clients, each on its own thread</li>
+ *     <li>{@code warmup}, {@code duration}: ISO-8601 durations; only the second is measured</li>
+ *     <li>{@code rate}: requests per second per client, or 0 for a closed loop that sends the next
+ *     request as soon as the previous one returns</li>
+ *     <li>{@code mix}: relative operation weights, e.g. {@code get-product:50,update-stock:10}</li>
+ *     <li>{@code admission}: whether admission control stays on, off by default so it does not
+ *     shed the load being measured</li>
+ *     <li>{@code seed}: random seed for the catalog and the request sequence</li>
+ *     <li>{@code output}: where the JSON report is written</li>
+ * </ul>
+ */
+record LoadTestSettings(int products,
+                        int rawMaterials,
+                        int bomSize,
+                        int clients,
+                        Duration warmup,
+                        Duration duration,
+                        double rate,
+                        Map<Operation, Integer> mix,
+                        boolean admission,
+                        long seed,
+                        Path output) {
+
+    static final String DEFAULT_MIX = "list-products:5,get-product:25,search-products:10,max-quantity:10,"
+            + "producible:5,list-raw-materials:5,get-raw-material:15,update-stock:10,merge-raw-material:10,"
+            + "update-product:5";
+
+    static LoadTestSettings parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestSettings settings = new LoadTestSettings(
+                Integer.parseInt(values.getOrDefault("products", "1000")),
+                Integer.parseInt(values.getOrDefault("rawMaterials", "200")),
+                Integer.parseInt(values.getOrDefault("bomSize", "5")),
+                Integer.parseInt(values.getOrDefault("clients", "32")),
+                Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                Duration.parse(values.getOrDefault("duration", "PT30S")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Boolean.parseBoolean(values.getOrDefault("admission", "false")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("output", "target/load-test-result.json")));
+        if (settings.bomSize() > settings.rawMaterials()) {
+            throw new IllegalArgumentException("bomSize must not exceed rawMaterials");
+        }
+        return settings;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                weights.put(Operation.named(parts[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix must give at least one operation a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.autoflex.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * The requests a simulated client can send. Reads and writes target random rows of the seeded
+ * catalog; writes keep names unchanged so the merge path of POST /raw-materials always finds its
+ * material and the catalog size stays constant during the run.
+ */
+enum Operation {
+
+    LIST_PRODUCTS {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            return get(base, "/products");
+        }
+    },
+    GET_PRODUCT {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            return get(base, "/products/" + catalog.randomProductId(random));
+        }
+    },
+    SEARCH_PRODUCTS {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            return get(base, "/products/search?q=product+" + random.nextInt(catalog.productCount()));
+        }
+    },
+    MAX_QUANTITY {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            return get(base, "/products/" + catalog.randomProductId(random) + "/max-quantity");
+        }
+    },
+    PRODUCIBLE {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            return get(base, "/products/producible");
+        }
+    },
+    LIST_RAW_MATERIALS {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            return get(base, "/raw-materials");
+        }
+    },
+    GET_RAW_MATERIAL {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            return get(base, "/raw-materials/" + catalog.randomRawMaterialId(random));
+        }
+    },
+    UPDATE_STOCK {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            int index = random.nextInt(catalog.rawMaterialCount());
+            return json(base, "PUT", "/raw-materials/" + catalog.rawMaterialId(index),
+                    catalog.rawMaterialJson(index, random.nextInt(1000)));
+        }
+    },
+    MERGE_RAW_MATERIAL {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            return json(base, "POST", "/raw-materials", catalog.rawMaterialJson(random.nextInt(catalog.rawMaterialCount()), 1));
+        }
+    },
+    UPDATE_PRODUCT {
+        @Override
+        HttpRequest request(URI base, Catalog catalog, RandomGenerator random) {
+            int index = random.nextInt(catalog.productCount());
+            return json(base, "PUT", "/products/" + catalog.productId(index),
+                    catalog.productJson(index, 10 + random.nextInt(990)));
+        }
+    };
+
+    abstract HttpRequest request(URI base, Catalog catalog, RandomGenerator random);
+
+    /** Name used in the mix setting and the report, e.g. {@code update-stock}. */
+    String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static Operation named(String label) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.label().equals(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + label + "'"));
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+
+    private static HttpRequest json(URI base, String method, String path, String body) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
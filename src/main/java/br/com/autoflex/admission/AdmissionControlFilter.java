@@ -0,0 +1,171 @@
+package br.com.autoflex.admission;
+
+import br.com.autoflex.admission.AdmissionProperties.EndpointClass;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control in front of the controllers. Every request is classified into an endpoint
+ * class, then has to pass the token bucket of its (client, class) pair and the adaptive
+ * concurrency limit of its class. Refusals are immediate: 429 when the client is over its rate,
+ * 503 when the class is saturated.
+ * <p>
+ * The bucket map is capped when inserting: a new client that arrives while {@code maxClients}
+ * buckets exist first triggers an eviction of idle buckets and, if none are idle, is admitted
+ * against the shared overflow bucket of its class.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final long INLINE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AdmissionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<EndpointClass> endpointClasses;
+    private final Map<String, AimdLimiter> limiters = new LinkedHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+    private long lastInlineSweep = Long.MIN_VALUE / 2;
+
+    public AdmissionControlFilter(AdmissionProperties properties, ObjectMapper objectMapper, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        this.endpointClasses = new ArrayList<>(properties.endpointClasses());
+        this.endpointClasses.add(properties.defaultClass());
+        for (EndpointClass endpointClass : endpointClasses) {
+            limiters.put(endpointClass.name(), new AimdLimiter(endpointClass.initialLimit(), endpointClass.minLimit(),
+                    endpointClass.maxLimit(), endpointClass.latencyTarget().toNanos(), endpointClass.backoffRatio()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        long now = nanoClock.getAsLong();
+
+        TokenBucket bucket = bucketFor(clientId(request), endpointClass, now);
+        if (!bucket.tryAcquire(now)) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilNextPermit(now) + 999_999_999));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                    "Rate limit exceeded for endpoint class '" + endpointClass.name() + "'.");
+            return;
+        }
+
+        AimdLimiter limiter = limiters.get(endpointClass.name());
+        if (!limiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "Server is at capacity for endpoint class '" + endpointClass.name() + "'.");
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                limiter.release();
+            } else {
+                limiter.release(nanoClock.getAsLong() - now);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${autoflex.admission.sweep-interval:PT1M}")
+    public void evictIdleBuckets() {
+        if (buckets.size() <= properties.maxClients()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * Inline eviction for the insert path, run at most once per second so that a stream of new
+     * client ids cannot turn every request into a scan of the whole map.
+     */
+    private synchronized void evictIdleBucketsIfDue(long now) {
+        if (buckets.size() < properties.maxClients() || now - lastInlineSweep < INLINE_SWEEP_INTERVAL_NANOS) {
+            return;
+        }
+        lastInlineSweep = now;
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    Map<String, AimdLimiter> getLimiters() {
+        return limiters;
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (EndpointClass endpointClass : properties.endpointClasses()) {
+            boolean methodMatches = endpointClass.methods().isEmpty()
+                    || endpointClass.methods().contains(request.getMethod());
+            if (methodMatches && endpointClass.patterns().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+                return endpointClass;
+            }
+        }
+        return properties.defaultClass();
+    }
+
+    private String clientId(HttpServletRequest request) {
+        if (properties.clientHeader().isBlank()) {
+            return request.getRemoteAddr();
+        }
+        String header = request.getHeader(properties.clientHeader());
+        return header != null && !header.isBlank() ? header : request.getRemoteAddr();
+    }
+
+    private TokenBucket bucketFor(String clientId, EndpointClass endpointClass, long now) {
+        String key = clientId + '|' + endpointClass.name();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.maxClients()) {
+            evictIdleBucketsIfDue(now);
+            if (buckets.size() >= properties.maxClients()) {
+                return overflowBuckets.computeIfAbsent(endpointClass.name(),
+                        name -> new TokenBucket(endpointClass.permitsPerSecond(), endpointClass.burst(), now));
+            }
+        }
+        return buckets.computeIfAbsent(key,
+                ignored -> new TokenBucket(endpointClass.permitsPerSecond(), endpointClass.burst(), now));
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String detail)
+            throws IOException {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle(status.getReasonPhrase());
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.autoflex.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Admission control settings. Clients are keyed by remote address, which is the forwarded client
+ * address when {@code server.forward-headers-strategy} is set. {@code clientHeader} is empty by
+ * default: any caller can send any value in a header, so it should only be set when a trusted
+ * gateway overwrites that header on every request. Once {@code maxClients} buckets exist, new
+ * clients share one overflow bucket per endpoint class until idle buckets are evicted.
+ */
+@ConfigurationProperties("autoflex.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("") String clientHeader,
+        @DefaultValue("10000") int maxClients,
+        @DefaultValue List<EndpointClass> endpointClasses,
+        @DefaultValue EndpointClass defaultClass
+) {
+
+    public record EndpointClass(
+            @DefaultValue("default") String name,
+            @DefaultValue List<String> patterns,
+            @DefaultValue List<String> methods,
+            @DefaultValue("50") double permitsPerSecond,
+            @DefaultValue("100") double burst,
+            @DefaultValue("64") int initialLimit,
+            @DefaultValue("4") int minLimit,
+            @DefaultValue("256") int maxLimit,
+            @DefaultValue("500ms") Duration latencyTarget,
+            @DefaultValue("0.9") double backoffRatio
+    ) {
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.autoflex.admission;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The state is an immutable snapshot swapped with compare-and-set, and
+ * tokens are refilled lazily from the elapsed time whenever the bucket is touched.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(double permitsPerSecond, double capacity, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double available = refill(current, nowNanos);
+            if (available < 1) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(available - 1, Math.max(nowNanos, current.updatedAt())))) {
+                return true;
+            }
+        }
+    }
+
+    public long nanosUntilNextPermit(long nowNanos) {
+        double missing = 1 - refill(state.get(), nowNanos);
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+    }
+
+    public boolean isFull(long nowNanos) {
+        return refill(state.get(), nowNanos) >= capacity;
+    }
+
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.updatedAt());
+        return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.autoflex.coherence;
+
+import java.util.Arrays;
+
+/**
+ * One committed change to the catalog, reduced to what a peer needs to refresh its own copy: what
+ * kind of entity changed, how, and its id. The state itself is reloaded by the receiving node.
+ */
+public record CatalogChange(Kind kind, long id) {
+
+    public enum Kind {
+        PRODUCT_SAVED('p'),
+        PRODUCT_DELETED('P'),
+        RAW_MATERIAL_SAVED('r'),
+        RAW_MATERIAL_DELETED('R'),
+        BILL_OF_MATERIALS_CHANGED('b');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        /** Saves and deletions of the same entity share a subject, so the later one replaces the earlier. */
+        char subject() {
+            return Character.toLowerCase(code);
+        }
+
+        static Kind ofCode(char code) {
+            return Arrays.stream(values())
+                    .filter(kind -> kind.code == code)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown change code: " + code));
+        }
+    }
+
+    String subject() {
+        return kind.subject() + Long.toString(id);
+    }
+
+    String encode() {
+        return kind.code + Long.toString(id);
+    }
+
+    static CatalogChange decode(String token) {
+        return new CatalogChange(Kind.ofCode(token.charAt(0)), Long.parseLong(token, 1, token.length(), 10));
+    }
+}
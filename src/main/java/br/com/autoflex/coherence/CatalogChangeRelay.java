@@ -0,0 +1,212 @@
+package br.com.autoflex.coherence;
+
+import br.com.autoflex.domain.event.BillOfMaterialsChangedEvent;
+import br.com.autoflex.domain.event.ProductChangedEvent;
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
+import br.com.autoflex.domain.service.CatalogSearchService;
+import br.com.autoflex.domain.service.LowStockService;
+import br.com.autoflex.domain.service.ProducibilityFeedService;
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.domain.service.RawMaterialService;
+import br.com.autoflex.domain.service.RequestCoalescer;
+import br.com.autoflex.domain.service.StockHistoryService;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the in-memory catalog state of every node coherent with the writes made on the others.
+ * Changes committed here are batched and published on the {@link CoherenceBus}; batches from peers
+ * are applied by reloading the changed entities and republishing the same domain events a local
+ * write would, so the search index, the low-stock index, the producibility feed and the request
+ * coalescer update exactly as they do for local writes.
+ * <p>
+ * A batch the bus fails to publish is put back in front of the changes recorded since and retried
+ * at a later flush, after a delay that doubles on each consecutive failure up to
+ * {@link #MAX_RETRY_DELAY}.
+ */
+public class CatalogChangeRelay implements CoherenceBus.Subscriber {
+
+    /** Set while a peer's batch is applied, so the events it republishes are not sent back out. */
+    private static final ThreadLocal<Boolean> applyingRemote = ThreadLocal.withInitial(() -> false);
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeRelay.class);
+    private static final Duration INITIAL_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CoherenceBus bus;
+    private final ChangeBatcher batcher;
+    private final ProductService productService;
+    private final RawMaterialService rawMaterialService;
+    private final CatalogSearchService catalogSearchService;
+    private final LowStockService lowStockService;
+    private final ProducibilityFeedService producibilityFeedService;
+    private final StockHistoryService stockHistoryService;
+    private final RequestCoalescer requestCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /** Guarded by {@code this}, like every publication. */
+    private Duration retryDelay = INITIAL_RETRY_DELAY;
+    private long retryAtNanos;
+    private boolean failing;
+
+    public CatalogChangeRelay(CoherenceBus bus,
+                              int maxBatchSize,
+                              ProductService productService,
+                              RawMaterialService rawMaterialService,
+                              CatalogSearchService catalogSearchService,
+                              LowStockService lowStockService,
+                              ProducibilityFeedService producibilityFeedService,
+                              StockHistoryService stockHistoryService,
+                              RequestCoalescer requestCoalescer,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry) {
+        this.bus = bus;
+        this.batcher = new ChangeBatcher(maxBatchSize);
+        this.productService = productService;
+        this.rawMaterialService = rawMaterialService;
+        this.catalogSearchService = catalogSearchService;
+        this.lowStockService = lowStockService;
+        this.producibilityFeedService = producibilityFeedService;
+        this.stockHistoryService = stockHistoryService;
+        this.requestCoalescer = requestCoalescer;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        bus.subscribe(this);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        record(event.isDeletion() ? CatalogChange.Kind.PRODUCT_DELETED : CatalogChange.Kind.PRODUCT_SAVED, event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        record(event.isDeletion() ? CatalogChange.Kind.RAW_MATERIAL_DELETED : CatalogChange.Kind.RAW_MATERIAL_SAVED,
+                event.rawMaterialId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillOfMaterialsChanged(BillOfMaterialsChangedEvent event) {
+        record(CatalogChange.Kind.BILL_OF_MATERIALS_CHANGED, event.productId());
+    }
+
+    @Scheduled(fixedDelayString = "${autoflex.coherence.flush-interval:PT0.1S}")
+    public synchronized void flush() {
+        if (failing && System.nanoTime() - retryAtNanos < 0) {
+            return;
+        }
+        List<CatalogChange> changes = batcher.drain();
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            bus.publish(new ChangeBatch(nodeId, changes));
+        } catch (RuntimeException ex) {
+            batcher.requeue(changes);
+            log.warn("Could not publish {} catalog changes; retrying in {}", changes.size(), retryDelay, ex);
+            meterRegistry.counter("autoflex.coherence.publish.failures").increment();
+            failing = true;
+            retryAtNanos = System.nanoTime() + retryDelay.toNanos();
+            Duration doubled = retryDelay.multipliedBy(2);
+            retryDelay = doubled.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : doubled;
+            return;
+        }
+        failing = false;
+        retryDelay = INITIAL_RETRY_DELAY;
+        meterRegistry.counter("autoflex.coherence.changes", "direction", "published").increment(changes.size());
+    }
+
+    @Override
+    public void onBatch(ChangeBatch batch) {
+        if (nodeId.equals(batch.origin())) {
+            return;
+        }
+        applyingRemote.set(true);
+        try {
+            apply(batch.changes());
+        } finally {
+            applyingRemote.remove();
+        }
+        meterRegistry.counter("autoflex.coherence.changes", "direction", "applied").increment(batch.changes().size());
+    }
+
+    @Override
+    public void onGap() {
+        meterRegistry.counter("autoflex.coherence.reloads").increment();
+        requestCoalescer.invalidate();
+        catalogSearchService.rebuild();
+        lowStockService.rebuild();
+        producibilityFeedService.rebuild();
+        stockHistoryService.rebuild();
+    }
+
+    private void record(CatalogChange.Kind kind, Long id) {
+        if (applyingRemote.get()) {
+            return;
+        }
+        if (batcher.add(new CatalogChange(kind, id))) {
+            flush();
+        }
+    }
+
+    /**
+     * Entities are reloaded in two queries whatever the batch size. A save whose entity is gone by
+     * now is applied as a deletion; its own deletion is on its way in a later batch anyway.
+     */
+    private void apply(List<CatalogChange> changes) {
+        Set<Long> savedProducts = new LinkedHashSet<>();
+        Set<Long> savedRawMaterials = new LinkedHashSet<>();
+        for (CatalogChange change : changes) {
+            switch (change.kind()) {
+                case PRODUCT_SAVED -> savedProducts.add(change.id());
+                case RAW_MATERIAL_SAVED -> savedRawMaterials.add(change.id());
+                default -> {
+                }
+            }
+        }
+        Map<Long, ProductResponse> products = savedProducts.isEmpty() ? Map.of()
+                : productService.findByIds(savedProducts).stream()
+                        .collect(Collectors.toMap(ProductResponse::id, Function.identity()));
+        Map<Long, RawMaterialResponse> rawMaterials = savedRawMaterials.isEmpty() ? Map.of()
+                : rawMaterialService.findByIds(savedRawMaterials).stream()
+                        .collect(Collectors.toMap(RawMaterialResponse::id, Function.identity()));
+
+        requestCoalescer.invalidate();
+        List<Object> events = new ArrayList<>(changes.size());
+        for (CatalogChange change : changes) {
+            long id = change.id();
+            events.add(switch (change.kind()) {
+                case PRODUCT_SAVED -> products.containsKey(id)
+                        ? ProductChangedEvent.saved(products.get(id)) : ProductChangedEvent.deleted(id);
+                case PRODUCT_DELETED -> ProductChangedEvent.deleted(id);
+                case RAW_MATERIAL_SAVED -> rawMaterials.containsKey(id)
+                        ? RawMaterialChangedEvent.saved(rawMaterials.get(id)) : RawMaterialChangedEvent.deleted(id);
+                case RAW_MATERIAL_DELETED -> RawMaterialChangedEvent.deleted(id);
+                case BILL_OF_MATERIALS_CHANGED -> new BillOfMaterialsChangedEvent(id);
+            });
+        }
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
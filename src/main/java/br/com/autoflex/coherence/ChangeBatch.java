@@ -0,0 +1,68 @@
+package br.com.autoflex.coherence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Catalog changes committed on one node, in commit order. On the wire a batch is the origin node
+ * followed by the encoded changes, e.g. {@code 3f2a…:p12,r7,P9}; {@link #encode(int)} splits it
+ * into as many payloads as needed to keep each under the transport's size limit.
+ */
+public record ChangeBatch(String origin, List<CatalogChange> changes) {
+
+    private static final char ORIGIN_SEPARATOR = ':';
+    private static final char CHANGE_SEPARATOR = ',';
+
+    public ChangeBatch {
+        if (origin.indexOf(ORIGIN_SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Origin must not contain '" + ORIGIN_SEPARATOR + "': " + origin);
+        }
+        changes = List.copyOf(changes);
+    }
+
+    public ChangeBatch withOrigin(String origin) {
+        return new ChangeBatch(origin, changes);
+    }
+
+    public List<String> encode(int maxPayloadBytes) {
+        String prefix = origin + ORIGIN_SEPARATOR;
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(prefix);
+        for (CatalogChange change : changes) {
+            String token = change.encode();
+            boolean first = payload.length() == prefix.length();
+            if (!first && utf8Length(payload) + 1 + token.length() > maxPayloadBytes) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+                payload.append(prefix);
+                first = true;
+            }
+            if (!first) {
+                payload.append(CHANGE_SEPARATOR);
+            }
+            payload.append(token);
+        }
+        if (payload.length() > prefix.length()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    public static ChangeBatch decode(String payload) {
+        int separator = payload.indexOf(ORIGIN_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed change batch: " + payload);
+        }
+        String body = payload.substring(separator + 1);
+        List<CatalogChange> changes = body.isEmpty() ? List.of() : Arrays.stream(body.split(String.valueOf(CHANGE_SEPARATOR)))
+                .map(CatalogChange::decode)
+                .toList();
+        return new ChangeBatch(payload.substring(0, separator), changes);
+    }
+
+    private static int utf8Length(CharSequence text) {
+        return text.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+}
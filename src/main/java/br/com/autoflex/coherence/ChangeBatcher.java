@@ -0,0 +1,53 @@
+package br.com.autoflex.coherence;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects committed changes between flushes. A change replaces any pending change to the same
+ * entity and moves to the end, so a product saved three times and then deleted is sent once, as a
+ * deletion, after everything that committed before it.
+ */
+final class ChangeBatcher {
+
+    private final int maxBatchSize;
+    private Map<String, CatalogChange> pending = new LinkedHashMap<>();
+
+    ChangeBatcher(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /** Returns whether the batch is now full and should be flushed without waiting. */
+    synchronized boolean add(CatalogChange change) {
+        String subject = change.subject();
+        pending.remove(subject);
+        pending.put(subject, change);
+        return pending.size() >= maxBatchSize;
+    }
+
+    /**
+     * Puts back changes that were drained but could not be published, ahead of those recorded
+     * since. A change recorded since to the same entity supersedes the one put back.
+     */
+    synchronized void requeue(List<CatalogChange> changes) {
+        Map<String, CatalogChange> requeued = new LinkedHashMap<>();
+        for (CatalogChange change : changes) {
+            if (!pending.containsKey(change.subject())) {
+                requeued.put(change.subject(), change);
+            }
+        }
+        requeued.putAll(pending);
+        pending = requeued;
+    }
+
+    synchronized List<CatalogChange> drain() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<CatalogChange> changes = new ArrayList<>(pending.values());
+        pending = new LinkedHashMap<>();
+        return changes;
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.autoflex.coherence;
+
+/**
+ * Carries catalog change batches between the nodes serving the API. Delivery is at most once and
+ * in publication order per publisher; a transport that may have lost batches, for instance across
+ * a reconnect, tells its subscribers through {@link Subscriber#onGap()} so they can reload instead.
+ */
+public interface CoherenceBus extends AutoCloseable {
+
+    /**
+     * Sends the batch to every peer. Throws when it may not have been sent, in which case the
+     * caller keeps its changes and publishes them again; peers reload what they receive, so a batch
+     * delivered twice is harmless.
+     */
+    void publish(ChangeBatch batch);
+
+    void subscribe(Subscriber subscriber);
+
+    @Override
+    default void close() {
+    }
+
+    interface Subscriber {
+
+        void onBatch(ChangeBatch batch);
+
+        default void onGap() {
+        }
+    }
+}
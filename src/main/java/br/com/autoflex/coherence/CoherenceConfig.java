@@ -0,0 +1,59 @@
+package br.com.autoflex.coherence;
+
+import br.com.autoflex.domain.service.CatalogSearchService;
+import br.com.autoflex.domain.service.LowStockService;
+import br.com.autoflex.domain.service.ProducibilityFeedService;
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.domain.service.RawMaterialService;
+import br.com.autoflex.domain.service.RequestCoalescer;
+import br.com.autoflex.domain.service.StockHistoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class CoherenceConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "autoflex.coherence.transport", havingValue = "in-process", matchIfMissing = true)
+    public CoherenceBus inProcessCoherenceBus() {
+        return new InProcessCoherenceBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "autoflex.coherence.transport", havingValue = "loopback")
+    public CoherenceBus loopbackCoherenceBus() {
+        return new LoopbackCoherenceBus(PostgresCoherenceBus.MAX_PAYLOAD_BYTES);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "autoflex.coherence.transport", havingValue = "postgres")
+    public CoherenceBus postgresCoherenceBus(DataSource dataSource,
+                                             @Value("${autoflex.coherence.channel:autoflex_catalog}") String channel,
+                                             @Value("${autoflex.coherence.poll-interval:PT0.5S}") Duration pollInterval,
+                                             @Value("${autoflex.coherence.reconnect-delay:PT1S}") Duration reconnectDelay) {
+        return new PostgresCoherenceBus(dataSource, channel, pollInterval, reconnectDelay);
+    }
+
+    @Bean
+    public CatalogChangeRelay catalogChangeRelay(CoherenceBus bus,
+                                                 @Value("${autoflex.coherence.max-batch-size:500}") int maxBatchSize,
+                                                 ProductService productService,
+                                                 RawMaterialService rawMaterialService,
+                                                 CatalogSearchService catalogSearchService,
+                                                 LowStockService lowStockService,
+                                                 ProducibilityFeedService producibilityFeedService,
+                                                 StockHistoryService stockHistoryService,
+                                                 RequestCoalescer requestCoalescer,
+                                                 ApplicationEventPublisher eventPublisher,
+                                                 MeterRegistry meterRegistry) {
+        return new CatalogChangeRelay(bus, maxBatchSize, productService, rawMaterialService, catalogSearchService,
+                lowStockService, producibilityFeedService, stockHistoryService, requestCoalescer, eventPublisher, meterRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.autoflex.coherence;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers batches synchronously to the subscribers registered on the same instance. With a single
+ * node this only reaches the node itself, which ignores its own batches; several application
+ * contexts sharing one instance behave like nodes on a real transport.
+ */
+public class InProcessCoherenceBus implements CoherenceBus {
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ChangeBatch batch) {
+        subscribers.forEach(subscriber -> subscriber.onBatch(batch));
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.autoflex.coherence;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sends every batch through the wire encoding and back to the publishing node as if it came from a
+ * peer, so one node exercises the whole path a remote change takes. Meant for tests; the payloads
+ * sent are kept for inspection.
+ */
+public class LoopbackCoherenceBus implements CoherenceBus {
+
+    public static final String ORIGIN = "loopback";
+
+    private final int maxPayloadBytes;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final List<String> payloads = new CopyOnWriteArrayList<>();
+
+    public LoopbackCoherenceBus(int maxPayloadBytes) {
+        this.maxPayloadBytes = maxPayloadBytes;
+    }
+
+    @Override
+    public void publish(ChangeBatch batch) {
+        for (String payload : batch.encode(maxPayloadBytes)) {
+            payloads.add(payload);
+            ChangeBatch received = ChangeBatch.decode(payload).withOrigin(ORIGIN);
+            subscribers.forEach(subscriber -> subscriber.onBatch(received));
+        }
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public List<String> payloads() {
+        return List.copyOf(payloads);
+    }
+
+    public void clear() {
+        payloads.clear();
+    }
+}
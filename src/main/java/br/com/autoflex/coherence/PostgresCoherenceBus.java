@@ -0,0 +1,143 @@
+package br.com.autoflex.coherence;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Carries batches over PostgreSQL {@code LISTEN}/{@code NOTIFY} on the database every node already
+ * shares. Publishing is a {@code pg_notify} per payload on an auto-commit connection; a daemon
+ * thread keeps one connection listening on the channel and polls it for notifications. PostgreSQL
+ * does not queue notifications for a session that is gone, so after a reconnect subscribers are told
+ * that batches may have been missed.
+ */
+public class PostgresCoherenceBus implements CoherenceBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresCoherenceBus.class);
+
+    /** PostgreSQL rejects notification payloads of 8000 bytes or more. */
+    public static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final DataSource dataSource;
+    private final String channel;
+    private final int pollMillis;
+    private final Duration reconnectDelay;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Thread listener;
+    private volatile boolean running = true;
+
+    public PostgresCoherenceBus(DataSource dataSource, String channel, Duration pollInterval, Duration reconnectDelay) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.pollMillis = Math.toIntExact(Math.max(1, pollInterval.toMillis()));
+        this.reconnectDelay = reconnectDelay;
+        this.listener = new Thread(this::listen, "coherence-listener");
+        this.listener.setDaemon(true);
+        this.listener.start();
+    }
+
+    @Override
+    public void publish(ChangeBatch batch) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+            connection.setAutoCommit(true);
+            for (String payload : batch.encode(MAX_PAYLOAD_BYTES)) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        } catch (SQLException ex) {
+            throw new DataAccessResourceFailureException("Could not publish catalog changes on channel " + channel, ex);
+        }
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        listener.interrupt();
+        try {
+            listener.join(pollMillis * 2L);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listen() {
+        Duration backoff = reconnectDelay;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                connection.setAutoCommit(true);
+                statement.execute("LISTEN " + channel);
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                if (connectedBefore) {
+                    log.info("Listening on channel {} again; reloading catalog caches", channel);
+                    subscribers.forEach(Subscriber::onGap);
+                }
+                connectedBefore = true;
+                backoff = reconnectDelay;
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications(pollMillis);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            deliver(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the listening connection on channel {}; retrying in {}", channel, backoff, ex);
+                if (!sleep(backoff)) {
+                    return;
+                }
+                Duration doubled = backoff.multipliedBy(2);
+                backoff = doubled.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : doubled;
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        try {
+            ChangeBatch batch = ChangeBatch.decode(payload);
+            subscribers.forEach(subscriber -> subscriber.onBatch(batch));
+        } catch (RuntimeException ex) {
+            log.warn("Could not apply catalog changes {} received on channel {}", payload, channel, ex);
+        }
+    }
+
+    private boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return running;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
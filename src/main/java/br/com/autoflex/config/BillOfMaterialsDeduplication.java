@@ -0,0 +1,101 @@
+package br.com.autoflex.config;
+
+import br.com.autoflex.domain.event.BillOfMaterialsChangedEvent;
+import br.com.autoflex.sync.ChangeTracker;
+import br.com.autoflex.sync.SyncEntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Removes duplicate (product, raw material) rows from {@value #TABLE} and adds the
+ * {@value #CONSTRAINT} constraint that Hibernate's schema update could not add while they existed.
+ * Older versions appended a row on every add instead of updating the quantity; the latest row of
+ * each pair, the one with the highest ID, is the one kept. Removed rows get tombstones and their
+ * products a {@link BillOfMaterialsChangedEvent}, like any other removal, so synced clients and
+ * other instances drop them too. Runs after {@link ChangeTracker} has initialised the clock, and
+ * does nothing once no duplicates are left.
+ */
+@Component
+@Order(1)
+public class BillOfMaterialsDeduplication implements ApplicationRunner {
+
+    static final String TABLE = "product_raw_materials";
+    static final String CONSTRAINT = "uk_product_raw_material";
+
+    private static final Logger log = LoggerFactory.getLogger(BillOfMaterialsDeduplication.class);
+
+    private static final String FIND_DUPLICATES = "select id, product_id from ("
+            + "select id, product_id, row_number() over (partition by product_id, raw_material_id order by id desc) as duplicate_rank"
+            + " from " + TABLE + ") ranked where duplicate_rank > 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+
+    public BillOfMaterialsDeduplication(JdbcTemplate jdbcTemplate,
+                                        ChangeTracker changeTracker,
+                                        ApplicationEventPublisher eventPublisher,
+                                        PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeTracker = changeTracker;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!tableExists()) {
+            return;
+        }
+        Integer removed = transaction.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            Set<Long> productIds = new TreeSet<>();
+            jdbcTemplate.query(FIND_DUPLICATES, row -> {
+                ids.add(row.getLong("id"));
+                productIds.add(row.getLong("product_id"));
+            });
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            new NamedParameterJdbcTemplate(jdbcTemplate).update("delete from " + TABLE + " where id in (:ids)",
+                    new MapSqlParameterSource("ids", ids));
+            changeTracker.recordDeletions(SyncEntityType.PRODUCT_RAW_MATERIAL, ids);
+            productIds.forEach(productId -> eventPublisher.publishEvent(new BillOfMaterialsChangedEvent(productId)));
+            jdbcTemplate.execute("alter table " + TABLE + " add constraint " + CONSTRAINT
+                    + " unique (product_id, raw_material_id)");
+            return ids.size();
+        });
+        if (removed > 0) {
+            log.warn("Removed {} duplicate rows from {} and added its unique constraint", removed, TABLE);
+        }
+    }
+
+    private boolean tableExists() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String name = metaData.storesUpperCaseIdentifiers() ? TABLE.toUpperCase() : TABLE;
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), name, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        });
+    }
+}
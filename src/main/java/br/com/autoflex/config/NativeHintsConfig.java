@@ -0,0 +1,111 @@
+package br.com.autoflex.config;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.ProductionAllocation;
+import br.com.autoflex.domain.entity.ProductionOrder;
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.entity.StockDailyRollup;
+import br.com.autoflex.domain.entity.StockHistorySegment;
+import br.com.autoflex.domain.entity.ValuationDailyRollup;
+import br.com.autoflex.domain.entity.Warehouse;
+import br.com.autoflex.domain.entity.WarehouseStock;
+import br.com.autoflex.domain.entity.WarehouseStockId;
+import br.com.autoflex.dto.batch.BatchOperation;
+import br.com.autoflex.dto.batch.BatchOperationResult;
+import br.com.autoflex.dto.batch.BatchRequest;
+import br.com.autoflex.dto.batch.BatchResponse;
+import br.com.autoflex.dto.history.InventoryValuationResponse;
+import br.com.autoflex.dto.history.RollupResponse;
+import br.com.autoflex.dto.history.StockSampleResponse;
+import br.com.autoflex.dto.planning.MaterialRequirementResponse;
+import br.com.autoflex.dto.planning.OrderLineRequest;
+import br.com.autoflex.dto.planning.RequirementsRequest;
+import br.com.autoflex.dto.planning.RequirementsResponse;
+import br.com.autoflex.dto.product.ProductCapacityResponse;
+import br.com.autoflex.dto.product.ProductCostResponse;
+import br.com.autoflex.dto.product.ProductFilter;
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRawMaterialResponse;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.production.AllocationRunResponse;
+import br.com.autoflex.dto.production.MaterialAllocationResponse;
+import br.com.autoflex.dto.production.ProductionOrderRequest;
+import br.com.autoflex.dto.production.ProductionOrderResponse;
+import br.com.autoflex.dto.rawmaterial.LowStockResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialFilter;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.dto.sync.DeletedEntityResponse;
+import br.com.autoflex.dto.sync.ProductRawMaterialSyncResponse;
+import br.com.autoflex.dto.sync.SyncResponse;
+import br.com.autoflex.dto.validation.ValidationError;
+import br.com.autoflex.dto.warehouse.StockAdjustmentRequest;
+import br.com.autoflex.dto.warehouse.StockTransferRequest;
+import br.com.autoflex.dto.warehouse.WarehouseRequest;
+import br.com.autoflex.dto.warehouse.WarehouseResponse;
+import br.com.autoflex.dto.warehouse.WarehouseStockResponse;
+import br.com.autoflex.idempotency.IdempotencyRecord;
+import br.com.autoflex.outbox.OutboxEvent;
+import br.com.autoflex.outbox.OutboxMessage;
+import br.com.autoflex.sync.SyncTombstone;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the AOT and native-image builds. Controller signatures are
+ * covered by Spring itself; this registers what it cannot see: DTOs nested in untyped batch
+ * results, the Lombok-generated accessors Hibernate calls on entities, and the swagger-ui assets
+ * springdoc serves from the classpath.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.AutoflexRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class AutoflexRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] ENTITIES = {
+                Product.class, RawMaterial.class, ProductRawMaterial.class, IdempotencyRecord.class, SyncTombstone.class,
+                Warehouse.class, WarehouseStock.class, WarehouseStockId.class, OutboxEvent.class,
+                ProductionOrder.class, ProductionAllocation.class,
+                StockHistorySegment.class, StockDailyRollup.class, ValuationDailyRollup.class
+        };
+
+        private static final Class<?>[] DTOS = {
+                ProductRequest.class, ProductResponse.class,
+                ProductRawMaterialRequest.class, ProductRawMaterialResponse.class,
+                ProductCapacityResponse.class, ProductCostResponse.class, ProductFilter.class,
+                RawMaterialRequest.class, RawMaterialResponse.class, RawMaterialFilter.class, LowStockResponse.class,
+                BatchRequest.class, BatchOperation.class, BatchOperationResult.class, BatchResponse.class,
+                SyncResponse.class, ProductRawMaterialSyncResponse.class, DeletedEntityResponse.class,
+                WarehouseRequest.class, WarehouseResponse.class, WarehouseStockResponse.class,
+                StockAdjustmentRequest.class, StockTransferRequest.class, OutboxMessage.class,
+                OrderLineRequest.class, RequirementsRequest.class, MaterialRequirementResponse.class, RequirementsResponse.class,
+                ProductionOrderRequest.class, ProductionOrderResponse.class, MaterialAllocationResponse.class,
+                AllocationRunResponse.class,
+                InventoryValuationResponse.class, StockSampleResponse.class, RollupResponse.class,
+                ValidationError.class
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> entity : ENTITIES) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTOS);
+
+            hints.resources()
+                    .registerPattern("META-INF/resources/webjars/swagger-ui/*/*")
+                    .registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+        }
+    }
+}
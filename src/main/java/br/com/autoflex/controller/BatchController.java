@@ -0,0 +1,33 @@
+package br.com.autoflex.controller;
+
+import br.com.autoflex.domain.service.BatchService;
+import br.com.autoflex.dto.batch.BatchRequest;
+import br.com.autoflex.dto.batch.BatchResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/batch")
+@Validated
+@Tag(name = "Batch", description = "Composite operations across products and raw materials")
+public class BatchController {
+
+    private final BatchService batchService;
+
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Execute a batch of operations", description = "Runs an ordered list of create, update and association operations in a single transaction.")
+    @ApiResponse(responseCode = "200", description = "All operations executed successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid operation; nothing was applied")
+    @ApiResponse(responseCode = "404", description = "Referenced product or raw material not found; nothing was applied")
+    public ResponseEntity<BatchResponse> executeBatch(@RequestBody BatchRequest request) {
+        return ResponseEntity.ok(batchService.execute(request));
+    }
+}
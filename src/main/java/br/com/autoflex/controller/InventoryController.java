@@ -0,0 +1,73 @@
+package br.com.autoflex.controller;
+
+import br.com.autoflex.domain.service.StockHistoryService;
+import br.com.autoflex.dto.history.InventoryValuationResponse;
+import br.com.autoflex.dto.history.RollupResponse;
+import br.com.autoflex.dto.history.StockSampleResponse;
+import br.com.autoflex.history.RollupGranularity;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/inventory")
+@Validated
+@Tag(name = "Inventory", description = "Inventory valuation and stock history")
+public class InventoryController {
+
+    private final StockHistoryService stockHistoryService;
+
+    public InventoryController(StockHistoryService stockHistoryService) {
+        this.stockHistoryService = stockHistoryService;
+    }
+
+    @GetMapping("/valuation")
+    @Operation(summary = "Get the current inventory value", description = "Sum of cost times current stock over all raw materials, kept up to date as changes commit.")
+    @ApiResponse(responseCode = "200", description = "Inventory value retrieved successfully")
+    public ResponseEntity<InventoryValuationResponse> getValuation() {
+        return ResponseEntity.ok(stockHistoryService.currentValuation());
+    }
+
+    @GetMapping("/valuation/history")
+    @Operation(summary = "Get the inventory value over time", description = "Opening, closing, lowest and highest inventory value per day or week (UTC), from daily rollups. Defaults to the last 30 days.")
+    @ApiResponse(responseCode = "200", description = "Valuation history retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid or too long range")
+    public ResponseEntity<List<RollupResponse>> getValuationHistory(
+            @Parameter(description = "First day, inclusive", example = "2026-09-20") @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive (default today)", example = "2026-10-19") @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+            @Parameter(description = "DAILY or WEEKLY") @RequestParam(defaultValue = "DAILY") RollupGranularity granularity) {
+        return ResponseEntity.ok(stockHistoryService.findValuationRollups(from, to, granularity));
+    }
+
+    @GetMapping("/raw-materials/{id}/stock-history")
+    @Operation(summary = "Get the stock history of a raw material", description = "Every recorded stock level between two days (UTC). Defaults to the last 30 days.")
+    @ApiResponse(responseCode = "200", description = "Stock history retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid or too long range")
+    public ResponseEntity<List<StockSampleResponse>> getStockHistory(
+            @PathVariable Long id,
+            @Parameter(description = "First day, inclusive", example = "2026-09-20") @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive (default today)", example = "2026-10-19") @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(stockHistoryService.findStockHistory(id, from, to));
+    }
+
+    @GetMapping("/raw-materials/{id}/stock-history/rollups")
+    @Operation(summary = "Get daily or weekly stock levels of a raw material", description = "Opening, closing, lowest and highest stock per day or week (UTC), from daily rollups. Defaults to the last 30 days.")
+    @ApiResponse(responseCode = "200", description = "Stock rollups retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid or too long range")
+    public ResponseEntity<List<RollupResponse>> getStockRollups(
+            @PathVariable Long id,
+            @Parameter(description = "First day, inclusive", example = "2026-09-20") @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive (default today)", example = "2026-10-19") @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+            @Parameter(description = "DAILY or WEEKLY") @RequestParam(defaultValue = "DAILY") RollupGranularity granularity) {
+        return ResponseEntity.ok(stockHistoryService.findStockRollups(id, from, to, granularity));
+    }
+}
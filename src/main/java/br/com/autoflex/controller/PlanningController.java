@@ -0,0 +1,33 @@
+package br.com.autoflex.controller;
+
+import br.com.autoflex.domain.service.PlanningService;
+import br.com.autoflex.dto.planning.RequirementsRequest;
+import br.com.autoflex.dto.planning.RequirementsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/planning")
+@Validated
+@Tag(name = "Planning", description = "Material requirements planning")
+public class PlanningController {
+
+    private final PlanningService planningService;
+
+    public PlanningController(PlanningService planningService) {
+        this.planningService = planningService;
+    }
+
+    @PostMapping("/requirements")
+    @Operation(summary = "Plan the materials for an order book", description = "Explodes the bills of materials of every order line and returns, per raw material, the total requirement, the shortfall against stock and the cost of covering it.")
+    @ApiResponse(responseCode = "200", description = "Requirements calculated successfully")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized order book, or an invalid order line")
+    @ApiResponse(responseCode = "404", description = "Product or warehouse not found")
+    public ResponseEntity<RequirementsResponse> planRequirements(@RequestBody RequirementsRequest request) {
+        return ResponseEntity.ok(planningService.calculateRequirements(request));
+    }
+}
@@ -1,18 +1,34 @@
 package br.com.autoflex.controller;
 
+import br.com.autoflex.domain.service.CatalogSearchService;
+import br.com.autoflex.domain.service.ProducibilityFeedService;
 import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.dto.product.ProductCapacityResponse;
+import br.com.autoflex.dto.product.ProductCostResponse;
+import br.com.autoflex.dto.product.ProductFilter;
 import br.com.autoflex.dto.product.ProductRequest;
 import br.com.autoflex.dto.product.ProductResponse;
 import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRawMaterialResponse;
+import br.com.autoflex.dto.search.SearchResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/products")
@@ -21,9 +37,15 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogSearchService catalogSearchService;
+    private final ProducibilityFeedService producibilityFeedService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             CatalogSearchService catalogSearchService,
+                             ProducibilityFeedService producibilityFeedService) {
         this.productService = productService;
+        this.catalogSearchService = catalogSearchService;
+        this.producibilityFeedService = producibilityFeedService;
     }
 
     @PostMapping
@@ -35,11 +57,28 @@ public class ProductController {
     }
 
     @GetMapping
-    @Operation(summary = "List all products", description = "Retrieves a list of all registered products.")
-    @ApiResponse(responseCode = "200", description = "List of products retrieved successfully")
-    public ResponseEntity<List<ProductResponse>> listProducts() {
-        List<ProductResponse> products = productService.findAll();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "List all products", description = "Retrieves a list of all registered products, optionally filtered and sorted.")
+    @ApiResponse(responseCode = "200", description = "List of products retrieved successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductResponse.class))))
+    @ApiResponse(responseCode = "400", description = "Unknown field or sort property, or an empty price range")
+    public ResponseEntity<List<?>> listProducts(
+            @Parameter(description = "Comma-separated list of fields to return", example = "id,name")
+            @RequestParam(required = false) Set<String> fields,
+            @ParameterObject ProductFilter filter,
+            @ParameterObject Sort sort) {
+        List<ProductResponse> products = productService.findAll(fields, filter, sort);
+        return ResponseEntity.ok(SparseFields.select(products, fields));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Ranked search over name and description, matching prefixes, substrings and near misses.")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Blank query or invalid page parameters")
+    public ResponseEntity<SearchResponse<ProductResponse>> searchProducts(
+            @Parameter(description = "Search terms", example = "chair") @RequestParam String q,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(catalogSearchService.searchProducts(q, page, size));
     }
 
     @GetMapping("/{id}")
@@ -82,6 +121,7 @@ public class ProductController {
     @PostMapping("/{id}/raw-materials")
     @Operation(summary = "Add raw material to product", description = "Associates a raw material with a product specifying the quantity.")
     @ApiResponse(responseCode = "200", description = "Raw material added to product successfully")
+    @ApiResponse(responseCode = "400", description = "Missing or non-positive quantity")
     @ApiResponse(responseCode = "404", description = "Product or Raw Material not found")
     public ResponseEntity<Void> addRawMaterial(@PathVariable Long id,
                                                @RequestBody ProductRawMaterialRequest request) {
@@ -89,11 +129,61 @@ public class ProductController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/{id}/raw-materials")
+    @Operation(summary = "List raw materials of a product", description = "Retrieves the bill of materials of a product.")
+    @ApiResponse(responseCode = "200", description = "Bill of materials retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    public ResponseEntity<List<ProductRawMaterialResponse>> listRawMaterials(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.findRawMaterials(id));
+    }
+
+    @PutMapping("/{id}/raw-materials")
+    @Operation(summary = "Replace raw materials of a product", description = "Replaces the whole bill of materials of a product, adding, updating and removing associations as needed.")
+    @ApiResponse(responseCode = "200", description = "Bill of materials replaced successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid or duplicated raw material entries")
+    @ApiResponse(responseCode = "404", description = "Product or Raw Material not found")
+    public ResponseEntity<List<ProductRawMaterialResponse>> replaceRawMaterials(@PathVariable Long id,
+                                                                                @RequestBody List<ProductRawMaterialRequest> request) {
+        return ResponseEntity.ok(productService.replaceRawMaterials(id, request));
+    }
+
     @GetMapping("/producible")
     @Operation(summary = "List products that can be produced", description = "Retrieves a list of products that can be produced with current inventory.")
     @ApiResponse(responseCode = "200", description = "List of producible products retrieved successfully")
-    public ResponseEntity<List<ProductResponse>> getProducibleProducts() {
-        List<ProductResponse> producibleProducts = productService.findProductsProducibleWithInventory();
+    @ApiResponse(responseCode = "404", description = "Warehouse not found")
+    public ResponseEntity<List<ProductResponse>> getProducibleProducts(
+            @Parameter(description = "IDs of the warehouses whose combined stock is used; stock of all warehouses when omitted", example = "1,2")
+            @RequestParam(name = "warehouse", required = false) List<Long> warehouseIds) {
+        List<ProductResponse> producibleProducts = warehouseIds == null || warehouseIds.isEmpty()
+                ? productService.findProductsProducibleWithInventory()
+                : productService.findProducibleInWarehouses(warehouseIds);
         return ResponseEntity.ok(producibleProducts);
     }
+
+    @GetMapping(value = "/producible/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes to the producible products", description = "Server-Sent Events: a 'snapshot' of the producible products, then 'producible' and 'not-producible' events as stock, product and bill-of-materials changes commit.")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamProducibleProducts() {
+        return producibilityFeedService.subscribe();
+    }
+
+    @GetMapping("/{id}/max-quantity")
+    @Operation(summary = "Get production capacity of a product", description = "Calculates how many units of a product can be produced with current inventory.")
+    @ApiResponse(responseCode = "200", description = "Production capacity calculated successfully")
+    @ApiResponse(responseCode = "404", description = "Product or warehouse not found")
+    public ResponseEntity<ProductCapacityResponse> getMaxQuantity(@PathVariable Long id,
+            @Parameter(description = "IDs of the warehouses whose combined stock is used; stock of all warehouses when omitted", example = "1,2")
+            @RequestParam(name = "warehouse", required = false) List<Long> warehouseIds) {
+        return ResponseEntity.ok(warehouseIds == null || warehouseIds.isEmpty()
+                ? productService.calculateMaxQuantity(id)
+                : productService.calculateMaxQuantity(id, warehouseIds));
+    }
+
+    @GetMapping("/{id}/cost")
+    @Operation(summary = "Get cost rollup of a product", description = "Sums the cost of the raw materials needed for one unit of a product.")
+    @ApiResponse(responseCode = "200", description = "Cost rollup calculated successfully")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    public ResponseEntity<ProductCostResponse> getCost(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.calculateCost(id));
+    }
 }
@@ -0,0 +1,75 @@
+package br.com.autoflex.controller;
+
+import br.com.autoflex.domain.service.ProductionOrderService;
+import br.com.autoflex.dto.production.AllocationRunResponse;
+import br.com.autoflex.dto.production.ProductionOrderRequest;
+import br.com.autoflex.dto.production.ProductionOrderResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/production-orders")
+@Validated
+@Tag(name = "Production Order", description = "Production queue and raw material allocation")
+public class ProductionOrderController {
+
+    private final ProductionOrderService productionOrderService;
+
+    public ProductionOrderController(ProductionOrderService productionOrderService) {
+        this.productionOrderService = productionOrderService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Queue a production order", description = "Adds an order to the production queue; raw materials are reserved for it by the next allocation run.")
+    @ApiResponse(responseCode = "201", description = "Production order queued successfully")
+    @ApiResponse(responseCode = "400", description = "Missing product, due date or positive quantity")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    public ResponseEntity<ProductionOrderResponse> createProductionOrder(@RequestBody ProductionOrderRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(productionOrderService.create(request));
+    }
+
+    @GetMapping
+    @Operation(summary = "List the production queue", description = "Retrieves every production order in allocation order (priority, then due date), with its status and reservations.")
+    @ApiResponse(responseCode = "200", description = "Production queue retrieved successfully")
+    public ResponseEntity<List<ProductionOrderResponse>> listProductionOrders() {
+        return ResponseEntity.ok(productionOrderService.findQueue());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a production order by ID", description = "Retrieves a production order with its status and reservations.")
+    @ApiResponse(responseCode = "200", description = "Production order found")
+    @ApiResponse(responseCode = "404", description = "Production order not found")
+    public ResponseEntity<ProductionOrderResponse> getProductionOrder(@PathVariable Long id) {
+        ProductionOrderResponse order = productionOrderService.findById(id);
+        if (order == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(order);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel a production order", description = "Removes a production order and releases its reservations at the next allocation run.")
+    @ApiResponse(responseCode = "204", description = "Production order cancelled successfully")
+    @ApiResponse(responseCode = "404", description = "Production order not found")
+    public ResponseEntity<Void> deleteProductionOrder(@PathVariable Long id) {
+        boolean deleted = productionOrderService.delete(id);
+        if (!deleted) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/allocation-runs")
+    @Operation(summary = "Run an allocation now", description = "Re-plans the whole queue against current stock without waiting for the scheduler, and reports the orders and raw materials left short.")
+    @ApiResponse(responseCode = "200", description = "Allocation run committed")
+    public ResponseEntity<AllocationRunResponse> allocate() {
+        return ResponseEntity.ok(productionOrderService.allocate());
+    }
+}
@@ -1,17 +1,31 @@
 package br.com.autoflex.controller;
 
+import br.com.autoflex.domain.service.CatalogSearchService;
+import br.com.autoflex.domain.service.LowStockService;
 import br.com.autoflex.domain.service.RawMaterialService;
+import br.com.autoflex.dto.rawmaterial.LowStockResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialFilter;
 import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
 import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.dto.search.SearchResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/raw-materials")
@@ -20,9 +34,15 @@ import java.util.List;
 public class RawMaterialController {
 
     private final RawMaterialService rawMaterialService;
+    private final CatalogSearchService catalogSearchService;
+    private final LowStockService lowStockService;
 
-    public RawMaterialController(RawMaterialService rawMaterialService) {
+    public RawMaterialController(RawMaterialService rawMaterialService,
+                                 CatalogSearchService catalogSearchService,
+                                 LowStockService lowStockService) {
         this.rawMaterialService = rawMaterialService;
+        this.catalogSearchService = catalogSearchService;
+        this.lowStockService = lowStockService;
     }
 
     @PostMapping
@@ -34,11 +54,42 @@ public class RawMaterialController {
     }
 
     @GetMapping
-    @Operation(summary = "List all raw materials", description = "Retrieves a list of all registered raw materials.")
-    @ApiResponse(responseCode = "200", description = "List of raw materials retrieved successfully")
-    public ResponseEntity<List<RawMaterialResponse>> listRawMaterials() {
-        List<RawMaterialResponse> rawMaterials = rawMaterialService.findAll();
-        return ResponseEntity.ok(rawMaterials);
+    @Operation(summary = "List all raw materials", description = "Retrieves a list of all registered raw materials, optionally filtered and sorted.")
+    @ApiResponse(responseCode = "200", description = "List of raw materials retrieved successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = RawMaterialResponse.class))))
+    @ApiResponse(responseCode = "400", description = "Unknown field or sort property, or an empty cost range")
+    public ResponseEntity<List<?>> listRawMaterials(
+            @Parameter(description = "Comma-separated list of fields to return", example = "id,name")
+            @RequestParam(required = false) Set<String> fields,
+            @ParameterObject RawMaterialFilter filter,
+            @ParameterObject Sort sort) {
+        List<RawMaterialResponse> rawMaterials = rawMaterialService.findAll(fields, filter, sort);
+        return ResponseEntity.ok(SparseFields.select(rawMaterials, fields));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search raw materials", description = "Ranked search over name and description, matching prefixes, substrings and near misses.")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Blank query or invalid page parameters")
+    public ResponseEntity<SearchResponse<RawMaterialResponse>> searchRawMaterials(
+            @Parameter(description = "Search terms", example = "wood") @RequestParam String q,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(catalogSearchService.searchRawMaterials(q, page, size));
+    }
+
+    @GetMapping("/low-stock")
+    @Operation(summary = "List raw materials below their reorder threshold", description = "Lowest stock-to-threshold ratio first. Materials without a threshold are never listed.")
+    @ApiResponse(responseCode = "200", description = "Low-stock raw materials retrieved successfully")
+    public ResponseEntity<List<LowStockResponse>> listLowStock() {
+        return ResponseEntity.ok(lowStockService.findBelowThreshold());
+    }
+
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream low-stock alerts", description = "Server-Sent Events: a 'snapshot' of the current list, then 'low-stock' and 'cleared' events as stock changes commit.")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamLowStock() {
+        return lowStockService.subscribe();
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,40 @@
+package br.com.autoflex.controller;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shapes a {@code fields=} response. The response records always serialize every property, nulls
+ * included; with a selection each row is written as an object holding exactly the selected
+ * properties in declaration order, so a selected property that is null still appears as null.
+ */
+final class SparseFields {
+
+    private SparseFields() {
+    }
+
+    static List<?> select(List<? extends Record> rows, Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return rows;
+        }
+        return rows.stream().map(row -> select(row, fields)).toList();
+    }
+
+    private static Map<String, Object> select(Record row, Set<String> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (RecordComponent component : row.getClass().getRecordComponents()) {
+            if (fields.contains(component.getName())) {
+                try {
+                    selected.put(component.getName(), component.getAccessor().invoke(row));
+                } catch (IllegalAccessException | InvocationTargetException ex) {
+                    throw new IllegalStateException("Cannot read " + component.getName(), ex);
+                }
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.autoflex.controller;
+
+import br.com.autoflex.domain.service.SyncService;
+import br.com.autoflex.dto.sync.SyncResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/sync")
+@Validated
+@Tag(name = "Sync", description = "Incremental synchronization of the catalog")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get catalog changes", description = "Returns the products, raw materials and associations written, and the rows deleted, after the given version.")
+    @ApiResponse(responseCode = "200", description = "Changes retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Negative version")
+    public ResponseEntity<SyncResponse> sync(
+            @Parameter(description = "Version returned by the previous sync; 0 for a full sync", example = "42")
+            @RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(syncService.changesSince(since));
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.autoflex.controller;
+
+import br.com.autoflex.domain.service.WarehouseService;
+import br.com.autoflex.dto.warehouse.StockAdjustmentRequest;
+import br.com.autoflex.dto.warehouse.StockTransferRequest;
+import br.com.autoflex.dto.warehouse.WarehouseRequest;
+import br.com.autoflex.dto.warehouse.WarehouseResponse;
+import br.com.autoflex.dto.warehouse.WarehouseStockResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/warehouses")
+@Validated
+@Tag(name = "Warehouse", description = "Stock held in each warehouse")
+public class WarehouseController {
+
+    private final WarehouseService warehouseService;
+
+    public WarehouseController(WarehouseService warehouseService) {
+        this.warehouseService = warehouseService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a warehouse", description = "Creates a warehouse with no stock of any raw material.")
+    @ApiResponse(responseCode = "201", description = "Warehouse created successfully")
+    @ApiResponse(responseCode = "400", description = "Missing code or name, or code already in use")
+    public ResponseEntity<WarehouseResponse> createWarehouse(@RequestBody WarehouseRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(warehouseService.create(request));
+    }
+
+    @GetMapping
+    @Operation(summary = "List warehouses", description = "Retrieves every warehouse, the default one included.")
+    @ApiResponse(responseCode = "200", description = "List of warehouses retrieved successfully")
+    public ResponseEntity<List<WarehouseResponse>> listWarehouses() {
+        return ResponseEntity.ok(warehouseService.findAll());
+    }
+
+    @GetMapping("/{id}/stock")
+    @Operation(summary = "List the stock of a warehouse", description = "Retrieves the quantity of every raw material held in a warehouse.")
+    @ApiResponse(responseCode = "200", description = "Stock retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Warehouse not found")
+    public ResponseEntity<List<WarehouseStockResponse>> listStock(@PathVariable Long id) {
+        return ResponseEntity.ok(warehouseService.findStock(id));
+    }
+
+    @PostMapping("/{id}/stock/adjustments")
+    @Operation(summary = "Adjust the stock of a warehouse", description = "Receives (positive delta) or consumes (negative delta) a raw material in one warehouse.")
+    @ApiResponse(responseCode = "200", description = "Stock adjusted successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid adjustment, or not enough stock to consume")
+    @ApiResponse(responseCode = "404", description = "Warehouse or Raw Material not found")
+    public ResponseEntity<WarehouseStockResponse> adjustStock(@PathVariable Long id,
+                                                              @RequestBody StockAdjustmentRequest request) {
+        return ResponseEntity.ok(warehouseService.adjust(id, request));
+    }
+
+    @PostMapping("/transfers")
+    @Operation(summary = "Transfer stock between warehouses", description = "Atomically moves a quantity of a raw material from one warehouse to another and returns both resulting levels.")
+    @ApiResponse(responseCode = "200", description = "Stock transferred successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid transfer, or not enough stock in the source warehouse")
+    @ApiResponse(responseCode = "404", description = "Warehouse or Raw Material not found")
+    public ResponseEntity<List<WarehouseStockResponse>> transferStock(@RequestBody StockTransferRequest request) {
+        return ResponseEntity.ok(warehouseService.transfer(request));
+    }
+}
@@ -6,7 +6,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "product_raw_materials")
+@Table(name = "product_raw_materials",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_raw_material", columnNames = {"product_id", "raw_material_id"}),
+        indexes = {
+                @Index(name = "idx_product_raw_materials_raw_material", columnList = "raw_material_id"),
+                @Index(name = "idx_product_raw_materials_change_seq", columnList = "changeSeq")
+        })
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -25,4 +30,6 @@ public class ProductRawMaterial {
 
     @Column(nullable = false)
     private Double quantity;
+
+    private Long changeSeq;
 }
@@ -0,0 +1,31 @@
+package br.com.autoflex.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** What the latest allocation run reserved of one raw material for one production order. */
+@Entity
+@Table(name = "production_allocations",
+        indexes = @Index(name = "idx_production_allocations_order", columnList = "orderId"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ProductionAllocation {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long rawMaterialId;
+
+    @Column(nullable = false)
+    private Double required;
+
+    @Column(nullable = false)
+    private Double allocated;
+}
@@ -0,0 +1,54 @@
+package br.com.autoflex.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "production_orders",
+        indexes = @Index(name = "idx_production_orders_queue", columnList = "priority, dueDate, id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ProductionOrder {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Double quantity;
+
+    /** Higher values are allocated first. */
+    @Column(nullable = false)
+    private Integer priority;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductionOrderStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /** When the latest allocation run that considered this order committed. */
+    private Instant allocatedAt;
+
+    /** Only mapped for the foreign key, so that a product cannot be deleted while orders reference it. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "productId", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_production_orders_product"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Product product;
+}
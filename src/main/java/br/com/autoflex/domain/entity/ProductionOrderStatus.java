@@ -0,0 +1,10 @@
+package br.com.autoflex.domain.entity;
+
+public enum ProductionOrderStatus {
+    /** Not yet considered by an allocation run. */
+    QUEUED,
+    /** Every raw material the order needs is reserved for it. */
+    ALLOCATED,
+    /** Some raw material could not be reserved; the allocations report how much is missing. */
+    SHORT
+}
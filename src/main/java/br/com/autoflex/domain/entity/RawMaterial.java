@@ -6,7 +6,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "raw_materials")
+@Table(name = "raw_materials", indexes = {
+        @Index(name = "idx_raw_materials_name", columnList = "name"),
+        @Index(name = "idx_raw_materials_cost", columnList = "cost"),
+        @Index(name = "idx_raw_materials_current_stock", columnList = "currentStock"),
+        @Index(name = "idx_raw_materials_change_seq", columnList = "changeSeq")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -27,4 +32,8 @@ public class RawMaterial {
     @Column(nullable = false)
     private Double currentStock;
 
+    private Double reorderThreshold;
+
+    private Long changeSeq;
+
 }
@@ -0,0 +1,49 @@
+package br.com.autoflex.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/** The stock levels of one raw material recorded on a day (UTC), updated as samples are written. */
+@Entity
+@Table(name = "stock_daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_daily_rollups_material_recorded_on", columnNames = {"rawMaterialId", "recordedOn"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class StockDailyRollup {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long rawMaterialId;
+
+    @Column(nullable = false)
+    private LocalDate recordedOn;
+
+    /** When the sample that set {@code openStock} was taken; null on rows written before this was kept. */
+    private Instant firstAt;
+
+    /** When the sample that set {@code closeStock} was taken; null on rows written before this was kept. */
+    private Instant lastAt;
+
+    @Column(nullable = false)
+    private Double openStock;
+
+    @Column(nullable = false)
+    private Double closeStock;
+
+    @Column(nullable = false)
+    private Double minStock;
+
+    @Column(nullable = false)
+    private Double maxStock;
+
+    @Column(nullable = false)
+    private Long samples;
+}
@@ -0,0 +1,46 @@
+package br.com.autoflex.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * An immutable run of stock samples of one raw material, all recorded on the same day (UTC),
+ * encoded by {@code StockSeriesCodec}. Segments are only ever inserted, and whole days are deleted
+ * once they fall out of the retention window.
+ */
+@Entity
+@Table(name = "stock_history_segments", indexes = {
+        @Index(name = "idx_stock_history_segments_material_recorded_on", columnList = "rawMaterialId, recordedOn"),
+        @Index(name = "idx_stock_history_segments_recorded_on", columnList = "recordedOn")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class StockHistorySegment {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long rawMaterialId;
+
+    @Column(nullable = false)
+    private LocalDate recordedOn;
+
+    @Column(nullable = false)
+    private Instant firstAt;
+
+    @Column(nullable = false)
+    private Instant lastAt;
+
+    @Column(nullable = false)
+    private Integer samples;
+
+    @Column(nullable = false, length = 1_048_576)
+    private byte[] data;
+}
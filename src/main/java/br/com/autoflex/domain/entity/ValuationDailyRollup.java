@@ -0,0 +1,47 @@
+package br.com.autoflex.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/** The total inventory values recorded on a day (UTC), updated as samples are written. */
+@Entity
+@Table(name = "valuation_daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_valuation_daily_rollups_recorded_on", columnNames = "recordedOn"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ValuationDailyRollup {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate recordedOn;
+
+    /** When the sample that set {@code openValue} was taken; null on rows written before this was kept. */
+    private Instant firstAt;
+
+    /** When the sample that set {@code closeValue} was taken; null on rows written before this was kept. */
+    private Instant lastAt;
+
+    @Column(nullable = false, precision = 24, scale = 4)
+    private BigDecimal openValue;
+
+    @Column(nullable = false, precision = 24, scale = 4)
+    private BigDecimal closeValue;
+
+    @Column(nullable = false, precision = 24, scale = 4)
+    private BigDecimal minValue;
+
+    @Column(nullable = false, precision = 24, scale = 4)
+    private BigDecimal maxValue;
+
+    @Column(nullable = false)
+    private Long samples;
+}
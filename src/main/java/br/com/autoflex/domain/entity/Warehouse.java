@@ -0,0 +1,24 @@
+package br.com.autoflex.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "warehouses",
+        uniqueConstraints = @UniqueConstraint(name = "uk_warehouses_code", columnNames = "code"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class Warehouse {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String code;
+
+    @Column(nullable = false)
+    private String name;
+}
@@ -0,0 +1,29 @@
+package br.com.autoflex.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock of one raw material in one warehouse. The table is list-partitioned by warehouse on
+ * PostgreSQL, so it is created by {@code WarehouseStockPartitions} rather than by Hibernate, and
+ * every warehouse holds a row for every raw material.
+ */
+@Entity
+@Table(name = "warehouse_stock")
+@IdClass(WarehouseStockId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class WarehouseStock {
+
+    @Id
+    private Long warehouseId;
+
+    @Id
+    private Long rawMaterialId;
+
+    @Column(nullable = false)
+    private Double quantity;
+}
@@ -0,0 +1,16 @@
+package br.com.autoflex.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class WarehouseStockId implements Serializable {
+
+    private Long warehouseId;
+    private Long rawMaterialId;
+}
@@ -0,0 +1,8 @@
+package br.com.autoflex.domain.event;
+
+/**
+ * Published inside the writing transaction whenever raw materials are added to, changed in or
+ * removed from the bill of materials of a product.
+ */
+public record BillOfMaterialsChangedEvent(Long productId) {
+}
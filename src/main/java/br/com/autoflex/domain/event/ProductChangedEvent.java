@@ -0,0 +1,22 @@
+package br.com.autoflex.domain.event;
+
+import br.com.autoflex.dto.product.ProductResponse;
+
+/**
+ * Published inside the writing transaction whenever a product is created, updated or deleted.
+ * {@code product} holds the state after the change and is {@code null} for deletions.
+ */
+public record ProductChangedEvent(Long productId, ProductResponse product) {
+
+    public static ProductChangedEvent saved(ProductResponse product) {
+        return new ProductChangedEvent(product.id(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public boolean isDeletion() {
+        return product == null;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.autoflex.domain.event;
+
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+
+/**
+ * Published inside the writing transaction whenever a raw material is created, updated or
+ * deleted. {@code rawMaterial} holds the state after the change and is {@code null} for deletions.
+ */
+public record RawMaterialChangedEvent(Long rawMaterialId, RawMaterialResponse rawMaterial) {
+
+    public static RawMaterialChangedEvent saved(RawMaterialResponse rawMaterial) {
+        return new RawMaterialChangedEvent(rawMaterial.id(), rawMaterial);
+    }
+
+    public static RawMaterialChangedEvent deleted(Long rawMaterialId) {
+        return new RawMaterialChangedEvent(rawMaterialId, null);
+    }
+
+    public boolean isDeletion() {
+        return rawMaterial == null;
+    }
+}
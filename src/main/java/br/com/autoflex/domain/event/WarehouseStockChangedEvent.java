@@ -0,0 +1,11 @@
+package br.com.autoflex.domain.event;
+
+/**
+ * Published inside the writing transaction whenever the stock one warehouse holds of a raw
+ * material changes through the warehouse endpoints, with the {@code delta} applied and the
+ * {@code quantity} that warehouse holds afterwards. Each side of a transfer is published with
+ * {@code changesTotal} false, as the total across warehouses stays the same.
+ */
+public record WarehouseStockChangedEvent(Long warehouseId, Long rawMaterialId, double delta, double quantity,
+                                         boolean changesTotal) {
+}
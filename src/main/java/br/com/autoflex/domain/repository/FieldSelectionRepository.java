@@ -0,0 +1,17 @@
+package br.com.autoflex.domain.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface FieldSelectionRepository {
+    default <T> List<Tuple> findAllSelecting(Class<T> entityType, Collection<String> fields) {
+        return findAllSelecting(entityType, fields, null, Sort.unsorted());
+    }
+
+    <T> List<Tuple> findAllSelecting(Class<T> entityType, Collection<String> fields,
+                                     Specification<T> specification, Sort sort);
+}
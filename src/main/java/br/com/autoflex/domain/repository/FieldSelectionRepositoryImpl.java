@@ -0,0 +1,53 @@
+package br.com.autoflex.domain.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Projects only the requested attributes, so the generated SQL selects just those columns
+ * instead of hydrating whole entities. Each tuple element is aliased with its attribute name.
+ * Filters and ordering are applied in the same query, as for {@code JpaSpecificationExecutor}.
+ */
+public class FieldSelectionRepositoryImpl implements FieldSelectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <T> List<Tuple> findAllSelecting(Class<T> entityType, Collection<String> fields,
+                                            Specification<T> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> root.get(field).alias(field))
+                .toList();
+        query.multiselect(selections);
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -2,10 +2,41 @@ package br.com.autoflex.domain.repository;
 
 import br.com.autoflex.domain.entity.Product;
 import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.RawMaterial;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductRawMaterialRepository extends JpaRepository<ProductRawMaterial, Long> {
-    List<ProductRawMaterial> findByProduct(Product product);
+    @Query("select prm from ProductRawMaterial prm join fetch prm.product join fetch prm.rawMaterial "
+            + "where prm.product = :product")
+    List<ProductRawMaterial> findByProduct(@Param("product") Product product);
+
+    Optional<ProductRawMaterial> findByProductAndRawMaterial(Product product, RawMaterial rawMaterial);
+
+    @Query("select prm from ProductRawMaterial prm join fetch prm.product join fetch prm.rawMaterial")
+    List<ProductRawMaterial> findAllWithProductAndRawMaterial();
+
+    @Query("select prm from ProductRawMaterial prm join fetch prm.product join fetch prm.rawMaterial "
+            + "where prm.product.id in :productIds")
+    List<ProductRawMaterial> findWithProductAndRawMaterialByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("select distinct prm.product.id from ProductRawMaterial prm where prm.rawMaterial.id in :rawMaterialIds")
+    List<Long> findProductIdsByRawMaterialIdIn(@Param("rawMaterialIds") Collection<Long> rawMaterialIds);
+
+    @Query("select prm from ProductRawMaterial prm join fetch prm.product join fetch prm.rawMaterial "
+            + "where prm.changeSeq > :after and prm.changeSeq <= :through order by prm.changeSeq")
+    List<ProductRawMaterial> findChangedBetween(@Param("after") long after, @Param("through") long through);
+
+    @Query("select max(prm.changeSeq) from ProductRawMaterial prm")
+    Long findMaxChangeSeq();
+
+    @Modifying
+    @Query("update ProductRawMaterial prm set prm.changeSeq = :changeSeq where prm.changeSeq is null")
+    int assignMissingChangeSeq(@Param("changeSeq") long changeSeq);
 }
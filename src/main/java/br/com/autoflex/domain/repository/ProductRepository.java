@@ -2,6 +2,26 @@ package br.com.autoflex.domain.repository;
 
 import br.com.autoflex.domain.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        FieldSelectionRepository {
+
+    List<Product> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(long after, long through);
+
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select max(p.changeSeq) from Product p")
+    Long findMaxChangeSeq();
+
+    @Modifying
+    @Query("update Product p set p.changeSeq = :changeSeq where p.changeSeq is null")
+    int assignMissingChangeSeq(@Param("changeSeq") long changeSeq);
 }
@@ -0,0 +1,52 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.dto.product.ProductFilter;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Translates {@link ProductFilter} into Criteria predicates. Each predicate is backed by an index
+ * declared on the entities: {@code idx_products_price} for the price range and
+ * {@code idx_product_raw_materials_raw_material} for the raw material lookup.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /** Returns {@code null} when the filter is empty, so callers can skip the WHERE clause. */
+    public static Specification<Product> matching(ProductFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        return Specification.where(priceAtLeast(filter.minPrice()))
+                .and(priceAtMost(filter.maxPrice()))
+                .and(usesRawMaterial(filter.rawMaterialId()));
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return minPrice == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return maxPrice == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> usesRawMaterial(Long rawMaterialId) {
+        if (rawMaterialId == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> usage = query.subquery(Long.class);
+            Root<ProductRawMaterial> association = usage.from(ProductRawMaterial.class);
+            usage.select(association.get("product").get("id"))
+                    .where(cb.equal(association.get("rawMaterial").get("id"), rawMaterialId));
+            return root.get("id").in(usage);
+        };
+    }
+}
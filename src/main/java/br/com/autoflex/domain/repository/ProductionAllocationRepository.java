@@ -0,0 +1,19 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.ProductionAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductionAllocationRepository extends JpaRepository<ProductionAllocation, Long> {
+
+    List<ProductionAllocation> findByOrderIdIn(Collection<Long> orderIds);
+
+    @Modifying
+    @Query("delete from ProductionAllocation a where a.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,37 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.ProductionOrder;
+import br.com.autoflex.domain.entity.ProductionOrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductionOrderRepository extends JpaRepository<ProductionOrder, Long> {
+
+    /** The queue in allocation order: highest priority first, then earliest due date, then oldest. */
+    @Query("select o from ProductionOrder o order by o.priority desc, o.dueDate, o.id")
+    List<ProductionOrder> findQueue();
+
+    /**
+     * The queue, locked until the calling transaction ends, so that allocation runs on several
+     * instances take turns instead of interleaving their writes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from ProductionOrder o order by o.priority desc, o.dueDate, o.id")
+    List<ProductionOrder> findQueueForUpdate();
+
+    boolean existsByProductId(Long productId);
+
+    @Modifying
+    @Query("update ProductionOrder o set o.status = :status, o.allocatedAt = :allocatedAt where o.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") ProductionOrderStatus status,
+                     @Param("allocatedAt") Instant allocatedAt);
+}
@@ -2,9 +2,37 @@ package br.com.autoflex.domain.repository;
 
 import br.com.autoflex.domain.entity.RawMaterial;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long> {
+public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long>, JpaSpecificationExecutor<RawMaterial>,
+        FieldSelectionRepository {
     Optional <RawMaterial> findByName(String name);
+
+    List<RawMaterial> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(long after, long through);
+
+    /** Sets the stock only if it is still {@code expected}, so a refresh never overwrites a newer one. */
+    @Modifying(clearAutomatically = true)
+    @Query("update RawMaterial r set r.currentStock = :total, r.changeSeq = :changeSeq "
+            + "where r.id = :id and r.currentStock = :expected")
+    int compareAndSetStock(@Param("id") Long id, @Param("expected") double expected, @Param("total") double total,
+                           @Param("changeSeq") long changeSeq);
+
+    /** Raw materials whose stock differs from the sum of their warehouse stock. */
+    @Query("select r.id from RawMaterial r where r.currentStock <> "
+            + "(select coalesce(sum(s.quantity), 0.0) from WarehouseStock s where s.rawMaterialId = r.id)")
+    List<Long> findIdsWithStaleStock();
+
+    @Query("select max(r.changeSeq) from RawMaterial r")
+    Long findMaxChangeSeq();
+
+    @Modifying
+    @Query("update RawMaterial r set r.changeSeq = :changeSeq where r.changeSeq is null")
+    int assignMissingChangeSeq(@Param("changeSeq") long changeSeq);
 }
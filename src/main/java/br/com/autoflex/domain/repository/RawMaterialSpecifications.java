@@ -0,0 +1,37 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.dto.rawmaterial.RawMaterialFilter;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Translates {@link RawMaterialFilter} into Criteria predicates, backed by
+ * {@code idx_raw_materials_current_stock} and {@code idx_raw_materials_cost}.
+ */
+public final class RawMaterialSpecifications {
+
+    private RawMaterialSpecifications() {
+    }
+
+    /** Returns {@code null} when the filter is empty, so callers can skip the WHERE clause. */
+    public static Specification<RawMaterial> matching(RawMaterialFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        return Specification.where(stockBelow(filter.stockBelow()))
+                .and(costAtLeast(filter.minCost()))
+                .and(costAtMost(filter.maxCost()));
+    }
+
+    public static Specification<RawMaterial> stockBelow(Double threshold) {
+        return threshold == null ? null : (root, query, cb) -> cb.lessThan(root.get("currentStock"), threshold);
+    }
+
+    public static Specification<RawMaterial> costAtLeast(Double minCost) {
+        return minCost == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("cost"), minCost);
+    }
+
+    public static Specification<RawMaterial> costAtMost(Double maxCost) {
+        return maxCost == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("cost"), maxCost);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.StockDailyRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockDailyRollupRepository extends JpaRepository<StockDailyRollup, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockDailyRollup r where r.rawMaterialId in :rawMaterialIds and r.recordedOn in :days")
+    List<StockDailyRollup> findForUpdate(@Param("rawMaterialIds") Collection<Long> rawMaterialIds,
+                                         @Param("days") Collection<LocalDate> days);
+
+    List<StockDailyRollup> findByRawMaterialIdAndRecordedOnBetween(Long rawMaterialId, LocalDate from, LocalDate to);
+
+    Optional<StockDailyRollup> findFirstByRawMaterialIdAndRecordedOnLessThanOrderByRecordedOnDesc(Long rawMaterialId, LocalDate day);
+}
@@ -0,0 +1,23 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.StockHistorySegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StockHistorySegmentRepository extends JpaRepository<StockHistorySegment, Long> {
+
+    /**
+     * By first sample. Segments flushed by different instances cover overlapping times, so their
+     * samples still have to be merged by timestamp.
+     */
+    List<StockHistorySegment> findByRawMaterialIdAndRecordedOnBetweenOrderByFirstAtAsc(Long rawMaterialId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from StockHistorySegment s where s.recordedOn < :day")
+    int deleteRecordedBefore(@Param("day") LocalDate day);
+}
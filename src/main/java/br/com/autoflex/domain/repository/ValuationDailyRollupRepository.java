@@ -0,0 +1,24 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.ValuationDailyRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ValuationDailyRollupRepository extends JpaRepository<ValuationDailyRollup, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ValuationDailyRollup r where r.recordedOn in :days")
+    List<ValuationDailyRollup> findForUpdate(@Param("days") Collection<LocalDate> days);
+
+    List<ValuationDailyRollup> findByRecordedOnBetween(LocalDate from, LocalDate to);
+
+    Optional<ValuationDailyRollup> findFirstByRecordedOnLessThanOrderByRecordedOnDesc(LocalDate day);
+}
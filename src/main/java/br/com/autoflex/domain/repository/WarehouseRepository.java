@@ -0,0 +1,12 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+    Optional<Warehouse> findByCode(String code);
+
+    boolean existsByCode(String code);
+}
@@ -0,0 +1,62 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.WarehouseStock;
+import br.com.autoflex.domain.entity.WarehouseStockId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Every query that writes stock filters on a single warehouse, so PostgreSQL prunes it to that
+ * warehouse's partition and only locks rows there. The modifying queries flush first, because the
+ * raw material or warehouse rows they refer to may still be pending in the persistence context.
+ */
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, WarehouseStockId> {
+
+    List<WarehouseStock> findByWarehouseId(Long warehouseId);
+
+    List<WarehouseStock> findByWarehouseIdAndRawMaterialIdIn(Long warehouseId, Collection<Long> rawMaterialIds);
+
+    /** Adds {@code delta}, which may be negative, unless that would take the stock below zero. */
+    @Modifying(flushAutomatically = true)
+    @Query("update WarehouseStock s set s.quantity = s.quantity + :delta "
+            + "where s.warehouseId = :warehouseId and s.rawMaterialId = :rawMaterialId and s.quantity + :delta >= 0")
+    int addIfSufficient(@Param("warehouseId") Long warehouseId, @Param("rawMaterialId") Long rawMaterialId,
+                        @Param("delta") double delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update WarehouseStock s set s.quantity = :quantity "
+            + "where s.warehouseId = :warehouseId and s.rawMaterialId = :rawMaterialId")
+    int setQuantity(@Param("warehouseId") Long warehouseId, @Param("rawMaterialId") Long rawMaterialId,
+                    @Param("quantity") double quantity);
+
+    @Query("select coalesce(sum(s.quantity), 0) from WarehouseStock s "
+            + "where s.rawMaterialId = :rawMaterialId and s.warehouseId <> :warehouseId")
+    double sumExcludingWarehouse(@Param("rawMaterialId") Long rawMaterialId, @Param("warehouseId") Long warehouseId);
+
+    @Query("select s.rawMaterialId as rawMaterialId, sum(s.quantity) as quantity from WarehouseStock s "
+            + "where s.rawMaterialId in :rawMaterialIds group by s.rawMaterialId")
+    List<StockTotal> sumByRawMaterialIdIn(@Param("rawMaterialIds") Collection<Long> rawMaterialIds);
+
+    /** Gives a new raw material a row in every warehouse, with {@code quantity} in one of them. */
+    @Modifying(flushAutomatically = true)
+    @Query("insert into WarehouseStock (warehouseId, rawMaterialId, quantity) "
+            + "select w.id, :rawMaterialId, case when w.id = :stockedWarehouseId then :quantity else 0.0 end from Warehouse w")
+    int insertForAllWarehouses(@Param("rawMaterialId") Long rawMaterialId,
+                               @Param("stockedWarehouseId") Long stockedWarehouseId, @Param("quantity") double quantity);
+
+    /** Gives a new warehouse an empty row for every raw material. */
+    @Modifying(flushAutomatically = true)
+    @Query("insert into WarehouseStock (warehouseId, rawMaterialId, quantity) select :warehouseId, r.id, 0.0 from RawMaterial r")
+    int insertEmptyForAllRawMaterials(@Param("warehouseId") Long warehouseId);
+
+    interface StockTotal {
+        Long getRawMaterialId();
+
+        Double getQuantity();
+    }
+}
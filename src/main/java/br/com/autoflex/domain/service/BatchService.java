@@ -0,0 +1,151 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.dto.batch.BatchOperation;
+import br.com.autoflex.dto.batch.BatchOperationResult;
+import br.com.autoflex.dto.batch.BatchOperationType;
+import br.com.autoflex.dto.batch.BatchRequest;
+import br.com.autoflex.dto.batch.BatchResponse;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.error.BusinessException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs an ordered list of catalog operations in one transaction. Writes are flushed together at
+ * commit, so Hibernate can group them into JDBC batches; any failing operation rolls back the
+ * whole request.
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class BatchService {
+
+    private final ProductService productService;
+    private final RawMaterialService rawMaterialService;
+    private final int maxOperations;
+
+    public BatchService(ProductService productService,
+                        RawMaterialService rawMaterialService,
+                        @Value("${autoflex.batch.max-operations:500}") int maxOperations) {
+        this.productService = productService;
+        this.rawMaterialService = rawMaterialService;
+        this.maxOperations = maxOperations;
+    }
+
+    @Transactional
+    public BatchResponse execute(BatchRequest request) {
+        List<BatchOperation> operations = request.operations();
+        if (operations == null || operations.isEmpty()) {
+            throw new BusinessException("Batch must contain at least one operation");
+        }
+        if (operations.size() > maxOperations) {
+            throw new BusinessException("Batch exceeds the limit of " + maxOperations + " operations");
+        }
+
+        Map<String, Reference> references = new HashMap<>();
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            results.add(execute(index, operations.get(index), references));
+        }
+        return new BatchResponse(results);
+    }
+
+    private BatchOperationResult execute(int index, BatchOperation operation, Map<String, Reference> references) {
+        if (operation.type() == null) {
+            throw new BusinessException("Operation " + index + ": type is required");
+        }
+
+        return switch (operation.type()) {
+            case CREATE_PRODUCT -> {
+                requirePayload(index, operation.product());
+                ProductResponse created = productService.create(operation.product());
+                register(index, operation, references, created.id());
+                yield result(index, operation, HttpStatus.CREATED, created);
+            }
+            case UPDATE_PRODUCT -> {
+                requirePayload(index, operation.product());
+                Long productId = resolve(index, operation.productId(), operation.productRef(),
+                        BatchOperationType.CREATE_PRODUCT, references);
+                ProductResponse updated = productService.update(productId, operation.product());
+                if (updated == null) {
+                    throw new EntityNotFoundException("Operation " + index + ": Product not found");
+                }
+                yield result(index, operation, HttpStatus.OK, updated);
+            }
+            case CREATE_RAW_MATERIAL -> {
+                requirePayload(index, operation.rawMaterial());
+                RawMaterialResponse created = rawMaterialService.create(operation.rawMaterial());
+                register(index, operation, references, created.id());
+                yield result(index, operation, HttpStatus.CREATED, created);
+            }
+            case UPDATE_RAW_MATERIAL -> {
+                requirePayload(index, operation.rawMaterial());
+                Long rawMaterialId = resolve(index, operation.rawMaterialId(), operation.rawMaterialRef(),
+                        BatchOperationType.CREATE_RAW_MATERIAL, references);
+                RawMaterialResponse updated = rawMaterialService.update(rawMaterialId, operation.rawMaterial());
+                if (updated == null) {
+                    throw new EntityNotFoundException("Operation " + index + ": Raw Material not found");
+                }
+                yield result(index, operation, HttpStatus.OK, updated);
+            }
+            case ADD_RAW_MATERIAL_TO_PRODUCT -> {
+                if (operation.quantity() == null) {
+                    throw new BusinessException("Operation " + index + ": quantity is required");
+                }
+                Long productId = resolve(index, operation.productId(), operation.productRef(),
+                        BatchOperationType.CREATE_PRODUCT, references);
+                Long rawMaterialId = resolve(index, operation.rawMaterialId(), operation.rawMaterialRef(),
+                        BatchOperationType.CREATE_RAW_MATERIAL, references);
+                productService.addRawMaterialToProduct(productId, rawMaterialId, operation.quantity());
+                yield result(index, operation, HttpStatus.OK, null);
+            }
+        };
+    }
+
+    private void requirePayload(int index, Object payload) {
+        if (payload == null) {
+            throw new BusinessException("Operation " + index + ": payload is required");
+        }
+    }
+
+    private void register(int index, BatchOperation operation, Map<String, Reference> references, Long id) {
+        if (operation.ref() == null) {
+            return;
+        }
+        if (references.putIfAbsent(operation.ref(), new Reference(operation.type(), id)) != null) {
+            throw new BusinessException("Operation " + index + ": duplicate ref '" + operation.ref() + "'");
+        }
+    }
+
+    private Long resolve(int index, Long id, String ref, BatchOperationType creatingType,
+                         Map<String, Reference> references) {
+        if (id != null) {
+            return id;
+        }
+        if (ref == null) {
+            throw new BusinessException("Operation " + index + ": an ID or a ref is required");
+        }
+
+        Reference reference = references.get(ref);
+        if (reference == null || reference.type() != creatingType) {
+            throw new BusinessException("Operation " + index + ": unknown ref '" + ref + "'");
+        }
+        return reference.id();
+    }
+
+    private BatchOperationResult result(int index, BatchOperation operation, HttpStatus status, Object body) {
+        return new BatchOperationResult(index, operation.ref(), operation.type(), status.value(), body);
+    }
+
+    private record Reference(BatchOperationType type, Long id) {
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.RawMaterial;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * The bills of materials of a set of products, flattened into arrays for bulk explosion. Products
+ * and raw materials are addressed by their position in ID order; the rows of product {@code p} are
+ * {@code rowStart[p]} up to {@code rowStart[p + 1]}. Explosions run as parallel fork-join reductions
+ * over primitive arrays, with no boxing or per-line lookups in maps.
+ */
+final class BillOfMaterialsMatrix {
+
+    private final long[] productIds;
+    private final List<RawMaterial> rawMaterials;
+    private final int[] rowStart;
+    private final int[] rowMaterial;
+    private final double[] rowQuantity;
+
+    private BillOfMaterialsMatrix(long[] productIds, List<RawMaterial> rawMaterials,
+                                  int[] rowStart, int[] rowMaterial, double[] rowQuantity) {
+        this.productIds = productIds;
+        this.rawMaterials = rawMaterials;
+        this.rowStart = rowStart;
+        this.rowMaterial = rowMaterial;
+        this.rowQuantity = rowQuantity;
+    }
+
+    /** {@code productIds} sorted and distinct; {@code rows} the BOM rows of (some of) those products. */
+    static BillOfMaterialsMatrix of(long[] productIds, List<ProductRawMaterial> rows) {
+        Map<Long, RawMaterial> byId = new TreeMap<>();
+        rows.forEach(row -> byId.putIfAbsent(row.getRawMaterial().getId(), row.getRawMaterial()));
+        List<RawMaterial> rawMaterials = List.copyOf(byId.values());
+        long[] rawMaterialIds = rawMaterials.stream().mapToLong(RawMaterial::getId).toArray();
+
+        int[] rowStart = new int[productIds.length + 1];
+        for (ProductRawMaterial row : rows) {
+            rowStart[indexOf(productIds, row.getProduct().getId()) + 1]++;
+        }
+        Arrays.parallelPrefix(rowStart, Integer::sum);
+
+        int[] next = Arrays.copyOf(rowStart, productIds.length);
+        int[] rowMaterial = new int[rows.size()];
+        double[] rowQuantity = new double[rows.size()];
+        for (ProductRawMaterial row : rows) {
+            int slot = next[indexOf(productIds, row.getProduct().getId())]++;
+            rowMaterial[slot] = indexOf(rawMaterialIds, row.getRawMaterial().getId());
+            rowQuantity[slot] = row.getQuantity();
+        }
+        return new BillOfMaterialsMatrix(productIds, rawMaterials, rowStart, rowMaterial, rowQuantity);
+    }
+
+    /** Units demanded per product position, summed over lines that may repeat products. */
+    static <T> double[] demand(long[] productIds, List<T> lines, ToLongFunction<T> productId, ToDoubleFunction<T> quantity) {
+        return IntStream.range(0, lines.size()).parallel()
+                .collect(() -> new double[productIds.length],
+                        (sum, line) -> {
+                            T item = lines.get(line);
+                            sum[indexOf(productIds, productId.applyAsLong(item))] += quantity.applyAsDouble(item);
+                        },
+                        BillOfMaterialsMatrix::addInto);
+    }
+
+    /** Quantity of each raw material (by {@link #rawMaterials()} position) that {@code demand} needs. */
+    double[] explode(double[] demand) {
+        return IntStream.range(0, productIds.length).parallel()
+                .filter(product -> demand[product] != 0)
+                .collect(() -> new double[rawMaterials.size()],
+                        (sum, product) -> {
+                            for (int row = rowStart[product]; row < rowStart[product + 1]; row++) {
+                                sum[rowMaterial[row]] += demand[product] * rowQuantity[row];
+                            }
+                        },
+                        BillOfMaterialsMatrix::addInto);
+    }
+
+    List<RawMaterial> rawMaterials() {
+        return rawMaterials;
+    }
+
+    private static int indexOf(long[] sortedIds, long id) {
+        return Arrays.binarySearch(sortedIds, id);
+    }
+
+    private static void addInto(double[] target, double[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+}
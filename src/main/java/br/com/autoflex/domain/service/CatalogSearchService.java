@@ -0,0 +1,103 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.event.ProductChangedEvent;
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.dto.search.SearchResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.search.SearchIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serves product and raw material search from in-memory indexes. The indexes are loaded once the
+ * application is ready and then kept current from the change events the services publish, applied
+ * only after the writing transaction commits.
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class CatalogSearchService {
+
+    private final ProductService productService;
+    private final RawMaterialService rawMaterialService;
+    private final int maxPageSize;
+
+    private final SearchIndex<ProductResponse> productIndex =
+            new SearchIndex<>(ProductResponse::id, ProductResponse::name, ProductResponse::description);
+    private final SearchIndex<RawMaterialResponse> rawMaterialIndex =
+            new SearchIndex<>(RawMaterialResponse::id, RawMaterialResponse::name, RawMaterialResponse::description);
+
+    private final DeferredChanges deferredChanges = new DeferredChanges();
+
+    public CatalogSearchService(ProductService productService,
+                                RawMaterialService rawMaterialService,
+                                @Value("${autoflex.search.max-page-size:100}") int maxPageSize) {
+        this.productService = productService;
+        this.rawMaterialService = rawMaterialService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        productIndex.replaceAll(productService.findAll());
+        rawMaterialIndex.replaceAll(rawMaterialService.findAll());
+        deferredChanges.release();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        deferredChanges.apply(() -> {
+            if (event.isDeletion()) {
+                productIndex.remove(event.productId());
+            } else {
+                productIndex.put(event.product());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        deferredChanges.apply(() -> {
+            if (event.isDeletion()) {
+                rawMaterialIndex.remove(event.rawMaterialId());
+            } else {
+                rawMaterialIndex.put(event.rawMaterial());
+            }
+        });
+    }
+
+    public SearchResponse<ProductResponse> searchProducts(String query, int page, int size) {
+        validate(query, page, size);
+        return productIndex.search(query, page, size);
+    }
+
+    public SearchResponse<RawMaterialResponse> searchRawMaterials(String query, int page, int size) {
+        validate(query, page, size);
+        return rawMaterialIndex.search(query, page, size);
+    }
+
+    public int productCount() {
+        return productIndex.size();
+    }
+
+    public int rawMaterialCount() {
+        return rawMaterialIndex.size();
+    }
+
+    private void validate(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Search query must not be blank");
+        }
+        if (page < 0) {
+            throw new BusinessException("Page must not be negative");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new BusinessException("Page size must be between 1 and " + maxPageSize);
+        }
+    }
+}
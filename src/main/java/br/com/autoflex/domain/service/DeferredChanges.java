@@ -0,0 +1,30 @@
+package br.com.autoflex.domain.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orders the changes applied to an in-memory view that is loaded once at startup. Changes that
+ * commit while the load runs are held back and replayed on top of it by {@link #release()};
+ * afterwards they run immediately. Changes never run concurrently with each other.
+ */
+final class DeferredChanges {
+
+    private List<Runnable> pending = new ArrayList<>();
+
+    synchronized void apply(Runnable change) {
+        if (pending != null) {
+            pending.add(change);
+            return;
+        }
+        change.run();
+    }
+
+    synchronized void release() {
+        if (pending == null) {
+            return;
+        }
+        pending.forEach(Runnable::run);
+        pending = null;
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.error.BusinessException;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+final class FieldSelection {
+
+    private FieldSelection() {
+    }
+
+    static boolean isRequested(Set<String> fields) {
+        return fields != null && !fields.isEmpty();
+    }
+
+    static Set<String> resolve(Set<String> fields, Class<? extends Record> responseType) {
+        Set<String> allowed = Arrays.stream(responseType.getRecordComponents())
+                .map(RecordComponent::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Set<String> unknown = fields.stream()
+                .filter(field -> !allowed.contains(field))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!unknown.isEmpty()) {
+            throw new BusinessException("Unknown field(s): " + String.join(", ", unknown)
+                    + ". Allowed fields: " + String.join(", ", allowed));
+        }
+
+        return allowed.stream()
+                .filter(fields::contains)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    static Sort resolveSort(Sort sort, List<String> sortable) {
+        if (sort == null) {
+            return Sort.unsorted();
+        }
+        for (Sort.Order order : sort) {
+            if (!sortable.contains(order.getProperty())) {
+                throw new BusinessException("Unknown sort property: " + order.getProperty()
+                        + ". Allowed properties: " + String.join(", ", sortable));
+            }
+        }
+        return sort;
+    }
+}
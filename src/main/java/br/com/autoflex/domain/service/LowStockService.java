@@ -0,0 +1,93 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
+import br.com.autoflex.dto.rawmaterial.LowStockResponse;
+import br.com.autoflex.sse.SseBroadcaster;
+import br.com.autoflex.sse.SseBroadcaster.Event;
+import br.com.autoflex.stock.LowStockIndex;
+import br.com.autoflex.stock.LowStockIndex.Transition;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Tracks raw materials whose stock is below their reorder threshold. The threshold index is loaded
+ * once the application is ready and then updated from every committed raw material change, so
+ * listing low materials never queries the database.
+ * <p>
+ * Stream subscribers first receive a {@value #SNAPSHOT} event with the current list, then a
+ * {@value #LOW_STOCK} event with the new levels whenever a material drops below its threshold or
+ * changes while below it, and a {@value #CLEARED} event carrying the material ID when it recovers,
+ * loses its threshold or is deleted.
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class LowStockService {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String LOW_STOCK = "low-stock";
+    static final String CLEARED = "cleared";
+
+    private final RawMaterialService rawMaterialService;
+    private final SseBroadcaster broadcaster;
+    private final LowStockIndex index = new LowStockIndex();
+    private final DeferredChanges deferredChanges = new DeferredChanges();
+
+    public LowStockService(RawMaterialService rawMaterialService,
+                           @Qualifier("applicationTaskExecutor") Executor executor,
+                           @Value("${autoflex.sse.queue-capacity:256}") int queueCapacity,
+                           @Value("${autoflex.sse.timeout:PT30M}") Duration timeout) {
+        this.rawMaterialService = rawMaterialService;
+        this.broadcaster = new SseBroadcaster(executor, queueCapacity, timeout);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.replaceAll(rawMaterialService.findAll());
+        deferredChanges.release();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        deferredChanges.apply(() -> apply(event));
+    }
+
+    public List<LowStockResponse> findBelowThreshold() {
+        return index.belowThreshold();
+    }
+
+    /**
+     * Takes the snapshot and registers the subscriber atomically with respect to index updates, so
+     * the stream neither misses a change nor delivers one the snapshot already reflects.
+     */
+    public synchronized SseEmitter subscribe() {
+        return broadcaster.subscribe(List.of(new Event(SNAPSHOT, index.belowThreshold())));
+    }
+
+    @Scheduled(fixedDelayString = "${autoflex.sse.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    private synchronized void apply(RawMaterialChangedEvent event) {
+        Transition transition = event.isDeletion()
+                ? index.remove(event.rawMaterialId())
+                : index.update(event.rawMaterial());
+        switch (transition) {
+            case ENTERED, UPDATED -> broadcaster.publish(LOW_STOCK, index.get(event.rawMaterialId()));
+            case LEFT -> broadcaster.publish(CLEARED, event.rawMaterialId());
+            case NONE -> {
+            }
+        }
+    }
+}
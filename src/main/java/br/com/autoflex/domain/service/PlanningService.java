@@ -0,0 +1,111 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.dto.planning.MaterialRequirementResponse;
+import br.com.autoflex.dto.planning.OrderLineRequest;
+import br.com.autoflex.dto.planning.RequirementsRequest;
+import br.com.autoflex.dto.planning.RequirementsResponse;
+import br.com.autoflex.error.BusinessException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Material requirements planning. An order book is exploded through the bills of materials of
+ * every product it names in one pass: two queries whatever its size, then order lines are summed
+ * per product and products exploded into raw materials as parallel reductions over arrays.
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class PlanningService {
+
+    private final ProductRepository productRepository;
+    private final ProductRawMaterialRepository productRawMaterialRepository;
+    private final WarehouseService warehouseService;
+    private final int maxOrderLines;
+
+    public PlanningService(ProductRepository productRepository,
+                           ProductRawMaterialRepository productRawMaterialRepository,
+                           WarehouseService warehouseService,
+                           @Value("${autoflex.planning.max-order-lines:100000}") int maxOrderLines) {
+        this.productRepository = productRepository;
+        this.productRawMaterialRepository = productRawMaterialRepository;
+        this.warehouseService = warehouseService;
+        this.maxOrderLines = maxOrderLines;
+    }
+
+    public RequirementsResponse calculateRequirements(RequirementsRequest request) {
+        List<OrderLineRequest> orders = request.orders() == null ? List.of() : request.orders();
+        validate(orders);
+
+        long[] productIds = orders.stream().mapToLong(OrderLineRequest::productId).distinct().sorted().toArray();
+        List<Long> boxedProductIds = Arrays.stream(productIds).boxed().toList();
+        requireProducts(boxedProductIds);
+
+        BillOfMaterialsMatrix matrix = BillOfMaterialsMatrix.of(productIds,
+                productRawMaterialRepository.findWithProductAndRawMaterialByProductIdIn(boxedProductIds));
+        double[] demand = BillOfMaterialsMatrix.demand(productIds, orders, OrderLineRequest::productId, OrderLineRequest::quantity);
+        double[] required = matrix.explode(demand);
+
+        List<RawMaterial> rawMaterials = matrix.rawMaterials();
+        ToDoubleFunction<RawMaterial> available = availableStock(request.warehouseIds(), rawMaterials);
+        List<MaterialRequirementResponse> requirements = new ArrayList<>(rawMaterials.size());
+        BigDecimal totalShortfallCost = BigDecimal.ZERO;
+        for (int material = 0; material < rawMaterials.size(); material++) {
+            RawMaterial rawMaterial = rawMaterials.get(material);
+            double stock = available.applyAsDouble(rawMaterial);
+            double shortfall = Math.max(0, required[material] - stock);
+            BigDecimal shortfallCost = BigDecimal.valueOf(shortfall * rawMaterial.getCost()).setScale(2, RoundingMode.HALF_UP);
+            requirements.add(new MaterialRequirementResponse(rawMaterial.getId(), rawMaterial.getName(),
+                    required[material], stock, shortfall, rawMaterial.getCost(), shortfallCost));
+            totalShortfallCost = totalShortfallCost.add(shortfallCost);
+        }
+        return new RequirementsResponse(requirements, orders.size(), totalShortfallCost);
+    }
+
+    private void validate(List<OrderLineRequest> orders) {
+        if (orders.isEmpty()) {
+            throw new BusinessException("The order book must have at least one order line");
+        }
+        if (orders.size() > maxOrderLines) {
+            throw new BusinessException("The order book must have at most " + maxOrderLines + " order lines");
+        }
+        for (OrderLineRequest line : orders) {
+            if (line == null || line.productId() == null || line.quantity() == null
+                    || !(line.quantity() > 0) || line.quantity().isInfinite()) {
+                throw new BusinessException("Every order line requires a product ID and a positive quantity");
+            }
+        }
+    }
+
+    private void requireProducts(List<Long> productIds) {
+        List<Long> existing = productRepository.findIdsByIdIn(productIds);
+        if (existing.size() != productIds.size()) {
+            Set<Long> missing = new HashSet<>(productIds);
+            existing.forEach(missing::remove);
+            throw new EntityNotFoundException("Product not found: " + missing.stream().sorted().toList());
+        }
+    }
+
+    private ToDoubleFunction<RawMaterial> availableStock(List<Long> warehouseIds, List<RawMaterial> rawMaterials) {
+        if (warehouseIds == null || warehouseIds.isEmpty()) {
+            return RawMaterial::getCurrentStock;
+        }
+        Map<Long, Double> stock = warehouseService.stockAcross(warehouseIds,
+                rawMaterials.stream().map(RawMaterial::getId).toList());
+        return rawMaterial -> stock.getOrDefault(rawMaterial.getId(), 0.0);
+    }
+}
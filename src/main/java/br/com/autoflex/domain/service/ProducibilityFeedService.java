@@ -0,0 +1,206 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.event.BillOfMaterialsChangedEvent;
+import br.com.autoflex.domain.event.ProductChangedEvent;
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.sse.SseBroadcaster;
+import br.com.autoflex.sse.SseBroadcaster.Event;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Streams changes to the set of producible products.
+ * <p>
+ * Committed stock, product and bill-of-materials writes only mark the products they can affect
+ * as dirty. A single task at a time then re-evaluates every dirty product in one query, diffs the
+ * result against the current set and publishes the difference once to all subscribers, so a burst
+ * of writes costs one evaluation and the number of clients does not change the work done.
+ * <p>
+ * Subscribers first receive a {@value #SNAPSHOT} event with the whole set, then a
+ * {@value #PRODUCIBLE} event with the product whenever one becomes producible or changes while
+ * producible, and a {@value #NOT_PRODUCIBLE} event carrying the product ID when one stops being
+ * producible or is deleted.
+ * <p>
+ * A failed evaluation puts its products back in the dirty set and retries after a delay that
+ * doubles on each consecutive failure, up to {@link #MAX_RETRY_DELAY}.
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class ProducibilityFeedService {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String PRODUCIBLE = "producible";
+    static final String NOT_PRODUCIBLE = "not-producible";
+
+    private static final Logger log = LoggerFactory.getLogger(ProducibilityFeedService.class);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final ProductService productService;
+    private final Executor executor;
+    private final TaskScheduler taskScheduler;
+    private final Duration retryDelay;
+    private final SseBroadcaster broadcaster;
+
+    /** Producible products by ID; guarded by {@code this}, like every publication. */
+    private final Map<Long, ProductResponse> producible = new LinkedHashMap<>();
+
+    private final Object dirtyLock = new Object();
+    private Set<Long> dirtyProducts = new HashSet<>();
+    private Set<Long> dirtyRawMaterials = new HashSet<>();
+    private boolean ready;
+    private boolean draining;
+    private Duration nextRetryDelay;
+
+    public ProducibilityFeedService(ProductService productService,
+                                    @Qualifier("applicationTaskExecutor") Executor executor,
+                                    TaskScheduler taskScheduler,
+                                    @Value("${autoflex.sse.queue-capacity:256}") int queueCapacity,
+                                    @Value("${autoflex.sse.timeout:PT30M}") Duration timeout,
+                                    @Value("${autoflex.sse.retry-delay:PT1S}") Duration retryDelay) {
+        this.productService = productService;
+        this.executor = executor;
+        this.taskScheduler = taskScheduler;
+        this.retryDelay = retryDelay;
+        this.nextRetryDelay = retryDelay;
+        this.broadcaster = new SseBroadcaster(executor, queueCapacity, timeout);
+    }
+
+    /** Changes committed while this runs stay dirty and are re-evaluated right after it. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductResponse> current = productService.findProductsProducibleWithInventory();
+        synchronized (this) {
+            producible.clear();
+            current.forEach(product -> producible.put(product.id(), product));
+        }
+        synchronized (dirtyLock) {
+            ready = true;
+            scheduleDrain();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        synchronized (dirtyLock) {
+            dirtyRawMaterials.add(event.rawMaterialId());
+            scheduleDrain();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        markProductDirty(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillOfMaterialsChanged(BillOfMaterialsChangedEvent event) {
+        markProductDirty(event.productId());
+    }
+
+    public synchronized SseEmitter subscribe() {
+        return broadcaster.subscribe(List.of(new Event(SNAPSHOT, new ArrayList<>(producible.values()))));
+    }
+
+    @Scheduled(fixedDelayString = "${autoflex.sse.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    private void markProductDirty(Long productId) {
+        synchronized (dirtyLock) {
+            dirtyProducts.add(productId);
+            scheduleDrain();
+        }
+    }
+
+    /** Must hold {@code dirtyLock}. */
+    private void scheduleDrain() {
+        if (!ready || draining || (dirtyProducts.isEmpty() && dirtyRawMaterials.isEmpty())) {
+            return;
+        }
+        draining = true;
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        while (true) {
+            Set<Long> products;
+            Set<Long> rawMaterials;
+            synchronized (dirtyLock) {
+                if (dirtyProducts.isEmpty() && dirtyRawMaterials.isEmpty()) {
+                    draining = false;
+                    nextRetryDelay = retryDelay;
+                    return;
+                }
+                products = dirtyProducts;
+                rawMaterials = dirtyRawMaterials;
+                dirtyProducts = new HashSet<>();
+                dirtyRawMaterials = new HashSet<>();
+            }
+
+            try {
+                Set<Long> affected = new HashSet<>(products);
+                affected.addAll(productService.findProductIdsUsingRawMaterials(rawMaterials));
+                publishDiff(affected, productService.findProducibleAmong(affected));
+            } catch (RuntimeException e) {
+                Duration delay;
+                synchronized (dirtyLock) {
+                    dirtyProducts.addAll(products);
+                    dirtyRawMaterials.addAll(rawMaterials);
+                    delay = nextRetryDelay;
+                    Duration doubled = delay.multipliedBy(2);
+                    nextRetryDelay = doubled.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : doubled;
+                }
+                log.warn("Producibility re-evaluation failed; retrying in {}", delay, e);
+                taskScheduler.schedule(() -> executor.execute(this::drain), Instant.now().plus(delay));
+                return;
+            }
+        }
+    }
+
+    private synchronized void publishDiff(Set<Long> affected, List<ProductResponse> nowProducible) {
+        Set<Long> stillProducible = new HashSet<>();
+        for (ProductResponse product : nowProducible) {
+            stillProducible.add(product.id());
+            if (!Objects.equals(producible.put(product.id(), product), product)) {
+                broadcaster.publish(PRODUCIBLE, product);
+            }
+        }
+        affected.stream()
+                .filter(productId -> !stillProducible.contains(productId))
+                .filter(productId -> producible.remove(productId) != null)
+                .sorted(Comparator.naturalOrder())
+                .forEach(productId -> broadcaster.publish(NOT_PRODUCIBLE, productId));
+    }
+
+    public synchronized int producibleCount() {
+        return producible.size();
+    }
+
+    synchronized List<ProductResponse> currentlyProducible() {
+        return new ArrayList<>(producible.values());
+    }
+}
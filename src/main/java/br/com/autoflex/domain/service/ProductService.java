@@ -3,30 +3,78 @@ package br.com.autoflex.domain.service;
 import br.com.autoflex.domain.entity.Product;
 import br.com.autoflex.domain.entity.ProductRawMaterial;
 import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.event.BillOfMaterialsChangedEvent;
+import br.com.autoflex.domain.event.ProductChangedEvent;
 import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.domain.repository.ProductionOrderRepository;
 import br.com.autoflex.domain.repository.RawMaterialRepository;
 import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductSpecifications;
+import br.com.autoflex.dto.product.ProductCapacityResponse;
+import br.com.autoflex.dto.product.ProductCostResponse;
+import br.com.autoflex.dto.product.ProductFilter;
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRawMaterialResponse;
 import br.com.autoflex.dto.product.ProductRequest;
 import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.sync.ProductRawMaterialSyncResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.sync.ChangeTracker;
+import br.com.autoflex.sync.SyncEntityType;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Tuple;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "autoflex.service", histogram = true)
 public class ProductService {
+    /** Each one is backed by an index: the primary key, idx_products_name and idx_products_price. */
+    private static final List<String> SORTABLE_FIELDS = List.of("id", "name", "price");
+
     private final ProductRepository productRepository;
     private final RawMaterialRepository rawMaterialRepository;
     private final ProductRawMaterialRepository productRawMaterialRepository;
+    private final RequestCoalescer requestCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeTracker changeTracker;
+    private final WarehouseService warehouseService;
+    private final ProductionOrderRepository productionOrderRepository;
 
     public ProductService(ProductRepository productRepository,
                           RawMaterialRepository rawMaterialRepository,
-                          ProductRawMaterialRepository productRawMaterialRepository) {
+                          ProductRawMaterialRepository productRawMaterialRepository,
+                          RequestCoalescer requestCoalescer,
+                          ApplicationEventPublisher eventPublisher,
+                          ChangeTracker changeTracker,
+                          WarehouseService warehouseService,
+                          ProductionOrderRepository productionOrderRepository) {
         this.productRepository = productRepository;
         this.rawMaterialRepository = rawMaterialRepository;
         this.productRawMaterialRepository = productRawMaterialRepository;
+        this.requestCoalescer = requestCoalescer;
+        this.eventPublisher = eventPublisher;
+        this.changeTracker = changeTracker;
+        this.warehouseService = warehouseService;
+        this.productionOrderRepository = productionOrderRepository;
     }
 
     @Transactional
@@ -35,9 +83,13 @@ public class ProductService {
         product.setName(request.name());
         product.setDescription(request.description());
         product.setPrice(request.price());
+        product.setChangeSeq(changeTracker.stamp());
 
         product = productRepository.save(product);
-        return mapToResponse(product);
+        requestCoalescer.invalidateAfterCommit();
+        ProductResponse response = mapToResponse(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(response));
+        return response;
     }
 
     public List<ProductResponse> findAll() {
@@ -46,12 +98,56 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    public List<ProductResponse> findAll(Set<String> fields) {
+        if (!FieldSelection.isRequested(fields)) {
+            return findAll();
+        }
+
+        Set<String> selected = FieldSelection.resolve(fields, ProductResponse.class);
+        return productRepository.findAllSelecting(Product.class, selected).stream()
+                .map(tuple -> mapToResponse(tuple, selected))
+                .toList();
+    }
+
+    /**
+     * Lists products matching the filter, in the requested order. Both are pushed down to the
+     * database; with no filter and no sort this is the same as {@link #findAll(Set)}.
+     */
+    public List<ProductResponse> findAll(Set<String> fields, ProductFilter filter, Sort sort) {
+        Sort order = FieldSelection.resolveSort(sort, SORTABLE_FIELDS);
+        if (filter != null && filter.minPrice() != null && filter.maxPrice() != null
+                && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+            throw new BusinessException("minPrice must not be greater than maxPrice");
+        }
+
+        Specification<Product> specification = ProductSpecifications.matching(filter);
+        if (specification == null && order.isUnsorted()) {
+            return findAll(fields);
+        }
+        if (!FieldSelection.isRequested(fields)) {
+            return productRepository.findAll(specification, order).stream()
+                    .map(this::mapToResponse)
+                    .toList();
+        }
+
+        Set<String> selected = FieldSelection.resolve(fields, ProductResponse.class);
+        return productRepository.findAllSelecting(Product.class, selected, specification, order).stream()
+                .map(tuple -> mapToResponse(tuple, selected))
+                .toList();
+    }
+
     public ProductResponse findById(Long id) {
         return productRepository.findById(id)
                 .map(this::mapToResponse)
                 .orElse(null);
     }
 
+    public List<ProductResponse> findByIds(Collection<Long> ids) {
+        return productRepository.findAllById(ids).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
     @Transactional
     public ProductResponse update(Long id, ProductRequest request) {
         return productRepository.findById(id)
@@ -59,7 +155,11 @@ public class ProductService {
                     product.setName(request.name());
                     product.setDescription(request.description());
                     product.setPrice(request.price());
-                    return mapToResponse(productRepository.save(product));
+                    product.setChangeSeq(changeTracker.stamp());
+                    requestCoalescer.invalidateAfterCommit();
+                    ProductResponse response = mapToResponse(productRepository.save(product));
+                    eventPublisher.publishEvent(ProductChangedEvent.saved(response));
+                    return response;
                 })
                 .orElse(null);
     }
@@ -67,7 +167,13 @@ public class ProductService {
     @Transactional
     public boolean delete(Long id) {
         if (productRepository.existsById(id)) {
+            if (productionOrderRepository.existsByProductId(id)) {
+                throw new BusinessException("Product " + id + " has production orders and cannot be deleted");
+            }
             productRepository.deleteById(id);
+            changeTracker.recordDeletion(SyncEntityType.PRODUCT, id);
+            requestCoalescer.invalidateAfterCommit();
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
             return true;
         }
         return false;
@@ -75,46 +181,228 @@ public class ProductService {
 
     @Transactional
     public void addRawMaterialToProduct(Long productId, Long rawMaterialId, Double quantityNeeded) {
+        if (quantityNeeded == null || quantityNeeded <= 0) {
+            throw new BusinessException("Each raw material requires an ID and a positive quantity");
+        }
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
 
         RawMaterial rawMaterial = rawMaterialRepository.findById(rawMaterialId)
                 .orElseThrow(() -> new EntityNotFoundException("Raw Material not found"));
 
-        ProductRawMaterial association = new ProductRawMaterial();
-        association.setProduct(product);
-        association.setRawMaterial(rawMaterial);
+        ProductRawMaterial association = productRawMaterialRepository.findByProductAndRawMaterial(product, rawMaterial)
+                .orElseGet(() -> {
+                    ProductRawMaterial newAssociation = new ProductRawMaterial();
+                    newAssociation.setProduct(product);
+                    newAssociation.setRawMaterial(rawMaterial);
+                    return newAssociation;
+                });
         association.setQuantity(quantityNeeded);
+        association.setChangeSeq(changeTracker.stamp());
 
         productRawMaterialRepository.save(association);
+        requestCoalescer.invalidateAfterCommit();
+        eventPublisher.publishEvent(new BillOfMaterialsChangedEvent(productId));
+    }
+
+    public List<ProductRawMaterialResponse> findRawMaterials(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+
+        return productRawMaterialRepository.findByProduct(product).stream()
+                .map(this::mapToResponse)
+                .sorted(Comparator.comparing(ProductRawMaterialResponse::rawMaterialId))
+                .toList();
+    }
+
+    /**
+     * Replaces the whole bill of materials of a product. The requested BOM is diffed against the
+     * stored rows: removed materials go in a single bulk delete, changed quantities are updated in
+     * place and new materials are inserted, the last two flushed as JDBC batches at commit.
+     */
+    @Transactional
+    public List<ProductRawMaterialResponse> replaceRawMaterials(Long productId, List<ProductRawMaterialRequest> billOfMaterials) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+
+        Map<Long, Double> requested = new LinkedHashMap<>();
+        for (ProductRawMaterialRequest item : billOfMaterials) {
+            if (item.rawMaterialId() == null || item.quantity() == null || item.quantity() <= 0) {
+                throw new BusinessException("Each raw material requires an ID and a positive quantity");
+            }
+            if (requested.put(item.rawMaterialId(), item.quantity()) != null) {
+                throw new BusinessException("Raw material " + item.rawMaterialId() + " is listed more than once");
+            }
+        }
+
+        Map<Long, ProductRawMaterial> kept = new HashMap<>();
+        List<Long> removed = new ArrayList<>();
+        for (ProductRawMaterial existing : productRawMaterialRepository.findByProduct(product)) {
+            Long rawMaterialId = existing.getRawMaterial().getId();
+            if (requested.containsKey(rawMaterialId) && kept.putIfAbsent(rawMaterialId, existing) == null) {
+                continue;
+            }
+            removed.add(existing.getId());
+        }
+        if (!removed.isEmpty()) {
+            productRawMaterialRepository.deleteAllByIdInBatch(removed);
+            changeTracker.recordDeletions(SyncEntityType.PRODUCT_RAW_MATERIAL, removed);
+        }
+
+        List<Long> added = requested.keySet().stream()
+                .filter(rawMaterialId -> !kept.containsKey(rawMaterialId))
+                .toList();
+        List<RawMaterial> addedRawMaterials = added.isEmpty() ? List.of() : rawMaterialRepository.findAllById(added);
+        if (addedRawMaterials.size() != added.size()) {
+            throw new EntityNotFoundException("Raw Material not found");
+        }
+
+        List<ProductRawMaterial> result = new ArrayList<>(requested.size());
+        kept.forEach((rawMaterialId, association) -> {
+            Double quantity = requested.get(rawMaterialId);
+            if (!quantity.equals(association.getQuantity())) {
+                association.setQuantity(quantity);
+                association.setChangeSeq(changeTracker.stamp());
+            }
+            result.add(association);
+        });
+
+        List<ProductRawMaterial> inserted = addedRawMaterials.stream()
+                .map(rawMaterial -> new ProductRawMaterial(null, product, rawMaterial, requested.get(rawMaterial.getId()),
+                        changeTracker.stamp()))
+                .toList();
+        result.addAll(productRawMaterialRepository.saveAll(inserted));
+        requestCoalescer.invalidateAfterCommit();
+        eventPublisher.publishEvent(new BillOfMaterialsChangedEvent(productId));
+
+        return result.stream()
+                .map(this::mapToResponse)
+                .sorted(Comparator.comparing(ProductRawMaterialResponse::rawMaterialId))
+                .toList();
     }
 
 
+    /**
+     * Evaluates every product against current stock, with all bills of materials and their products
+     * and raw materials loaded in a single query. Products without a bill of materials are never
+     * producible.
+     */
+    @Timed(value = "autoflex.producibility.evaluation", extraTags = {"scope", "all"}, histogram = true)
     public List<ProductResponse> findProductsProducibleWithInventory() {
-        List<Product> allProducts = productRepository.findAll();
+        return requestCoalescer.execute("producible", "all",
+                () -> producible(productRawMaterialRepository.findAllWithProductAndRawMaterial(), RawMaterial::getCurrentStock));
+    }
+
+    /**
+     * Evaluates every product against the stock of the given warehouses combined. The stock of
+     * each warehouse is read from its own partition in parallel, alongside the bills of materials.
+     */
+    @Timed(value = "autoflex.producibility.evaluation", extraTags = {"scope", "warehouses"}, histogram = true)
+    public List<ProductResponse> findProducibleInWarehouses(Collection<Long> warehouseIds) {
+        Set<Long> warehouses = new TreeSet<>(warehouseIds);
+        return requestCoalescer.execute("producible", "warehouses" + warehouses, () -> {
+            Map<Long, Double> stock = warehouseService.stockAcross(warehouses, null);
+            return producible(productRawMaterialRepository.findAllWithProductAndRawMaterial(),
+                    rawMaterial -> stock.getOrDefault(rawMaterial.getId(), 0.0));
+        });
+    }
 
-        return allProducts.stream()
-                .filter(this::canBeProduced)
+    /**
+     * Re-evaluates only the given products against current stock, with their bills of materials
+     * and raw materials loaded in a single query. IDs of products that no longer exist are ignored.
+     */
+    @Timed(value = "autoflex.producibility.evaluation", extraTags = {"scope", "subset"}, histogram = true)
+    public List<ProductResponse> findProducibleAmong(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return producible(productRawMaterialRepository.findWithProductAndRawMaterialByProductIdIn(productIds),
+                RawMaterial::getCurrentStock);
+    }
+
+    public List<ProductResponse> findChangedBetween(long after, long through) {
+        return productRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(after, through).stream()
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .toList();
     }
 
-    private boolean canBeProduced(Product product) {
-        List<ProductRawMaterial> requirements = productRawMaterialRepository.findByProduct(product);
+    public List<ProductRawMaterialSyncResponse> findRawMaterialAssociationsChangedBetween(long after, long through) {
+        return productRawMaterialRepository.findChangedBetween(after, through).stream()
+                .map(association -> new ProductRawMaterialSyncResponse(association.getId(),
+                        association.getProduct().getId(), association.getRawMaterial().getId(), association.getQuantity()))
+                .toList();
+    }
 
-        if (requirements.isEmpty()) {
-            return false;
+    public List<Long> findProductIdsUsingRawMaterials(Collection<Long> rawMaterialIds) {
+        if (rawMaterialIds.isEmpty()) {
+            return List.of();
         }
+        return productRawMaterialRepository.findProductIdsByRawMaterialIdIn(rawMaterialIds);
+    }
+
+    public ProductCapacityResponse calculateMaxQuantity(Long productId) {
+        return requestCoalescer.execute("max-quantity", productId, () -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+
+            List<ProductRawMaterial> requirements = productRawMaterialRepository.findByProduct(product);
+            return new ProductCapacityResponse(product.getId(), maxQuantity(requirements, RawMaterial::getCurrentStock));
+        });
+    }
+
+    /** How many units the stock of the given warehouses combined can produce. */
+    public ProductCapacityResponse calculateMaxQuantity(Long productId, Collection<Long> warehouseIds) {
+        Set<Long> warehouses = new TreeSet<>(warehouseIds);
+        return requestCoalescer.execute("max-quantity", productId + "@" + warehouses, () -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+
+            List<ProductRawMaterial> requirements = productRawMaterialRepository.findByProduct(product);
+            Map<Long, Double> stock = requirements.isEmpty() ? Map.of() : warehouseService.stockAcross(warehouses,
+                    requirements.stream().map(req -> req.getRawMaterial().getId()).toList());
+            return new ProductCapacityResponse(product.getId(),
+                    maxQuantity(requirements, rawMaterial -> stock.getOrDefault(rawMaterial.getId(), 0.0)));
+        });
+    }
+
+    public ProductCostResponse calculateCost(Long productId) {
+        return requestCoalescer.execute("cost-rollup", productId, () -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found"));
 
+            BigDecimal materialCost = productRawMaterialRepository.findByProduct(product).stream()
+                    .map(req -> BigDecimal.valueOf(req.getRawMaterial().getCost())
+                            .multiply(BigDecimal.valueOf(req.getQuantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)
+                    .setScale(2, RoundingMode.HALF_UP);
+            return new ProductCostResponse(product.getId(), materialCost, product.getPrice(),
+                    product.getPrice().subtract(materialCost));
+        });
+    }
+
+    private static long maxQuantity(List<ProductRawMaterial> requirements, ToDoubleFunction<RawMaterial> stock) {
+        long maxQuantity = requirements.isEmpty() ? 0 : Long.MAX_VALUE;
         for (ProductRawMaterial req : requirements) {
-            if (req.getRawMaterial().getCurrentStock() < req.getQuantity()) {
-                return false;
-            }
+            long units = (long) Math.floor(stock.applyAsDouble(req.getRawMaterial()) / req.getQuantity());
+            maxQuantity = Math.min(maxQuantity, Math.max(units, 0));
         }
-        return true;
+        return maxQuantity;
+    }
+
+    /** Products, by ID, whose every requirement in the given bill-of-materials rows is covered by stock. */
+    private List<ProductResponse> producible(List<ProductRawMaterial> billsOfMaterials, ToDoubleFunction<RawMaterial> stock) {
+        Map<Long, List<ProductRawMaterial>> requirementsByProduct = billsOfMaterials.stream()
+                .collect(Collectors.groupingBy(req -> req.getProduct().getId()));
+
+        return requirementsByProduct.values().stream()
+                .filter(requirements -> requirements.stream()
+                        .allMatch(req -> stock.applyAsDouble(req.getRawMaterial()) >= req.getQuantity()))
+                .map(requirements -> mapToResponse(requirements.get(0).getProduct()))
+                .sorted(Comparator.comparing(ProductResponse::id))
+                .toList();
     }
 
-    private ProductResponse mapToResponse(Product product) {
+    ProductResponse mapToResponse(Product product) {
         return new ProductResponse(
                 product.getId(),
                 product.getName(),
@@ -122,4 +410,21 @@ public class ProductService {
                 product.getPrice()
         );
     }
+
+    private ProductRawMaterialResponse mapToResponse(ProductRawMaterial association) {
+        return new ProductRawMaterialResponse(
+                association.getRawMaterial().getId(),
+                association.getRawMaterial().getName(),
+                association.getQuantity()
+        );
+    }
+
+    private ProductResponse mapToResponse(Tuple tuple, Set<String> fields) {
+        return new ProductResponse(
+                fields.contains("id") ? tuple.get("id", Long.class) : null,
+                fields.contains("name") ? tuple.get("name", String.class) : null,
+                fields.contains("description") ? tuple.get("description", String.class) : null,
+                fields.contains("price") ? tuple.get("price", BigDecimal.class) : null
+        );
+    }
 }
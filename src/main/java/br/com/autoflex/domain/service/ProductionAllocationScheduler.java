@@ -0,0 +1,21 @@
+package br.com.autoflex.domain.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Re-plans the production queue on a fixed delay; see {@link ProductionOrderService#allocate()}. */
+@Component
+public class ProductionAllocationScheduler {
+
+    private final ProductionOrderService productionOrderService;
+
+    public ProductionAllocationScheduler(ProductionOrderService productionOrderService) {
+        this.productionOrderService = productionOrderService;
+    }
+
+    @Scheduled(fixedDelayString = "${autoflex.production.allocation-interval:PT1M}",
+            initialDelayString = "${autoflex.production.allocation-interval:PT1M}")
+    public void allocate() {
+        productionOrderService.allocate();
+    }
+}
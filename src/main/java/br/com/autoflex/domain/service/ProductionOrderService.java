@@ -0,0 +1,172 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.ProductionAllocation;
+import br.com.autoflex.domain.entity.ProductionOrder;
+import br.com.autoflex.domain.entity.ProductionOrderStatus;
+import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.domain.repository.ProductionAllocationRepository;
+import br.com.autoflex.domain.repository.ProductionOrderRepository;
+import br.com.autoflex.dto.production.AllocationRunResponse;
+import br.com.autoflex.dto.production.MaterialAllocationResponse;
+import br.com.autoflex.dto.production.ProductionOrderRequest;
+import br.com.autoflex.dto.production.ProductionOrderResponse;
+import br.com.autoflex.error.BusinessException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Production orders and the allocation of raw materials to them. Orders are not given stock when
+ * they are created or run; instead {@link #allocate()} periodically re-plans the whole queue in one
+ * pass over a snapshot of the stock, reserving raw materials in priority order, and writes every
+ * reservation and status in a single transaction. An order that cannot be fully covered keeps what
+ * it could reserve, so lower-priority orders never take stock from it.
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class ProductionOrderService {
+
+    private final ProductionOrderRepository productionOrderRepository;
+    private final ProductionAllocationRepository productionAllocationRepository;
+    private final ProductRepository productRepository;
+    private final ProductRawMaterialRepository productRawMaterialRepository;
+    private final Clock clock = Clock.systemUTC();
+
+    public ProductionOrderService(ProductionOrderRepository productionOrderRepository,
+                                  ProductionAllocationRepository productionAllocationRepository,
+                                  ProductRepository productRepository,
+                                  ProductRawMaterialRepository productRawMaterialRepository) {
+        this.productionOrderRepository = productionOrderRepository;
+        this.productionAllocationRepository = productionAllocationRepository;
+        this.productRepository = productRepository;
+        this.productRawMaterialRepository = productRawMaterialRepository;
+    }
+
+    @Transactional
+    public ProductionOrderResponse create(ProductionOrderRequest request) {
+        if (request.productId() == null || request.quantity() == null || !(request.quantity() > 0)
+                || request.quantity().isInfinite() || request.dueDate() == null) {
+            throw new BusinessException("A production order requires a product ID, a positive quantity and a due date");
+        }
+        if (!productRepository.existsById(request.productId())) {
+            throw new EntityNotFoundException("Product not found");
+        }
+        ProductionOrder order = productionOrderRepository.save(new ProductionOrder(null, request.productId(),
+                request.quantity(), request.priority() == null ? 0 : request.priority(), request.dueDate(),
+                ProductionOrderStatus.QUEUED, clock.instant(), null, null));
+        return mapToResponse(order, List.of());
+    }
+
+    /** The queue in allocation order, each order with its latest allocations. */
+    public List<ProductionOrderResponse> findQueue() {
+        List<ProductionOrder> queue = productionOrderRepository.findQueue();
+        if (queue.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ProductionAllocation>> allocations = productionAllocationRepository
+                .findByOrderIdIn(queue.stream().map(ProductionOrder::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ProductionAllocation::getOrderId));
+        return queue.stream()
+                .map(order -> mapToResponse(order, allocations.getOrDefault(order.getId(), List.of())))
+                .toList();
+    }
+
+    public ProductionOrderResponse findById(Long id) {
+        return productionOrderRepository.findById(id)
+                .map(order -> mapToResponse(order, productionAllocationRepository.findByOrderIdIn(List.of(id))))
+                .orElse(null);
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        if (productionOrderRepository.existsById(id)) {
+            productionAllocationRepository.deleteByOrderId(id);
+            productionOrderRepository.deleteById(id);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Re-plans the whole queue. The queue is locked first, so runs on several instances take turns;
+     * then the bills of materials of every queued product and the stock of their raw materials are
+     * read in one query, reservations are computed in memory, and the previous allocations are
+     * replaced and statuses updated with a fixed number of set-based statements.
+     */
+    @Transactional
+    public AllocationRunResponse allocate() {
+        List<ProductionOrder> queue = productionOrderRepository.findQueueForUpdate();
+        Instant allocatedAt = clock.instant().truncatedTo(ChronoUnit.MICROS);
+        if (queue.isEmpty()) {
+            return new AllocationRunResponse(allocatedAt, 0, 0, 0, List.of());
+        }
+
+        Map<Long, List<ProductRawMaterial>> billsOfMaterials = productRawMaterialRepository
+                .findWithProductAndRawMaterialByProductIdIn(queue.stream().map(ProductionOrder::getProductId).distinct().toList())
+                .stream()
+                .collect(Collectors.groupingBy(row -> row.getProduct().getId()));
+        Map<Long, Double> remaining = new HashMap<>();
+        billsOfMaterials.values().forEach(rows -> rows.forEach(row ->
+                remaining.putIfAbsent(row.getRawMaterial().getId(), Math.max(row.getRawMaterial().getCurrentStock(), 0))));
+
+        List<ProductionAllocation> allocations = new ArrayList<>();
+        List<Long> allocatedIds = new ArrayList<>();
+        List<Long> shortIds = new ArrayList<>();
+        Map<Long, MaterialAllocationResponse> shortfalls = new TreeMap<>();
+        for (ProductionOrder order : queue) {
+            // As in ProductService.maxQuantity, a product without a bill of materials cannot be produced
+            List<ProductRawMaterial> billOfMaterials = billsOfMaterials.getOrDefault(order.getProductId(), List.of());
+            boolean covered = !billOfMaterials.isEmpty();
+            for (ProductRawMaterial row : billOfMaterials) {
+                Long rawMaterialId = row.getRawMaterial().getId();
+                double required = order.getQuantity() * row.getQuantity();
+                double reserved = Math.min(required, remaining.get(rawMaterialId));
+                remaining.put(rawMaterialId, remaining.get(rawMaterialId) - reserved);
+                allocations.add(new ProductionAllocation(null, order.getId(), rawMaterialId, required, reserved));
+                if (reserved < required) {
+                    covered = false;
+                    shortfalls.merge(rawMaterialId, new MaterialAllocationResponse(rawMaterialId, required, reserved, required - reserved),
+                            (a, b) -> new MaterialAllocationResponse(rawMaterialId, a.required() + b.required(),
+                                    a.allocated() + b.allocated(), a.shortfall() + b.shortfall()));
+                }
+            }
+            (covered ? allocatedIds : shortIds).add(order.getId());
+        }
+
+        productionAllocationRepository.deleteAllInBatch();
+        productionAllocationRepository.saveAll(allocations);
+        if (!allocatedIds.isEmpty()) {
+            productionOrderRepository.updateStatus(allocatedIds, ProductionOrderStatus.ALLOCATED, allocatedAt);
+        }
+        if (!shortIds.isEmpty()) {
+            productionOrderRepository.updateStatus(shortIds, ProductionOrderStatus.SHORT, allocatedAt);
+        }
+        return new AllocationRunResponse(allocatedAt, queue.size(), allocatedIds.size(), shortIds.size(),
+                List.copyOf(shortfalls.values()));
+    }
+
+    private ProductionOrderResponse mapToResponse(ProductionOrder order, List<ProductionAllocation> allocations) {
+        return new ProductionOrderResponse(order.getId(), order.getProductId(), order.getQuantity(), order.getPriority(),
+                order.getDueDate(), order.getStatus(), order.getAllocatedAt(),
+                allocations.stream()
+                        .sorted(Comparator.comparing(ProductionAllocation::getRawMaterialId))
+                        .map(allocation -> new MaterialAllocationResponse(allocation.getRawMaterialId(),
+                                allocation.getRequired(), allocation.getAllocated(),
+                                allocation.getRequired() - allocation.getAllocated()))
+                        .toList());
+    }
+}
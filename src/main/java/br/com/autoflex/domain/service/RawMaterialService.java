@@ -1,31 +1,75 @@
 package br.com.autoflex.domain.service;
 
 import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
 import br.com.autoflex.domain.repository.RawMaterialRepository;
+import br.com.autoflex.domain.repository.RawMaterialSpecifications;
+import br.com.autoflex.dto.rawmaterial.RawMaterialFilter;
 import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
 import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.sync.ChangeTracker;
+import br.com.autoflex.sync.SyncEntityType;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.Tuple;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
+@Timed(value = "autoflex.service", histogram = true)
 public class RawMaterialService {
 
+    /** Each one is backed by an index: the primary key and the idx_raw_materials_* indexes. */
+    private static final List<String> SORTABLE_FIELDS = List.of("id", "name", "cost", "currentStock");
+
+    private static final int MAX_REFRESH_ATTEMPTS = 3;
+
     private final RawMaterialRepository rawMaterialRepository;
+    private final RequestCoalescer requestCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeTracker changeTracker;
+    private final WarehouseService warehouseService;
 
-    public RawMaterialService(RawMaterialRepository rawMaterialRepository) {
+    public RawMaterialService(RawMaterialRepository rawMaterialRepository,
+                              RequestCoalescer requestCoalescer,
+                              ApplicationEventPublisher eventPublisher,
+                              ChangeTracker changeTracker,
+                              WarehouseService warehouseService) {
         this.rawMaterialRepository = rawMaterialRepository;
+        this.requestCoalescer = requestCoalescer;
+        this.eventPublisher = eventPublisher;
+        this.changeTracker = changeTracker;
+        this.warehouseService = warehouseService;
     }
 
+    /**
+     * Stock written here is the total across warehouses: received stock goes to the default
+     * warehouse.
+     */
     @Transactional
     public RawMaterialResponse create(RawMaterialRequest request) {
-        return rawMaterialRepository.findByName(request.name())
+        validateReorderThreshold(request);
+        requestCoalescer.invalidateAfterCommit();
+        RawMaterialResponse response = rawMaterialRepository.findByName(request.name())
                 .map(existingMaterial -> {
 
                     existingMaterial.setCurrentStock(existingMaterial.getCurrentStock() + request.currentStock());
                     existingMaterial.setCost(request.cost());
                     existingMaterial.setDescription(request.description());
+                    if (request.reorderThreshold() != null) {
+                        existingMaterial.setReorderThreshold(request.reorderThreshold());
+                    }
+                    existingMaterial.setChangeSeq(changeTracker.stamp());
+                    warehouseService.addToDefaultWarehouse(existingMaterial.getId(), request.currentStock());
                     return mapToResponse(rawMaterialRepository.save(existingMaterial));
                 })
                 .orElseGet(() -> {
@@ -35,8 +79,14 @@ public class RawMaterialService {
                     newMaterial.setDescription(request.description());
                     newMaterial.setCost(request.cost());
                     newMaterial.setCurrentStock(request.currentStock());
-                    return mapToResponse(rawMaterialRepository.save(newMaterial));
+                    newMaterial.setReorderThreshold(request.reorderThreshold());
+                    newMaterial.setChangeSeq(changeTracker.stamp());
+                    RawMaterial saved = rawMaterialRepository.save(newMaterial);
+                    warehouseService.initializeStock(saved.getId(), request.currentStock());
+                    return mapToResponse(saved);
                 });
+        eventPublisher.publishEvent(RawMaterialChangedEvent.saved(response));
+        return response;
     }
 
     public List<RawMaterialResponse> findAll() {
@@ -45,21 +95,79 @@ public class RawMaterialService {
                 .toList();
     }
 
+    public List<RawMaterialResponse> findAll(Set<String> fields) {
+        if (!FieldSelection.isRequested(fields)) {
+            return findAll();
+        }
+
+        Set<String> selected = FieldSelection.resolve(fields, RawMaterialResponse.class);
+        return rawMaterialRepository.findAllSelecting(RawMaterial.class, selected).stream()
+                .map(tuple -> mapToResponse(tuple, selected))
+                .toList();
+    }
+
+    /**
+     * Lists raw materials matching the filter, in the requested order. Both are pushed down to the
+     * database; with no filter and no sort this is the same as {@link #findAll(Set)}.
+     */
+    public List<RawMaterialResponse> findAll(Set<String> fields, RawMaterialFilter filter, Sort sort) {
+        Sort order = FieldSelection.resolveSort(sort, SORTABLE_FIELDS);
+        if (filter != null && filter.minCost() != null && filter.maxCost() != null
+                && filter.minCost() > filter.maxCost()) {
+            throw new BusinessException("minCost must not be greater than maxCost");
+        }
+
+        Specification<RawMaterial> specification = RawMaterialSpecifications.matching(filter);
+        if (specification == null && order.isUnsorted()) {
+            return findAll(fields);
+        }
+        if (!FieldSelection.isRequested(fields)) {
+            return rawMaterialRepository.findAll(specification, order).stream()
+                    .map(this::mapToResponse)
+                    .toList();
+        }
+
+        Set<String> selected = FieldSelection.resolve(fields, RawMaterialResponse.class);
+        return rawMaterialRepository.findAllSelecting(RawMaterial.class, selected, specification, order).stream()
+                .map(tuple -> mapToResponse(tuple, selected))
+                .toList();
+    }
+
+    public List<RawMaterialResponse> findChangedBetween(long after, long through) {
+        return rawMaterialRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(after, through).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
     public RawMaterialResponse findById(Long id) {
         return rawMaterialRepository.findById(id)
                 .map(this::mapToResponse)
                 .orElse(null);
     }
 
+    public List<RawMaterialResponse> findByIds(Collection<Long> ids) {
+        return rawMaterialRepository.findAllById(ids).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    /** The new total is reached by changing the default warehouse's share. */
     @Transactional
     public RawMaterialResponse update(Long id, RawMaterialRequest request) {
+        validateReorderThreshold(request);
         return rawMaterialRepository.findById(id)
                 .map(rawMaterial -> {
+                    requestCoalescer.invalidateAfterCommit();
                     rawMaterial.setName(request.name());
                     rawMaterial.setDescription(request.description());
                     rawMaterial.setCost(request.cost());
                     rawMaterial.setCurrentStock(request.currentStock());
-                    return mapToResponse(rawMaterialRepository.save(rawMaterial));
+                    rawMaterial.setReorderThreshold(request.reorderThreshold());
+                    rawMaterial.setChangeSeq(changeTracker.stamp());
+                    warehouseService.setTotal(id, request.currentStock());
+                    RawMaterialResponse response = mapToResponse(rawMaterialRepository.save(rawMaterial));
+                    eventPublisher.publishEvent(RawMaterialChangedEvent.saved(response));
+                    return response;
                 })
                 .orElse(null);
     }
@@ -68,19 +176,81 @@ public class RawMaterialService {
     public boolean delete(Long id) {
         if (rawMaterialRepository.existsById(id)) {
             rawMaterialRepository.deleteById(id);
+            changeTracker.recordDeletion(SyncEntityType.RAW_MATERIAL, id);
+            requestCoalescer.invalidateAfterCommit();
+            eventPublisher.publishEvent(RawMaterialChangedEvent.deleted(id));
             return true;
         }
         return false;
     }
 
-    private RawMaterialResponse mapToResponse(RawMaterial rawMaterial) {
+    /**
+     * Sets the total stock of the given raw materials to the sum of their warehouse stock, in one
+     * transaction sharing one change sequence. Rows are not locked: each one is written only if its
+     * total is still the one read, and re-read when another refresh got there first, so the last
+     * refresh to write has seen every committed change. Returns how many totals changed. Called by
+     * {@link StockTotalRefresher} off the request thread, never from within a writing transaction.
+     */
+    @Transactional
+    public int refreshTotals(Collection<Long> rawMaterialIds) {
+        int refreshed = 0;
+        Collection<Long> pending = rawMaterialIds;
+        for (int attempt = 0; attempt < MAX_REFRESH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            Map<Long, Double> totals = warehouseService.totalStock(pending);
+            List<Long> contended = new ArrayList<>();
+            for (RawMaterial rawMaterial : rawMaterialRepository.findAllById(pending)) {
+                double total = totals.getOrDefault(rawMaterial.getId(), 0.0);
+                if (total == rawMaterial.getCurrentStock()) {
+                    continue;
+                }
+                long changeSeq = changeTracker.stamp();
+                if (rawMaterialRepository.compareAndSetStock(rawMaterial.getId(), rawMaterial.getCurrentStock(), total,
+                        changeSeq) == 0) {
+                    contended.add(rawMaterial.getId());
+                    continue;
+                }
+                rawMaterial.setCurrentStock(total);
+                rawMaterial.setChangeSeq(changeSeq);
+                requestCoalescer.invalidateAfterCommit();
+                eventPublisher.publishEvent(RawMaterialChangedEvent.saved(mapToResponse(rawMaterial)));
+                refreshed++;
+            }
+            pending = contended;
+        }
+        return refreshed;
+    }
+
+    /** Raw materials whose total stock no longer matches their warehouse stock. */
+    public List<Long> findIdsWithStaleStock() {
+        return rawMaterialRepository.findIdsWithStaleStock();
+    }
+
+    RawMaterialResponse mapToResponse(RawMaterial rawMaterial) {
         return new RawMaterialResponse(
                 rawMaterial.getId(),
                 rawMaterial.getName(),
                 rawMaterial.getDescription(),
                 rawMaterial.getCost(),
-                rawMaterial.getCurrentStock()
+                rawMaterial.getCurrentStock(),
+                rawMaterial.getReorderThreshold()
         );
     }
+
+    private RawMaterialResponse mapToResponse(Tuple tuple, Set<String> fields) {
+        return new RawMaterialResponse(
+                fields.contains("id") ? tuple.get("id", Long.class) : null,
+                fields.contains("name") ? tuple.get("name", String.class) : null,
+                fields.contains("description") ? tuple.get("description", String.class) : null,
+                fields.contains("cost") ? tuple.get("cost", Double.class) : null,
+                fields.contains("currentStock") ? tuple.get("currentStock", Double.class) : null,
+                fields.contains("reorderThreshold") ? tuple.get("reorderThreshold", Double.class) : null
+        );
+    }
+
+    private void validateReorderThreshold(RawMaterialRequest request) {
+        if (request.reorderThreshold() != null && request.reorderThreshold() < 0) {
+            throw new BusinessException("Reorder threshold must not be negative");
+        }
+    }
 }
 
@@ -0,0 +1,120 @@
+package br.com.autoflex.domain.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of expensive read computations. Concurrent callers asking for the same
+ * computation key share one in-flight {@link CompletableFuture} instead of each running the work,
+ * and the result may be reused for a short window afterwards. Catalog writes invalidate both the
+ * in-flight map and the reuse window once their transaction commits, so no caller observes a result
+ * computed before its own write. Results are shared between callers, so list results are handed
+ * out as unmodifiable copies.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final MeterRegistry meterRegistry;
+    private final long reuseWindowNanos;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Reusable> recent = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${autoflex.coalescing.reuse-window:0s}") Duration reuseWindow) {
+        this.meterRegistry = meterRegistry;
+        this.reuseWindowNanos = reuseWindow.toNanos();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String computation, Object key, Supplier<T> supplier) {
+        String cacheKey = computation + ':' + key;
+
+        Reusable reusable = recent.get(cacheKey);
+        if (reusable != null && reusable.generation() == generation.get()
+                && System.nanoTime() - reusable.computedAt() < reuseWindowNanos) {
+            count(computation, "reused");
+            return (T) reusable.value();
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(cacheKey, future);
+        if (existing != null) {
+            count(computation, "coalesced");
+            return (T) await(existing);
+        }
+
+        count(computation, "executed");
+        long startedGeneration = generation.get();
+        try {
+            T value = (T) shareable(supplier.get());
+            if (reuseWindowNanos > 0) {
+                // The generation is re-checked under the bin lock of the key, so an invalidation that
+                // lands between the check and the store is either seen here or clears the entry after.
+                recent.compute(cacheKey, (ignored, previous) -> generation.get() == startedGeneration
+                        ? new Reusable(value, System.nanoTime(), startedGeneration)
+                        : previous);
+            }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(cacheKey, future);
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        inFlight.clear();
+        recent.clear();
+    }
+
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+
+    private static Object shareable(Object value) {
+        return value instanceof List<?> list ? List.copyOf(list) : value;
+    }
+
+    private void count(String computation, String outcome) {
+        meterRegistry.counter("autoflex.coalescing.requests", "computation", computation, "outcome", outcome).increment();
+    }
+
+    private record Reusable(Object value, long computedAt, long generation) {
+    }
+}
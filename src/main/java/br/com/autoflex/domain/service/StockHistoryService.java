@@ -0,0 +1,380 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.StockDailyRollup;
+import br.com.autoflex.domain.entity.StockHistorySegment;
+import br.com.autoflex.domain.entity.ValuationDailyRollup;
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
+import br.com.autoflex.domain.repository.StockDailyRollupRepository;
+import br.com.autoflex.domain.repository.StockHistorySegmentRepository;
+import br.com.autoflex.domain.repository.ValuationDailyRollupRepository;
+import br.com.autoflex.dto.history.InventoryValuationResponse;
+import br.com.autoflex.dto.history.RollupResponse;
+import br.com.autoflex.dto.history.StockSampleResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.history.DailyRollup;
+import br.com.autoflex.history.RollupGranularity;
+import br.com.autoflex.history.RollupSeries;
+import br.com.autoflex.history.StockSample;
+import br.com.autoflex.history.StockSeriesCodec;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stock history per raw material and the inventory value ({@code cost * currentStock} summed over
+ * raw materials), both as of every committed change.
+ * <p>
+ * The current value is kept in memory: it is loaded once the application is ready and then moved
+ * by the difference each change makes, so reading it never queries the database. Changes committed
+ * by this instance are also buffered as samples and written every
+ * {@code autoflex.history.flush-interval}: each raw material's samples become an append-only,
+ * delta-encoded segment per day, and the daily rollups of its stock and of the total value are
+ * updated in the same transaction. Range and weekly queries read those rollups, never the raw
+ * samples, and raw segments older than {@code autoflex.history.raw-retention} are dropped a day
+ * at a time. Changes replayed from other instances move the current value but are not recorded
+ * again.
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class StockHistoryService {
+
+    static final int VALUE_SCALE = 4;
+    static final int MAX_SEGMENT_SAMPLES = 4096;
+
+    private static final Logger log = LoggerFactory.getLogger(StockHistoryService.class);
+
+    private final RawMaterialService rawMaterialService;
+    private final StockHistorySegmentRepository segmentRepository;
+    private final StockDailyRollupRepository stockRollupRepository;
+    private final ValuationDailyRollupRepository valuationRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration rawRetention;
+    private final int maxRangeDays;
+    private final Clock clock = Clock.systemUTC();
+    private final DeferredChanges deferredChanges = new DeferredChanges();
+
+    private final Map<Long, Double> stocks = new HashMap<>();
+    private final Map<Long, BigDecimal> values = new HashMap<>();
+    private BigDecimal totalValue = BigDecimal.ZERO.setScale(VALUE_SCALE);
+    private Instant valuedAt;
+    private Map<Long, List<StockSample>> pendingStock = new LinkedHashMap<>();
+    private List<ValuationSample> pendingValuation = new ArrayList<>();
+
+    public StockHistoryService(RawMaterialService rawMaterialService,
+                               StockHistorySegmentRepository segmentRepository,
+                               StockDailyRollupRepository stockRollupRepository,
+                               ValuationDailyRollupRepository valuationRollupRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${autoflex.history.raw-retention:P90D}") Duration rawRetention,
+                               @Value("${autoflex.history.max-range-days:1096}") int maxRangeDays) {
+        this.rawMaterialService = rawMaterialService;
+        this.segmentRepository = segmentRepository;
+        this.stockRollupRepository = stockRollupRepository;
+        this.valuationRollupRepository = valuationRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rawRetention = rawRetention;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /** Recomputes the current value from scratch and records it as a valuation sample. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<RawMaterialResponse> rawMaterials = rawMaterialService.findAll();
+        synchronized (this) {
+            stocks.clear();
+            values.clear();
+            totalValue = BigDecimal.ZERO.setScale(VALUE_SCALE);
+            for (RawMaterialResponse rawMaterial : rawMaterials) {
+                stocks.put(rawMaterial.id(), rawMaterial.currentStock());
+                values.put(rawMaterial.id(), valueOf(rawMaterial));
+                totalValue = totalValue.add(values.get(rawMaterial.id()));
+            }
+            valuedAt = clock.instant();
+            pendingValuation.add(new ValuationSample(valuedAt.toEpochMilli(), totalValue));
+        }
+        deferredChanges.release();
+    }
+
+    /**
+     * Applies a change once its transaction commits. Changes published outside a transaction replay
+     * what another instance committed (see {@code CatalogChangeRelay}), which that instance records.
+     */
+    @EventListener
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deferredChanges.apply(() -> apply(event, false));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deferredChanges.apply(() -> apply(event, true));
+            }
+        });
+    }
+
+    public synchronized InventoryValuationResponse currentValuation() {
+        return new InventoryValuationResponse(valuedAt, totalValue, values.size());
+    }
+
+    /**
+     * Every recorded stock level of a raw material between two days (UTC, inclusive), including
+     * samples not yet written, in the order they were taken. Without {@code from}, the last 30 days
+     * up to {@code to} (default today).
+     */
+    public List<StockSampleResponse> findStockHistory(Long rawMaterialId, LocalDate from, LocalDate to) {
+        LocalDate end = to == null ? today() : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        validateRange(start, end);
+        List<StockSample> samples = new ArrayList<>();
+        for (StockHistorySegment segment : segmentRepository
+                .findByRawMaterialIdAndRecordedOnBetweenOrderByFirstAtAsc(rawMaterialId, start, end)) {
+            samples.addAll(StockSeriesCodec.decode(segment.getData()));
+        }
+        synchronized (this) {
+            pendingStock.getOrDefault(rawMaterialId, List.of()).stream()
+                    .filter(sample -> !dayOf(sample.epochMilli()).isBefore(start) && !dayOf(sample.epochMilli()).isAfter(end))
+                    .forEach(samples::add);
+        }
+        samples.sort(Comparator.comparingLong(StockSample::epochMilli));
+        return samples.stream()
+                .map(sample -> new StockSampleResponse(Instant.ofEpochMilli(sample.epochMilli()), sample.stock()))
+                .toList();
+    }
+
+    public List<RollupResponse> findStockRollups(Long rawMaterialId, LocalDate from, LocalDate to,
+                                                 RollupGranularity granularity) {
+        LocalDate end = to == null ? today() : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        validateRange(start, end);
+        List<DailyRollup> days = stockRollupRepository.findByRawMaterialIdAndRecordedOnBetween(rawMaterialId, start, end)
+                .stream()
+                .map(rollup -> new DailyRollup(rollup.getRecordedOn(), BigDecimal.valueOf(rollup.getOpenStock()),
+                        BigDecimal.valueOf(rollup.getCloseStock()), BigDecimal.valueOf(rollup.getMinStock()),
+                        BigDecimal.valueOf(rollup.getMaxStock()), rollup.getSamples()))
+                .toList();
+        BigDecimal previousClose = stockRollupRepository
+                .findFirstByRawMaterialIdAndRecordedOnLessThanOrderByRecordedOnDesc(rawMaterialId, start)
+                .map(rollup -> BigDecimal.valueOf(rollup.getCloseStock()))
+                .orElse(null);
+        return RollupSeries.summarize(days, previousClose, start, end, granularity);
+    }
+
+    public List<RollupResponse> findValuationRollups(LocalDate from, LocalDate to, RollupGranularity granularity) {
+        LocalDate end = to == null ? today() : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        validateRange(start, end);
+        List<DailyRollup> days = valuationRollupRepository.findByRecordedOnBetween(start, end).stream()
+                .map(rollup -> new DailyRollup(rollup.getRecordedOn(), rollup.getOpenValue(), rollup.getCloseValue(),
+                        rollup.getMinValue(), rollup.getMaxValue(), rollup.getSamples()))
+                .toList();
+        BigDecimal previousClose = valuationRollupRepository.findFirstByRecordedOnLessThanOrderByRecordedOnDesc(start)
+                .map(ValuationDailyRollup::getCloseValue)
+                .orElse(null);
+        return RollupSeries.summarize(days, previousClose, start, end, granularity);
+    }
+
+    /**
+     * Writes the buffered samples. If the write fails they are put back in front of whatever was
+     * buffered since, and written at the next flush.
+     */
+    @Scheduled(fixedDelayString = "${autoflex.history.flush-interval:PT1M}")
+    public void flush() {
+        Map<Long, List<StockSample>> stock;
+        List<ValuationSample> valuation;
+        synchronized (this) {
+            if (pendingStock.isEmpty() && pendingValuation.isEmpty()) {
+                return;
+            }
+            stock = pendingStock;
+            valuation = pendingValuation;
+            pendingStock = new LinkedHashMap<>();
+            pendingValuation = new ArrayList<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeStock(stock);
+                writeValuation(valuation);
+                segmentRepository.deleteRecordedBefore(today().minusDays(rawRetention.toDays()));
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Could not write the stock history of {} raw materials; retrying at the next flush", stock.size(), ex);
+            synchronized (this) {
+                stock.forEach((id, samples) -> samples.addAll(pendingStock.getOrDefault(id, List.of())));
+                pendingStock.forEach(stock::putIfAbsent);
+                pendingStock = stock;
+                valuation.addAll(pendingValuation);
+                pendingValuation = valuation;
+            }
+        }
+    }
+
+    private synchronized void apply(RawMaterialChangedEvent event, boolean record) {
+        Long id = event.rawMaterialId();
+        Double previousStock = event.isDeletion() ? stocks.remove(id) : stocks.put(id, event.rawMaterial().currentStock());
+        BigDecimal value = event.isDeletion() ? BigDecimal.ZERO.setScale(VALUE_SCALE) : valueOf(event.rawMaterial());
+        BigDecimal previousValue = event.isDeletion() ? values.remove(id) : values.put(id, value);
+        if (event.isDeletion() && previousStock == null) {
+            return;
+        }
+        totalValue = totalValue.add(value).subtract(previousValue == null ? BigDecimal.ZERO : previousValue);
+        valuedAt = clock.instant();
+        if (!record) {
+            return;
+        }
+        double stock = event.isDeletion() ? 0.0 : event.rawMaterial().currentStock();
+        if (previousStock == null || previousStock != stock) {
+            List<StockSample> samples = pendingStock.computeIfAbsent(id, key -> new ArrayList<>());
+            long at = samples.isEmpty() ? valuedAt.toEpochMilli()
+                    : Math.max(valuedAt.toEpochMilli(), samples.get(samples.size() - 1).epochMilli());
+            samples.add(new StockSample(at, stock));
+        }
+        if (previousValue == null || previousValue.compareTo(value) != 0) {
+            pendingValuation.add(new ValuationSample(valuedAt.toEpochMilli(), totalValue));
+        }
+    }
+
+    private void writeStock(Map<Long, List<StockSample>> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> days = new HashSet<>();
+        pending.values().forEach(samples -> samples.forEach(sample -> days.add(dayOf(sample.epochMilli()))));
+        Map<RollupKey, StockDailyRollup> rollups = stockRollupRepository.findForUpdate(pending.keySet(), days).stream()
+                .collect(Collectors.toMap(rollup -> new RollupKey(rollup.getRawMaterialId(), rollup.getRecordedOn()),
+                        Function.identity()));
+        List<StockHistorySegment> segments = new ArrayList<>();
+        pending.forEach((id, samples) -> {
+            int start = 0;
+            for (int i = 1; i <= samples.size(); i++) {
+                if (i < samples.size() && i - start < MAX_SEGMENT_SAMPLES
+                        && dayOf(samples.get(i).epochMilli()).equals(dayOf(samples.get(start).epochMilli()))) {
+                    continue;
+                }
+                List<StockSample> run = samples.subList(start, i);
+                LocalDate day = dayOf(run.get(0).epochMilli());
+                segments.add(new StockHistorySegment(null, id, day, Instant.ofEpochMilli(run.get(0).epochMilli()),
+                        Instant.ofEpochMilli(run.get(run.size() - 1).epochMilli()), run.size(), StockSeriesCodec.encode(run)));
+                StockSample first = run.get(0);
+                Instant firstAt = Instant.ofEpochMilli(first.epochMilli());
+                StockDailyRollup rollup = rollups.computeIfAbsent(new RollupKey(id, day), key -> new StockDailyRollup(
+                        null, id, day, firstAt, firstAt, first.stock(), first.stock(), first.stock(), first.stock(), 0L));
+                for (StockSample sample : run) {
+                    Instant at = Instant.ofEpochMilli(sample.epochMilli());
+                    if (movesOpen(rollup.getFirstAt(), at)) {
+                        rollup.setFirstAt(at);
+                        rollup.setOpenStock(sample.stock());
+                    }
+                    if (movesClose(rollup.getLastAt(), at)) {
+                        rollup.setLastAt(at);
+                        rollup.setCloseStock(sample.stock());
+                    }
+                    rollup.setMinStock(Math.min(rollup.getMinStock(), sample.stock()));
+                    rollup.setMaxStock(Math.max(rollup.getMaxStock(), sample.stock()));
+                }
+                rollup.setSamples(rollup.getSamples() + run.size());
+                start = i;
+            }
+        });
+        segmentRepository.saveAll(segments);
+        stockRollupRepository.saveAll(rollups.values());
+    }
+
+    private void writeValuation(List<ValuationSample> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<LocalDate, ValuationDailyRollup> rollups = valuationRollupRepository
+                .findForUpdate(pending.stream().map(sample -> dayOf(sample.epochMilli())).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ValuationDailyRollup::getRecordedOn, Function.identity()));
+        for (ValuationSample sample : pending) {
+            Instant at = Instant.ofEpochMilli(sample.epochMilli());
+            ValuationDailyRollup rollup = rollups.computeIfAbsent(dayOf(sample.epochMilli()), day ->
+                    new ValuationDailyRollup(null, day, at, at, sample.value(), sample.value(), sample.value(), sample.value(), 0L));
+            if (movesOpen(rollup.getFirstAt(), at)) {
+                rollup.setFirstAt(at);
+                rollup.setOpenValue(sample.value());
+            }
+            if (movesClose(rollup.getLastAt(), at)) {
+                rollup.setLastAt(at);
+                rollup.setCloseValue(sample.value());
+            }
+            rollup.setMinValue(rollup.getMinValue().min(sample.value()));
+            rollup.setMaxValue(rollup.getMaxValue().max(sample.value()));
+            rollup.setSamples(rollup.getSamples() + 1);
+        }
+        valuationRollupRepository.saveAll(rollups.values());
+    }
+
+    /**
+     * Instances flush their own samples, so a day's samples reach its rollup out of order: a sample
+     * only sets the open or close when it was taken before or after the one that set it. Rows that
+     * predate these timestamps keep their open, and their close moves to the next sample written.
+     */
+    private static boolean movesOpen(Instant firstAt, Instant at) {
+        return firstAt != null && at.isBefore(firstAt);
+    }
+
+    private static boolean movesClose(Instant lastAt, Instant at) {
+        return lastAt == null || !at.isBefore(lastAt);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new BusinessException("A history range covers at most " + maxRangeDays + " days");
+        }
+    }
+
+    private static BigDecimal valueOf(RawMaterialResponse rawMaterial) {
+        return BigDecimal.valueOf(rawMaterial.cost())
+                .multiply(BigDecimal.valueOf(rawMaterial.currentStock()))
+                .setScale(VALUE_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    private static LocalDate dayOf(long epochMilli) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+
+    private record ValuationSample(long epochMilli, BigDecimal value) {
+    }
+
+    private record RollupKey(Long rawMaterialId, LocalDate day) {
+    }
+}
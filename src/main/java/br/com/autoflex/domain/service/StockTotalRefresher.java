@@ -0,0 +1,107 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.event.WarehouseStockChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the total stock of each raw material equal to the sum of its warehouse stock. Once a
+ * warehouse change commits its raw material is queued, and a task on the application executor
+ * refreshes everything queued in one transaction, so the writing request neither holds its
+ * connection for the refresh nor waits on other plants' refreshes. The refresh runs after the
+ * change is durable, so a failure is logged rather than reported to a client whose write already
+ * succeeded. Totals left stale by such a failure, or by a crash in between, are reconciled on
+ * startup and on a schedule.
+ */
+@Component
+public class StockTotalRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(StockTotalRefresher.class);
+
+    private final RawMaterialService rawMaterialService;
+    private final Executor executor;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public StockTotalRefresher(RawMaterialService rawMaterialService,
+                               @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.rawMaterialService = rawMaterialService;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener
+    public void onWarehouseStockChanged(WarehouseStockChangedEvent event) {
+        if (!event.changesTotal()) {
+            return;
+        }
+        queued.add(event.rawMaterialId());
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                log.warn("Could not schedule the refresh of total stock; leaving it to reconciliation", e);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${autoflex.warehouses.reconcile-interval:PT5M}",
+            fixedDelayString = "${autoflex.warehouses.reconcile-interval:PT5M}")
+    public void reconcile() {
+        try {
+            List<Long> stale = rawMaterialService.findIdsWithStaleStock();
+            if (!stale.isEmpty()) {
+                log.info("Reconciled the total stock of {} raw materials", rawMaterialService.refreshTotals(stale));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile total stock; retrying at the next run", e);
+        }
+    }
+
+    /** Refreshes until the queue is empty; ids queued while finishing are picked up by another pass. */
+    private void drain() {
+        do {
+            try {
+                while (!queued.isEmpty()) {
+                    refresh(take());
+                }
+            } finally {
+                draining.set(false);
+            }
+        } while (!queued.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private List<Long> take() {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = queued.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
+    private void refresh(List<Long> rawMaterialIds) {
+        try {
+            rawMaterialService.refreshTotals(rawMaterialIds);
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the total stock of raw materials {}; leaving them to reconciliation",
+                    rawMaterialIds, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.dto.sync.DeletedEntityResponse;
+import br.com.autoflex.dto.sync.SyncResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.sync.ChangeTracker;
+import br.com.autoflex.sync.SyncTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Delta sync of the catalog. Every written row carries the change sequence of its transaction and
+ * every deleted one leaves a tombstone, so a client holding version {@code since} catches up by
+ * reading only the rows stamped after it, through index range scans on the change sequence columns.
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class SyncService {
+
+    private final ProductService productService;
+    private final RawMaterialService rawMaterialService;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final ChangeTracker changeTracker;
+
+    public SyncService(ProductService productService,
+                       RawMaterialService rawMaterialService,
+                       SyncTombstoneRepository tombstoneRepository,
+                       ChangeTracker changeTracker) {
+        this.productService = productService;
+        this.rawMaterialService = rawMaterialService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.changeTracker = changeTracker;
+    }
+
+    /** Changes after {@code since}; a client that has never synced passes 0 and gets the whole catalog. */
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(long since) {
+        if (since < 0) {
+            throw new BusinessException("since must not be negative");
+        }
+
+        long through = changeTracker.committedThrough();
+        if (through <= since) {
+            return new SyncResponse(since, List.of(), List.of(), List.of(), List.of());
+        }
+
+        List<DeletedEntityResponse> deleted = tombstoneRepository
+                .findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(since, through).stream()
+                .map(tombstone -> new DeletedEntityResponse(tombstone.getEntityType(), tombstone.getEntityId()))
+                .toList();
+        return new SyncResponse(through,
+                productService.findChangedBetween(since, through),
+                rawMaterialService.findChangedBetween(since, through),
+                productService.findRawMaterialAssociationsChangedBetween(since, through),
+                deleted);
+    }
+}
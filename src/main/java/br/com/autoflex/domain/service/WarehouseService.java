@@ -0,0 +1,233 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.Warehouse;
+import br.com.autoflex.domain.entity.WarehouseStock;
+import br.com.autoflex.domain.entity.WarehouseStockId;
+import br.com.autoflex.domain.event.WarehouseStockChangedEvent;
+import br.com.autoflex.domain.repository.WarehouseRepository;
+import br.com.autoflex.domain.repository.WarehouseStockRepository;
+import br.com.autoflex.dto.warehouse.StockAdjustmentRequest;
+import br.com.autoflex.dto.warehouse.StockTransferRequest;
+import br.com.autoflex.dto.warehouse.WarehouseRequest;
+import br.com.autoflex.dto.warehouse.WarehouseResponse;
+import br.com.autoflex.dto.warehouse.WarehouseStockResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.warehouse.WarehouseStockPartitions;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Stock per warehouse. Each warehouse's rows live in their own partition and every write touches
+ * one warehouse's rows only, so writes at one plant never wait on locks taken at another. The
+ * total across warehouses kept on each raw material is refreshed after commit, in a short
+ * transaction on a worker thread (see {@link StockTotalRefresher#onWarehouseStockChanged} and
+ * {@link RawMaterialService#refreshTotals}).
+ */
+@Service
+@Timed(value = "autoflex.service", histogram = true)
+public class WarehouseService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final WarehouseStockPartitions partitions;
+    private final RequestCoalescer requestCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor executor;
+
+    public WarehouseService(WarehouseRepository warehouseRepository,
+                            WarehouseStockRepository warehouseStockRepository,
+                            WarehouseStockPartitions partitions,
+                            RequestCoalescer requestCoalescer,
+                            ApplicationEventPublisher eventPublisher,
+                            @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.warehouseRepository = warehouseRepository;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.partitions = partitions;
+        this.requestCoalescer = requestCoalescer;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+    }
+
+    @Transactional
+    public WarehouseResponse create(WarehouseRequest request) {
+        if (request.code() == null || request.code().isBlank() || request.name() == null || request.name().isBlank()) {
+            throw new BusinessException("A warehouse requires a code and a name");
+        }
+        if (warehouseRepository.existsByCode(request.code())) {
+            throw new BusinessException("Warehouse " + request.code() + " already exists");
+        }
+        Warehouse warehouse = warehouseRepository.saveAndFlush(new Warehouse(null, request.code(), request.name()));
+        partitions.createPartition(warehouse.getId());
+        warehouseStockRepository.insertEmptyForAllRawMaterials(warehouse.getId());
+        return mapToResponse(warehouse);
+    }
+
+    public List<WarehouseResponse> findAll() {
+        return warehouseRepository.findAll().stream()
+                .sorted(Comparator.comparing(Warehouse::getId))
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    public List<WarehouseStockResponse> findStock(Long warehouseId) {
+        requireWarehouses(List.of(warehouseId));
+        return warehouseStockRepository.findByWarehouseId(warehouseId).stream()
+                .sorted(Comparator.comparing(WarehouseStock::getRawMaterialId))
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    /** Receives (positive delta) or consumes (negative delta) stock in one warehouse. */
+    @Transactional
+    public WarehouseStockResponse adjust(Long warehouseId, StockAdjustmentRequest request) {
+        if (request.rawMaterialId() == null || request.delta() == null || request.delta() == 0) {
+            throw new BusinessException("An adjustment requires a raw material ID and a non-zero delta");
+        }
+        add(warehouseId, request.rawMaterialId(), request.delta());
+        requestCoalescer.invalidateAfterCommit();
+        WarehouseStock stock = stockOf(warehouseId, request.rawMaterialId());
+        eventPublisher.publishEvent(new WarehouseStockChangedEvent(warehouseId, request.rawMaterialId(),
+                request.delta(), stock.getQuantity(), true));
+        return mapToResponse(stock);
+    }
+
+    /**
+     * Moves stock between two warehouses in one transaction: either both rows change or neither
+     * does. Rows are written in warehouse ID order, so opposite transfers cannot deadlock. The
+     * total across warehouses does not change.
+     */
+    @Transactional
+    public List<WarehouseStockResponse> transfer(StockTransferRequest request) {
+        if (request.rawMaterialId() == null || request.fromWarehouseId() == null || request.toWarehouseId() == null
+                || request.quantity() == null || request.quantity() <= 0) {
+            throw new BusinessException("A transfer requires a raw material ID, two warehouse IDs and a positive quantity");
+        }
+        if (request.fromWarehouseId().equals(request.toWarehouseId())) {
+            throw new BusinessException("A transfer must be between two different warehouses");
+        }
+        if (request.fromWarehouseId() < request.toWarehouseId()) {
+            add(request.fromWarehouseId(), request.rawMaterialId(), -request.quantity());
+            add(request.toWarehouseId(), request.rawMaterialId(), request.quantity());
+        } else {
+            add(request.toWarehouseId(), request.rawMaterialId(), request.quantity());
+            add(request.fromWarehouseId(), request.rawMaterialId(), -request.quantity());
+        }
+        requestCoalescer.invalidateAfterCommit();
+        WarehouseStock from = stockOf(request.fromWarehouseId(), request.rawMaterialId());
+        WarehouseStock to = stockOf(request.toWarehouseId(), request.rawMaterialId());
+        WarehouseStockChangedEvent taken = new WarehouseStockChangedEvent(from.getWarehouseId(), from.getRawMaterialId(),
+                -request.quantity(), from.getQuantity(), false);
+        WarehouseStockChangedEvent received = new WarehouseStockChangedEvent(to.getWarehouseId(), to.getRawMaterialId(),
+                request.quantity(), to.getQuantity(), false);
+        if (request.fromWarehouseId() < request.toWarehouseId()) {
+            eventPublisher.publishEvent(taken);
+            eventPublisher.publishEvent(received);
+        } else {
+            eventPublisher.publishEvent(received);
+            eventPublisher.publishEvent(taken);
+        }
+        return List.of(mapToResponse(from), mapToResponse(to));
+    }
+
+    /**
+     * Stock per raw material summed over the given warehouses, restricted to {@code rawMaterialIds}
+     * unless it is {@code null}. Each warehouse's partition is read by a separate query, in
+     * parallel.
+     */
+    public Map<Long, Double> stockAcross(Collection<Long> warehouseIds, Collection<Long> rawMaterialIds) {
+        Set<Long> distinct = new LinkedHashSet<>(warehouseIds);
+        requireWarehouses(distinct);
+        List<CompletableFuture<List<WarehouseStock>>> partitionReads = distinct.stream()
+                .map(warehouseId -> CompletableFuture.supplyAsync(() -> rawMaterialIds == null
+                        ? warehouseStockRepository.findByWarehouseId(warehouseId)
+                        : warehouseStockRepository.findByWarehouseIdAndRawMaterialIdIn(warehouseId, rawMaterialIds), executor))
+                .toList();
+
+        Map<Long, Double> stock = new HashMap<>();
+        for (CompletableFuture<List<WarehouseStock>> partitionRead : partitionReads) {
+            try {
+                partitionRead.join().forEach(row -> stock.merge(row.getRawMaterialId(), row.getQuantity(), Double::sum));
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        return stock;
+    }
+
+    /** Stock per raw material summed over every warehouse. */
+    public Map<Long, Double> totalStock(Collection<Long> rawMaterialIds) {
+        Map<Long, Double> totals = new HashMap<>();
+        warehouseStockRepository.sumByRawMaterialIdIn(rawMaterialIds)
+                .forEach(total -> totals.put(total.getRawMaterialId(), total.getQuantity()));
+        return totals;
+    }
+
+    /** Gives a new raw material a row in every warehouse, its initial stock going to the default one. */
+    public void initializeStock(Long rawMaterialId, double quantity) {
+        warehouseStockRepository.insertForAllWarehouses(rawMaterialId, partitions.defaultWarehouseId(), quantity);
+    }
+
+    /** Adds stock received through the raw material endpoints to the default warehouse. */
+    public void addToDefaultWarehouse(Long rawMaterialId, double delta) {
+        add(partitions.defaultWarehouseId(), rawMaterialId, delta);
+    }
+
+    /**
+     * Sets the stock of the default warehouse so that the total across warehouses becomes
+     * {@code total}, as the raw material endpoints, which only know totals, expect.
+     */
+    public void setTotal(Long rawMaterialId, double total) {
+        long defaultWarehouseId = partitions.defaultWarehouseId();
+        double elsewhere = warehouseStockRepository.sumExcludingWarehouse(rawMaterialId, defaultWarehouseId);
+        if (total < elsewhere) {
+            throw new BusinessException("Stock of raw material " + rawMaterialId + " cannot be set below the "
+                    + elsewhere + " held outside the default warehouse");
+        }
+        warehouseStockRepository.setQuantity(defaultWarehouseId, rawMaterialId, total - elsewhere);
+    }
+
+    private void add(Long warehouseId, Long rawMaterialId, double delta) {
+        if (warehouseStockRepository.addIfSufficient(warehouseId, rawMaterialId, delta) == 1) {
+            return;
+        }
+        if (!warehouseStockRepository.existsById(new WarehouseStockId(warehouseId, rawMaterialId))) {
+            throw new EntityNotFoundException("Warehouse or Raw Material not found");
+        }
+        throw new BusinessException("Insufficient stock of raw material " + rawMaterialId + " in warehouse " + warehouseId);
+    }
+
+    private WarehouseStock stockOf(Long warehouseId, Long rawMaterialId) {
+        return warehouseStockRepository.findById(new WarehouseStockId(warehouseId, rawMaterialId))
+                .orElseThrow(() -> new EntityNotFoundException("Warehouse or Raw Material not found"));
+    }
+
+    private void requireWarehouses(Collection<Long> warehouseIds) {
+        if (warehouseRepository.findAllById(warehouseIds).size() != warehouseIds.size()) {
+            throw new EntityNotFoundException("Warehouse not found");
+        }
+    }
+
+    private WarehouseResponse mapToResponse(Warehouse warehouse) {
+        return new WarehouseResponse(warehouse.getId(), warehouse.getCode(), warehouse.getName(),
+                warehouse.getId() == partitions.defaultWarehouseId());
+    }
+
+    private WarehouseStockResponse mapToResponse(WarehouseStock stock) {
+        return new WarehouseStockResponse(stock.getWarehouseId(), stock.getRawMaterialId(), stock.getQuantity());
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.autoflex.dto.batch;
+
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record BatchOperation(
+        @Schema(description = "Label other operations can use to reference the entity this one creates", example = "chair")
+        String ref,
+        @Schema(description = "Kind of operation", example = "ADD_RAW_MATERIAL_TO_PRODUCT")
+        BatchOperationType type,
+        @Schema(description = "Target product ID", example = "1")
+        Long productId,
+        @Schema(description = "Reference to a product created earlier in the batch", example = "chair")
+        String productRef,
+        @Schema(description = "Target raw material ID", example = "5")
+        Long rawMaterialId,
+        @Schema(description = "Reference to a raw material created earlier in the batch", example = "wood")
+        String rawMaterialRef,
+        @Schema(description = "Quantity of raw material required by the product", example = "2.5")
+        Double quantity,
+        @Schema(description = "Product payload for create and update operations")
+        ProductRequest product,
+        @Schema(description = "Raw material payload for create and update operations")
+        RawMaterialRequest rawMaterial
+) {}
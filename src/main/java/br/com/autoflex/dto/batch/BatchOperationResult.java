@@ -0,0 +1,16 @@
+package br.com.autoflex.dto.batch;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record BatchOperationResult(
+        @Schema(description = "Position of the operation in the request", example = "0")
+        int index,
+        @Schema(description = "Label given to the operation, if any", example = "chair")
+        String ref,
+        @Schema(description = "Kind of operation", example = "CREATE_PRODUCT")
+        BatchOperationType type,
+        @Schema(description = "HTTP status the equivalent single request would have returned", example = "201")
+        int status,
+        @Schema(description = "Body the equivalent single request would have returned")
+        Object body
+) {}
@@ -0,0 +1,9 @@
+package br.com.autoflex.dto.batch;
+
+public enum BatchOperationType {
+    CREATE_PRODUCT,
+    UPDATE_PRODUCT,
+    CREATE_RAW_MATERIAL,
+    UPDATE_RAW_MATERIAL,
+    ADD_RAW_MATERIAL_TO_PRODUCT
+}
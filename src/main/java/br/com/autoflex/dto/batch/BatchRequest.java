@@ -0,0 +1,10 @@
+package br.com.autoflex.dto.batch;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record BatchRequest(
+        @Schema(description = "Operations to execute, in order, within a single transaction")
+        List<BatchOperation> operations
+) {}
@@ -0,0 +1,10 @@
+package br.com.autoflex.dto.batch;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record BatchResponse(
+        @Schema(description = "One result per operation, in request order")
+        List<BatchOperationResult> results
+) {}
@@ -0,0 +1,15 @@
+package br.com.autoflex.dto.history;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record InventoryValuationResponse(
+        @Schema(description = "When the value last changed or was recomputed", example = "2026-10-19T14:03:12.512Z")
+        Instant asOf,
+        @Schema(description = "Sum of cost times current stock over all raw materials", example = "15230.5000")
+        BigDecimal totalValue,
+        @Schema(description = "Number of raw materials valued", example = "42")
+        int rawMaterials) {
+}
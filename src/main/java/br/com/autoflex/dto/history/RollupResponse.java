@@ -0,0 +1,23 @@
+package br.com.autoflex.dto.history;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RollupResponse(
+        @Schema(description = "First day of the period within the requested range", example = "2026-10-12")
+        LocalDate from,
+        @Schema(description = "Last day of the period within the requested range", example = "2026-10-18")
+        LocalDate to,
+        @Schema(description = "First level recorded in the period", example = "120.0")
+        BigDecimal open,
+        @Schema(description = "Level at the end of the period", example = "80.0")
+        BigDecimal close,
+        @Schema(description = "Lowest level recorded in the period", example = "60.0")
+        BigDecimal min,
+        @Schema(description = "Highest level recorded in the period", example = "140.0")
+        BigDecimal max,
+        @Schema(description = "Number of changes recorded in the period; 0 when the level did not change", example = "12")
+        long samples) {
+}
@@ -0,0 +1,12 @@
+package br.com.autoflex.dto.history;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record StockSampleResponse(
+        @Schema(description = "When the change committed", example = "2026-10-19T14:03:12.512Z")
+        Instant at,
+        @Schema(description = "Total stock across warehouses after the change", example = "80.0")
+        double stock) {
+}
@@ -0,0 +1,22 @@
+package br.com.autoflex.dto.planning;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+public record MaterialRequirementResponse(
+        @Schema(description = "ID of the raw material", example = "5")
+        Long rawMaterialId,
+        @Schema(description = "Name of the raw material", example = "Steel")
+        String rawMaterialName,
+        @Schema(description = "Quantity the whole order book needs", example = "320.0")
+        double required,
+        @Schema(description = "Stock available to cover it", example = "250.0")
+        double available,
+        @Schema(description = "Quantity missing, zero when the stock covers the requirement", example = "70.0")
+        double shortfall,
+        @Schema(description = "Unit cost of the raw material", example = "2.5")
+        double unitCost,
+        @Schema(description = "Cost of buying the shortfall", example = "175.00")
+        BigDecimal shortfallCost) {
+}
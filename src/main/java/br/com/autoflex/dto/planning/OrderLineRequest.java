@@ -0,0 +1,10 @@
+package br.com.autoflex.dto.planning;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record OrderLineRequest(
+    @Schema(description = "ID of the ordered product", example = "1")
+    Long productId,
+    @Schema(description = "Units ordered", example = "25")
+    Double quantity
+) {}
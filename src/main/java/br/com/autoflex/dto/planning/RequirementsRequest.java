@@ -0,0 +1,12 @@
+package br.com.autoflex.dto.planning;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record RequirementsRequest(
+    @Schema(description = "Customer order lines; several lines may name the same product")
+    List<OrderLineRequest> orders,
+    @Schema(description = "IDs of the warehouses whose combined stock covers the requirements; stock of all warehouses when omitted", example = "[1, 2]")
+    List<Long> warehouseIds
+) {}
@@ -0,0 +1,15 @@
+package br.com.autoflex.dto.planning;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record RequirementsResponse(
+        @Schema(description = "Requirement per raw material, by raw material ID")
+        List<MaterialRequirementResponse> requirements,
+        @Schema(description = "Number of order lines planned", example = "10000")
+        int orderLines,
+        @Schema(description = "Cost of covering every shortfall", example = "1840.50")
+        BigDecimal totalShortfallCost) {
+}
@@ -0,0 +1,10 @@
+package br.com.autoflex.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record ProductCapacityResponse(
+        @Schema(description = "Unique identifier of the product", example = "1")
+        Long productId,
+        @Schema(description = "Maximum number of units that can be produced with current inventory", example = "12")
+        long maxQuantity) {
+}
@@ -0,0 +1,15 @@
+package br.com.autoflex.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+
+public record ProductCostResponse(
+        @Schema(description = "Unique identifier of the product", example = "1")
+        Long productId,
+        @Schema(description = "Cost of the raw materials needed for one unit", example = "95.50")
+        BigDecimal materialCost,
+        @Schema(description = "Price of the product", example = "150.00")
+        BigDecimal price,
+        @Schema(description = "Price minus material cost", example = "54.50")
+        BigDecimal margin) {
+}
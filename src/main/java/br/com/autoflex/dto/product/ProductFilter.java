@@ -0,0 +1,18 @@
+package br.com.autoflex.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+public record ProductFilter(
+        @Schema(description = "Minimum price, inclusive", example = "50.00")
+        BigDecimal minPrice,
+        @Schema(description = "Maximum price, inclusive", example = "200.00")
+        BigDecimal maxPrice,
+        @Schema(description = "Only products whose bill of materials uses this raw material", example = "3")
+        Long rawMaterialId
+) {
+    public boolean isEmpty() {
+        return minPrice == null && maxPrice == null && rawMaterialId == null;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.autoflex.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record ProductRawMaterialResponse(
+    @Schema(description = "ID of the raw material", example = "5")
+    Long rawMaterialId,
+    @Schema(description = "Name of the raw material", example = "Wood")
+    String rawMaterialName,
+    @Schema(description = "Quantity of raw material required", example = "2.5")
+    Double quantity
+) {}
@@ -1,8 +1,10 @@
 package br.com.autoflex.dto.product;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.math.BigDecimal;
 
+@JsonPropertyOrder({"id", "name", "description", "price"})
 public record ProductResponse(
         @Schema(description = "Unique identifier of the product", example = "1")
         Long id,
@@ -0,0 +1,19 @@
+package br.com.autoflex.dto.production;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+public record AllocationRunResponse(
+        @Schema(description = "When the run committed")
+        Instant allocatedAt,
+        @Schema(description = "Orders in the queue", example = "12")
+        int orders,
+        @Schema(description = "Orders with every raw material reserved", example = "9")
+        int allocated,
+        @Schema(description = "Orders missing some raw material", example = "3")
+        int shortOrders,
+        @Schema(description = "Raw materials the queue is short of, summed over orders")
+        List<MaterialAllocationResponse> shortfalls) {
+}
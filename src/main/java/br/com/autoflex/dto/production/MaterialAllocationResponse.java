@@ -0,0 +1,14 @@
+package br.com.autoflex.dto.production;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record MaterialAllocationResponse(
+        @Schema(description = "ID of the raw material", example = "5")
+        Long rawMaterialId,
+        @Schema(description = "Quantity needed", example = "120.0")
+        double required,
+        @Schema(description = "Quantity reserved by the latest allocation run", example = "80.0")
+        double allocated,
+        @Schema(description = "Quantity still missing", example = "40.0")
+        double shortfall) {
+}
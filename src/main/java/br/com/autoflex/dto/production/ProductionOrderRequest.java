@@ -0,0 +1,16 @@
+package br.com.autoflex.dto.production;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+public record ProductionOrderRequest(
+    @Schema(description = "ID of the product to produce", example = "1")
+    Long productId,
+    @Schema(description = "Units to produce", example = "40")
+    Double quantity,
+    @Schema(description = "Higher priorities are allocated first; 0 when omitted", example = "5")
+    Integer priority,
+    @Schema(description = "Date the order is due", example = "2026-11-30")
+    LocalDate dueDate
+) {}
@@ -0,0 +1,27 @@
+package br.com.autoflex.dto.production;
+
+import br.com.autoflex.domain.entity.ProductionOrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public record ProductionOrderResponse(
+        @Schema(description = "Unique identifier of the production order", example = "1")
+        Long id,
+        @Schema(description = "ID of the product to produce", example = "1")
+        Long productId,
+        @Schema(description = "Units to produce", example = "40")
+        Double quantity,
+        @Schema(description = "Higher priorities are allocated first", example = "5")
+        Integer priority,
+        @Schema(description = "Date the order is due", example = "2026-11-30")
+        LocalDate dueDate,
+        @Schema(description = "QUEUED until the first allocation run, then ALLOCATED or SHORT", example = "SHORT")
+        ProductionOrderStatus status,
+        @Schema(description = "When the latest allocation run that considered the order committed")
+        Instant allocatedAt,
+        @Schema(description = "Reservation per raw material from the latest allocation run")
+        List<MaterialAllocationResponse> allocations) {
+}
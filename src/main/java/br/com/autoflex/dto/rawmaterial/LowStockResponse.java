@@ -0,0 +1,16 @@
+package br.com.autoflex.dto.rawmaterial;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record LowStockResponse(
+        @Schema(description = "Unique identifier of the raw material", example = "1")
+        Long rawMaterialId,
+        @Schema(description = "Name of the raw material", example = "Wood")
+        String name,
+        @Schema(description = "Current stock quantity", example = "12.0")
+        Double currentStock,
+        @Schema(description = "Stock level below which the raw material is reported as low", example = "20.0")
+        Double reorderThreshold,
+        @Schema(description = "Current stock divided by the reorder threshold; below 1 means low", example = "0.6")
+        double ratio) {
+}
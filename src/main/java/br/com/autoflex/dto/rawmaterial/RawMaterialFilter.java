@@ -0,0 +1,16 @@
+package br.com.autoflex.dto.rawmaterial;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record RawMaterialFilter(
+        @Schema(description = "Only raw materials with current stock strictly below this value", example = "10.0")
+        Double stockBelow,
+        @Schema(description = "Minimum cost per unit, inclusive", example = "5.0")
+        Double minCost,
+        @Schema(description = "Maximum cost per unit, inclusive", example = "80.0")
+        Double maxCost
+) {
+    public boolean isEmpty() {
+        return stockBelow == null && minCost == null && maxCost == null;
+    }
+}
@@ -10,6 +10,8 @@ public record RawMaterialRequest(
     @Schema(description = "Cost per unit", example = "50.0")
     Double cost,
     @Schema(description = "Current stock quantity", example = "100.0")
-    Double currentStock
+    Double currentStock,
+    @Schema(description = "Stock level below which the raw material is reported as low; omit to disable alerts", example = "20.0")
+    Double reorderThreshold
 ) {}
 
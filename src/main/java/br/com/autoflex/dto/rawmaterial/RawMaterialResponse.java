@@ -1,7 +1,9 @@
 package br.com.autoflex.dto.rawmaterial;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+@JsonPropertyOrder({"id", "name", "description", "cost", "currentStock", "reorderThreshold"})
 public record RawMaterialResponse(
     @Schema(description = "Unique identifier of the raw material", example = "1")
     Long id,
@@ -12,6 +14,8 @@ public record RawMaterialResponse(
     @Schema(description = "Cost per unit", example = "50.0")
     Double cost,
     @Schema(description = "Current stock quantity", example = "100.0")
-    Double currentStock
+    Double currentStock,
+    @Schema(description = "Stock level below which the raw material is reported as low", example = "20.0")
+    Double reorderThreshold
 ) {}
 
@@ -0,0 +1,18 @@
+package br.com.autoflex.dto.search;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record SearchResponse<T>(
+        @Schema(description = "Matches on the requested page, best first")
+        List<T> content,
+        @Schema(description = "Zero-based page number", example = "0")
+        int page,
+        @Schema(description = "Requested page size", example = "20")
+        int size,
+        @Schema(description = "Number of matches across all pages", example = "42")
+        long totalElements,
+        @Schema(description = "Number of pages", example = "3")
+        int totalPages
+) {}
@@ -0,0 +1,11 @@
+package br.com.autoflex.dto.sync;
+
+import br.com.autoflex.sync.SyncEntityType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record DeletedEntityResponse(
+        @Schema(description = "Kind of the deleted row", example = "PRODUCT")
+        SyncEntityType type,
+        @Schema(description = "Unique identifier of the deleted row", example = "1")
+        Long id) {
+}
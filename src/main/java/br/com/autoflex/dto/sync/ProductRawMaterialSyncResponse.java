@@ -0,0 +1,14 @@
+package br.com.autoflex.dto.sync;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record ProductRawMaterialSyncResponse(
+        @Schema(description = "Unique identifier of the association", example = "7")
+        Long id,
+        @Schema(description = "Unique identifier of the product", example = "1")
+        Long productId,
+        @Schema(description = "Unique identifier of the raw material", example = "1")
+        Long rawMaterialId,
+        @Schema(description = "Quantity of the raw material needed per unit of product", example = "2.5")
+        Double quantity) {
+}
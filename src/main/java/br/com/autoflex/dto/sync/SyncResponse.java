@@ -0,0 +1,20 @@
+package br.com.autoflex.dto.sync;
+
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record SyncResponse(
+        @Schema(description = "Change sequence to pass as 'since' on the next sync", example = "42")
+        long version,
+        @Schema(description = "Products created or updated since the requested sequence")
+        List<ProductResponse> products,
+        @Schema(description = "Raw materials created or updated since the requested sequence")
+        List<RawMaterialResponse> rawMaterials,
+        @Schema(description = "Product and raw material associations created or updated since the requested sequence")
+        List<ProductRawMaterialSyncResponse> productRawMaterials,
+        @Schema(description = "Rows deleted since the requested sequence")
+        List<DeletedEntityResponse> deleted) {
+}
@@ -0,0 +1,10 @@
+package br.com.autoflex.dto.warehouse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record StockAdjustmentRequest(
+    @Schema(description = "ID of the raw material", example = "5")
+    Long rawMaterialId,
+    @Schema(description = "Quantity received (positive) or consumed (negative)", example = "-12.5")
+    Double delta
+) {}
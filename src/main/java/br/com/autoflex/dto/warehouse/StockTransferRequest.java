@@ -0,0 +1,14 @@
+package br.com.autoflex.dto.warehouse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record StockTransferRequest(
+    @Schema(description = "ID of the raw material", example = "5")
+    Long rawMaterialId,
+    @Schema(description = "ID of the warehouse the stock leaves", example = "1")
+    Long fromWarehouseId,
+    @Schema(description = "ID of the warehouse the stock goes to", example = "2")
+    Long toWarehouseId,
+    @Schema(description = "Quantity to move", example = "30.0")
+    Double quantity
+) {}
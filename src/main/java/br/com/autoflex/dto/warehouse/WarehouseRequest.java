@@ -0,0 +1,10 @@
+package br.com.autoflex.dto.warehouse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record WarehouseRequest(
+    @Schema(description = "Unique short code of the warehouse", example = "PLANT-2")
+    String code,
+    @Schema(description = "Name of the warehouse", example = "Caxias do Sul plant")
+    String name
+) {}
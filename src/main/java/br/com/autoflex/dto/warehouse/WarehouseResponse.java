@@ -0,0 +1,14 @@
+package br.com.autoflex.dto.warehouse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record WarehouseResponse(
+    @Schema(description = "Unique identifier of the warehouse", example = "2")
+    Long id,
+    @Schema(description = "Unique short code of the warehouse", example = "PLANT-2")
+    String code,
+    @Schema(description = "Name of the warehouse", example = "Caxias do Sul plant")
+    String name,
+    @Schema(description = "Whether this is the warehouse that stock written through /raw-materials goes to", example = "false")
+    boolean defaultWarehouse
+) {}
@@ -0,0 +1,12 @@
+package br.com.autoflex.dto.warehouse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record WarehouseStockResponse(
+    @Schema(description = "ID of the warehouse", example = "2")
+    Long warehouseId,
+    @Schema(description = "ID of the raw material", example = "5")
+    Long rawMaterialId,
+    @Schema(description = "Quantity held in the warehouse", example = "40.0")
+    Double quantity
+) {}
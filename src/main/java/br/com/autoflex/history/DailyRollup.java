@@ -0,0 +1,8 @@
+package br.com.autoflex.history;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** The first, last, lowest and highest level recorded on a day, and how many changes were recorded. */
+public record DailyRollup(LocalDate day, BigDecimal open, BigDecimal close, BigDecimal min, BigDecimal max, long samples) {
+}
@@ -0,0 +1,15 @@
+package br.com.autoflex.history;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/** The period daily rollups are summarized over. Weeks start on Monday. */
+public enum RollupGranularity {
+    DAILY,
+    WEEKLY;
+
+    LocalDate periodStart(LocalDate day) {
+        return this == WEEKLY ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+    }
+}
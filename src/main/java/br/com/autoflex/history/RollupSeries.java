@@ -0,0 +1,60 @@
+package br.com.autoflex.history;
+
+import br.com.autoflex.dto.history.RollupResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the daily rollups stored for a range into one entry per period. Days with no rollup kept
+ * the level the previous day closed at, so they are filled in with that level and no samples; days
+ * before anything was recorded are left out.
+ */
+public final class RollupSeries {
+
+    private RollupSeries() {
+    }
+
+    /**
+     * @param days          the stored rollups between {@code from} and {@code to}, in any order
+     * @param previousClose the close of the last rollup before {@code from}, or {@code null}
+     */
+    public static List<RollupResponse> summarize(List<DailyRollup> days, BigDecimal previousClose,
+                                                 LocalDate from, LocalDate to, RollupGranularity granularity) {
+        Map<LocalDate, DailyRollup> byDay = days.stream()
+                .collect(Collectors.toMap(DailyRollup::day, Function.identity()));
+        List<RollupResponse> periods = new ArrayList<>();
+        BigDecimal carried = previousClose;
+        RollupResponse current = null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailyRollup rollup = byDay.get(day);
+            if (rollup == null) {
+                if (carried == null) {
+                    continue;
+                }
+                rollup = new DailyRollup(day, carried, carried, carried, carried, 0);
+            }
+            carried = rollup.close();
+            if (current != null && granularity.periodStart(current.from()).equals(granularity.periodStart(day))) {
+                current = new RollupResponse(current.from(), day, current.open(), rollup.close(),
+                        current.min().min(rollup.min()), current.max().max(rollup.max()),
+                        current.samples() + rollup.samples());
+            } else {
+                if (current != null) {
+                    periods.add(current);
+                }
+                current = new RollupResponse(day, day, rollup.open(), rollup.close(), rollup.min(), rollup.max(),
+                        rollup.samples());
+            }
+        }
+        if (current != null) {
+            periods.add(current);
+        }
+        return periods;
+    }
+}
@@ -0,0 +1,5 @@
+package br.com.autoflex.history;
+
+/** The stock of a raw material at an instant, in epoch milliseconds. */
+public record StockSample(long epochMilli, double stock) {
+}
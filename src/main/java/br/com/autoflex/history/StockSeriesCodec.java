@@ -0,0 +1,83 @@
+package br.com.autoflex.history;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact, lossless encoding of a time-ordered run of {@link StockSample}s. After a sample count,
+ * each sample stores the milliseconds since the previous one as a varint, and its stock as the
+ * XOR of its IEEE 754 bits with the previous stock's: one byte holding the number of trailing zero
+ * bits of the XOR, followed by the remaining bits as a varint. Consecutive stock levels share their
+ * sign, exponent and most of their leading mantissa bits, and round quantities have long runs of
+ * trailing zeros, so a typical sample takes three to five bytes instead of sixteen; an unchanged
+ * stock takes one. The first sample is encoded against time zero and stock zero.
+ */
+public final class StockSeriesCodec {
+
+    private static final int UNCHANGED = 64;
+
+    private StockSeriesCodec() {
+    }
+
+    public static byte[] encode(List<StockSample> samples) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + samples.size() * 5);
+        writeVarint(out, samples.size());
+        long previousTime = 0;
+        long previousBits = 0;
+        for (StockSample sample : samples) {
+            if (sample.epochMilli() < previousTime) {
+                throw new IllegalArgumentException("Samples must be in time order");
+            }
+            writeVarint(out, sample.epochMilli() - previousTime);
+            long bits = Double.doubleToLongBits(sample.stock());
+            long xor = bits ^ previousBits;
+            if (xor == 0) {
+                out.write(UNCHANGED);
+            } else {
+                int trailingZeros = Long.numberOfTrailingZeros(xor);
+                out.write(trailingZeros);
+                writeVarint(out, xor >>> trailingZeros);
+            }
+            previousTime = sample.epochMilli();
+            previousBits = bits;
+        }
+        return out.toByteArray();
+    }
+
+    public static List<StockSample> decode(byte[] data) {
+        int[] position = {0};
+        int count = (int) readVarint(data, position);
+        List<StockSample> samples = new ArrayList<>(count);
+        long time = 0;
+        long bits = 0;
+        for (int i = 0; i < count; i++) {
+            time += readVarint(data, position);
+            int trailingZeros = data[position[0]++];
+            if (trailingZeros != UNCHANGED) {
+                bits ^= readVarint(data, position) << trailingZeros;
+            }
+            samples.add(new StockSample(time, Double.longBitsToDouble(bits)));
+        }
+        return samples;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] data, int[] position) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
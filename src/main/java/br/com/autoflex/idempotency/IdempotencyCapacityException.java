@@ -0,0 +1,12 @@
+package br.com.autoflex.idempotency;
+
+/**
+ * Thrown by {@link IdempotencyStore#reserve(String)} when the store cannot take another key without
+ * dropping one whose request is still in flight.
+ */
+public class IdempotencyCapacityException extends RuntimeException {
+
+    public IdempotencyCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.autoflex.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Value("${autoflex.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Bean
+    @ConditionalOnProperty(name = "autoflex.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(@Value("${autoflex.idempotency.max-entries:10000}") int maxEntries) {
+        return new InMemoryIdempotencyStore(Clock.systemUTC(), ttl, maxEntries);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "autoflex.idempotency.store", havingValue = "jpa")
+    public IdempotencyStore jpaIdempotencyStore(IdempotencyRecordRepository repository) {
+        return new JpaIdempotencyStore(repository, Clock.systemUTC(), ttl);
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper,
+                                               @Value("${autoflex.idempotency.max-body-size:1MB}") DataSize maxBodySize) {
+        return new IdempotencyFilter(store, objectMapper, Math.toIntExact(maxBodySize.toBytes()));
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.autoflex.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String key;
+
+    @Column(length = 64)
+    private String fingerprint;
+
+    private Integer status;
+
+    private String contentType;
+
+    @Column(length = 16 * 1024 * 1024)
+    private byte[] body;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Transient
+    private boolean fresh;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    boolean isCompleted() {
+        return status != null;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.autoflex.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Keeps the outcome of requests sent with an {@code Idempotency-Key} header. A key is first
+ * reserved while its request is in flight, then either completed with the response to replay or
+ * released so the client may retry.
+ */
+public interface IdempotencyStore {
+
+    Optional<StoredResponse> find(String key);
+
+    /**
+     * @return {@code false} if the key is already reserved or completed
+     * @throws IdempotencyCapacityException if the store is full of requests still in flight
+     */
+    boolean reserve(String key);
+
+    void complete(String key, StoredResponse response);
+
+    void release(String key);
+}
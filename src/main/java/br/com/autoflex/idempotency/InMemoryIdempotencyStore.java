@@ -0,0 +1,86 @@
+package br.com.autoflex.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * LRU-bounded store: once {@code maxEntries} keys are held, reserving another evicts the least
+ * recently used completed or expired entry, and entries older than the TTL are dropped when
+ * touched. Reservations still in flight are never evicted, since a retry would then run the
+ * request again; when every entry is in flight, {@link #reserve(String)} refuses the new key.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Clock clock;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public InMemoryIdempotencyStore(Clock clock, Duration ttl, int maxEntries) {
+        this.clock = clock;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> find(String key) {
+        Entry entry = live(key);
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.response());
+    }
+
+    @Override
+    public synchronized boolean reserve(String key) {
+        if (live(key) != null) {
+            return false;
+        }
+        if (entries.size() >= maxEntries && !evictOne()) {
+            throw new IdempotencyCapacityException("All " + maxEntries + " idempotency keys are in flight");
+        }
+        entries.put(key, new Entry(null, clock.instant().plus(ttl)));
+        return true;
+    }
+
+    @Override
+    public synchronized void complete(String key, StoredResponse response) {
+        entries.put(key, new Entry(response, clock.instant().plus(ttl)));
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        entries.remove(key);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean evictOne() {
+        Instant now = clock.instant();
+        Iterator<Entry> eldestFirst = entries.values().iterator();
+        while (eldestFirst.hasNext()) {
+            Entry entry = eldestFirst.next();
+            if (entry.response() != null || !now.isBefore(entry.expiresAt())) {
+                eldestFirst.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Entry live(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && !clock.instant().isBefore(entry.expiresAt())) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private record Entry(StoredResponse response, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.autoflex.idempotency;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Database-backed store for deployments with more than one instance. A reservation is a row
+ * without a status; the primary key makes concurrent reservations of the same key fail.
+ */
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final Clock clock;
+    private final Duration ttl;
+
+    public JpaIdempotencyStore(IdempotencyRecordRepository repository, Clock clock, Duration ttl) {
+        this.repository = repository;
+        this.clock = clock;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return live(key)
+                .filter(IdempotencyRecord::isCompleted)
+                .map(record -> new StoredResponse(record.getFingerprint(), record.getStatus(),
+                        record.getContentType(), record.getBody()));
+    }
+
+    @Override
+    public boolean reserve(String key) {
+        if (live(key).isPresent()) {
+            return false;
+        }
+        try {
+            repository.saveAndFlush(new IdempotencyRecord(key, null, null, null, null, expiresAt(), true));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        repository.save(new IdempotencyRecord(key, response.fingerprint(), response.status(),
+                response.contentType(), response.body(), expiresAt(), false));
+    }
+
+    @Override
+    public void release(String key) {
+        repository.deleteById(key);
+    }
+
+    @Scheduled(fixedDelayString = "${autoflex.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        repository.deleteExpired(clock.instant());
+    }
+
+    private Optional<IdempotencyRecord> live(String key) {
+        Optional<IdempotencyRecord> record = repository.findById(key);
+        if (record.isPresent() && !clock.instant().isBefore(record.get().getExpiresAt())) {
+            repository.delete(record.get());
+            return Optional.empty();
+        }
+        return record;
+    }
+
+    private Instant expiresAt() {
+        return clock.instant().plus(ttl);
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.autoflex.idempotency;
+
+public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+}
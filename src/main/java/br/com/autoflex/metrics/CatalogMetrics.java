@@ -0,0 +1,45 @@
+package br.com.autoflex.metrics;
+
+import br.com.autoflex.domain.service.CatalogSearchService;
+import br.com.autoflex.domain.service.LowStockService;
+import br.com.autoflex.domain.service.ProducibilityFeedService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Catalog gauges, all read from the in-memory views the services already keep up to date, so a
+ * scrape never queries the database.
+ */
+public class CatalogMetrics implements MeterBinder {
+
+    private final CatalogSearchService catalogSearchService;
+    private final LowStockService lowStockService;
+    private final ProducibilityFeedService producibilityFeedService;
+
+    public CatalogMetrics(CatalogSearchService catalogSearchService,
+                          LowStockService lowStockService,
+                          ProducibilityFeedService producibilityFeedService) {
+        this.catalogSearchService = catalogSearchService;
+        this.lowStockService = lowStockService;
+        this.producibilityFeedService = producibilityFeedService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("autoflex.catalog.size", catalogSearchService, CatalogSearchService::productCount)
+                .description("Products in the catalog")
+                .tag("entity", "product")
+                .register(registry);
+        Gauge.builder("autoflex.catalog.size", catalogSearchService, CatalogSearchService::rawMaterialCount)
+                .description("Raw materials in the catalog")
+                .tag("entity", "raw_material")
+                .register(registry);
+        Gauge.builder("autoflex.catalog.low.stock", lowStockService, service -> service.findBelowThreshold().size())
+                .description("Raw materials below their reorder threshold")
+                .register(registry);
+        Gauge.builder("autoflex.catalog.producible", producibilityFeedService, ProducibilityFeedService::producibleCount)
+                .description("Products that can be produced with the current stock")
+                .register(registry);
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.autoflex.metrics;
+
+import br.com.autoflex.domain.service.CatalogSearchService;
+import br.com.autoflex.domain.service.LowStockService;
+import br.com.autoflex.domain.service.ProducibilityFeedService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Metrics that Boot does not provide on its own. HTTP, service method, Hikari and global Hibernate
+ * statistics are auto-configured from application.properties; this adds the per-request database
+ * cost and the catalog gauges.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public RequestDatabaseStatistics requestDatabaseStatistics() {
+        return new RequestDatabaseStatistics();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestDatabaseStatisticsCustomizer(RequestDatabaseStatistics statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, statistics);
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(new Integrator() {
+                @Override
+                public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                      SessionFactoryImplementor sessionFactory) {
+                    sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+                            .appendListeners(EventType.POST_LOAD, statistics);
+                }
+
+                @Override
+                public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                         SessionFactoryServiceRegistry serviceRegistry) {
+                }
+            }));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestDatabaseMetricsFilter> requestDatabaseMetricsFilterRegistration(
+            RequestDatabaseStatistics statistics, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestDatabaseMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestDatabaseMetricsFilter(statistics, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    public CatalogMetrics catalogMetrics(CatalogSearchService catalogSearchService,
+                                         LowStockService lowStockService,
+                                         ProducibilityFeedService producibilityFeedService) {
+        return new CatalogMetrics(catalogSearchService, lowStockService, producibilityFeedService);
+    }
+}
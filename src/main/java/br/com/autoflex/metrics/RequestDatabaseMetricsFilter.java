@@ -0,0 +1,56 @@
+package br.com.autoflex.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements and entity loads each request caused, as the
+ * {@value #STATEMENTS} and {@value #ENTITY_LOADS} distributions tagged with the method and the
+ * matched URI pattern, so a handler that starts issuing one query per row shows up per endpoint.
+ */
+public class RequestDatabaseMetricsFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS = "autoflex.http.server.requests.sql.statements";
+    static final String ENTITY_LOADS = "autoflex.http.server.requests.entity.loads";
+
+    private final RequestDatabaseStatistics statistics;
+    private final MeterRegistry meterRegistry;
+
+    public RequestDatabaseMetricsFilter(RequestDatabaseStatistics statistics, MeterRegistry meterRegistry) {
+        this.statistics = statistics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        statistics.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDatabaseStatistics.Counts counts = statistics.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            summary(STATEMENTS, "SQL statements prepared while handling the request", request, uri)
+                    .record(counts.statements());
+            summary(ENTITY_LOADS, "Entities loaded while handling the request", request, uri)
+                    .record(counts.entityLoads());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.autoflex.metrics;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the entities it loads on the current thread
+ * between {@link #begin()} and {@link #end()}. Work done outside such a window, e.g. on executor
+ * threads, is not counted.
+ */
+public class RequestDatabaseStatistics implements StatementInspector, PostLoadEventListener {
+
+    /** What one unit of work cost the database. */
+    public record Counts(long statements, long entityLoads) {
+    }
+
+    private static final class Counter {
+        private long statements;
+        private long entityLoads;
+    }
+
+    private final ThreadLocal<Counter> current = new ThreadLocal<>();
+
+    public void begin() {
+        current.set(new Counter());
+    }
+
+    public Counts end() {
+        Counter counter = current.get();
+        current.remove();
+        return counter == null ? new Counts(0, 0) : new Counts(counter.statements, counter.entityLoads);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counter counter = current.get();
+        if (counter != null) {
+            counter.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Counter counter = current.get();
+        if (counter != null) {
+            counter.entityLoads++;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.autoflex.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Keeps delivered messages in memory, for tests and local runs. */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> delivered = new ArrayList<>();
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) {
+        delivered.addAll(messages);
+    }
+
+    public synchronized List<OutboxMessage> delivered() {
+        return List.copyOf(delivered);
+    }
+
+    public synchronized void clear() {
+        delivered.clear();
+    }
+}
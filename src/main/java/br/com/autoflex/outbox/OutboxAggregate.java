@@ -0,0 +1,31 @@
+package br.com.autoflex.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The last version written to the outbox for one aggregate. Writers bump it before inserting an
+ * event and hold the row lock until they commit, so a later event of the same aggregate can only
+ * be written, and get its id, once the earlier one is committed.
+ */
+@Entity
+@Table(name = "outbox_aggregates")
+@IdClass(OutboxAggregateId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class OutboxAggregate {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private OutboxEventType.AggregateType aggregateType;
+
+    @Id
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,16 @@
+package br.com.autoflex.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class OutboxAggregateId implements Serializable {
+
+    private OutboxEventType.AggregateType aggregateType;
+    private Long aggregateId;
+}
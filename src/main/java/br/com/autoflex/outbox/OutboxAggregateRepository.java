@@ -0,0 +1,22 @@
+package br.com.autoflex.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface OutboxAggregateRepository extends JpaRepository<OutboxAggregate, OutboxAggregateId> {
+
+    @Modifying
+    @Query(value = "insert into outbox_aggregates (aggregate_type, aggregate_id, version) values (:aggregateType, :aggregateId, 0)",
+            nativeQuery = true)
+    void register(String aggregateType, long aggregateId);
+
+    /** Bumps the version; the row stays locked until the calling transaction ends. */
+    @Modifying
+    @Query("update OutboxAggregate a set a.version = a.version + 1 "
+            + "where a.aggregateType = :aggregateType and a.aggregateId = :aggregateId")
+    int advance(OutboxEventType.AggregateType aggregateType, long aggregateId);
+
+    @Query("select a.version from OutboxAggregate a where a.aggregateType = :aggregateType and a.aggregateId = :aggregateId")
+    Long findVersion(OutboxEventType.AggregateType aggregateType, long aggregateId);
+}
@@ -0,0 +1,36 @@
+package br.com.autoflex.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "autoflex.outbox.sink", havingValue = "memory", matchIfMissing = true)
+    public OutboxSink inMemoryOutboxSink() {
+        return new InMemoryOutboxSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "autoflex.outbox.sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(@Value("${autoflex.outbox.file:outbox.ndjson}") Path file, ObjectMapper objectMapper) {
+        return new FileOutboxSink(file, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "autoflex.outbox.relay.enabled", matchIfMissing = true)
+    public OutboxRelay outboxRelay(OutboxEventRepository repository, OutboxSink sink,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${autoflex.outbox.batch-size:500}") int batchSize,
+                                   MeterRegistry meterRegistry) {
+        return new OutboxRelay(repository, sink, transactionManager, batchSize, meterRegistry);
+    }
+}
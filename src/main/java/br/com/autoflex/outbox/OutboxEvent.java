@@ -0,0 +1,50 @@
+package br.com.autoflex.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A change waiting to be relayed downstream, written in the transaction that made it. Ids follow
+ * the order rows were inserted, not the order their transactions commit, so they only order events
+ * across aggregates loosely. Within an aggregate, {@code version} is bumped under the
+ * {@link OutboxAggregate} row lock: an event's version is only visible once every earlier version
+ * of its aggregate is committed, and the relay delivers each aggregate's events in version order.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_aggregate",
+        columnList = "aggregateType, aggregateId, version"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OutboxEventType.AggregateType aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OutboxEventType eventType;
+
+    /** The state after the change, as JSON. */
+    @Column(nullable = false, length = 1024 * 1024)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
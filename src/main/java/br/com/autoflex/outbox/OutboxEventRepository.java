@@ -0,0 +1,24 @@
+package br.com.autoflex.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /** The oldest events no other relay is working on, locked until the calling transaction ends. */
+    @Query(value = "select * from outbox_events order by id limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEvent> claimOldest(int limit);
+
+    /**
+     * For each aggregate among {@code aggregateIds}, the version of the oldest pending event outside
+     * {@code claimedIds}, as {@code [aggregateType, aggregateId, version]}. Events the caller
+     * claimed for an aggregate can only be delivered up to that one.
+     */
+    @Query("select e.aggregateType, e.aggregateId, min(e.version) from OutboxEvent e "
+            + "where e.aggregateId in :aggregateIds and e.id not in :claimedIds "
+            + "group by e.aggregateType, e.aggregateId")
+    List<Object[]> findOldestUnclaimed(Collection<Long> aggregateIds, Collection<Long> claimedIds);
+}
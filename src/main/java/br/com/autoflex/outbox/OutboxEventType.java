@@ -0,0 +1,27 @@
+package br.com.autoflex.outbox;
+
+public enum OutboxEventType {
+    PRODUCT_SAVED(AggregateType.PRODUCT),
+    PRODUCT_DELETED(AggregateType.PRODUCT),
+    BILL_OF_MATERIALS_CHANGED(AggregateType.PRODUCT),
+    RAW_MATERIAL_SAVED(AggregateType.RAW_MATERIAL),
+    RAW_MATERIAL_DELETED(AggregateType.RAW_MATERIAL),
+    STOCK_CHANGED(AggregateType.WAREHOUSE);
+
+    private final AggregateType aggregateType;
+
+    OutboxEventType(AggregateType aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public AggregateType aggregateType() {
+        return aggregateType;
+    }
+
+    /** Events of the same aggregate are delivered in the order they were written. */
+    public enum AggregateType {
+        PRODUCT,
+        RAW_MATERIAL,
+        WAREHOUSE
+    }
+}
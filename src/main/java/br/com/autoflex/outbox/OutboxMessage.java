@@ -0,0 +1,22 @@
+package br.com.autoflex.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/** An outbox event as handed to an {@link OutboxSink}; {@code payload} is serialized as embedded JSON. */
+public record OutboxMessage(
+        long id,
+        OutboxEventType.AggregateType aggregateType,
+        long aggregateId,
+        long version,
+        OutboxEventType eventType,
+        @JsonRawValue String payload,
+        Instant createdAt
+) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getVersion(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.autoflex.outbox;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox into an {@link OutboxSink} in large batches. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, delivered and deleted in one transaction, so several instances
+ * can relay side by side without taking the same rows, and a batch the sink fails on is rolled
+ * back and offered again: delivery is at least once.
+ * <p>
+ * Within an aggregate, events go out in version order (see {@link OutboxEvent}). A batch may hold
+ * later events of an aggregate whose earlier ones another instance has claimed; those are left for
+ * a later round instead.
+ */
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository repository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSizes;
+    private final Timer deliveryTime;
+    private final Timer lag;
+    private final Clock clock = Clock.systemUTC();
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       OutboxSink sink,
+                       PlatformTransactionManager transactionManager,
+                       int batchSize,
+                       MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.meterRegistry = meterRegistry;
+        this.batchSizes = DistributionSummary.builder("autoflex.outbox.batch.size").register(meterRegistry);
+        this.deliveryTime = Timer.builder("autoflex.outbox.delivery").publishPercentileHistogram().register(meterRegistry);
+        this.lag = Timer.builder("autoflex.outbox.lag")
+                .description("Time from writing an event to delivering it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** Relays full batches until the outbox runs low; returns how many events were delivered. */
+    @Scheduled(fixedDelayString = "${autoflex.outbox.poll-interval:PT1S}")
+    public int relay() {
+        int delivered = 0;
+        Round round;
+        do {
+            try {
+                round = transactionTemplate.execute(status -> relayBatch());
+            } catch (RuntimeException ex) {
+                meterRegistry.counter("autoflex.outbox.failures").increment();
+                log.warn("Could not relay outbox events; they will be offered again", ex);
+                return delivered;
+            }
+            delivered += round.delivered();
+        } while (round.claimed() == batchSize && round.delivered() == round.claimed());
+        return delivered;
+    }
+
+    private Round relayBatch() {
+        List<OutboxEvent> claimed = repository.claimOldest(batchSize);
+        if (claimed.isEmpty()) {
+            return new Round(0, 0);
+        }
+        List<OutboxEvent> deliverable = inAggregateOrder(claimed);
+        if (!deliverable.isEmpty()) {
+            List<OutboxMessage> messages = deliverable.stream().map(OutboxMessage::of).toList();
+            deliveryTime.record(() -> sink.deliver(messages));
+            repository.deleteAllByIdInBatch(deliverable.stream().map(OutboxEvent::getId).toList());
+
+            long now = clock.millis();
+            deliverable.forEach(event -> lag.record(Duration.ofMillis(Math.max(0, now - event.getCreatedAt().toEpochMilli()))));
+            batchSizes.record(deliverable.size());
+            meterRegistry.counter("autoflex.outbox.events", "outcome", "relayed").increment(deliverable.size());
+        }
+        if (deliverable.size() < claimed.size()) {
+            meterRegistry.counter("autoflex.outbox.events", "outcome", "deferred").increment(claimed.size() - deliverable.size());
+        }
+        return new Round(claimed.size(), deliverable.size());
+    }
+
+    /**
+     * The claimed events that precede every unclaimed event of their aggregate. They are in id
+     * order, which within an aggregate is version order: the id is drawn under the version lock.
+     */
+    private List<OutboxEvent> inAggregateOrder(List<OutboxEvent> claimed) {
+        Set<Long> aggregateIds = claimed.stream().map(OutboxEvent::getAggregateId).collect(Collectors.toSet());
+        List<Long> claimedIds = claimed.stream().map(OutboxEvent::getId).toList();
+        Map<AggregateKey, Long> oldestUnclaimed = new HashMap<>();
+        for (Object[] row : repository.findOldestUnclaimed(aggregateIds, claimedIds)) {
+            oldestUnclaimed.put(new AggregateKey((OutboxEventType.AggregateType) row[0], (Long) row[1]), (Long) row[2]);
+        }
+        return claimed.stream()
+                .filter(event -> {
+                    Long limit = oldestUnclaimed.get(new AggregateKey(event.getAggregateType(), event.getAggregateId()));
+                    return limit == null || event.getVersion() < limit;
+                })
+                .toList();
+    }
+
+    private record AggregateKey(OutboxEventType.AggregateType type, Long id) {
+    }
+
+    private record Round(int claimed, int delivered) {
+    }
+}
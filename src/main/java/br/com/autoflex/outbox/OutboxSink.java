@@ -0,0 +1,12 @@
+package br.com.autoflex.outbox;
+
+import java.util.List;
+
+/**
+ * Where relayed events go. {@link #deliver} either accepts the whole batch or throws, in which case
+ * the batch stays in the outbox and is offered again; a sink must therefore tolerate duplicates.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxMessage> messages);
+}
@@ -0,0 +1,130 @@
+package br.com.autoflex.outbox;
+
+import br.com.autoflex.domain.event.BillOfMaterialsChangedEvent;
+import br.com.autoflex.domain.event.ProductChangedEvent;
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
+import br.com.autoflex.domain.event.WarehouseStockChangedEvent;
+import br.com.autoflex.domain.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Writes an outbox event for every catalog and stock change, in the transaction that makes it:
+ * the domain events are published inside the writing transaction and these listeners run
+ * synchronously, so either the change and its outbox row both commit or neither does. Events
+ * published outside a transaction replay changes committed elsewhere (see
+ * {@code CatalogChangeRelay}) and already have their outbox rows.
+ * <p>
+ * Each event takes the next version of its aggregate under the {@link OutboxAggregate} row lock,
+ * which is held until the writing transaction ends. Stock changes are events of the warehouse they
+ * happen in, so plants adjusting their own warehouses never wait for each other.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository repository;
+    private final OutboxAggregateRepository aggregateRepository;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate ownTransaction;
+    private final Clock clock = Clock.systemUTC();
+
+    public OutboxWriter(OutboxEventRepository repository,
+                        OutboxAggregateRepository aggregateRepository,
+                        ProductService productService,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.aggregateRepository = aggregateRepository;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeletion()) {
+            write(OutboxEventType.PRODUCT_DELETED, event.productId(), Map.of("id", event.productId()));
+        } else {
+            write(OutboxEventType.PRODUCT_SAVED, event.productId(), event.product());
+        }
+    }
+
+    @EventListener
+    public void onBillOfMaterialsChanged(BillOfMaterialsChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        write(OutboxEventType.BILL_OF_MATERIALS_CHANGED, event.productId(), Map.of(
+                "productId", event.productId(),
+                "rawMaterials", productService.findRawMaterials(event.productId())));
+    }
+
+    @EventListener
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        if (event.isDeletion()) {
+            write(OutboxEventType.RAW_MATERIAL_DELETED, event.rawMaterialId(), Map.of("id", event.rawMaterialId()));
+        } else {
+            write(OutboxEventType.RAW_MATERIAL_SAVED, event.rawMaterialId(), event.rawMaterial());
+        }
+    }
+
+    @EventListener
+    public void onWarehouseStockChanged(WarehouseStockChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        write(OutboxEventType.STOCK_CHANGED, event.warehouseId(), Map.of(
+                "warehouseId", event.warehouseId(),
+                "rawMaterialId", event.rawMaterialId(),
+                "delta", event.delta(),
+                "quantity", event.quantity()));
+    }
+
+    private void write(OutboxEventType type, Long aggregateId, Object payload) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize the " + type + " outbox event of " + aggregateId, ex);
+        }
+        long version = nextVersion(type.aggregateType(), aggregateId);
+        repository.save(new OutboxEvent(null, type.aggregateType(), aggregateId, version, type, json, clock.instant()));
+        meterRegistry.counter("autoflex.outbox.events", "outcome", "written", "type", type.name()).increment();
+    }
+
+    /**
+     * Bumps the aggregate's version, locking it until this transaction ends. An aggregate's first
+     * event registers it in a transaction of its own, so concurrent first writers cannot both
+     * insert the row; the loser finds it registered and bumps it like any later writer.
+     */
+    private long nextVersion(OutboxEventType.AggregateType aggregateType, Long aggregateId) {
+        if (aggregateRepository.advance(aggregateType, aggregateId) == 0) {
+            try {
+                ownTransaction.executeWithoutResult(status -> aggregateRepository.register(aggregateType.name(), aggregateId));
+            } catch (DataIntegrityViolationException alreadyRegistered) {
+                // another writer registered it first
+            }
+            aggregateRepository.advance(aggregateType, aggregateId);
+        }
+        return aggregateRepository.findVersion(aggregateType, aggregateId);
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.autoflex.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attributes CPU samples, allocation samples and blocking events to the innermost frame of the
+ * application ({@value #APPLICATION_PACKAGE}) on their stack. Events whose recorded stack has no
+ * application frame still count towards the totals of their section.
+ */
+class FrameAggregator {
+
+    static final String APPLICATION_PACKAGE = "br.com.autoflex.";
+
+    private final Section cpu = new Section();
+    private final Section allocation = new Section();
+    private final Section blocking = new Section();
+
+    synchronized void accept(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample" -> cpu.add(applicationFrame(event), 1);
+            case "jdk.ObjectAllocationSample" -> allocation.add(applicationFrame(event), event.getLong("weight"));
+            case "jdk.JavaMonitorEnter", "jdk.ThreadPark" ->
+                    blocking.add(applicationFrame(event), event.getDuration().toNanos());
+            default -> {
+            }
+        }
+    }
+
+    synchronized ProfileSummary summary(int topFrames) {
+        return new ProfileSummary(
+                cpu.summary("samples", topFrames, 1),
+                allocation.summary("bytes", topFrames, 1),
+                blocking.summary("milliseconds", topFrames, 1_000_000));
+    }
+
+    private static String applicationFrame(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (frame.isJavaFrame() && type.startsWith(APPLICATION_PACKAGE)) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return null;
+    }
+
+    private static class Section {
+
+        private final Map<String, long[]> byFrame = new HashMap<>();
+        private long events;
+        private long weight;
+
+        void add(String frame, long eventWeight) {
+            events++;
+            weight += eventWeight;
+            if (frame != null) {
+                long[] totals = byFrame.computeIfAbsent(frame, key -> new long[2]);
+                totals[0]++;
+                totals[1] += eventWeight;
+            }
+        }
+
+        ProfileSummary.Section summary(String unit, int topFrames, long divisor) {
+            List<ProfileSummary.FrameStat> top = byFrame.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[1]).reversed())
+                    .limit(topFrames)
+                    .map(entry -> new ProfileSummary.FrameStat(entry.getKey(), entry.getValue()[0], entry.getValue()[1] / divisor))
+                    .toList();
+            return new ProfileSummary.Section(unit, events, weight / divisor, top);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.autoflex.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * {@code GET /actuator/jfr} shows the running and the last finished recording with their
+ * summaries, {@code POST /actuator/jfr} with {@code {"preset": "cpu|allocation|lock", "duration": "60s"}}
+ * starts one, {@code DELETE /actuator/jfr} stops it, and {@code GET /actuator/jfr/{fileName}}
+ * downloads the last finished {@code .jfr} file. Starting while recording, or stopping while idle,
+ * answers 409.
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrProfiler profiler;
+
+    public JfrEndpoint(JfrProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public ProfilerStatus status() {
+        return new ProfilerStatus(profiler.running().orElse(null), profiler.last().orElse(null));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(ProfilingPreset preset, @Nullable Duration duration) {
+        try {
+            return new WebEndpointResponse<>(profiler.start(preset, duration));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Object> stop() {
+        try {
+            return new WebEndpointResponse<>(profiler.stop());
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+    }
+
+    @ReadOperation
+    public Resource recording(@Selector String fileName) {
+        return profiler.file(fileName).map(FileSystemResource::new).orElse(null);
+    }
+
+    public record ProfilerStatus(RecordingStatus running, RecordingStatus last) {
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.autoflex.profiling;
+
+import jdk.jfr.consumer.EventStream;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs at most one Java Flight Recorder recording at a time inside this JVM. While it runs, its
+ * events are streamed into a live summary; when it stops, on request or after its duration, it is
+ * written to a {@code .jfr} file and summarized again from that file. Only the last finished
+ * recording is kept on disk.
+ */
+public class JfrProfiler implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrProfiler.class);
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final int topFrames;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jfr-profiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Session running;
+    private Finished last;
+
+    public JfrProfiler(Duration maxDuration, long maxSizeBytes, int topFrames, Clock clock) {
+        this.maxDuration = maxDuration;
+        this.maxSizeBytes = maxSizeBytes;
+        this.topFrames = topFrames;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a recording with the given preset, stopping by itself after {@code duration}, or the
+     * configured maximum when none or a longer one is given.
+     *
+     * @throws IllegalStateException if a recording is already running
+     */
+    public synchronized RecordingStatus start(ProfilingPreset preset, Duration duration) {
+        if (running != null) {
+            throw new IllegalStateException("A " + running.preset + " recording is already running");
+        }
+        Duration effective = duration == null || duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0
+                ? maxDuration : duration;
+
+        RecordingStream stream = new RecordingStream();
+        stream.setSettings(preset.settings());
+        stream.setMaxSize(maxSizeBytes);
+        FrameAggregator aggregator = new FrameAggregator();
+        stream.onEvent(aggregator::accept);
+        stream.startAsync();
+
+        Instant startedAt = clock.instant();
+        Session session = new Session(preset, stream, aggregator, startedAt, startedAt.plus(effective));
+        session.timeout = scheduler.schedule(() -> stopIfRunning(session), effective.toMillis(), TimeUnit.MILLISECONDS);
+        running = session;
+        log.info("Started {} JFR recording for {}", preset, effective);
+        return session.status(topFrames);
+    }
+
+    /**
+     * Stops the running recording and writes it to disk, replacing the previous file.
+     *
+     * @throws IllegalStateException if no recording is running
+     */
+    public synchronized RecordingStatus stop() {
+        if (running == null) {
+            throw new IllegalStateException("No recording is running");
+        }
+        Session session = running;
+        running = null;
+        session.timeout.cancel(false);
+        Path file;
+        try {
+            file = Files.createTempFile("autoflex-" + session.preset.name().toLowerCase() + "-", ".jfr");
+            session.stream.dump(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the JFR recording", e);
+        } finally {
+            session.stream.close();
+        }
+
+        Finished finished = new Finished(session.preset, session.startedAt, clock.instant(), file, summarize(file));
+        if (last != null) {
+            deleteQuietly(last.file);
+        }
+        last = finished;
+        log.info("Stopped {} JFR recording, written to {}", session.preset, file);
+        return finished.status();
+    }
+
+    public synchronized Optional<RecordingStatus> running() {
+        return Optional.ofNullable(running).map(session -> session.status(topFrames));
+    }
+
+    public synchronized Optional<RecordingStatus> last() {
+        return Optional.ofNullable(last).map(Finished::status);
+    }
+
+    /** The file of the last finished recording, if its name is {@code fileName}. */
+    public synchronized Optional<Path> file(String fileName) {
+        return Optional.ofNullable(last)
+                .map(finished -> finished.file)
+                .filter(file -> file.getFileName().toString().equals(fileName));
+    }
+
+    @Override
+    public synchronized void close() {
+        scheduler.shutdownNow();
+        if (running != null) {
+            running.stream.close();
+            running = null;
+        }
+        if (last != null) {
+            deleteQuietly(last.file);
+            last = null;
+        }
+    }
+
+    private synchronized void stopIfRunning(Session session) {
+        if (running == session) {
+            stop();
+        }
+    }
+
+    private ProfileSummary summarize(Path file) {
+        FrameAggregator aggregator = new FrameAggregator();
+        try (EventStream events = EventStream.openFile(file)) {
+            events.onEvent(aggregator::accept);
+            events.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the JFR recording", e);
+        }
+        return aggregator.summary(topFrames);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete JFR recording {}", file, e);
+        }
+    }
+
+    private static final class Session {
+
+        private final ProfilingPreset preset;
+        private final RecordingStream stream;
+        private final FrameAggregator aggregator;
+        private final Instant startedAt;
+        private final Instant endsAt;
+        private ScheduledFuture<?> timeout;
+
+        private Session(ProfilingPreset preset, RecordingStream stream, FrameAggregator aggregator,
+                        Instant startedAt, Instant endsAt) {
+            this.preset = preset;
+            this.stream = stream;
+            this.aggregator = aggregator;
+            this.startedAt = startedAt;
+            this.endsAt = endsAt;
+        }
+
+        RecordingStatus status(int topFrames) {
+            return new RecordingStatus(preset, true, startedAt, endsAt, null, null, aggregator.summary(topFrames));
+        }
+    }
+
+    private record Finished(ProfilingPreset preset, Instant startedAt, Instant stoppedAt, Path file, ProfileSummary summary) {
+
+        RecordingStatus status() {
+            long bytes;
+            try {
+                bytes = Files.size(file);
+            } catch (IOException e) {
+                bytes = -1;
+            }
+            return new RecordingStatus(preset, false, startedAt, stoppedAt, file.getFileName().toString(), bytes, summary);
+        }
+    }
+}
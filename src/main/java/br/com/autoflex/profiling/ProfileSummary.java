@@ -0,0 +1,14 @@
+package br.com.autoflex.profiling;
+
+import java.util.List;
+
+/** The heaviest application frames of a recording, per kind of event. */
+public record ProfileSummary(Section cpu, Section allocation, Section blocking) {
+
+    /** {@code weight} is expressed in {@code unit}: CPU samples, sampled bytes or blocked milliseconds. */
+    public record Section(String unit, long events, long weight, List<FrameStat> topFrames) {
+    }
+
+    public record FrameStat(String frame, long events, long weight) {
+    }
+}
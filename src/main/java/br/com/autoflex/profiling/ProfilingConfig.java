@@ -0,0 +1,52 @@
+package br.com.autoflex.profiling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "autoflex.profiling.enabled", havingValue = "true")
+public class ProfilingConfig {
+
+    @Bean
+    public JfrProfiler jfrProfiler(@Value("${autoflex.profiling.max-duration:PT5M}") Duration maxDuration,
+                                   @Value("${autoflex.profiling.max-size:64MB}") DataSize maxSize,
+                                   @Value("${autoflex.profiling.top-frames:20}") int topFrames) {
+        return new JfrProfiler(maxDuration, maxSize.toBytes(), topFrames, Clock.systemUTC());
+    }
+
+    /**
+     * Refuses to start when profiling is enabled without a token outside the {@code local}
+     * profile, rather than exposing recordings and heap-sized files to anyone who can reach it.
+     */
+    @Bean
+    public JfrEndpoint jfrEndpoint(JfrProfiler jfrProfiler, Environment environment,
+                                   @Value("${autoflex.profiling.token:}") String token) {
+        if (token.isBlank() && !environment.acceptsProfiles(Profiles.of("local"))) {
+            throw new IllegalStateException(
+                    "autoflex.profiling.token must be set when profiling is enabled outside the local profile");
+        }
+        return new JfrEndpoint(jfrProfiler);
+    }
+
+    /** Without a token the endpoint is left open, which is only allowed in the local profile. */
+    @Bean
+    public FilterRegistrationBean<ProfilingAccessFilter> profilingAccessFilterRegistration(
+            @Value("${autoflex.profiling.token:}") String token,
+            @Value("${management.endpoints.web.base-path:/actuator}") String basePath) {
+        FilterRegistrationBean<ProfilingAccessFilter> registration = new FilterRegistrationBean<>(new ProfilingAccessFilter(token));
+        registration.addUrlPatterns(basePath + "/jfr", basePath + "/jfr/*");
+        registration.setEnabled(!token.isBlank());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.autoflex.profiling;
+
+import java.util.Map;
+
+/**
+ * The JFR event settings of each kind of recording. Each preset enables only the events it
+ * summarizes, so a recording stays cheap enough to run against production traffic.
+ */
+public enum ProfilingPreset {
+
+    /** Execution samples every 10 ms of the threads running Java code. */
+    CPU(Map.of(
+            "jdk.ExecutionSample#enabled", "true",
+            "jdk.ExecutionSample#period", "10 ms")),
+
+    /** Throttled allocation samples, each weighted by the bytes allocated since the previous one. */
+    ALLOCATION(Map.of(
+            "jdk.ObjectAllocationSample#enabled", "true",
+            "jdk.ObjectAllocationSample#throttle", "500/s",
+            "jdk.ObjectAllocationSample#stackTrace", "true")),
+
+    /** Contended monitor entries and thread parks (java.util.concurrent locks) of 5 ms or more. */
+    LOCK(Map.of(
+            "jdk.JavaMonitorEnter#enabled", "true",
+            "jdk.JavaMonitorEnter#threshold", "5 ms",
+            "jdk.JavaMonitorEnter#stackTrace", "true",
+            "jdk.ThreadPark#enabled", "true",
+            "jdk.ThreadPark#threshold", "5 ms",
+            "jdk.ThreadPark#stackTrace", "true"));
+
+    private final Map<String, String> settings;
+
+    ProfilingPreset(Map<String, String> settings) {
+        this.settings = settings;
+    }
+
+    public Map<String, String> settings() {
+        return settings;
+    }
+}
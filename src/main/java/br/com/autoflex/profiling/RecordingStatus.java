@@ -0,0 +1,12 @@
+package br.com.autoflex.profiling;
+
+import java.time.Instant;
+
+/**
+ * A running or finished recording. {@code endsAt} is when a running recording will stop on its
+ * own, or when a finished one stopped; {@code fileName} and {@code fileBytes} are only set once the
+ * recording has been written.
+ */
+public record RecordingStatus(ProfilingPreset preset, boolean running, Instant startedAt, Instant endsAt,
+                              String fileName, Long fileBytes, ProfileSummary summary) {
+}
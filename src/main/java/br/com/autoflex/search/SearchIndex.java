@@ -0,0 +1,368 @@
+package br.com.autoflex.search;
+
+import br.com.autoflex.dto.search.SearchResponse;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory full-text index over the name and description of catalog entries.
+ * <p>
+ * Every distinct term lives once in a dictionary whose postings map document IDs to the fields
+ * the term occurs in. The dictionary is reachable through a trie, for prefix lookups, and through
+ * a trigram index, for substring and typo-tolerant matches. Writes take the exclusive lock and
+ * only touch the terms of the document being changed; searches run under the shared lock.
+ * <p>
+ * A query matches a document when every query term matches one of its terms, exactly, as a
+ * prefix, as a substring or by trigram similarity. Name matches outrank description matches.
+ * Ties are broken by name and then by ID.
+ */
+public class SearchIndex<T> {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 2;
+
+    private static final double NAME_WEIGHT = 1.0;
+    private static final double DESCRIPTION_WEIGHT = 0.4;
+
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.8;
+    private static final double SUBSTRING = 0.6;
+    private static final double FUZZY = 0.5;
+    private static final double NAME_PREFIX_BONUS = 0.5;
+
+    /** Minimum Dice coefficient between trigram sets for a fuzzy match. */
+    private static final double MIN_SIMILARITY = 0.4;
+    private static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+
+    private final Function<T, Long> idExtractor;
+    private final Function<T, String> nameExtractor;
+    private final Function<T, String> descriptionExtractor;
+
+    private final Map<Long, Document<T>> documents = new HashMap<>();
+    private final Map<String, Term> dictionary = new HashMap<>();
+    private final Map<String, Set<Term>> trigrams = new HashMap<>();
+    private final TrieNode trie = new TrieNode();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SearchIndex(Function<T, Long> idExtractor,
+                       Function<T, String> nameExtractor,
+                       Function<T, String> descriptionExtractor) {
+        this.idExtractor = idExtractor;
+        this.nameExtractor = nameExtractor;
+        this.descriptionExtractor = descriptionExtractor;
+    }
+
+    public void put(T value) {
+        Long id = idExtractor.apply(value);
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+            index(id, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<T> values) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            dictionary.clear();
+            trigrams.clear();
+            trie.children.clear();
+            values.forEach(value -> index(idExtractor.apply(value), value));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchResponse<T> search(String query, int page, int size) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return new SearchResponse<>(Collections.emptyList(), page, size, 0, 0);
+        }
+        String normalizedQuery = String.join(" ", queryTerms);
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = match(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            long offset = (long) page * size;
+            int total = scores.size();
+            if (offset >= total) {
+                return new SearchResponse<>(Collections.emptyList(), page, size, total, totalPages(total, size));
+            }
+
+            int limit = (int) Math.min(total, offset + size);
+            Comparator<Hit<T>> ranking = Comparator.<Hit<T>>comparingDouble(Hit::score).reversed()
+                    .thenComparing(hit -> hit.document().normalizedName())
+                    .thenComparing(hit -> hit.document().id());
+            PriorityQueue<Hit<T>> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                Document<T> document = documents.get(entry.getKey());
+                double score = entry.getValue();
+                if (document.normalizedName().startsWith(normalizedQuery)) {
+                    score += NAME_PREFIX_BONUS;
+                }
+                top.add(new Hit<>(document, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Hit<T>> ranked = new ArrayList<>(top);
+            ranked.sort(ranking);
+            List<T> content = ranked.subList((int) offset, ranked.size()).stream()
+                    .map(hit -> hit.document().value())
+                    .toList();
+            return new SearchResponse<>(content, page, size, total, totalPages(total, size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> match(String queryTerm) {
+        Map<Long, Double> scores = new HashMap<>();
+
+        Term exact = dictionary.get(queryTerm);
+        if (exact != null) {
+            score(exact, EXACT, scores);
+        }
+        forEachTermWithPrefix(queryTerm, term -> {
+            if (term != exact) {
+                score(term, PREFIX, scores);
+            }
+        });
+
+        if (queryTerm.length() >= MIN_TRIGRAM_TERM_LENGTH) {
+            Set<String> queryGrams = trigramsOf(queryTerm);
+            Map<Term, Integer> shared = new HashMap<>();
+            for (String gram : queryGrams) {
+                for (Term term : trigrams.getOrDefault(gram, Collections.emptySet())) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+            shared.forEach((term, count) -> {
+                if (term.text().startsWith(queryTerm)) {
+                    return;
+                }
+                if (term.text().contains(queryTerm)) {
+                    score(term, SUBSTRING, scores);
+                    return;
+                }
+                double similarity = 2.0 * count / (queryGrams.size() + term.grams().size());
+                if (similarity >= MIN_SIMILARITY) {
+                    score(term, FUZZY * similarity, scores);
+                }
+            });
+        }
+        return scores;
+    }
+
+    private void score(Term term, double base, Map<Long, Double> scores) {
+        term.postings().forEach((id, fields) -> {
+            double weight = (fields & NAME) != 0 ? NAME_WEIGHT : DESCRIPTION_WEIGHT;
+            scores.merge(id, base * weight, Math::max);
+        });
+    }
+
+    private void index(Long id, T value) {
+        List<String> nameTerms = tokenize(nameExtractor.apply(value));
+        Map<String, Integer> fields = new HashMap<>();
+        nameTerms.forEach(text -> fields.merge(text, NAME, (a, b) -> a | b));
+        tokenize(descriptionExtractor.apply(value)).forEach(text -> fields.merge(text, DESCRIPTION, (a, b) -> a | b));
+
+        fields.forEach((text, mask) -> dictionary.computeIfAbsent(text, this::newTerm).postings().put(id, mask));
+        documents.put(id, new Document<>(id, value, String.join(" ", nameTerms), fields.keySet()));
+    }
+
+    private void unindex(Long id) {
+        Document<T> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String text : previous.terms()) {
+            Term term = dictionary.get(text);
+            term.postings().remove(id);
+            if (term.postings().isEmpty()) {
+                dropTerm(term);
+            }
+        }
+    }
+
+    private Term newTerm(String text) {
+        Term term = new Term(text);
+        TrieNode node = trie;
+        for (int i = 0; i < text.length(); i++) {
+            node = node.children.computeIfAbsent(text.charAt(i), c -> new TrieNode());
+        }
+        node.term = term;
+        for (String gram : term.grams()) {
+            trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+        return term;
+    }
+
+    private void dropTerm(Term term) {
+        dictionary.remove(term.text());
+        for (String gram : term.grams()) {
+            Set<Term> terms = trigrams.get(gram);
+            terms.remove(term);
+            if (terms.isEmpty()) {
+                trigrams.remove(gram);
+            }
+        }
+
+        Deque<TrieNode> path = new ArrayDeque<>();
+        TrieNode node = trie;
+        for (int i = 0; i < term.text().length(); i++) {
+            path.push(node);
+            node = node.children.get(term.text().charAt(i));
+        }
+        node.term = null;
+        for (int i = term.text().length() - 1; i >= 0 && node.term == null && node.children.isEmpty(); i--) {
+            TrieNode parent = path.pop();
+            parent.children.remove(term.text().charAt(i));
+            node = parent;
+        }
+    }
+
+    private void forEachTermWithPrefix(String prefix, Consumer<Term> action) {
+        TrieNode node = trie;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return;
+        }
+
+        Deque<TrieNode> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            TrieNode current = pending.pop();
+            if (current.term != null) {
+                action.accept(current.term);
+            }
+            current.children.values().forEach(pending::push);
+        }
+    }
+
+    private static int totalPages(long total, int size) {
+        return (int) ((total + size - 1) / size);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return SEPARATORS.splitAsStream(normalized)
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    /** Trigrams of the term padded with one space on each side, so word boundaries count. */
+    static Set<String> trigramsOf(String term) {
+        String padded = " " + term + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private Term term;
+    }
+
+    /** Compared by identity: postings are mutable, and the dictionary guarantees one instance per text. */
+    private static final class Term {
+        private final String text;
+        private final Set<String> grams;
+        private final Map<Long, Integer> postings = new HashMap<>();
+
+        private Term(String text) {
+            this.text = text;
+            this.grams = trigramsOf(text);
+        }
+
+        String text() {
+            return text;
+        }
+
+        Set<String> grams() {
+            return grams;
+        }
+
+        Map<Long, Integer> postings() {
+            return postings;
+        }
+    }
+
+    private record Document<T>(Long id, T value, String normalizedName, Set<String> terms) {
+    }
+
+    private record Hit<T>(Document<T> document, double score) {
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.autoflex.sqltrace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/** The SQL traces of the last {@code capacity} requests, newest first; a capacity of 0 keeps none. */
+public class RecentRequestTraces {
+
+    private final int capacity;
+    private final Deque<RequestTrace.Summary> traces = new ArrayDeque<>();
+
+    public RecentRequestTraces(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void add(RequestTrace.Summary trace) {
+        if (capacity == 0) {
+            return;
+        }
+        if (traces.size() == capacity) {
+            traces.removeLast();
+        }
+        traces.addFirst(trace);
+    }
+
+    public synchronized List<RequestTrace.Summary> list() {
+        return new ArrayList<>(traces);
+    }
+
+    public synchronized Optional<RequestTrace.Summary> find(String requestId) {
+        return traces.stream().filter(trace -> trace.requestId().equals(requestId)).findFirst();
+    }
+}
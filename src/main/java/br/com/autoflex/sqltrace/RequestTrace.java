@@ -0,0 +1,71 @@
+package br.com.autoflex.sqltrace;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The SQL one request issued, in order. Only the first {@code maxStatements} statements are kept
+ * verbatim; the totals always cover all of them.
+ */
+public class RequestTrace {
+
+    /** One statement execution; a JDBC batch is a single entry with its size. */
+    public record StatementTrace(String sql, long elapsedMillis, int batchSize, boolean success) {
+    }
+
+    /** What the actuator endpoint returns for a finished request. */
+    public record Summary(String requestId, String method, String uri, int status, Instant startedAt,
+                          long durationMillis, int statementCount, long sqlMillis, int slowStatementCount,
+                          List<StatementTrace> statements) {
+    }
+
+    private final String requestId;
+    private final String method;
+    private final String uri;
+    private final Instant startedAt;
+    private final long startedNanos;
+    private final int maxStatements;
+    private final List<StatementTrace> statements = new ArrayList<>();
+    private int statementCount;
+    private long sqlMillis;
+    private int slowStatementCount;
+
+    RequestTrace(String requestId, String method, String uri, int maxStatements) {
+        this.requestId = requestId;
+        this.method = method;
+        this.uri = uri;
+        this.maxStatements = maxStatements;
+        this.startedAt = Instant.now();
+        this.startedNanos = System.nanoTime();
+    }
+
+    String requestId() {
+        return requestId;
+    }
+
+    String method() {
+        return method;
+    }
+
+    String uri() {
+        return uri;
+    }
+
+    synchronized void add(StatementTrace statement, boolean slow) {
+        statementCount++;
+        sqlMillis += statement.elapsedMillis();
+        if (slow) {
+            slowStatementCount++;
+        }
+        if (statements.size() < maxStatements) {
+            statements.add(statement);
+        }
+    }
+
+    synchronized Summary finish(int status) {
+        long durationMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+        return new Summary(requestId, method, uri, status, startedAt, durationMillis, statementCount, sqlMillis,
+                slowStatementCount, List.copyOf(statements));
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.autoflex.sqltrace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every request a correlation ID, taken from the {@value #REQUEST_ID_HEADER} header when the
+ * caller sent a well-formed one and generated otherwise. The ID is echoed in the response, put in
+ * the logging MDC as {@value #MDC_KEY}, and tags the SQL trace of the request.
+ */
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    static final String MDC_KEY = "requestId";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
+    private final SqlTraceListener listener;
+    private final RecentRequestTraces recentTraces;
+    private final int maxStatementsPerTrace;
+
+    public RequestTraceFilter(SqlTraceListener listener, RecentRequestTraces recentTraces, int maxStatementsPerTrace) {
+        this.listener = listener;
+        this.recentTraces = recentTraces;
+        this.maxStatementsPerTrace = maxStatementsPerTrace;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        RequestTrace trace = new RequestTrace(requestId, request.getMethod(), request.getRequestURI(), maxStatementsPerTrace);
+        MDC.put(MDC_KEY, requestId);
+        listener.begin(trace);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            listener.end();
+            MDC.remove(MDC_KEY);
+            recentTraces.add(trace.finish(response.getStatus()));
+        }
+    }
+}
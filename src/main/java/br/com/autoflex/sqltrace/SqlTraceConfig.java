@@ -0,0 +1,59 @@
+package br.com.autoflex.sqltrace;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class SqlTraceConfig {
+
+    @Bean
+    public SqlTraceListener sqlTraceListener(@Value("${autoflex.sql-trace.slow-threshold:200ms}") Duration slowThreshold) {
+        return new SqlTraceListener(slowThreshold);
+    }
+
+    @Bean
+    public RecentRequestTraces recentRequestTraces(@Value("${autoflex.sql-trace.recent-requests:100}") int capacity) {
+        return new RecentRequestTraces(capacity);
+    }
+
+    @Bean
+    public SqlTraceEndpoint sqlTraceEndpoint(RecentRequestTraces recentRequestTraces) {
+        return new SqlTraceEndpoint(recentRequestTraces);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTraceFilter> requestTraceFilterRegistration(
+            SqlTraceListener listener, RecentRequestTraces recentRequestTraces,
+            @Value("${autoflex.sql-trace.max-statements-per-request:50}") int maxStatementsPerRequest) {
+        FilterRegistrationBean<RequestTraceFilter> registration = new FilterRegistrationBean<>(
+                new RequestTraceFilter(listener, recentRequestTraces, maxStatementsPerRequest));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    /** Static so that wrapping the data source does not force early creation of this configuration. */
+    @Bean
+    public static BeanPostProcessor sqlTraceDataSourcePostProcessor(ObjectProvider<SqlTraceListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name("sql-trace")
+                        .listener(listener.getObject())
+                        .build();
+            }
+        };
+    }
+}
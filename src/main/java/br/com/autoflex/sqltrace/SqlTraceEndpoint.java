@@ -0,0 +1,32 @@
+package br.com.autoflex.sqltrace;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/sqltrace} lists the SQL of recent requests, newest first, and
+ * {@code /actuator/sqltrace/{requestId}} the SQL of one of them. Not exposed in the dev profile,
+ * which is what production runs; statements may reveal the shape of the data.
+ */
+@Endpoint(id = "sqltrace")
+public class SqlTraceEndpoint {
+
+    private final RecentRequestTraces recentTraces;
+
+    public SqlTraceEndpoint(RecentRequestTraces recentTraces) {
+        this.recentTraces = recentTraces;
+    }
+
+    @ReadOperation
+    public List<RequestTrace.Summary> traces() {
+        return recentTraces.list();
+    }
+
+    @ReadOperation
+    public RequestTrace.Summary trace(@Selector String requestId) {
+        return recentTraces.find(requestId).orElse(null);
+    }
+}
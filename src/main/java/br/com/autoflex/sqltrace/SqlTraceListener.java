@@ -0,0 +1,64 @@
+package br.com.autoflex.sqltrace;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Times every statement that goes through the data source. Statements run while a request is
+ * being handled are added to that request's trace; any statement slower than the threshold is
+ * written to the {@value #SLOW_QUERY_LOGGER} logger as key=value pairs, with the request ID when
+ * there is one, so slow SQL can be traced back to its request without enabling show-sql.
+ * Bind parameters are never logged.
+ */
+public class SqlTraceListener implements QueryExecutionListener {
+
+    static final String SLOW_QUERY_LOGGER = "autoflex.sql.slow";
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger(SLOW_QUERY_LOGGER);
+
+    private final ThreadLocal<RequestTrace> current = new ThreadLocal<>();
+    private final long slowThresholdMillis;
+
+    public SqlTraceListener(Duration slowThreshold) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+    }
+
+    void begin(RequestTrace trace) {
+        current.set(trace);
+    }
+
+    void end() {
+        current.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; "));
+        int batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+        long elapsedMillis = execInfo.getElapsedTime();
+        boolean slow = elapsedMillis >= slowThresholdMillis;
+
+        RequestTrace trace = current.get();
+        if (trace != null) {
+            trace.add(new RequestTrace.StatementTrace(sql, elapsedMillis, batchSize, execInfo.isSuccess()), slow);
+        }
+        if (slow && slowQueryLog.isWarnEnabled()) {
+            slowQueryLog.warn("slow_query requestId={} method={} uri={} elapsedMs={} batchSize={} success={} sql=\"{}\"",
+                    trace == null ? "-" : trace.requestId(),
+                    trace == null ? "-" : trace.method(),
+                    trace == null ? "-" : trace.uri(),
+                    elapsedMillis, batchSize, execInfo.isSuccess(), sql);
+        }
+    }
+}
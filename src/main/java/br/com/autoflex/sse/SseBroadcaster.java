@@ -0,0 +1,121 @@
+package br.com.autoflex.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans Server-Sent Events out to every subscribed client.
+ * <p>
+ * Publishing never touches a socket: each event is offered to a bounded per-client queue, and each
+ * queue is drained by at most one task at a time on the given executor. A client whose queue is
+ * full is too slow to keep up and is disconnected, so it cannot hold memory or delay the others;
+ * it is expected to reconnect and start again from a fresh snapshot.
+ */
+public class SseBroadcaster {
+
+    /** An event to send; a {@code null} name sends a comment, which clients ignore. */
+    public record Event(String name, Object data) {
+    }
+
+    private static final Event HEARTBEAT = new Event(null, "heartbeat");
+
+    private final Executor executor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public SseBroadcaster(Executor executor, int queueCapacity, Duration timeout) {
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /** Opens a stream whose first events are {@code initialEvents}, followed by everything published from now on. */
+    public SseEmitter subscribe(List<Event> initialEvents) {
+        return register(new SseEmitter(timeoutMillis), initialEvents);
+    }
+
+    public void publish(String name, Object data) {
+        Event event = new Event(name, data);
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    /** Keeps idle connections from being closed by proxies, and detects clients that went away. */
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    SseEmitter register(SseEmitter emitter, List<Event> initialEvents) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscriber.drop(null));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        initialEvents.forEach(subscriber::offer);
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            if (!queue.offer(event)) {
+                drop(null);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Event event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event.name() == null
+                                ? SseEmitter.event().comment(event.data().toString())
+                                : SseEmitter.event().name(event.name()).data(event.data()));
+                    } catch (IOException | IllegalStateException e) {
+                        drop(e);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void drop(Throwable error) {
+            if (!subscribers.remove(this)) {
+                return;
+            }
+            queue.clear();
+            if (error == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(error);
+            }
+        }
+    }
+}
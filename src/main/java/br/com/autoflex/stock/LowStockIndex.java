@@ -0,0 +1,152 @@
+package br.com.autoflex.stock;
+
+import br.com.autoflex.dto.rawmaterial.LowStockResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Raw materials with a reorder threshold, ordered by the ratio of current stock to threshold.
+ * <p>
+ * Materials below their threshold are exactly those with a ratio under 1, so they form a prefix
+ * of the ordering: listing them walks that prefix and costs O(k) for k low materials, whatever the
+ * size of the catalog. Each update is O(log n). Materials without a positive threshold are not
+ * tracked.
+ */
+public class LowStockIndex {
+
+    /** How an update moved a material relative to its threshold. */
+    public enum Transition {
+        /** Was at or above its threshold, or untracked, and is now below it. */
+        ENTERED,
+        /** Was and still is below its threshold, with a different stock, threshold or name. */
+        UPDATED,
+        /** Was below its threshold and no longer is, or is no longer tracked. */
+        LEFT,
+        /** Nothing a low-stock listing shows has changed. */
+        NONE
+    }
+
+    private static final Comparator<LowStockResponse> BY_RATIO =
+            Comparator.comparingDouble(LowStockResponse::ratio).thenComparing(LowStockResponse::rawMaterialId);
+
+    private final TreeSet<LowStockResponse> byRatio = new TreeSet<>(BY_RATIO);
+    private final Map<Long, LowStockResponse> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public Transition update(RawMaterialResponse rawMaterial) {
+        LowStockResponse entry = entryFor(rawMaterial);
+        lock.writeLock().lock();
+        try {
+            LowStockResponse previous = entry == null ? entries.remove(rawMaterial.id()) : entries.put(entry.rawMaterialId(), entry);
+            if (previous != null) {
+                byRatio.remove(previous);
+            }
+            if (entry != null) {
+                byRatio.add(entry);
+            }
+            return transition(previous, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Transition remove(Long rawMaterialId) {
+        lock.writeLock().lock();
+        try {
+            LowStockResponse previous = entries.remove(rawMaterialId);
+            if (previous != null) {
+                byRatio.remove(previous);
+            }
+            return transition(previous, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<RawMaterialResponse> rawMaterials) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byRatio.clear();
+            for (RawMaterialResponse rawMaterial : rawMaterials) {
+                LowStockResponse entry = entryFor(rawMaterial);
+                if (entry != null) {
+                    entries.put(entry.rawMaterialId(), entry);
+                    byRatio.add(entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public LowStockResponse get(Long rawMaterialId) {
+        lock.readLock().lock();
+        try {
+            return entries.get(rawMaterialId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Materials below their threshold, the lowest ratio first. */
+    public List<LowStockResponse> belowThreshold() {
+        lock.readLock().lock();
+        try {
+            List<LowStockResponse> below = new ArrayList<>();
+            for (LowStockResponse entry : byRatio) {
+                if (!isBelow(entry)) {
+                    break;
+                }
+                below.add(entry);
+            }
+            return below;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Transition transition(LowStockResponse previous, LowStockResponse current) {
+        boolean wasBelow = isBelow(previous);
+        boolean isBelow = isBelow(current);
+        if (!wasBelow) {
+            return isBelow ? Transition.ENTERED : Transition.NONE;
+        }
+        if (!isBelow) {
+            return Transition.LEFT;
+        }
+        return Objects.equals(previous, current) ? Transition.NONE : Transition.UPDATED;
+    }
+
+    private static boolean isBelow(LowStockResponse entry) {
+        return entry != null && entry.ratio() < 1.0;
+    }
+
+    private static LowStockResponse entryFor(RawMaterialResponse rawMaterial) {
+        Double threshold = rawMaterial.reorderThreshold();
+        if (threshold == null || threshold <= 0 || rawMaterial.currentStock() == null) {
+            return null;
+        }
+        return new LowStockResponse(rawMaterial.id(), rawMaterial.name(), rawMaterial.currentStock(), threshold,
+                rawMaterial.currentStock() / threshold);
+    }
+}
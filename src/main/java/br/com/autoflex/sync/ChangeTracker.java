@@ -0,0 +1,192 @@
+package br.com.autoflex.sync;
+
+import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.domain.repository.RawMaterialRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Hands out the change sequence stamped on every written product, raw material and association
+ * row, and on the tombstones of deleted ones. A transaction draws a single value, shared by all
+ * rows it writes, so a sync never sees half of a write.
+ * <p>
+ * Values come from the shared {@link SyncClock} row, so every instance draws from one sequence. The
+ * {@link SyncLedger} advances the clock and registers the value as a {@link SyncWriter} in the same
+ * commit, on its own pool so the writing transaction keeps the only main pool connection it holds.
+ * Once the writing transaction ends its value is queued, and registrations are removed in batches
+ * every {@code autoflex.sync.release-interval} or when this instance next reports the watermark. Values are drawn in order but transactions commit in
+ * any order, so {@link #committedThrough()} reports the highest value below every registered
+ * writer: a client that asks again from there cannot skip a row, whichever instance wrote it. A
+ * writer registered longer ago than {@code autoflex.sync.writer-timeout} is taken to belong to an
+ * instance that died and no longer holds the watermark back. Rows written before sequences existed
+ * are stamped once the application has started.
+ */
+@Component
+@Order(0)
+public class ChangeTracker implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeTracker.class);
+
+    /** Values released per statement, well below the bind parameter limits of the databases we run on. */
+    private static final int RELEASE_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductRawMaterialRepository productRawMaterialRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final SyncClockRepository clockRepository;
+    private final SyncWriterRepository writerRepository;
+    private final SyncLedger ledger;
+    private final TransactionTemplate transaction;
+    private final Duration writerTimeout;
+    private final Queue<Long> completed = new ConcurrentLinkedQueue<>();
+
+    public ChangeTracker(ProductRepository productRepository,
+                         RawMaterialRepository rawMaterialRepository,
+                         ProductRawMaterialRepository productRawMaterialRepository,
+                         SyncTombstoneRepository tombstoneRepository,
+                         SyncClockRepository clockRepository,
+                         SyncWriterRepository writerRepository,
+                         SyncLedger ledger,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${autoflex.sync.writer-timeout:PT5M}") Duration writerTimeout) {
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.productRawMaterialRepository = productRawMaterialRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.clockRepository = clockRepository;
+        this.writerRepository = writerRepository;
+        this.ledger = ledger;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.writerTimeout = writerTimeout;
+    }
+
+    /**
+     * Moves the clock past every stored sequence and stamps rows written before sequences existed.
+     * Holding the clock row locked keeps instances starting together from stamping twice.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        ledger.createClock();
+        transaction.executeWithoutResult(status -> {
+            SyncClock clock = clockRepository.findForUpdate()
+                    .orElseThrow(() -> new IllegalStateException("The sync clock row is missing"));
+            long last = Stream.of(clock.getLastValue(), productRepository.findMaxChangeSeq(),
+                            rawMaterialRepository.findMaxChangeSeq(), productRawMaterialRepository.findMaxChangeSeq(),
+                            tombstoneRepository.findMaxChangeSeq())
+                    .filter(value -> value != null)
+                    .mapToLong(Long::longValue)
+                    .max()
+                    .orElse(0);
+            long backfill = last + 1;
+            int stamped = productRepository.assignMissingChangeSeq(backfill)
+                    + rawMaterialRepository.assignMissingChangeSeq(backfill)
+                    + productRawMaterialRepository.assignMissingChangeSeq(backfill);
+            if (stamped > 0) {
+                last = backfill;
+            }
+            clock.setLastValue(last);
+            clockRepository.save(clock);
+        });
+    }
+
+    /** The change sequence of the current transaction, drawn on first use. */
+    public long stamp() {
+        Long current = (Long) TransactionSynchronizationManager.getResource(this);
+        if (current != null) {
+            return current;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change sequences can only be drawn inside a transaction");
+        }
+
+        long drawn = ledger.draw(Instant.now());
+        TransactionSynchronizationManager.bindResource(this, drawn);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTracker.this);
+                completed.add(drawn);
+            }
+        });
+        return drawn;
+    }
+
+    public void recordDeletion(SyncEntityType entityType, Long entityId) {
+        tombstoneRepository.save(new SyncTombstone(null, entityType, entityId, stamp()));
+    }
+
+    public void recordDeletions(SyncEntityType entityType, Collection<Long> entityIds) {
+        long changeSeq = stamp();
+        tombstoneRepository.saveAll(entityIds.stream()
+                .map(entityId -> new SyncTombstone(null, entityType, entityId, changeSeq))
+                .toList());
+    }
+
+    /**
+     * Every change stamped with this value or a lower one has either committed or rolled back, on
+     * every instance. The clock is read before the writers: a value at or below it was registered in
+     * the same commit that drew it, so its writer is visible to the second read until it is released.
+     * Writers this instance has completed are released first, so a client sees its own writes
+     * without waiting for the next sweep.
+     */
+    public long committedThrough() {
+        releaseCompletedWriters();
+        Long last = clockRepository.findLastValue();
+        Long oldestWriter = writerRepository.findOldestStartedSince(Instant.now().minus(writerTimeout));
+        long through = last != null ? last : 0;
+        return oldestWriter != null ? Math.min(through, oldestWriter - 1) : through;
+    }
+
+    /** Removes the registrations of writers that have completed since the last sweep. */
+    @Scheduled(fixedDelayString = "${autoflex.sync.release-interval:PT1S}")
+    @PreDestroy
+    public void releaseCompletedWriters() {
+        List<Long> released = new ArrayList<>();
+        for (Long value = completed.poll(); value != null; value = completed.poll()) {
+            released.add(value);
+        }
+        for (int from = 0; from < released.size(); from += RELEASE_BATCH_SIZE) {
+            release(released.subList(from, Math.min(released.size(), from + RELEASE_BATCH_SIZE)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${autoflex.sync.writer-timeout:PT5M}")
+    public void releaseAbandonedWriters() {
+        int released = ledger.releaseStartedBefore(Instant.now().minus(writerTimeout));
+        if (released > 0) {
+            log.warn("Released {} change sequences abandoned for longer than {}", released, writerTimeout);
+        }
+    }
+
+    private void release(List<Long> batch) {
+        try {
+            ledger.release(batch);
+        } catch (RuntimeException e) {
+            completed.addAll(batch);
+            log.warn("Could not release {} change sequences; they hold the sync watermark back for up to {}",
+                    batch.size(), writerTimeout, e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.autoflex.sync;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The single row holding the last change sequence drawn by any instance. */
+@Entity
+@Table(name = "sync_clock")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class SyncClock {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long lastValue;
+}
@@ -0,0 +1,18 @@
+package br.com.autoflex.sync;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface SyncClockRepository extends JpaRepository<SyncClock, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from SyncClock c where c.id = " + SyncClock.ID)
+    Optional<SyncClock> findForUpdate();
+
+    @Query("select c.lastValue from SyncClock c where c.id = " + SyncClock.ID)
+    Long findLastValue();
+}
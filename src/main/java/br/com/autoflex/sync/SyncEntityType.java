@@ -0,0 +1,7 @@
+package br.com.autoflex.sync;
+
+public enum SyncEntityType {
+    PRODUCT,
+    RAW_MATERIAL,
+    PRODUCT_RAW_MATERIAL
+}
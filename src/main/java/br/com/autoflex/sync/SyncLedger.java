@@ -0,0 +1,89 @@
+package br.com.autoflex.sync;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * The {@link SyncClock} and {@link SyncWriter} bookkeeping of {@link ChangeTracker}, kept on a small
+ * connection pool of its own. Writers draw their sequence while holding a connection of the main
+ * pool; drawing it there as well would take a second one, and a pool full of writers would wait on
+ * each other until the connection timeout. Connections here are held for one short transaction and
+ * never wait on the main pool. The pool opens on first use, so nothing connects during startup.
+ */
+@Component
+class SyncLedger implements DisposableBean {
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    SyncLedger(DataSourceProperties properties, @Value("${autoflex.sync.pool-size:4}") int poolSize) {
+        this.dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("sync-ledger");
+        this.dataSource.setMaximumPoolSize(poolSize);
+        this.dataSource.setMinimumIdle(1);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /** Creates the clock row unless it exists; an instance starting alongside may insert it first. */
+    void createClock() {
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "insert into sync_clock (id, last_value) select ?, 0 where not exists (select 1 from sync_clock where id = ?)",
+                    SyncClock.ID, SyncClock.ID));
+        } catch (DataIntegrityViolationException e) {
+            // Inserted by another instance between the check and the insert
+        }
+    }
+
+    /** Advances the clock and registers the drawn value as a writer, in one commit. */
+    long draw(Instant startedAt) {
+        Long drawn = transaction.execute(status -> {
+            if (jdbcTemplate.update("update sync_clock set last_value = last_value + 1 where id = ?", SyncClock.ID) == 0) {
+                return null;
+            }
+            Long value = jdbcTemplate.queryForObject("select last_value from sync_clock where id = ?", Long.class, SyncClock.ID);
+            jdbcTemplate.update("insert into sync_writers (change_seq, started_at) values (?, ?)",
+                    value, startedAt.atOffset(ZoneOffset.UTC));
+            return value;
+        });
+        if (drawn == null) {
+            createClock();
+            return draw(startedAt);
+        }
+        return drawn;
+    }
+
+    int release(Collection<Long> changeSeqs) {
+        return transaction.execute(status -> namedJdbcTemplate.update(
+                "delete from sync_writers where change_seq in (:changeSeqs)",
+                new MapSqlParameterSource("changeSeqs", changeSeqs)));
+    }
+
+    /** Writers older than {@code cutoff} belong to an instance that died mid-transaction. */
+    int releaseStartedBefore(Instant cutoff) {
+        return transaction.execute(status -> jdbcTemplate.update(
+                "delete from sync_writers where started_at < ?", cutoff.atOffset(ZoneOffset.UTC)));
+    }
+
+    @Override
+    public void destroy() {
+        dataSource.close();
+    }
+}
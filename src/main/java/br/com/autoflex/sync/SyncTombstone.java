@@ -0,0 +1,28 @@
+package br.com.autoflex.sync;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Records a deleted row, so clients syncing from an older change sequence learn to drop it. */
+@Entity
+@Table(name = "sync_tombstones", indexes = @Index(name = "idx_sync_tombstones_change_seq", columnList = "changeSeq"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class SyncTombstone {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private SyncEntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Long changeSeq;
+}
@@ -0,0 +1,14 @@
+package br.com.autoflex.sync;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    List<SyncTombstone> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(long after, long through);
+
+    @Query("select max(t.changeSeq) from SyncTombstone t")
+    Long findMaxChangeSeq();
+}
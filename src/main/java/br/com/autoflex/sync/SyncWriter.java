@@ -0,0 +1,26 @@
+package br.com.autoflex.sync;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A change sequence drawn by a transaction that has not completed yet, on any instance. Registered
+ * in the same commit that draws the value and removed once the transaction ends.
+ */
+@Entity
+@Table(name = "sync_writers")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class SyncWriter {
+
+    @Id
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+}
@@ -0,0 +1,12 @@
+package br.com.autoflex.sync;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+public interface SyncWriterRepository extends JpaRepository<SyncWriter, Long> {
+
+    @Query("select min(w.changeSeq) from SyncWriter w where w.startedAt >= :cutoff")
+    Long findOldestStartedSince(Instant cutoff);
+}
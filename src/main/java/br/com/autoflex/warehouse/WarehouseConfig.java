@@ -0,0 +1,63 @@
+package br.com.autoflex.warehouse;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WarehouseConfig {
+
+    /** Keeps Hibernate from creating, altering or dropping the table {@link WarehouseStockPartitions} owns. */
+    @Bean
+    public HibernatePropertiesCustomizer warehouseStockSchemaFilter() {
+        SchemaFilter filter = new SchemaFilter() {
+            @Override
+            public boolean includeNamespace(Namespace namespace) {
+                return true;
+            }
+
+            @Override
+            public boolean includeTable(Table table) {
+                return !WarehouseStockPartitions.TABLE.equalsIgnoreCase(table.getName());
+            }
+
+            @Override
+            public boolean includeSequence(Sequence sequence) {
+                return true;
+            }
+        };
+        SchemaFilterProvider provider = new SchemaFilterProvider() {
+            @Override
+            public SchemaFilter getCreateFilter() {
+                return filter;
+            }
+
+            @Override
+            public SchemaFilter getDropFilter() {
+                return filter;
+            }
+
+            @Override
+            public SchemaFilter getTruncatorFilter() {
+                return filter;
+            }
+
+            @Override
+            public SchemaFilter getMigrateFilter() {
+                return filter;
+            }
+
+            @Override
+            public SchemaFilter getValidateFilter() {
+                return filter;
+            }
+        };
+        return properties -> properties.put(AvailableSettings.HBM2DDL_FILTER_PROVIDER, provider);
+    }
+}
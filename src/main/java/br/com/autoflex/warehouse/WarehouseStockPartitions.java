@@ -0,0 +1,119 @@
+package br.com.autoflex.warehouse;
+
+import br.com.autoflex.domain.entity.Warehouse;
+import br.com.autoflex.domain.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+/**
+ * Owns the {@value #TABLE} table, which Hibernate's schema management skips. On PostgreSQL it is
+ * list-partitioned by warehouse, with one partition per warehouse created along with it, so a
+ * plant's stock writes and scans stay within its own partition. Elsewhere (H2 in tests) it is a
+ * plain table with the same columns. The table and partitions are created once the application
+ * has started, so refreshing the context needs no database.
+ * <p>
+ * On first start the default warehouse is created and takes over the stock each raw material held
+ * before warehouses existed. Instances starting together may both find no warehouse; the unique
+ * code lets only one insert it, and the other goes on with the one that won.
+ */
+@Component
+@Order(0)
+public class WarehouseStockPartitions implements ApplicationRunner {
+
+    static final String TABLE = "warehouse_stock";
+
+    private static final Set<String> RECREATING_DDL_MODES = Set.of("create", "create-drop");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WarehouseRepository warehouseRepository;
+    private final TransactionTemplate transaction;
+    private final String ddlAuto;
+    private final String defaultCode;
+    private final String defaultName;
+    private volatile Boolean partitioned;
+    private volatile Long defaultWarehouseId;
+
+    public WarehouseStockPartitions(JdbcTemplate jdbcTemplate,
+                                    WarehouseRepository warehouseRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto,
+                                    @Value("${autoflex.warehouses.default-code:MAIN}") String defaultCode,
+                                    @Value("${autoflex.warehouses.default-name:Main warehouse}") String defaultName) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.warehouseRepository = warehouseRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ddlAuto = ddlAuto;
+        this.defaultCode = defaultCode;
+        this.defaultName = defaultName;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        transaction.executeWithoutResult(status -> {
+            if (RECREATING_DDL_MODES.contains(ddlAuto)) {
+                jdbcTemplate.execute("drop table if exists " + TABLE);
+            }
+            jdbcTemplate.execute("create table if not exists " + TABLE + " ("
+                    + "warehouse_id bigint not null references warehouses (id) on delete cascade, "
+                    + "raw_material_id bigint not null references raw_materials (id) on delete cascade, "
+                    + "quantity double precision not null, "
+                    + "primary key (warehouse_id, raw_material_id))"
+                    + (isPartitioned() ? " partition by list (warehouse_id)" : ""));
+            jdbcTemplate.execute("create index if not exists idx_" + TABLE + "_raw_material on " + TABLE + " (raw_material_id)");
+        });
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (warehouseRepository.count() == 0) {
+                    Warehouse created = warehouseRepository.saveAndFlush(new Warehouse(null, defaultCode, defaultName));
+                    createPartition(created.getId());
+                    jdbcTemplate.update("insert into " + TABLE + " (warehouse_id, raw_material_id, quantity) "
+                            + "select ?, id, current_stock from raw_materials", created.getId());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the default warehouse first and moved the stock into it
+        }
+        transaction.executeWithoutResult(status ->
+                warehouseRepository.findAll().forEach(warehouse -> createPartition(warehouse.getId())));
+    }
+
+    /** The warehouse that stock written through the raw material endpoints goes to. */
+    public long defaultWarehouseId() {
+        Long id = defaultWarehouseId;
+        if (id == null) {
+            id = warehouseRepository.findByCode(defaultCode)
+                    .orElseThrow(() -> new IllegalStateException("Default warehouse " + defaultCode + " does not exist"))
+                    .getId();
+            defaultWarehouseId = id;
+        }
+        return id;
+    }
+
+    /** Creates the partition of a new warehouse; a no-op where the table is not partitioned. */
+    public void createPartition(long warehouseId) {
+        if (isPartitioned()) {
+            jdbcTemplate.execute("create table if not exists " + TABLE + "_" + warehouseId
+                    + " partition of " + TABLE + " for values in (" + warehouseId + ")");
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean known = partitioned;
+        if (known == null) {
+            known = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+            partitioned = known;
+        }
+        return known;
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.autoflex.admission;
+
+import br.com.autoflex.admission.AdmissionProperties.EndpointClass;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdmissionControlFilterTest {
+
+    private AtomicLong clock;
+    private EndpointClass producible;
+    private EndpointClass read;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        producible = new EndpointClass("producible", List.of("/products/producible"), List.of(),
+                1, 2, 1, 1, 4, Duration.ofSeconds(1), 0.5);
+        read = new EndpointClass("read", List.of(), List.of(), 100, 100, 10, 1, 10,
+                Duration.ofSeconds(1), 0.5);
+        filter = new AdmissionControlFilter(new AdmissionProperties(true, "X-Client-Id", 100, List.of(producible), read),
+                new ObjectMapper(), clock::get);
+    }
+
+    @Test
+    void shouldReturn429WhenClientExceedsRateOfEndpointClass() throws Exception {
+
+        assertThat(perform("/products/producible", "factory").getStatus()).isEqualTo(200);
+        assertThat(perform("/products/producible", "factory").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse refused = perform("/products/producible", "factory");
+
+        assertThat(refused.getStatus()).isEqualTo(429);
+        assertThat(refused.getHeader("Retry-After")).isEqualTo("1");
+    }
+
+    @Test
+    void shouldKeepRateLimitsSeparatePerClientAndEndpointClass() throws Exception {
+
+        perform("/products/producible", "factory");
+        perform("/products/producible", "factory");
+
+        assertThat(perform("/products/producible", "factory").getStatus()).isEqualTo(429);
+        assertThat(perform("/products/producible", "ui").getStatus()).isEqualTo(200);
+        assertThat(perform("/products", "factory").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldReturn503WhenEndpointClassIsSaturated() throws Exception {
+
+        MockHttpServletRequest request = request("/products/producible", "other");
+        FilterChain blockingChain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            assertThat(perform("/products/producible", "another").getStatus()).isEqualTo(503);
+            return null;
+        }).when(blockingChain).doFilter(any(), any());
+
+        filter.doFilter(request, new MockHttpServletResponse(), blockingChain);
+
+        verify(blockingChain).doFilter(any(), any());
+        assertThat(filter.getLimiters().get("producible").getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldIgnoreClientHeaderUnlessConfigured() throws Exception {
+        filter = new AdmissionControlFilter(new AdmissionProperties(true, "", 100, List.of(producible), read),
+                new ObjectMapper(), clock::get);
+
+        perform("/products/producible", "first");
+        perform("/products/producible", "second");
+
+        assertThat(perform("/products/producible", "third").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void shouldSendNewClientsToOverflowBucketWhenMapIsFull() throws Exception {
+        filter = new AdmissionControlFilter(new AdmissionProperties(true, "X-Client-Id", 2, List.of(producible), read),
+                new ObjectMapper(), clock::get);
+
+        perform("/products/producible", "a");
+        perform("/products/producible", "b");
+        perform("/products/producible", "c");
+        perform("/products/producible", "d");
+
+        assertThat(filter.getBucketCount()).isEqualTo(2);
+        assertThat(perform("/products/producible", "e").getStatus()).isEqualTo(429);
+        assertThat(perform("/products/producible", "a").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldEvictIdleBucketsWhenInsertingIntoFullMap() throws Exception {
+        filter = new AdmissionControlFilter(new AdmissionProperties(true, "X-Client-Id", 2, List.of(producible), read),
+                new ObjectMapper(), clock::get);
+
+        perform("/products/producible", "a");
+        perform("/products/producible", "b");
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(perform("/products/producible", "c").getStatus()).isEqualTo(200);
+        assertThat(filter.getBucketCount()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse perform(String path, String client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, client), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest request(String path, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+}
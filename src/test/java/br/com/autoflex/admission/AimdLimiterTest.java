@@ -0,0 +1,51 @@
+package br.com.autoflex.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AimdLimiterTest {
+
+    private static final long TARGET = 100;
+
+    @Test
+    void shouldRefuseBeyondCurrentLimit() {
+
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, TARGET, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBackOffMultiplicativelyWhenLatencyExceedsTarget() {
+
+        AimdLimiter limiter = new AimdLimiter(8, 2, 10, TARGET, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(TARGET + 1);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.tryAcquire();
+        limiter.release(TARGET + 1);
+        limiter.tryAcquire();
+        limiter.release(TARGET + 1);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldGrowAdditivelyWhenLatencyIsWithinTarget() {
+
+        AimdLimiter limiter = new AimdLimiter(2, 1, 3, TARGET, 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(TARGET);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+}
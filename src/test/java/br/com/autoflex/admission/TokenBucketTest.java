@@ -0,0 +1,59 @@
+package br.com.autoflex.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldAllowBurstThenRefuse() {
+
+        TokenBucket bucket = new TokenBucket(1, 3, 0);
+
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isFalse();
+        assertThat(bucket.nanosUntilNextPermit(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void shouldRefillOverTimeUpToCapacity() {
+
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.tryAcquire(SECOND / 2)).isTrue();
+        assertThat(bucket.tryAcquire(SECOND / 2)).isFalse();
+        assertThat(bucket.isFull(10 * SECOND)).isTrue();
+    }
+
+    @Test
+    void shouldNeverHandOutMorePermitsThanAvailableUnderContention() throws InterruptedException {
+
+        TokenBucket bucket = new TokenBucket(0.000001, 1000, 0);
+        java.util.concurrent.atomic.AtomicInteger granted = new java.util.concurrent.atomic.AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (bucket.tryAcquire(0)) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(granted.get()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.autoflex.coherence;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.domain.repository.RawMaterialRepository;
+import br.com.autoflex.domain.service.CatalogSearchService;
+import br.com.autoflex.domain.service.LowStockService;
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.LowStockResponse;
+import br.com.autoflex.domain.event.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.autoflex.coherence.CatalogChange.Kind.PRODUCT_DELETED;
+import static br.com.autoflex.coherence.CatalogChange.Kind.PRODUCT_SAVED;
+import static br.com.autoflex.coherence.CatalogChange.Kind.RAW_MATERIAL_SAVED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "autoflex.coherence.transport=loopback",
+        "autoflex.coherence.flush-interval=PT1H"
+})
+@ActiveProfiles("test")
+class CatalogChangeRelayTest {
+
+    @Autowired
+    private CatalogChangeRelay relay;
+
+    @Autowired
+    private CoherenceBus bus;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private LowStockService lowStockService;
+
+    @Test
+    void shouldPublishCommittedChangesCoalescedPerEntity() {
+        LoopbackCoherenceBus loopback = (LoopbackCoherenceBus) bus;
+        relay.flush();
+        loopback.clear();
+
+        ProductResponse created = productService.create(new ProductRequest("Relay Gearbox", "Five speeds", new BigDecimal("900.00")));
+        productService.update(created.id(), new ProductRequest("Relay Gearbox", "Six speeds", new BigDecimal("950.00")));
+        relay.flush();
+
+        assertThat(loopback.payloads()).containsExactly(relay.nodeId() + ":p" + created.id());
+        assertThat(catalogSearchService.searchProducts("Relay Gearbox", 0, 10).content())
+                .containsExactly(new ProductResponse(created.id(), "Relay Gearbox", "Six speeds", new BigDecimal("950.00")));
+    }
+
+    @Test
+    void shouldApplyChangesCommittedOnAnotherNode() {
+        Product product = new Product();
+        product.setName("Peer Alternator");
+        product.setDescription("Written by another node");
+        product.setPrice(new BigDecimal("320.00"));
+        product = productRepository.save(product);
+        RawMaterial rawMaterial = new RawMaterial();
+        rawMaterial.setName("Peer Copper Wire");
+        rawMaterial.setDescription("Written by another node");
+        rawMaterial.setCost(2.0);
+        rawMaterial.setCurrentStock(3.0);
+        rawMaterial.setReorderThreshold(10.0);
+        rawMaterial = rawMaterialRepository.save(rawMaterial);
+
+        assertThat(catalogSearchService.searchProducts("Peer Alternator", 0, 10).content()).isEmpty();
+
+        relay.onBatch(new ChangeBatch("peer", List.of(
+                new CatalogChange(PRODUCT_SAVED, product.getId()),
+                new CatalogChange(RAW_MATERIAL_SAVED, rawMaterial.getId()))));
+
+        assertThat(catalogSearchService.searchProducts("Peer Alternator", 0, 10).content())
+                .extracting(ProductResponse::id).containsExactly(product.getId());
+        assertThat(lowStockService.findBelowThreshold()).extracting(LowStockResponse::rawMaterialId)
+                .contains(rawMaterial.getId());
+
+        productRepository.deleteById(product.getId());
+        relay.onBatch(new ChangeBatch("peer", List.of(new CatalogChange(PRODUCT_DELETED, product.getId()))));
+
+        assertThat(catalogSearchService.searchProducts("Peer Alternator", 0, 10).content()).isEmpty();
+    }
+
+    @Test
+    void shouldRetryABatchTheBusFailedToPublish() {
+        CoherenceBus failingBus = mock(CoherenceBus.class);
+        List<ChangeBatch> published = new ArrayList<>();
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doAnswer(invocation -> published.add(invocation.getArgument(0)))
+                .when(failingBus).publish(any());
+        CatalogChangeRelay failingRelay = new CatalogChangeRelay(failingBus, 100, productService, null, null, null,
+                null, null, null, null, new SimpleMeterRegistry());
+
+        failingRelay.onProductChanged(ProductChangedEvent.deleted(1L));
+        failingRelay.onProductChanged(ProductChangedEvent.deleted(2L));
+        failingRelay.flush();
+        failingRelay.onProductChanged(ProductChangedEvent.deleted(3L));
+        failingRelay.onProductChanged(ProductChangedEvent.deleted(1L));
+        failingRelay.flush();
+
+        verify(failingBus, times(1)).publish(any());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            failingRelay.flush();
+            assertThat(published).hasSize(1);
+        });
+        assertThat(published.get(0).changes()).containsExactly(new CatalogChange(PRODUCT_DELETED, 2L),
+                new CatalogChange(PRODUCT_DELETED, 3L), new CatalogChange(PRODUCT_DELETED, 1L));
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.autoflex.coherence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static br.com.autoflex.coherence.CatalogChange.Kind.BILL_OF_MATERIALS_CHANGED;
+import static br.com.autoflex.coherence.CatalogChange.Kind.PRODUCT_DELETED;
+import static br.com.autoflex.coherence.CatalogChange.Kind.PRODUCT_SAVED;
+import static br.com.autoflex.coherence.CatalogChange.Kind.RAW_MATERIAL_SAVED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeBatchTest {
+
+    @Test
+    void shouldRoundTripThroughTheWireEncoding() {
+        ChangeBatch batch = new ChangeBatch("node-1", List.of(
+                new CatalogChange(PRODUCT_SAVED, 12), new CatalogChange(RAW_MATERIAL_SAVED, 7),
+                new CatalogChange(PRODUCT_DELETED, 9), new CatalogChange(BILL_OF_MATERIALS_CHANGED, 12)));
+
+        List<String> payloads = batch.encode(8000);
+
+        assertThat(payloads).containsExactly("node-1:p12,r7,P9,b12");
+        assertThat(ChangeBatch.decode(payloads.get(0))).isEqualTo(batch);
+    }
+
+    @Test
+    void shouldSplitBatchesThatExceedThePayloadLimit() {
+        List<CatalogChange> changes = LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> new CatalogChange(PRODUCT_SAVED, id))
+                .toList();
+
+        List<String> payloads = new ChangeBatch("node-1", changes).encode(100);
+
+        assertThat(payloads).hasSizeGreaterThan(1).allSatisfy(payload -> assertThat(payload).hasSizeLessThanOrEqualTo(100));
+        assertThat(payloads.stream().map(ChangeBatch::decode).flatMap(decoded -> decoded.changes().stream()))
+                .containsExactlyElementsOf(changes);
+    }
+
+    @Test
+    void shouldRejectUnknownChangeCodes() {
+        assertThatThrownBy(() -> ChangeBatch.decode("node-1:x1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldCoalesceChangesToTheSameEntityKeepingTheLastOne() {
+        ChangeBatcher batcher = new ChangeBatcher(10);
+
+        batcher.add(new CatalogChange(PRODUCT_SAVED, 1));
+        batcher.add(new CatalogChange(RAW_MATERIAL_SAVED, 1));
+        batcher.add(new CatalogChange(PRODUCT_SAVED, 1));
+        batcher.add(new CatalogChange(BILL_OF_MATERIALS_CHANGED, 1));
+        batcher.add(new CatalogChange(PRODUCT_DELETED, 1));
+
+        assertThat(batcher.drain()).containsExactly(
+                new CatalogChange(RAW_MATERIAL_SAVED, 1),
+                new CatalogChange(BILL_OF_MATERIALS_CHANGED, 1),
+                new CatalogChange(PRODUCT_DELETED, 1));
+        assertThat(batcher.drain()).isEmpty();
+    }
+
+    @Test
+    void shouldReportWhenTheBatchIsFull() {
+        ChangeBatcher batcher = new ChangeBatcher(2);
+
+        assertThat(batcher.add(new CatalogChange(PRODUCT_SAVED, 1))).isFalse();
+        assertThat(batcher.add(new CatalogChange(PRODUCT_SAVED, 1))).isFalse();
+        assertThat(batcher.add(new CatalogChange(PRODUCT_SAVED, 2))).isTrue();
+    }
+}
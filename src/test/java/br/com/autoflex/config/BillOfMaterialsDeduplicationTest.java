@@ -0,0 +1,73 @@
+package br.com.autoflex.config;
+
+import br.com.autoflex.domain.event.BillOfMaterialsChangedEvent;
+import br.com.autoflex.sync.ChangeTracker;
+import br.com.autoflex.sync.SyncEntityType;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class BillOfMaterialsDeduplicationTest {
+
+    private final ChangeTracker changeTracker = mock(ChangeTracker.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    @Test
+    void shouldKeepOnlyTheLatestRowOfEachPairAndRecordTheRemovals() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:bom-dedupe;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table product_raw_materials (id bigint primary key, product_id bigint, "
+                + "raw_material_id bigint, quantity double precision)");
+        jdbcTemplate.update("insert into product_raw_materials values (1, 1, 1, 2.0), (2, 1, 1, 3.0), (3, 1, 2, 1.0), "
+                + "(4, 2, 1, 5.0), (5, 1, 1, 4.0)");
+
+        deduplication(dataSource).run(null);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("select id, quantity from product_raw_materials order by id");
+        assertThat(rows).extracting(row -> ((Number) row.get("ID")).longValue()).containsExactly(3L, 4L, 5L);
+        verify(changeTracker).recordDeletions(eq(SyncEntityType.PRODUCT_RAW_MATERIAL),
+                argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+        verify(eventPublisher).publishEvent(new BillOfMaterialsChangedEvent(1L));
+        verifyNoMoreInteractions(eventPublisher);
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into product_raw_materials values (6, 2, 1, 1.0)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        jdbcTemplate.execute("drop table product_raw_materials");
+    }
+
+    @Test
+    void shouldDoNothingWithoutDuplicates() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:bom-clean;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table product_raw_materials (id bigint primary key, product_id bigint, "
+                + "raw_material_id bigint, quantity double precision)");
+        jdbcTemplate.update("insert into product_raw_materials values (1, 1, 1, 2.0), (2, 1, 2, 3.0)");
+
+        deduplication(dataSource).run(null);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from product_raw_materials", Integer.class)).isEqualTo(2);
+        verifyNoInteractions(changeTracker, eventPublisher);
+        jdbcTemplate.execute("drop table product_raw_materials");
+    }
+
+    @Test
+    void shouldDoNothingBeforeTheTableExists() {
+        deduplication(new DriverManagerDataSource("jdbc:h2:mem:bom-empty;DB_CLOSE_DELAY=-1")).run(null);
+
+        verifyNoInteractions(changeTracker, eventPublisher);
+    }
+
+    private BillOfMaterialsDeduplication deduplication(DriverManagerDataSource dataSource) {
+        return new BillOfMaterialsDeduplication(new JdbcTemplate(dataSource), changeTracker, eventPublisher,
+                new DataSourceTransactionManager(dataSource));
+    }
+}
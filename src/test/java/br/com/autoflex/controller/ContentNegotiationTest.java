@@ -0,0 +1,179 @@
+package br.com.autoflex.controller;
+
+import br.com.autoflex.config.ContentNegotiationConfig;
+import br.com.autoflex.domain.service.CatalogSearchService;
+import br.com.autoflex.domain.service.LowStockService;
+import br.com.autoflex.domain.service.PlanningService;
+import br.com.autoflex.domain.service.ProducibilityFeedService;
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.domain.service.ProductionOrderService;
+import br.com.autoflex.domain.service.RawMaterialService;
+import br.com.autoflex.domain.service.StockHistoryService;
+import br.com.autoflex.domain.service.SyncService;
+import br.com.autoflex.domain.service.WarehouseService;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest({ProductController.class, RawMaterialController.class})
+@Import(ContentNegotiationConfig.class)
+@ActiveProfiles("test")
+class ContentNegotiationTest {
+
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private RawMaterialService rawMaterialService;
+
+    @MockBean
+    private CatalogSearchService catalogSearchService;
+
+    @MockBean
+    private LowStockService lowStockService;
+
+    @MockBean
+    private ProducibilityFeedService producibilityFeedService;
+
+    @MockBean
+    private SyncService syncService;
+
+    @MockBean
+    private ProductionOrderService productionOrderService;
+
+    @MockBean
+    private StockHistoryService stockHistoryService;
+
+    @MockBean
+    private WarehouseService warehouseService;
+
+    @MockBean
+    private PlanningService planningService;
+
+    private List<ProductResponse> catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ArrayList<>();
+        for (long i = 1; i <= 200; i++) {
+            catalog.add(new ProductResponse(i, "Product " + i, "Description of product " + i,
+                    new BigDecimal("150.00").add(BigDecimal.valueOf(i))));
+        }
+        when(productService.findAll(isNull(), any(), any())).thenReturn(catalog);
+    }
+
+    @Test
+    void shouldServeProductsAsCborWhenRequestedByAcceptHeader() throws Exception {
+        MvcResult result = mockMvc.perform(get("/products").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn();
+
+        List<ProductResponse> decoded = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(),
+                new TypeReference<>() {});
+
+        assertThat(decoded).isEqualTo(catalog);
+    }
+
+    @Test
+    void shouldServeProductsAsSmileWhenRequestedByFormatParameter() throws Exception {
+        MvcResult result = mockMvc.perform(get("/products").param("format", "smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+
+        List<ProductResponse> decoded = new SmileMapper().readValue(result.getResponse().getContentAsByteArray(),
+                new TypeReference<>() {});
+
+        assertThat(decoded).isEqualTo(catalog);
+    }
+
+    @Test
+    void shouldProduceSmallerPayloadsThanJson() throws Exception {
+        byte[] json = mockMvc.perform(get("/products").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/products").accept(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/products").accept(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(cbor.length).isLessThan(json.length);
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @Test
+    void shouldAcceptCborRequestBodies() throws Exception {
+        RawMaterialRequest request = new RawMaterialRequest("Wood", "Oak wood", 50.0, 100.0, null);
+        when(rawMaterialService.create(any(RawMaterialRequest.class)))
+                .thenReturn(new RawMaterialResponse(1L, "Wood", "Oak wood", 50.0, 100.0, null));
+
+        MvcResult result = mockMvc.perform(post("/raw-materials")
+                        .contentType(CBOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(new CBORMapper().writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        RawMaterialResponse response = new ObjectMapper().readValue(result.getResponse().getContentAsByteArray(),
+                RawMaterialResponse.class);
+
+        assertThat(response.name()).isEqualTo("Wood");
+    }
+
+    @Test
+    void shouldWriteNullPropertiesWhenNoFieldsAreSelected() throws Exception {
+        when(rawMaterialService.findAll(isNull(), any(), any()))
+                .thenReturn(List.of(new RawMaterialResponse(1L, "Wood", "Oak wood", 50.0, 100.0, null)));
+
+        mockMvc.perform(get("/raw-materials").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].reorderThreshold").value((Object) null))
+                .andExpect(jsonPath("$[0].cost").value(50.0));
+    }
+
+    @Test
+    void shouldWriteExactlyTheSelectedFieldsIncludingNulls() throws Exception {
+        when(rawMaterialService.findAll(eq(Set.of("id", "reorderThreshold")), any(), any()))
+                .thenReturn(List.of(new RawMaterialResponse(1L, null, null, null, null, null)));
+
+        mockMvc.perform(get("/raw-materials").param("fields", "id,reorderThreshold").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\": 1, \"reorderThreshold\": null}]", true));
+    }
+}
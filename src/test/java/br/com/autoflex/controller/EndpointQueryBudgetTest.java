@@ -0,0 +1,373 @@
+package br.com.autoflex.controller;
+
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.domain.service.ProductionOrderService;
+import br.com.autoflex.domain.service.RawMaterialService;
+import br.com.autoflex.domain.service.StockHistoryService;
+import br.com.autoflex.domain.service.WarehouseService;
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.production.ProductionOrderRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.warehouse.WarehouseRequest;
+import br.com.autoflex.dto.warehouse.WarehouseResponse;
+import br.com.autoflex.querycount.QueryCountingConfiguration;
+import br.com.autoflex.querycount.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every REST endpoint against a seeded catalog and fails when one issues more SQL statements
+ * or reads more rows than its budget. Statement budgets are constants well below the number of
+ * products and bill-of-materials rows, so a handler that starts querying once per row breaks the
+ * build instead of going unnoticed. Row budgets allow for what the endpoint legitimately returns.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@Import(QueryCountingConfiguration.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTest {
+
+    private static final int RAW_MATERIALS = 30;
+    private static final int PRODUCTS = 30;
+    private static final int BOM_SIZE = 10;
+    private static final int ORDERS = 20;
+
+    /** Days the history endpoints cover by default. */
+    private static final int HISTORY_DAYS = 30;
+
+    /** Rows Hibernate inserts per JDBC batch, and ids it draws per sequence call. */
+    private static final int JDBC_BATCH = 50;
+
+    /** Extra rows the budgets allow, for what other tests in this class may have created. */
+    private static final int SLACK = 10;
+
+    /** Statements and rows each outbox event spends drawing its id and inserting itself. */
+    private static final int OUTBOX = 2;
+    private static final int OUTBOX_ROWS = 1;
+
+    /** Statements and rows each outbox event spends bumping the version of its aggregate. */
+    private static final int VERSION = 2;
+    private static final int VERSION_ROWS = 1;
+
+    /** Extra statements the first outbox event of an aggregate spends registering it, in a transaction of its own. */
+    private static final int FIRST_VERSION = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ProductionOrderService productionOrderService;
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    private final List<Long> rawMaterialIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+    private Long mainWarehouseId;
+    private Long plantId;
+
+    @BeforeAll
+    void seed() {
+        mainWarehouseId = warehouseService.findAll().stream()
+                .filter(WarehouseResponse::defaultWarehouse)
+                .findFirst().orElseThrow().id();
+        plantId = warehouseService.create(new WarehouseRequest("BUDGET", "Budget plant")).id();
+        for (int i = 0; i < RAW_MATERIALS; i++) {
+            rawMaterialIds.add(rawMaterialService.create(new RawMaterialRequest("Budget material " + i, "Seeded",
+                    2.0, 1000.0, i % 3 == 0 ? 2000.0 : null)).id());
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            Long productId = productService.create(new ProductRequest("Budget product " + i, "Seeded",
+                    BigDecimal.valueOf(100 + i))).id();
+            productService.replaceRawMaterials(productId, billOfMaterials(i, 1.0));
+            productIds.add(productId);
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(productionOrderService.create(new ProductionOrderRequest(productIds.get(i), 1.0, i % 3,
+                    LocalDate.of(2030, 1, 1).plusDays(i))).id());
+        }
+    }
+
+    // =============================================
+    // PRODUCTS
+    // =============================================
+
+    @Test
+    void listingProductsIsOneQuery() throws Exception {
+        assertWithinBudget(get("/products"), 1, PRODUCTS + SLACK);
+        assertWithinBudget(get("/products").param("minPrice", "110").param("sort", "price,desc"), 1, PRODUCTS + SLACK);
+        assertWithinBudget(get("/products").param("fields", "id,name"), 1, PRODUCTS + SLACK);
+    }
+
+    @Test
+    void searchingProductsNeverQueries() throws Exception {
+        assertWithinBudget(get("/products/search").param("q", "budget product"), 0, 0);
+    }
+
+    @Test
+    void readingOneProductIsOneQuery() throws Exception {
+        assertWithinBudget(get("/products/{id}", productIds.get(0)), 1, 1);
+    }
+
+    @Test
+    void writingProductsDoesNotDependOnCatalogSize() throws Exception {
+        assertWithinBudget(post("/products").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget new\",\"description\":\"New\",\"price\":10}"),
+                5 + VERSION + FIRST_VERSION, 2 + VERSION_ROWS);
+        assertWithinBudget(put("/products/{id}", productIds.get(1)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget product 1\",\"description\":\"Renamed\",\"price\":101}"),
+                4 + VERSION, 2 + VERSION_ROWS);
+
+        Long withoutBillOfMaterials = productService.create(new ProductRequest("Budget doomed", "Doomed", BigDecimal.ONE)).id();
+        assertWithinBudget(delete("/products/{id}", withoutBillOfMaterials), 8 + VERSION, 4 + VERSION_ROWS);
+    }
+
+    @Test
+    void readingABillOfMaterialsIsOneQueryPerTable() throws Exception {
+        Long productId = productIds.get(2);
+        assertWithinBudget(get("/products/{id}/raw-materials", productId), 2, BOM_SIZE + 1);
+        assertWithinBudget(get("/products/{id}/max-quantity", productId), 2, BOM_SIZE + 1);
+        assertWithinBudget(get("/products/{id}/cost", productId), 2, BOM_SIZE + 1);
+    }
+
+    @Test
+    void writingABillOfMaterialsDoesNotDependOnItsSize() throws Exception {
+        Long productId = productIds.get(3);
+        assertWithinBudget(post("/products/{id}/raw-materials", productId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rawMaterialId\":" + rawMaterialIds.get(3) + ",\"quantity\":4.0}"),
+                7 + VERSION, BOM_SIZE + 4 + VERSION_ROWS);
+
+        // Shift every row: half the materials are replaced, the rest change quantity
+        StringBuilder body = new StringBuilder("[");
+        for (ProductRawMaterialRequest item : billOfMaterials(3 + BOM_SIZE / 2, 2.0)) {
+            body.append(body.length() > 1 ? "," : "")
+                    .append("{\"rawMaterialId\":").append(item.rawMaterialId())
+                    .append(",\"quantity\":").append(item.quantity()).append('}');
+        }
+        assertWithinBudget(put("/products/{id}/raw-materials", productId).contentType(MediaType.APPLICATION_JSON)
+                .content(body.append(']').toString()),
+                12 + VERSION, 3 * BOM_SIZE + 2 + VERSION_ROWS);
+    }
+
+    @Test
+    void evaluatingProducibilityIsOneQuery() throws Exception {
+        assertWithinBudget(get("/products/producible"), 1, PRODUCTS * BOM_SIZE + SLACK);
+    }
+
+    @Test
+    void planningAnOrderBookDoesNotDependOnItsSize() throws Exception {
+        StringBuilder body = new StringBuilder("{\"orders\":[");
+        for (int i = 0; i < 10 * PRODUCTS; i++) {
+            body.append(i > 0 ? "," : "")
+                    .append("{\"productId\":").append(productIds.get(i % PRODUCTS)).append(",\"quantity\":2}");
+        }
+        assertWithinBudget(post("/planning/requirements").contentType(MediaType.APPLICATION_JSON)
+                .content(body.append("]}").toString()), 2, PRODUCTS + PRODUCTS * BOM_SIZE);
+    }
+
+    // =============================================
+    // RAW MATERIALS
+    // =============================================
+
+    @Test
+    void readingRawMaterialsIsOneQuery() throws Exception {
+        assertWithinBudget(get("/raw-materials"), 1, RAW_MATERIALS + SLACK);
+        assertWithinBudget(get("/raw-materials").param("maxCost", "5").param("sort", "name"), 1, RAW_MATERIALS + SLACK);
+        assertWithinBudget(get("/raw-materials/{id}", rawMaterialIds.get(0)), 1, 1);
+    }
+
+    @Test
+    void searchingRawMaterialsAndLowStockNeverQuery() throws Exception {
+        assertWithinBudget(get("/raw-materials/search").param("q", "budget material"), 0, 0);
+        assertWithinBudget(get("/raw-materials/low-stock"), 0, 0);
+    }
+
+    @Test
+    void writingRawMaterialsDoesNotDependOnCatalogSize() throws Exception {
+        assertWithinBudget(post("/raw-materials").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget material 4\",\"description\":\"Merged\",\"cost\":2.0,\"currentStock\":5.0}"),
+                5 + VERSION, 2 + VERSION_ROWS);
+        assertWithinBudget(post("/raw-materials").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget fresh\",\"description\":\"New\",\"cost\":2.0,\"currentStock\":5.0}"),
+                6 + VERSION + FIRST_VERSION, 1 + VERSION_ROWS);
+        assertWithinBudget(put("/raw-materials/{id}", rawMaterialIds.get(5)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget material 5\",\"description\":\"Updated\",\"cost\":3.0,\"currentStock\":900.0}"),
+                6 + VERSION, 3 + VERSION_ROWS);
+
+        Long unused = rawMaterialService.create(new RawMaterialRequest("Budget unused", "Unused", 1.0, 1.0, null)).id();
+        assertWithinBudget(delete("/raw-materials/{id}", unused), 7 + VERSION, 3 + VERSION_ROWS);
+    }
+
+    // =============================================
+    // WAREHOUSES
+    // =============================================
+
+    @Test
+    void readingWarehousesIsOneQueryPerTable() throws Exception {
+        assertWithinBudget(get("/warehouses"), 1, 2 + SLACK);
+        assertWithinBudget(get("/warehouses/{id}/stock", plantId), 2, 1 + RAW_MATERIALS + SLACK);
+    }
+
+    /**
+     * An adjustment writes a stock event for its warehouse and, once the refreshed total commits, a
+     * raw material event; a transfer writes a stock event for each warehouse.
+     */
+    @Test
+    void movingStockDoesNotDependOnCatalogSize() throws Exception {
+        Long rawMaterialId = rawMaterialIds.get(7);
+        assertWithinBudget(post("/warehouses/{id}/stock/adjustments", plantId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rawMaterialId\":" + rawMaterialId + ",\"delta\":50.0}"),
+                9 + 2 * VERSION + FIRST_VERSION, 5 + 2 * VERSION_ROWS);
+        assertWithinBudget(post("/warehouses/transfers").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rawMaterialId\":" + rawMaterialId + ",\"fromWarehouseId\":" + plantId
+                        + ",\"toWarehouseId\":" + mainWarehouseId + ",\"quantity\":20.0}"),
+                4 + 2 * (OUTBOX + VERSION) + FIRST_VERSION, 2 + 2 * (OUTBOX_ROWS + VERSION_ROWS));
+    }
+
+    /** The stock of each warehouse is read on its partition's own thread, outside what is counted here. */
+    @Test
+    void evaluatingProducibilityPerWarehouseDoesNotDependOnWarehouseCount() throws Exception {
+        assertWithinBudget(get("/products/producible").param("warehouse", plantId.toString()), 2,
+                PRODUCTS * BOM_SIZE + SLACK);
+        assertWithinBudget(get("/products/producible").param("warehouse", plantId.toString(), mainWarehouseId.toString()),
+                2, PRODUCTS * BOM_SIZE + SLACK);
+        assertWithinBudget(get("/products/{id}/max-quantity", productIds.get(4)).param("warehouse", plantId.toString()),
+                3, BOM_SIZE + 2);
+    }
+
+    // =============================================
+    // PRODUCTION ORDERS
+    // =============================================
+
+    @Test
+    void readingProductionOrdersIsOneQueryPerTable() throws Exception {
+        productionOrderService.allocate();
+        assertWithinBudget(get("/production-orders"), 2, ORDERS + ORDERS * BOM_SIZE + SLACK);
+        assertWithinBudget(get("/production-orders/{id}", orderIds.get(0)), 2, 1 + BOM_SIZE);
+    }
+
+    @Test
+    void writingProductionOrdersDoesNotDependOnQueueSize() throws Exception {
+        assertWithinBudget(post("/production-orders").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productId\":" + productIds.get(0) + ",\"quantity\":2.0,\"priority\":1,\"dueDate\":\"2030-06-01\"}"),
+                3, 2);
+        Long doomed = productionOrderService.create(new ProductionOrderRequest(productIds.get(1), 1.0, 0,
+                LocalDate.of(2030, 6, 1))).id();
+        assertWithinBudget(delete("/production-orders/{id}", doomed), 4, 2);
+    }
+
+    /** Allocations are written in JDBC batches, so only their batch and id-block count grows with the queue. */
+    @Test
+    void allocatingTheQueueIsAFixedNumberOfSetBasedStatements() throws Exception {
+        int allocationBatches = ORDERS * BOM_SIZE / JDBC_BATCH + 1;
+        assertWithinBudget(post("/production-orders/allocation-runs"), 5 + 2 * allocationBatches,
+                ORDERS + ORDERS * BOM_SIZE + SLACK * (1 + BOM_SIZE) + allocationBatches);
+    }
+
+    // =============================================
+    // INVENTORY
+    // =============================================
+
+    @Test
+    void readingTheCurrentValuationNeverQueries() throws Exception {
+        assertWithinBudget(get("/inventory/valuation"), 0, 0);
+    }
+
+    /** History is read from one daily rollup per day, plus the close of the day before the range. */
+    @Test
+    void readingHistoryIsOneQueryPerTableWhateverTheRange() throws Exception {
+        stockHistoryService.flush();
+        Long rawMaterialId = rawMaterialIds.get(2);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        String yearAgo = today.minusDays(364).toString();
+
+        assertWithinBudget(get("/inventory/valuation/history"), 2, HISTORY_DAYS + 1);
+        assertWithinBudget(get("/inventory/valuation/history").param("from", yearAgo).param("granularity", "WEEKLY"),
+                2, 365 + 1);
+        assertWithinBudget(get("/inventory/raw-materials/{id}/stock-history/rollups", rawMaterialId), 2, HISTORY_DAYS + 1);
+        assertWithinBudget(get("/inventory/raw-materials/{id}/stock-history/rollups", rawMaterialId)
+                .param("from", yearAgo).param("granularity", "WEEKLY"), 2, 365 + 1);
+        assertWithinBudget(get("/inventory/raw-materials/{id}/stock-history", rawMaterialId), 1, HISTORY_DAYS);
+    }
+
+    // =============================================
+    // BATCH AND SYNC
+    // =============================================
+
+    @Test
+    void batchingCostsAFixedNumberOfStatementsPerOperation() throws Exception {
+        int operations = 6;
+        StringBuilder body = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < operations; i++) {
+            body.append(i > 0 ? "," : "")
+                    .append("{\"type\":\"UPDATE_RAW_MATERIAL\",\"rawMaterialId\":").append(rawMaterialIds.get(i))
+                    .append(",\"rawMaterial\":{\"name\":\"Budget material ").append(i)
+                    .append("\",\"description\":\"Batched\",\"cost\":2.0,\"currentStock\":1000.0}}");
+        }
+        assertWithinBudget(post("/batch").contentType(MediaType.APPLICATION_JSON).content(body.append("]}").toString()),
+                (6 + VERSION) * operations, (3 + VERSION_ROWS) * operations);
+    }
+
+    @Test
+    void syncingIsOneQueryPerEntityTypePlusTheWatermark() throws Exception {
+        assertWithinBudget(get("/sync").param("since", "0"), 4 + 2,
+                PRODUCTS + RAW_MATERIALS + PRODUCTS * BOM_SIZE + 3 * SLACK + 2 * BOM_SIZE + 2);
+    }
+
+    private void assertWithinBudget(RequestBuilder request, int maxStatements, long maxRows) throws Exception {
+        counter.start();
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+
+        assertThat(counter.statementCount())
+                .as("statements issued:%n%s", String.join(System.lineSeparator(), counter.statements()))
+                .isLessThanOrEqualTo(maxStatements);
+        assertThat(counter.rowCount())
+                .as("rows read by:%n%s", String.join(System.lineSeparator(), counter.statements()))
+                .isLessThanOrEqualTo(maxRows);
+    }
+
+    private List<ProductRawMaterialRequest> billOfMaterials(int first, double quantity) {
+        List<ProductRawMaterialRequest> billOfMaterials = new ArrayList<>(BOM_SIZE);
+        for (int k = 0; k < BOM_SIZE; k++) {
+            billOfMaterials.add(new ProductRawMaterialRequest(rawMaterialIds.get((first + k) % RAW_MATERIALS), quantity));
+        }
+        return billOfMaterials;
+    }
+}
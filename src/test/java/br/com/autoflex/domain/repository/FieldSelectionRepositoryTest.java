@@ -0,0 +1,33 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.Product;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class FieldSelectionRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void shouldReturnOnlyRequestedAttributesAliasedByName() {
+        productRepository.save(new Product(null, "Chair", "A very long description", new BigDecimal("150.00"), null));
+
+        List<Tuple> tuples = productRepository.findAllSelecting(Product.class, List.of("id", "name"));
+
+        assertThat(tuples).hasSize(1);
+        assertThat(tuples.get(0).getElements()).hasSize(2);
+        assertThat(tuples.get(0).get("name", String.class)).isEqualTo("Chair");
+        assertThat(tuples.get(0).get("id", Long.class)).isNotNull();
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.dto.product.ProductFilter;
+import br.com.autoflex.dto.rawmaterial.RawMaterialFilter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every supported filter and sort combination, captures the SQL Hibernate generates and
+ * asks H2 for its plan. A plan that falls back to a table scan means a combination lost its
+ * backing index.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "br.com.autoflex.domain.repository.FilterQueryPlanTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+class FilterQueryPlanTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long usedRawMaterialId;
+
+    @BeforeEach
+    void setUp() {
+        List<RawMaterial> rawMaterials = rawMaterialRepository.saveAll(IntStream.range(0, 100)
+                .mapToObj(i -> new RawMaterial(null, "Material " + i, "Plan test", (double) i, (double) (i * 3 % 50), null, null))
+                .toList());
+        List<Product> products = productRepository.saveAll(IntStream.range(0, 100)
+                .mapToObj(i -> new Product(null, "Product " + i, "Plan test", BigDecimal.valueOf(i), null))
+                .toList());
+        productRawMaterialRepository.saveAll(IntStream.range(0, 100)
+                .mapToObj(i -> new ProductRawMaterial(null, products.get(i), rawMaterials.get(i % 10), 1.0, null))
+                .toList());
+        productRepository.flush();
+        jdbcTemplate.execute("ANALYZE");
+        usedRawMaterialId = rawMaterials.get(3).getId();
+    }
+
+    static Stream<Arguments> productQueries() {
+        List<Arguments> arguments = new ArrayList<>();
+        List<ProductFilter> filters = List.of(
+                new ProductFilter(null, null, null),
+                new ProductFilter(BigDecimal.TEN, null, null),
+                new ProductFilter(null, BigDecimal.TEN, null),
+                new ProductFilter(BigDecimal.ONE, BigDecimal.TEN, null),
+                new ProductFilter(null, null, -1L));
+        for (ProductFilter filter : filters) {
+            for (String sort : List.of("", "id", "name", "price")) {
+                if (!filter.isEmpty() || !sort.isEmpty()) {
+                    arguments.add(Arguments.of(filter, sort));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    static Stream<Arguments> rawMaterialQueries() {
+        List<Arguments> arguments = new ArrayList<>();
+        List<RawMaterialFilter> filters = List.of(
+                new RawMaterialFilter(null, null, null),
+                new RawMaterialFilter(10.0, null, null),
+                new RawMaterialFilter(null, 5.0, null),
+                new RawMaterialFilter(null, null, 5.0),
+                new RawMaterialFilter(null, 5.0, 15.0));
+        for (RawMaterialFilter filter : filters) {
+            for (String sort : List.of("", "id", "name", "cost", "currentStock")) {
+                if (!filter.isEmpty() || !sort.isEmpty()) {
+                    arguments.add(Arguments.of(filter, sort));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("productQueries")
+    void productFiltersShouldNotScanTables(ProductFilter filter, String sort) {
+        if (filter.rawMaterialId() != null) {
+            filter = new ProductFilter(null, null, usedRawMaterialId);
+        }
+
+        STATEMENTS.clear();
+        productRepository.findAll(ProductSpecifications.matching(filter), sortBy(sort));
+
+        assertIndexedPlan(lastSelect());
+    }
+
+    @ParameterizedTest
+    @MethodSource("rawMaterialQueries")
+    void rawMaterialFiltersShouldNotScanTables(RawMaterialFilter filter, String sort) {
+        STATEMENTS.clear();
+        rawMaterialRepository.findAll(RawMaterialSpecifications.matching(filter), sortBy(sort));
+
+        assertIndexedPlan(lastSelect());
+    }
+
+    private void assertIndexedPlan(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertThat(plan).as("plan for %s", sql).doesNotContainIgnoringCase("tableScan");
+    }
+
+    private static Sort sortBy(String property) {
+        return property.isEmpty() ? Sort.unsorted() : Sort.by(property);
+    }
+
+    private static String lastSelect() {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.autoflex.domain.repository;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.RawMaterial;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ProductRawMaterialRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Test
+    void shouldAllowAtMostOneRowPerProductAndRawMaterial() {
+        Product chair = productRepository.save(new Product(null, "Chair", "Wooden chair", new BigDecimal("100.00"), null));
+        RawMaterial wood = rawMaterialRepository.save(new RawMaterial(null, "Wood", "Oak wood", 50.0, 100.0, null, null));
+        productRawMaterialRepository.saveAndFlush(new ProductRawMaterial(null, chair, wood, 2.0, null));
+
+        assertThatThrownBy(() -> productRawMaterialRepository.saveAndFlush(new ProductRawMaterial(null, chair, wood, 3.0, null)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.dto.batch.BatchOperation;
+import br.com.autoflex.dto.batch.BatchOperationType;
+import br.com.autoflex.dto.batch.BatchRequest;
+import br.com.autoflex.dto.batch.BatchResponse;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.error.BusinessException;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private RawMaterialService rawMaterialService;
+
+    private BatchService batchService;
+
+    private ProductRequest chairRequest;
+    private RawMaterialRequest woodRequest;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new BatchService(productService, rawMaterialService, 3);
+        chairRequest = new ProductRequest("Chair", "Wooden chair", new BigDecimal("100.00"));
+        woodRequest = new RawMaterialRequest("Wood", "Oak wood", 50.0, 100.0, null);
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() {
+
+        assertThatThrownBy(() -> batchService.execute(new BatchRequest(Collections.emptyList())))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Batch must contain at least one operation");
+    }
+
+    @Test
+    void shouldRejectBatchAboveOperationLimit() {
+
+        BatchOperation create = productOperation(null, BatchOperationType.CREATE_PRODUCT, null, null);
+
+        assertThatThrownBy(() -> batchService.execute(new BatchRequest(List.of(create, create, create, create))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Batch exceeds the limit of 3 operations");
+
+        verifyNoInteractions(productService, rawMaterialService);
+    }
+
+    @Test
+    void shouldRejectUnknownReference() {
+
+        BatchOperation associate = new BatchOperation(null, BatchOperationType.ADD_RAW_MATERIAL_TO_PRODUCT,
+                null, "missing", 1L, null, 2.0, null, null);
+
+        assertThatThrownBy(() -> batchService.execute(new BatchRequest(List.of(associate))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Operation 0: unknown ref 'missing'");
+
+        verify(productService, never()).addRawMaterialToProduct(any(), any(), any());
+    }
+
+    @Test
+    void shouldFailWholeBatchWhenUpdateTargetDoesNotExist() {
+
+        when(productService.update(999L, chairRequest)).thenReturn(null);
+        BatchOperation update = productOperation(null, BatchOperationType.UPDATE_PRODUCT, 999L, null);
+
+        assertThatThrownBy(() -> batchService.execute(new BatchRequest(List.of(update))))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Operation 0: Product not found");
+    }
+
+    // =============================================
+    // SUCCESS CASES
+    // =============================================
+
+    @Test
+    void shouldResolveReferencesToEntitiesCreatedEarlierInTheBatch() {
+
+        when(productService.create(chairRequest))
+                .thenReturn(new ProductResponse(10L, "Chair", "Wooden chair", new BigDecimal("100.00")));
+        when(rawMaterialService.create(woodRequest))
+                .thenReturn(new RawMaterialResponse(20L, "Wood", "Oak wood", 50.0, 100.0, null));
+
+        BatchResponse response = batchService.execute(new BatchRequest(List.of(
+                productOperation("chair", BatchOperationType.CREATE_PRODUCT, null, null),
+                new BatchOperation("wood", BatchOperationType.CREATE_RAW_MATERIAL, null, null, null, null, null, null, woodRequest),
+                new BatchOperation(null, BatchOperationType.ADD_RAW_MATERIAL_TO_PRODUCT, null, "chair", null, "wood", 4.0, null, null)
+        )));
+
+        assertThat(response.results()).hasSize(3);
+        assertThat(response.results()).extracting("status").containsExactly(201, 201, 200);
+        assertThat(response.results().get(0).ref()).isEqualTo("chair");
+        verify(productService).addRawMaterialToProduct(10L, 20L, 4.0);
+    }
+
+    @Test
+    void shouldUpdateByExplicitId() {
+
+        ProductResponse updated = new ProductResponse(5L, "Chair", "Wooden chair", new BigDecimal("100.00"));
+        when(productService.update(5L, chairRequest)).thenReturn(updated);
+
+        BatchResponse response = batchService.execute(new BatchRequest(List.of(
+                productOperation(null, BatchOperationType.UPDATE_PRODUCT, 5L, null))));
+
+        assertThat(response.results()).hasSize(1);
+        assertThat(response.results().get(0).status()).isEqualTo(200);
+        assertThat(response.results().get(0).body()).isEqualTo(updated);
+    }
+
+    private BatchOperation productOperation(String ref, BatchOperationType type, Long productId, String productRef) {
+        return new BatchOperation(ref, type, productId, productRef, null, null, null, chairRequest, null);
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.error.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogSearchServiceTest {
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void shouldKeepIndexInSyncWithCommittedWrites() {
+
+        ProductResponse created = productService.create(
+                new ProductRequest("Searchable Stool", "Pine stool", new BigDecimal("40.00")));
+
+        assertThat(catalogSearchService.searchProducts("stool", 0, 10).content()).containsExactly(created);
+
+        productService.update(created.id(), new ProductRequest("Searchable Bench", "Pine bench", new BigDecimal("60.00")));
+
+        assertThat(catalogSearchService.searchProducts("stool", 0, 10).content()).isEmpty();
+        assertThat(catalogSearchService.searchProducts("bench", 0, 10).content())
+                .extracting(ProductResponse::id).containsExactly(created.id());
+
+        productService.delete(created.id());
+
+        assertThat(catalogSearchService.searchProducts("bench", 0, 10).content()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectInvalidSearchParameters() {
+
+        assertThatThrownBy(() -> catalogSearchService.searchProducts(" ", 0, 10))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Search query must not be blank");
+        assertThatThrownBy(() -> catalogSearchService.searchRawMaterials("wood", 0, 500))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Page size must be between 1 and 100");
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.dto.rawmaterial.LowStockResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LowStockServiceTest {
+
+    @Autowired
+    private LowStockService lowStockService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Test
+    void shouldKeepLowStockListInSyncWithCommittedWrites() {
+
+        RawMaterialResponse created = rawMaterialService.create(
+                new RawMaterialRequest("Low Stock Screws", "Steel screws", 0.1, 50.0, 20.0));
+
+        assertThat(lowStockService.findBelowThreshold()).extracting(LowStockResponse::rawMaterialId)
+                .doesNotContain(created.id());
+
+        rawMaterialService.update(created.id(), new RawMaterialRequest("Low Stock Screws", "Steel screws", 0.1, 5.0, 20.0));
+
+        assertThat(lowStockService.findBelowThreshold())
+                .contains(new LowStockResponse(created.id(), "Low Stock Screws", 5.0, 20.0, 0.25));
+
+        rawMaterialService.delete(created.id());
+
+        assertThat(lowStockService.findBelowThreshold()).extracting(LowStockResponse::rawMaterialId)
+                .doesNotContain(created.id());
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.Product;
+import br.com.autoflex.domain.entity.ProductRawMaterial;
+import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.dto.planning.MaterialRequirementResponse;
+import br.com.autoflex.dto.planning.OrderLineRequest;
+import br.com.autoflex.dto.planning.RequirementsRequest;
+import br.com.autoflex.dto.planning.RequirementsResponse;
+import br.com.autoflex.error.BusinessException;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanningServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Mock
+    private WarehouseService warehouseService;
+
+    private PlanningService planningService;
+
+    private final RawMaterial steel = new RawMaterial(1L, "Steel", "Sheet", 2.0, 100.0, null, null);
+    private final RawMaterial paint = new RawMaterial(2L, "Paint", "Red", 10.0, 50.0, null, null);
+    private final Product chair = new Product(10L, "Chair", "Metal chair", BigDecimal.TEN, null);
+    private final Product table = new Product(20L, "Table", "Metal table", BigDecimal.TEN, null);
+
+    @BeforeEach
+    void setUp() {
+        planningService = new PlanningService(productRepository, productRawMaterialRepository, warehouseService, 100);
+    }
+
+    @Test
+    void shouldAggregateRequirementsAndShortfallsAcrossTheOrderBook() {
+        when(productRepository.findIdsByIdIn(List.of(10L, 20L))).thenReturn(List.of(10L, 20L));
+        when(productRawMaterialRepository.findWithProductAndRawMaterialByProductIdIn(List.of(10L, 20L))).thenReturn(List.of(
+                new ProductRawMaterial(1L, chair, steel, 3.0, null),
+                new ProductRawMaterial(2L, chair, paint, 0.5, null),
+                new ProductRawMaterial(3L, table, steel, 8.0, null)));
+
+        RequirementsResponse response = planningService.calculateRequirements(new RequirementsRequest(List.of(
+                new OrderLineRequest(20L, 5.0),
+                new OrderLineRequest(10L, 10.0),
+                new OrderLineRequest(10L, 20.0)), null));
+
+        // Steel: 30 chairs * 3 + 5 tables * 8 = 130 against 100 in stock; paint: 30 * 0.5 = 15 against 50
+        assertThat(response.requirements()).containsExactly(
+                new MaterialRequirementResponse(1L, "Steel", 130.0, 100.0, 30.0, 2.0, new BigDecimal("60.00")),
+                new MaterialRequirementResponse(2L, "Paint", 15.0, 50.0, 0.0, 10.0, new BigDecimal("0.00")));
+        assertThat(response.orderLines()).isEqualTo(3);
+        assertThat(response.totalShortfallCost()).isEqualByComparingTo("60.00");
+        verifyNoInteractions(warehouseService);
+    }
+
+    @Test
+    void shouldCoverRequirementsWithTheStockOfTheGivenWarehouses() {
+        when(productRepository.findIdsByIdIn(List.of(10L))).thenReturn(List.of(10L));
+        when(productRawMaterialRepository.findWithProductAndRawMaterialByProductIdIn(List.of(10L)))
+                .thenReturn(List.of(new ProductRawMaterial(1L, chair, steel, 3.0, null)));
+        when(warehouseService.stockAcross(List.of(7L), List.of(1L))).thenReturn(Map.of(1L, 12.0));
+
+        RequirementsResponse response = planningService.calculateRequirements(
+                new RequirementsRequest(List.of(new OrderLineRequest(10L, 5.0)), List.of(7L)));
+
+        assertThat(response.requirements()).singleElement()
+                .satisfies(requirement -> {
+                    assertThat(requirement.available()).isEqualTo(12.0);
+                    assertThat(requirement.shortfall()).isEqualTo(3.0);
+                });
+    }
+
+    @Test
+    void shouldPlanLargeOrderBooksWithTwoQueries() {
+        List<Product> products = new ArrayList<>();
+        List<ProductRawMaterial> rows = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            Product product = new Product(id, "Product " + id, "Planned", BigDecimal.ONE, null);
+            products.add(product);
+            rows.add(new ProductRawMaterial(id, product, id % 2 == 0 ? steel : paint, 1.0, null));
+        }
+        List<OrderLineRequest> lines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            lines.add(new OrderLineRequest(products.get(i % 100).getId(), 1.0));
+        }
+        when(productRepository.findIdsByIdIn(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRawMaterialRepository.findWithProductAndRawMaterialByProductIdIn(any())).thenReturn(rows);
+        PlanningService unbounded = new PlanningService(productRepository, productRawMaterialRepository, warehouseService, 10_000);
+
+        RequirementsResponse response = unbounded.calculateRequirements(new RequirementsRequest(lines, null));
+
+        assertThat(response.requirements()).extracting(MaterialRequirementResponse::required).containsExactly(5000.0, 5000.0);
+        verify(productRepository, times(1)).findIdsByIdIn(any());
+        verify(productRawMaterialRepository, times(1)).findWithProductAndRawMaterialByProductIdIn(any());
+    }
+
+    @Test
+    void shouldRejectUnknownProducts() {
+        when(productRepository.findIdsByIdIn(List.of(10L, 99L))).thenReturn(List.of(10L));
+
+        assertThatThrownBy(() -> planningService.calculateRequirements(new RequirementsRequest(List.of(
+                new OrderLineRequest(10L, 1.0), new OrderLineRequest(99L, 1.0)), null)))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    void shouldRejectInvalidOrderBooks() {
+        assertThatThrownBy(() -> planningService.calculateRequirements(new RequirementsRequest(List.of(), null)))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> planningService.calculateRequirements(
+                new RequirementsRequest(List.of(new OrderLineRequest(10L, 0.0)), null)))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> planningService.calculateRequirements(
+                new RequirementsRequest(List.of(new OrderLineRequest(null, 1.0)), null)))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> planningService.calculateRequirements(new RequirementsRequest(
+                Collections.nCopies(101, new OrderLineRequest(10L, 1.0)), null)))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(productRepository, productRawMaterialRepository);
+    }
+}
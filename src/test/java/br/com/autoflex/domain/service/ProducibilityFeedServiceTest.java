@@ -0,0 +1,98 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.domain.event.ProductChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProducibilityFeedServiceTest {
+
+    @Autowired
+    private ProducibilityFeedService producibilityFeedService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Test
+    void shouldTrackProducibilityAcrossStockAndBillOfMaterialsWrites() {
+
+        RawMaterialResponse oak = rawMaterialService.create(
+                new RawMaterialRequest("Feed Oak", "Oak plank", 10.0, 10.0, null));
+        ProductResponse stool = productService.create(
+                new ProductRequest("Feed Stool", "Oak stool", new BigDecimal("80.00")));
+
+        productService.replaceRawMaterials(stool.id(), List.of(new ProductRawMaterialRequest(oak.id(), 4.0)));
+        awaitProducible(stool, true);
+
+        rawMaterialService.update(oak.id(), new RawMaterialRequest("Feed Oak", "Oak plank", 10.0, 3.0, null));
+        awaitProducible(stool, false);
+
+        productService.replaceRawMaterials(stool.id(), List.of(new ProductRawMaterialRequest(oak.id(), 2.0)));
+        awaitProducible(stool, true);
+
+        ProductResponse renamed = productService.update(stool.id(),
+                new ProductRequest("Feed Bench", "Oak bench", new BigDecimal("90.00")));
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> producibilityFeedService.currentlyProducible().contains(renamed));
+    }
+
+    @Test
+    void shouldRetryFailedEvaluationWithBackoff() {
+
+        ProductService failingProductService = mock(ProductService.class);
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        ProductResponse table = new ProductResponse(1L, "Table", "Oak table", new BigDecimal("120.00"));
+        when(failingProductService.findProductsProducibleWithInventory()).thenReturn(List.of());
+        when(failingProductService.findProductIdsUsingRawMaterials(any())).thenReturn(List.of());
+        when(failingProductService.findProducibleAmong(any()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(List.of(table));
+        ProducibilityFeedService feed = new ProducibilityFeedService(failingProductService, Runnable::run, scheduler,
+                16, Duration.ofMinutes(1), Duration.ofSeconds(1));
+        feed.rebuild();
+
+        feed.onProductChanged(new ProductChangedEvent(1L, table));
+        Instant before = Instant.now();
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Instant> at = ArgumentCaptor.forClass(Instant.class);
+        verify(scheduler).schedule(retry.capture(), at.capture());
+        assertThat(Duration.between(before, at.getValue())).isLessThanOrEqualTo(Duration.ofSeconds(1));
+
+        retry.getValue().run();
+        verify(scheduler, times(2)).schedule(retry.capture(), at.capture());
+        assertThat(Duration.between(before, at.getValue())).isGreaterThan(Duration.ofSeconds(1));
+        assertThat(feed.currentlyProducible()).isEmpty();
+
+        retry.getValue().run();
+        assertThat(feed.currentlyProducible()).containsExactly(table);
+    }
+
+    private void awaitProducible(ProductResponse product, boolean producible) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> producibilityFeedService.currentlyProducible().stream()
+                .anyMatch(candidate -> candidate.id().equals(product.id())) == producible);
+    }
+}
@@ -3,23 +3,40 @@ package br.com.autoflex.domain.service;
 import br.com.autoflex.domain.entity.Product;
 import br.com.autoflex.domain.entity.ProductRawMaterial;
 import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.event.ProductChangedEvent;
 import br.com.autoflex.domain.repository.ProductRepository;
 import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductionOrderRepository;
 import br.com.autoflex.domain.repository.RawMaterialRepository;
+import br.com.autoflex.dto.product.ProductCapacityResponse;
+import br.com.autoflex.dto.product.ProductCostResponse;
+import br.com.autoflex.dto.product.ProductFilter;
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRawMaterialResponse;
 import br.com.autoflex.dto.product.ProductRequest;
 import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.sync.ChangeTracker;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Tuple;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +54,21 @@ class ProductServiceTest {
     @Mock
     private ProductRawMaterialRepository productRawMaterialRepository;
 
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry(), Duration.ZERO);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private WarehouseService warehouseService;
+
+    @Mock
+    private ProductionOrderRepository productionOrderRepository;
+
     @InjectMocks
     private ProductService productService;
 
@@ -91,6 +123,56 @@ class ProductServiceTest {
         verify(productRawMaterialRepository, never()).save(any(ProductRawMaterial.class));
     }
 
+    @Test
+    void shouldRejectNonPositiveQuantityWhenAddingRawMaterialToProduct() {
+
+        assertThatThrownBy(() -> productService.addRawMaterialToProduct(1L, 1L, 0.0))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> productService.addRawMaterialToProduct(1L, 1L, null))
+                .isInstanceOf(BusinessException.class);
+
+        verify(productRawMaterialRepository, never()).save(any(ProductRawMaterial.class));
+    }
+
+    @Test
+    void shouldRejectDuplicatedRawMaterialsWhenReplacingBillOfMaterials() {
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        assertThatThrownBy(() -> productService.replaceRawMaterials(1L, List.of(
+                new ProductRawMaterialRequest(1L, 2.0),
+                new ProductRawMaterialRequest(1L, 3.0))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Raw material 1 is listed more than once");
+
+        verify(productRawMaterialRepository, never()).findByProduct(any());
+        verify(productRawMaterialRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenReplacingWithNonExistentRawMaterial() {
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRawMaterialRepository.findByProduct(testProduct)).thenReturn(Collections.emptyList());
+        when(rawMaterialRepository.findAllById(List.of(999L))).thenReturn(Collections.emptyList());
+
+        assertThatThrownBy(() -> productService.replaceRawMaterials(1L, List.of(new ProductRawMaterialRequest(999L, 2.0))))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Raw Material not found");
+
+        verify(productRawMaterialRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenCalculatingCapacityOfNonExistentProduct() {
+
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.calculateMaxQuantity(999L))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Product not found");
+    }
+
     @Test
     void shouldReturnNullWhenFindingNonExistentProduct() {
 
@@ -128,6 +210,49 @@ class ProductServiceTest {
         verify(productRepository, never()).deleteById(anyLong());
     }
 
+    @Test
+    void shouldRejectUnknownFieldsInSparseFieldset() {
+
+        assertThatThrownBy(() -> productService.findAll(Set.of("id", "secret")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("secret");
+
+        verify(productRepository, never()).findAllSelecting(any(), anyCollection());
+    }
+
+    @Test
+    void shouldRejectUnknownSortProperty() {
+
+        assertThatThrownBy(() -> productService.findAll(null, null, Sort.by("description")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Unknown sort property: description. Allowed properties: id, name, price");
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldRejectEmptyPriceRange() {
+
+        ProductFilter filter = new ProductFilter(new BigDecimal("20.00"), new BigDecimal("10.00"), null);
+
+        assertThatThrownBy(() -> productService.findAll(null, filter, Sort.unsorted()))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("minPrice must not be greater than maxPrice");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPushFilterAndSortDownToRepository() {
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "price");
+        when(productRepository.findAll(any(Specification.class), eq(sort))).thenReturn(List.of(testProduct));
+
+        List<ProductResponse> result = productService.findAll(null, new ProductFilter(BigDecimal.ONE, null, null), sort);
+
+        assertThat(result).extracting(ProductResponse::id).containsExactly(1L);
+        verify(productRepository, never()).findAll();
+    }
+
     @Test
     void shouldNotIncludeProductsWithoutRawMaterialsInProducibleList() {
 
@@ -135,18 +260,15 @@ class ProductServiceTest {
         productWithoutRawMaterials.setId(2L);
         productWithoutRawMaterials.setName("Simple Product");
 
-        when(productRepository.findAll()).thenReturn(List.of(testProduct, productWithoutRawMaterials));
-        when(productRawMaterialRepository.findByProduct(testProduct)).thenReturn(List.of(createProductRawMaterial()));
-        when(productRawMaterialRepository.findByProduct(productWithoutRawMaterials)).thenReturn(Collections.emptyList());
+        when(productRawMaterialRepository.findAllWithProductAndRawMaterial()).thenReturn(List.of(createProductRawMaterial()));
 
         List<ProductResponse> result = productService.findProductsProducibleWithInventory();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).id()).isEqualTo(1L);
         assertThat(result.get(0).name()).isEqualTo("Chair");
-        verify(productRepository).findAll();
-        verify(productRawMaterialRepository).findByProduct(testProduct);
-        verify(productRawMaterialRepository).findByProduct(productWithoutRawMaterials);
+        assertThat(result).extracting(ProductResponse::id).doesNotContain(productWithoutRawMaterials.getId());
+        verify(productRawMaterialRepository, never()).findByProduct(any());
     }
 
     @Test
@@ -155,14 +277,11 @@ class ProductServiceTest {
         ProductRawMaterial productRawMaterial = createProductRawMaterial();
         productRawMaterial.setQuantity(150.0); // More than available stock (100.0)
 
-        when(productRepository.findAll()).thenReturn(List.of(testProduct));
-        when(productRawMaterialRepository.findByProduct(testProduct)).thenReturn(List.of(productRawMaterial));
+        when(productRawMaterialRepository.findAllWithProductAndRawMaterial()).thenReturn(List.of(productRawMaterial));
 
         List<ProductResponse> result = productService.findProductsProducibleWithInventory();
 
         assertThat(result).isEmpty();
-        verify(productRepository).findAll();
-        verify(productRawMaterialRepository).findByProduct(testProduct);
     }
 
     // =============================================
@@ -183,6 +302,7 @@ class ProductServiceTest {
         assertThat(result.price()).isEqualTo(new BigDecimal("100.00"));
 
         verify(productRepository).save(any(Product.class));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.saved(result));
     }
 
     @Test
@@ -200,6 +320,32 @@ class ProductServiceTest {
         verify(productRepository).findAll();
     }
 
+    @Test
+    void shouldSelectOnlyRequestedFields() {
+
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id", Long.class)).thenReturn(1L);
+        when(tuple.get("name", String.class)).thenReturn("Chair");
+        when(productRepository.findAllSelecting(Product.class, Set.of("id", "name"))).thenReturn(List.of(tuple));
+
+        List<ProductResponse> result = productService.findAll(Set.of("name", "id"));
+
+        assertThat(result).containsExactly(new ProductResponse(1L, "Chair", null, null));
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void shouldFallBackToFullEntitiesWhenNoFieldsRequested() {
+
+        when(productRepository.findAll()).thenReturn(List.of(testProduct));
+
+        List<ProductResponse> result = productService.findAll(Set.of());
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).description()).isEqualTo("Wooden chair");
+        verify(productRepository, never()).findAllSelecting(any(), anyCollection());
+    }
+
     @Test
     void shouldFindProductByIdSuccessfully() {
 
@@ -249,6 +395,7 @@ class ProductServiceTest {
         assertThat(result).isTrue();
         verify(productRepository).existsById(1L);
         verify(productRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(1L));
     }
 
     @Test
@@ -264,14 +411,55 @@ class ProductServiceTest {
         verify(productRawMaterialRepository).save(any(ProductRawMaterial.class));
     }
 
+    @Test
+    void shouldUpdateQuantityInsteadOfDuplicatingExistingAssociation() {
+
+        ProductRawMaterial existing = createProductRawMaterial();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(testRawMaterial));
+        when(productRawMaterialRepository.findByProductAndRawMaterial(testProduct, testRawMaterial))
+                .thenReturn(Optional.of(existing));
+
+        productService.addRawMaterialToProduct(1L, 1L, 7.0);
+
+        assertThat(existing.getQuantity()).isEqualTo(7.0);
+        verify(productRawMaterialRepository).save(existing);
+    }
+
+    @Test
+    void shouldReplaceBillOfMaterialsWithSetBasedDiff() {
+
+        RawMaterial metal = new RawMaterial(2L, "Metal", "Steel", 10.0, 50.0, null, null);
+        RawMaterial glue = new RawMaterial(3L, "Glue", "Wood glue", 5.0, 20.0, null, null);
+        ProductRawMaterial keptRow = new ProductRawMaterial(100L, testProduct, testRawMaterial, 10.0, null);
+        ProductRawMaterial removedRow = new ProductRawMaterial(101L, testProduct, metal, 4.0, null);
+        ProductRawMaterial duplicatedRow = new ProductRawMaterial(102L, testProduct, testRawMaterial, 10.0, null);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRawMaterialRepository.findByProduct(testProduct))
+                .thenReturn(List.of(keptRow, removedRow, duplicatedRow));
+        when(rawMaterialRepository.findAllById(List.of(3L))).thenReturn(List.of(glue));
+        when(productRawMaterialRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ProductRawMaterialResponse> result = productService.replaceRawMaterials(1L, List.of(
+                new ProductRawMaterialRequest(1L, 12.0),
+                new ProductRawMaterialRequest(3L, 1.5)));
+
+        assertThat(result).containsExactly(
+                new ProductRawMaterialResponse(1L, "Wood", 12.0),
+                new ProductRawMaterialResponse(3L, "Glue", 1.5));
+        assertThat(keptRow.getQuantity()).isEqualTo(12.0);
+        verify(productRawMaterialRepository).deleteAllByIdInBatch(List.of(101L, 102L));
+        verify(productRawMaterialRepository, never()).save(any(ProductRawMaterial.class));
+    }
+
     @Test
     void shouldFindProducibleProductsSuccessfully() {
 
         ProductRawMaterial productRawMaterial = createProductRawMaterial();
         productRawMaterial.setQuantity(50.0); // Less than available stock (100.0)
 
-        when(productRepository.findAll()).thenReturn(List.of(testProduct));
-        when(productRawMaterialRepository.findByProduct(testProduct)).thenReturn(List.of(productRawMaterial));
+        when(productRawMaterialRepository.findAllWithProductAndRawMaterial()).thenReturn(List.of(productRawMaterial));
 
         List<ProductResponse> result = productService.findProductsProducibleWithInventory();
 
@@ -279,8 +467,60 @@ class ProductServiceTest {
         assertThat(result.get(0).id()).isEqualTo(1L);
         assertThat(result.get(0).name()).isEqualTo("Chair");
 
-        verify(productRepository).findAll();
-        verify(productRawMaterialRepository).findByProduct(testProduct);
+        verify(productRawMaterialRepository).findAllWithProductAndRawMaterial();
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldReevaluateOnlyTheRequestedProductsInOneQuery() {
+
+        Product table = new Product(2L, "Table", "Oak table", new BigDecimal("300.00"), null);
+        ProductRawMaterial tableRequirement = new ProductRawMaterial(null, table, testRawMaterial, 150.0, null);
+
+        when(productRawMaterialRepository.findWithProductAndRawMaterialByProductIdIn(Set.of(1L, 2L)))
+                .thenReturn(List.of(createProductRawMaterial(), tableRequirement));
+
+        List<ProductResponse> result = productService.findProducibleAmong(Set.of(1L, 2L));
+
+        assertThat(result).extracting(ProductResponse::id).containsExactly(1L);
+        verify(productRawMaterialRepository, never()).findByProduct(any());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldCalculateMaxQuantityFromScarcestRawMaterial() {
+
+        RawMaterial metal = new RawMaterial(2L, "Metal", "Steel", 10.0, 35.0, null, null);
+        ProductRawMaterial wood = createProductRawMaterial(); // 100.0 in stock, 10.0 per unit
+        ProductRawMaterial steel = new ProductRawMaterial(2L, testProduct, metal, 4.0, null);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRawMaterialRepository.findByProduct(testProduct)).thenReturn(List.of(wood, steel));
+
+        ProductCapacityResponse result = productService.calculateMaxQuantity(1L);
+
+        assertThat(result).isEqualTo(new ProductCapacityResponse(1L, 8));
+    }
+
+    @Test
+    void shouldReturnZeroCapacityForProductWithoutRawMaterials() {
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRawMaterialRepository.findByProduct(testProduct)).thenReturn(Collections.emptyList());
+
+        assertThat(productService.calculateMaxQuantity(1L).maxQuantity()).isZero();
+    }
+
+    @Test
+    void shouldRollUpRawMaterialCost() {
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRawMaterialRepository.findByProduct(testProduct)).thenReturn(List.of(createProductRawMaterial()));
+
+        ProductCostResponse result = productService.calculateCost(1L);
+
+        assertThat(result.materialCost()).isEqualByComparingTo("500.00");
+        assertThat(result.margin()).isEqualByComparingTo("-400.00");
     }
 
     @Test
@@ -297,12 +537,11 @@ class ProductServiceTest {
     @Test
     void shouldReturnEmptyListWhenNoProductsCanBeProduced() {
 
-        when(productRepository.findAll()).thenReturn(Collections.emptyList());
+        when(productRawMaterialRepository.findAllWithProductAndRawMaterial()).thenReturn(Collections.emptyList());
 
         List<ProductResponse> result = productService.findProductsProducibleWithInventory();
 
         assertThat(result).isEmpty();
-        verify(productRepository).findAll();
     }
 
     @Test
@@ -321,17 +560,13 @@ class ProductServiceTest {
         productRawMaterial2.setRawMaterial(rawMaterial2);
         productRawMaterial2.setQuantity(150.0); // Available: 200.0
 
-        when(productRepository.findAll()).thenReturn(List.of(testProduct));
-        when(productRawMaterialRepository.findByProduct(testProduct))
+        when(productRawMaterialRepository.findAllWithProductAndRawMaterial())
                 .thenReturn(List.of(productRawMaterial1, productRawMaterial2));
 
         List<ProductResponse> result = productService.findProductsProducibleWithInventory();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).id()).isEqualTo(1L);
-
-        verify(productRepository).findAll();
-        verify(productRawMaterialRepository).findByProduct(testProduct);
     }
 
     private ProductRawMaterial createProductRawMaterial() {
@@ -0,0 +1,156 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.entity.ProductionOrderStatus;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.production.AllocationRunResponse;
+import br.com.autoflex.dto.production.MaterialAllocationResponse;
+import br.com.autoflex.dto.production.ProductionOrderRequest;
+import br.com.autoflex.dto.production.ProductionOrderResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.error.BusinessException;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:production;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "autoflex.production.allocation-interval=PT1H"
+})
+@ActiveProfiles("test")
+class ProductionOrderServiceTest {
+
+    private static final LocalDate DUE = LocalDate.of(2030, 1, 15);
+
+    @Autowired
+    private ProductionOrderService productionOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private RawMaterialResponse steel;
+    private Long frameId;
+
+    @BeforeEach
+    void setUp() {
+        productionOrderService.findQueue().forEach(order -> productionOrderService.delete(order.id()));
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        steel = rawMaterialService.create(new RawMaterialRequest("Steel " + suffix, "Sheet", 10.0, 100.0, null));
+        frameId = productService.create(new ProductRequest("Frame " + suffix, "Welded", BigDecimal.TEN)).id();
+        productService.replaceRawMaterials(frameId, List.of(new ProductRawMaterialRequest(steel.id(), 10.0)));
+    }
+
+    @Test
+    void shouldReserveScarceStockInPriorityOrderAndReportTheShortfall() {
+        ProductionOrderResponse urgent = queue(4.0, 5, DUE.plusDays(10));
+        ProductionOrderResponse early = queue(7.0, 1, DUE);
+        ProductionOrderResponse late = queue(3.0, 1, DUE.plusDays(1));
+
+        AllocationRunResponse run = productionOrderService.allocate();
+
+        assertThat(run.orders()).isEqualTo(3);
+        assertThat(run.allocated()).isEqualTo(1);
+        assertThat(run.shortOrders()).isEqualTo(2);
+        assertThat(run.shortfalls()).containsExactly(new MaterialAllocationResponse(steel.id(), 100.0, 60.0, 40.0));
+
+        List<ProductionOrderResponse> queue = productionOrderService.findQueue();
+        assertThat(queue).extracting(ProductionOrderResponse::id).containsExactly(urgent.id(), early.id(), late.id());
+        assertThat(queue).extracting(ProductionOrderResponse::status)
+                .containsExactly(ProductionOrderStatus.ALLOCATED, ProductionOrderStatus.SHORT, ProductionOrderStatus.SHORT);
+        assertThat(queue.get(1).allocations())
+                .containsExactly(new MaterialAllocationResponse(steel.id(), 70.0, 60.0, 10.0));
+        assertThat(queue.get(2).allocations())
+                .containsExactly(new MaterialAllocationResponse(steel.id(), 30.0, 0.0, 30.0));
+        assertThat(queue).allSatisfy(order -> assertThat(order.allocatedAt()).isEqualTo(run.allocatedAt()));
+    }
+
+    @Test
+    void shouldReplaceThePreviousAllocationOnEveryRun() {
+        ProductionOrderResponse first = queue(6.0, 1, DUE);
+        ProductionOrderResponse second = queue(6.0, 0, DUE);
+        productionOrderService.allocate();
+
+        productionOrderService.delete(first.id());
+        AllocationRunResponse run = productionOrderService.allocate();
+
+        assertThat(run.shortfalls()).isEmpty();
+        ProductionOrderResponse reloaded = productionOrderService.findById(second.id());
+        assertThat(reloaded.status()).isEqualTo(ProductionOrderStatus.ALLOCATED);
+        assertThat(reloaded.allocations()).containsExactly(new MaterialAllocationResponse(steel.id(), 60.0, 60.0, 0.0));
+        assertThat(productionOrderService.findById(first.id())).isNull();
+    }
+
+    @Test
+    void shouldMarkOrdersForProductsWithoutABillOfMaterialsShort() {
+        Long bare = productService.create(new ProductRequest("Bare " + UUID.randomUUID(), "No BOM", BigDecimal.ONE)).id();
+        ProductionOrderResponse order = productionOrderService.create(new ProductionOrderRequest(bare, 2.0, 1, DUE));
+
+        AllocationRunResponse run = productionOrderService.allocate();
+
+        assertThat(run.allocated()).isZero();
+        assertThat(run.shortOrders()).isEqualTo(1);
+        assertThat(productionOrderService.findById(order.id()).status()).isEqualTo(ProductionOrderStatus.SHORT);
+    }
+
+    @Test
+    void shouldRefuseToDeleteAProductWithProductionOrders() {
+        Long bare = productService.create(new ProductRequest("Bare " + UUID.randomUUID(), "No BOM", BigDecimal.ONE)).id();
+        ProductionOrderResponse order = productionOrderService.create(new ProductionOrderRequest(bare, 1.0, 1, DUE));
+
+        assertThatThrownBy(() -> productService.delete(bare)).isInstanceOf(BusinessException.class);
+        assertThat(productService.findById(bare)).isNotNull();
+
+        productionOrderService.delete(order.id());
+        assertThat(productService.delete(bare)).isTrue();
+    }
+
+    @Test
+    void shouldKeepOrdersFromLosingTheirProductEvenBypassingTheService() {
+        Long bare = productService.create(new ProductRequest("Bare " + UUID.randomUUID(), "No BOM", BigDecimal.ONE)).id();
+        productionOrderService.create(new ProductionOrderRequest(bare, 1.0, 1, DUE));
+
+        assertThatThrownBy(() -> productRepository.deleteById(bare)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void shouldQueueNewOrdersUntilTheNextRun() {
+        ProductionOrderResponse order = queue(1.0, null, DUE);
+
+        assertThat(order.status()).isEqualTo(ProductionOrderStatus.QUEUED);
+        assertThat(order.priority()).isZero();
+        assertThat(order.allocations()).isEmpty();
+        assertThat(rawMaterialService.findById(steel.id()).currentStock()).isEqualTo(100.0);
+    }
+
+    @Test
+    void shouldRejectInvalidOrders() {
+        assertThatThrownBy(() -> queue(0.0, 1, DUE)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> queue(1.0, 1, null)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> productionOrderService.create(new ProductionOrderRequest(-1L, 1.0, 1, DUE)))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private ProductionOrderResponse queue(Double quantity, Integer priority, LocalDate dueDate) {
+        return productionOrderService.create(new ProductionOrderRequest(frameId, quantity, priority, dueDate));
+    }
+}
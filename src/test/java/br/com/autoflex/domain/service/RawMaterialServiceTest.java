@@ -1,19 +1,32 @@
 package br.com.autoflex.domain.service;
 
 import br.com.autoflex.domain.entity.RawMaterial;
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
 import br.com.autoflex.domain.repository.RawMaterialRepository;
+import br.com.autoflex.dto.rawmaterial.RawMaterialFilter;
 import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
 import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.sync.ChangeTracker;
+import jakarta.persistence.Tuple;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +38,18 @@ class RawMaterialServiceTest {
     @Mock
     private RawMaterialRepository rawMaterialRepository;
 
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry(), Duration.ZERO);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private WarehouseService warehouseService;
+
     @InjectMocks
     private RawMaterialService rawMaterialService;
 
@@ -40,7 +65,7 @@ class RawMaterialServiceTest {
         testRawMaterial.setCost(50.0);
         testRawMaterial.setCurrentStock(100.0);
 
-        testRawMaterialRequest = new RawMaterialRequest("Wood", "Oak wood", 50.0, 100.0);
+        testRawMaterialRequest = new RawMaterialRequest("Wood", "Oak wood", 50.0, 100.0, null);
     }
 
 
@@ -83,6 +108,16 @@ class RawMaterialServiceTest {
         verify(rawMaterialRepository, never()).deleteById(anyLong());
     }
 
+    @Test
+    void shouldRejectUnknownFieldsInSparseFieldset() {
+
+        assertThatThrownBy(() -> rawMaterialService.findAll(Set.of("stock")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("stock");
+
+        verify(rawMaterialRepository, never()).findAllSelecting(any(), anyCollection());
+    }
+
     @Test
     void shouldHandleRepositoryExceptionDuringCreate() {
 
@@ -146,6 +181,45 @@ class RawMaterialServiceTest {
         assertThat(result.currentStock()).isEqualTo(100.0);
 
         verify(rawMaterialRepository).save(any(RawMaterial.class));
+        verify(eventPublisher).publishEvent(RawMaterialChangedEvent.saved(result));
+    }
+
+    @Test
+    void shouldRejectEmptyCostRange() {
+
+        RawMaterialFilter filter = new RawMaterialFilter(null, 20.0, 10.0);
+
+        assertThatThrownBy(() -> rawMaterialService.findAll(null, filter, Sort.by("cost")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("minCost must not be greater than maxCost");
+
+        verifyNoInteractions(rawMaterialRepository);
+    }
+
+    @Test
+    void shouldRejectNegativeReorderThreshold() {
+
+        RawMaterialRequest request = new RawMaterialRequest("Wood", "Oak wood", 50.0, 100.0, -1.0);
+
+        assertThatThrownBy(() -> rawMaterialService.create(request))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Reorder threshold must not be negative");
+
+        verifyNoInteractions(rawMaterialRepository);
+    }
+
+    @Test
+    void shouldSelectRequestedFieldsOfFilteredRawMaterials() {
+
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id", Long.class)).thenReturn(1L);
+        Sort sort = Sort.by("currentStock");
+        when(rawMaterialRepository.findAllSelecting(eq(RawMaterial.class), eq(Set.of("id")), notNull(), eq(sort)))
+                .thenReturn(List.of(tuple));
+
+        List<RawMaterialResponse> result = rawMaterialService.findAll(Set.of("id"), new RawMaterialFilter(5.0, null, null), sort);
+
+        assertThat(result).containsExactly(new RawMaterialResponse(1L, null, null, null, null, null));
     }
 
     @Test
@@ -164,6 +238,21 @@ class RawMaterialServiceTest {
         verify(rawMaterialRepository).findAll();
     }
 
+    @Test
+    void shouldSelectOnlyRequestedFields() {
+
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id", Long.class)).thenReturn(1L);
+        when(tuple.get("currentStock", Double.class)).thenReturn(100.0);
+        when(rawMaterialRepository.findAllSelecting(RawMaterial.class, Set.of("id", "currentStock")))
+                .thenReturn(List.of(tuple));
+
+        List<RawMaterialResponse> result = rawMaterialService.findAll(Set.of("id", "currentStock"));
+
+        assertThat(result).containsExactly(new RawMaterialResponse(1L, null, null, null, 100.0, null));
+        verify(rawMaterialRepository, never()).findAll();
+    }
+
     @Test
     void shouldFindRawMaterialByIdSuccessfully() {
 
@@ -185,7 +274,7 @@ class RawMaterialServiceTest {
     @Test
     void shouldUpdateRawMaterialSuccessfully() {
 
-        RawMaterialRequest updateRequest = new RawMaterialRequest("Updated Wood", "Updated description", 60.0, 120.0);
+        RawMaterialRequest updateRequest = new RawMaterialRequest("Updated Wood", "Updated description", 60.0, 120.0, null);
         RawMaterial updatedRawMaterial = new RawMaterial();
         updatedRawMaterial.setId(1L);
         updatedRawMaterial.setName("Updated Wood");
@@ -221,6 +310,7 @@ class RawMaterialServiceTest {
         assertThat(result).isTrue();
         verify(rawMaterialRepository).existsById(1L);
         verify(rawMaterialRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(RawMaterialChangedEvent.deleted(1L));
     }
 
     @Test
@@ -238,7 +328,7 @@ class RawMaterialServiceTest {
     @Test
     void shouldCreateRawMaterialWithZeroCost() {
 
-        RawMaterialRequest requestWithZeroCost = new RawMaterialRequest("Free Wood", "Free wood sample", 0.0, 100.0);
+        RawMaterialRequest requestWithZeroCost = new RawMaterialRequest("Free Wood", "Free wood sample", 0.0, 100.0, null);
         RawMaterial rawMaterialWithZeroCost = new RawMaterial();
         rawMaterialWithZeroCost.setId(1L);
         rawMaterialWithZeroCost.setName("Free Wood");
@@ -261,7 +351,7 @@ class RawMaterialServiceTest {
     @Test
     void shouldCreateRawMaterialWithZeroStock() {
 
-        RawMaterialRequest requestWithZeroStock = new RawMaterialRequest("Wood", "Out of stock wood", 50.0, 0.0);
+        RawMaterialRequest requestWithZeroStock = new RawMaterialRequest("Wood", "Out of stock wood", 50.0, 0.0, null);
         RawMaterial rawMaterialWithZeroStock = new RawMaterial();
         rawMaterialWithZeroStock.setId(1L);
         rawMaterialWithZeroStock.setName("Wood");
@@ -285,7 +375,7 @@ class RawMaterialServiceTest {
     @Test
     void shouldUpdateRawMaterialStockOnly() {
         // Given - Update only stock, keep other fields the same
-        RawMaterialRequest updateStockRequest = new RawMaterialRequest("Wood", "Oak wood", 50.0, 200.0);
+        RawMaterialRequest updateStockRequest = new RawMaterialRequest("Wood", "Oak wood", 50.0, 200.0, null);
         RawMaterial updatedRawMaterial = new RawMaterial();
         updatedRawMaterial.setId(1L);
         updatedRawMaterial.setName("Wood");
@@ -312,7 +402,7 @@ class RawMaterialServiceTest {
     void shouldHandleVeryLargeStockValues() {
 
         double largeStock = Double.MAX_VALUE;
-        RawMaterialRequest requestWithLargeStock = new RawMaterialRequest("Wood", "Large stock wood", 50.0, largeStock);
+        RawMaterialRequest requestWithLargeStock = new RawMaterialRequest("Wood", "Large stock wood", 50.0, largeStock, null);
         RawMaterial rawMaterialWithLargeStock = new RawMaterial();
         rawMaterialWithLargeStock.setId(1L);
         rawMaterialWithLargeStock.setName("Wood");
@@ -335,7 +425,7 @@ class RawMaterialServiceTest {
     void shouldHandleVeryLargeCostValues() {
 
         double largeCost = Double.MAX_VALUE;
-        RawMaterialRequest requestWithLargeCost = new RawMaterialRequest("Gold", "Pure gold", largeCost, 100.0);
+        RawMaterialRequest requestWithLargeCost = new RawMaterialRequest("Gold", "Pure gold", largeCost, 100.0, null);
         RawMaterial rawMaterialWithLargeCost = new RawMaterial();
         rawMaterialWithLargeCost.setId(1L);
         rawMaterialWithLargeCost.setName("Gold");
@@ -353,4 +443,45 @@ class RawMaterialServiceTest {
 
         verify(rawMaterialRepository).save(any(RawMaterial.class));
     }
+
+    @Test
+    void shouldRetryARefreshThatLostItsCompareAndSetUntilItMatchesTheWarehouseSum() {
+        // A concurrent refresh moves the total from 100 to 110 between the read and the write
+        when(warehouseService.totalStock(List.of(1L))).thenReturn(Map.of(1L, 120.0), Map.of(1L, 130.0));
+        when(rawMaterialRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(rawMaterialWithStock(100.0)), List.of(rawMaterialWithStock(110.0)));
+        when(changeTracker.stamp()).thenReturn(7L);
+        when(rawMaterialRepository.compareAndSetStock(1L, 100.0, 120.0, 7L)).thenReturn(0);
+        when(rawMaterialRepository.compareAndSetStock(1L, 110.0, 130.0, 7L)).thenReturn(1);
+
+        int refreshed = rawMaterialService.refreshTotals(List.of(1L));
+
+        assertThat(refreshed).isEqualTo(1);
+        ArgumentCaptor<RawMaterialChangedEvent> event = ArgumentCaptor.forClass(RawMaterialChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().rawMaterial().currentStock()).isEqualTo(130.0);
+    }
+
+    @Test
+    void shouldGiveUpARefreshThatKeepsLosingItsCompareAndSet() {
+        when(warehouseService.totalStock(List.of(1L))).thenReturn(Map.of(1L, 120.0));
+        when(rawMaterialRepository.findAllById(List.of(1L))).thenAnswer(invocation -> List.of(rawMaterialWithStock(100.0)));
+        when(changeTracker.stamp()).thenReturn(7L);
+        when(rawMaterialRepository.compareAndSetStock(1L, 100.0, 120.0, 7L)).thenReturn(0);
+
+        int refreshed = rawMaterialService.refreshTotals(List.of(1L));
+
+        assertThat(refreshed).isZero();
+        verify(rawMaterialRepository, times(3)).compareAndSetStock(1L, 100.0, 120.0, 7L);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private RawMaterial rawMaterialWithStock(double currentStock) {
+        RawMaterial rawMaterial = new RawMaterial();
+        rawMaterial.setId(1L);
+        rawMaterial.setName("Wood");
+        rawMaterial.setCost(50.0);
+        rawMaterial.setCurrentStock(currentStock);
+        return rawMaterial;
+    }
 }
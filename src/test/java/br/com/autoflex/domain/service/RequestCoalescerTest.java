@@ -0,0 +1,155 @@
+package br.com.autoflex.domain.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldRunComputationOnceForConcurrentCallers() throws Exception {
+
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, Duration.ZERO);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> coalescer.execute("producible", "all", () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            })));
+            started.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> coalescer.execute("producible", "all", executions::incrementAndGet)));
+            }
+            while (count("producible", "coalesced") < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(count("producible", "executed")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPropagateFailureToCoalescedCallersAndRetryAfterwards() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, Duration.ZERO);
+
+        assertThatThrownBy(() -> coalescer.execute("cost-rollup", 1L, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(coalescer.execute("cost-rollup", 1L, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void shouldReuseResultWithinWindowUntilInvalidated() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.execute("max-quantity", 1L, executions::incrementAndGet);
+        coalescer.execute("max-quantity", 1L, executions::incrementAndGet);
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(count("max-quantity", "reused")).isEqualTo(1);
+
+        coalescer.invalidateAfterCommit();
+        coalescer.execute("max-quantity", 1L, executions::incrementAndGet);
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDeferInvalidationUntilTransactionCommits() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+        coalescer.execute("producible", "all", executions::incrementAndGet);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            coalescer.invalidateAfterCommit();
+            coalescer.execute("producible", "all", executions::incrementAndGet);
+            assertThat(executions.get()).isEqualTo(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        coalescer.execute("producible", "all", executions::incrementAndGet);
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotReuseResultComputedAcrossAnInvalidation() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.execute("producible", "all", () -> {
+            coalescer.invalidate();
+            return executions.incrementAndGet();
+        });
+        coalescer.execute("producible", "all", executions::incrementAndGet);
+
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldShareListResultsAsUnmodifiableCopies() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, Duration.ofMinutes(1));
+        List<String> computed = new ArrayList<>(List.of("a"));
+
+        List<String> first = coalescer.execute("producible", "all", () -> computed);
+        computed.add("b");
+        List<String> reused = coalescer.execute("producible", "all", () -> computed);
+
+        assertThat(reused).isSameAs(first).containsExactly("a");
+        assertThatThrownBy(() -> first.add("c")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private double count(String computation, String outcome) {
+        return meterRegistry.counter("autoflex.coalescing.requests", "computation", computation, "outcome", outcome).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.event.RawMaterialChangedEvent;
+import br.com.autoflex.domain.repository.StockDailyRollupRepository;
+import br.com.autoflex.domain.repository.StockHistorySegmentRepository;
+import br.com.autoflex.domain.repository.ValuationDailyRollupRepository;
+import br.com.autoflex.dto.history.InventoryValuationResponse;
+import br.com.autoflex.dto.history.RollupResponse;
+import br.com.autoflex.dto.history.StockSampleResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.history.RollupGranularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "autoflex.history.flush-interval=PT1H"
+})
+@ActiveProfiles("test")
+class StockHistoryServiceTest {
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockHistorySegmentRepository segmentRepository;
+
+    @Autowired
+    private StockDailyRollupRepository stockRollupRepository;
+
+    @Autowired
+    private ValuationDailyRollupRepository valuationRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String name;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        name = "Steel " + UUID.randomUUID().toString().substring(0, 8);
+        today = LocalDate.now(ZoneOffset.UTC);
+        stockHistoryService.rebuild();
+    }
+
+    @Test
+    void shouldMoveTheInventoryValueByEachCommittedChange() {
+        BigDecimal before = stockHistoryService.currentValuation().totalValue();
+
+        RawMaterialResponse steel = rawMaterialService.create(new RawMaterialRequest(name, "Sheet", 2.5, 40.0, null));
+        assertThat(stockHistoryService.currentValuation().totalValue()).isEqualByComparingTo(before.add(new BigDecimal("100")));
+
+        rawMaterialService.update(steel.id(), new RawMaterialRequest(name, "Sheet", 3.0, 10.0, null));
+        assertThat(stockHistoryService.currentValuation().totalValue()).isEqualByComparingTo(before.add(new BigDecimal("30")));
+
+        rawMaterialService.delete(steel.id());
+        InventoryValuationResponse after = stockHistoryService.currentValuation();
+        assertThat(after.totalValue()).isEqualByComparingTo(before);
+
+        stockHistoryService.rebuild();
+        assertThat(stockHistoryService.currentValuation().totalValue()).isEqualByComparingTo(after.totalValue());
+        assertThat(stockHistoryService.currentValuation().rawMaterials()).isEqualTo(after.rawMaterials());
+    }
+
+    @Test
+    void shouldRecordEveryStockLevelBeforeAndAfterItIsWritten() {
+        RawMaterialResponse steel = rawMaterialService.create(new RawMaterialRequest(name, "Sheet", 2.0, 40.0, null));
+        rawMaterialService.update(steel.id(), new RawMaterialRequest(name, "Sheet", 2.0, 15.0, null));
+        rawMaterialService.update(steel.id(), new RawMaterialRequest(name, "Cold rolled", 2.0, 15.0, null));
+        rawMaterialService.update(steel.id(), new RawMaterialRequest(name, "Sheet", 2.0, 60.0, null));
+
+        List<StockSampleResponse> pending = stockHistoryService.findStockHistory(steel.id(), null, null);
+        assertThat(pending).extracting(StockSampleResponse::stock).containsExactly(40.0, 15.0, 60.0);
+
+        stockHistoryService.flush();
+
+        assertThat(stockHistoryService.findStockHistory(steel.id(), today, today)).isEqualTo(pending);
+        assertThat(stockHistoryService.findStockRollups(steel.id(), today.minusDays(2), today, RollupGranularity.DAILY))
+                .containsExactly(new RollupResponse(today, today, BigDecimal.valueOf(40.0), BigDecimal.valueOf(60.0),
+                        BigDecimal.valueOf(15.0), BigDecimal.valueOf(60.0), 3));
+    }
+
+    @Test
+    void shouldMergeLaterFlushesIntoTheSameDay() {
+        RawMaterialResponse steel = rawMaterialService.create(new RawMaterialRequest(name, "Sheet", 1.0, 40.0, null));
+        stockHistoryService.flush();
+        rawMaterialService.update(steel.id(), new RawMaterialRequest(name, "Sheet", 1.0, 5.0, null));
+        rawMaterialService.delete(steel.id());
+        stockHistoryService.flush();
+
+        assertThat(stockHistoryService.findStockHistory(steel.id(), today, today))
+                .extracting(StockSampleResponse::stock).containsExactly(40.0, 5.0, 0.0);
+        List<RollupResponse> weeks = stockHistoryService.findStockRollups(steel.id(), today, today, RollupGranularity.WEEKLY);
+        assertThat(weeks).singleElement().satisfies(week -> {
+            assertThat(week.open()).isEqualByComparingTo("40");
+            assertThat(week.close()).isEqualByComparingTo("0");
+            assertThat(week.max()).isEqualByComparingTo("40");
+            assertThat(week.samples()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void shouldOrderSamplesAndRollupsByTimeWhenInstancesFlushOutOfOrder() throws InterruptedException {
+        StockHistoryService nodeB = new StockHistoryService(rawMaterialService, segmentRepository, stockRollupRepository,
+                valuationRollupRepository, transactionManager, Duration.ofDays(90), 1096);
+        RawMaterialResponse steel = rawMaterialService.create(new RawMaterialRequest(name, "Sheet", 1.0, 40.0, null));
+        nodeB.rebuild();
+
+        commitOn(nodeB, steel, 11.0);
+        commitOn(stockHistoryService, steel, 12.0);
+        commitOn(nodeB, steel, 13.0);
+        nodeB.flush();
+        stockHistoryService.flush();
+
+        assertThat(stockHistoryService.findStockHistory(steel.id(), today, today))
+                .extracting(StockSampleResponse::stock).containsExactly(40.0, 11.0, 12.0, 13.0);
+        assertThat(stockHistoryService.findStockRollups(steel.id(), today, today, RollupGranularity.DAILY))
+                .singleElement().satisfies(day -> {
+                    assertThat(day.open()).isEqualByComparingTo("40");
+                    assertThat(day.close()).isEqualByComparingTo("13");
+                    assertThat(day.samples()).isEqualTo(4);
+                });
+        assertThat(stockHistoryService.findValuationRollups(today, today, RollupGranularity.DAILY))
+                .singleElement().satisfies(day ->
+                        assertThat(day.close()).isEqualByComparingTo(nodeB.currentValuation().totalValue()));
+    }
+
+    @Test
+    void shouldValueButNotRecordChangesReplayedFromAnotherInstance() {
+        RawMaterialResponse steel = rawMaterialService.create(new RawMaterialRequest(name, "Sheet", 1.0, 10.0, null));
+        BigDecimal before = stockHistoryService.currentValuation().totalValue();
+
+        eventPublisher.publishEvent(RawMaterialChangedEvent.saved(
+                new RawMaterialResponse(steel.id(), name, "Sheet", 1.0, 70.0, null)));
+
+        assertThat(stockHistoryService.currentValuation().totalValue()).isEqualByComparingTo(before.add(new BigDecimal("60")));
+        assertThat(stockHistoryService.findStockHistory(steel.id(), null, null))
+                .extracting(StockSampleResponse::stock).containsExactly(10.0);
+    }
+
+    @Test
+    void shouldRollUpTheInventoryValueAtEachFlush() {
+        rawMaterialService.create(new RawMaterialRequest(name, "Sheet", 4.0, 25.0, null));
+        stockHistoryService.flush();
+
+        List<RollupResponse> days = stockHistoryService.findValuationRollups(today.minusDays(6), today, RollupGranularity.DAILY);
+
+        assertThat(days).isNotEmpty();
+        RollupResponse latest = days.get(days.size() - 1);
+        assertThat(latest.to()).isEqualTo(today);
+        assertThat(latest.close()).isEqualByComparingTo(stockHistoryService.currentValuation().totalValue());
+        assertThat(latest.samples()).isPositive();
+    }
+
+    /** Commits a stock change on one instance, a few milliseconds after the previous one. */
+    private void commitOn(StockHistoryService node, RawMaterialResponse rawMaterial, double stock) throws InterruptedException {
+        Thread.sleep(5);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> node.onRawMaterialChanged(
+                RawMaterialChangedEvent.saved(new RawMaterialResponse(rawMaterial.id(), rawMaterial.name(),
+                        rawMaterial.description(), rawMaterial.cost(), stock, null))));
+    }
+
+    @Test
+    void shouldRejectInvalidRanges() {
+        assertThatThrownBy(() -> stockHistoryService.findValuationRollups(today, today.minusDays(1), RollupGranularity.DAILY))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> stockHistoryService.findStockHistory(1L, today.minusYears(5), today))
+                .isInstanceOf(BusinessException.class);
+    }
+}
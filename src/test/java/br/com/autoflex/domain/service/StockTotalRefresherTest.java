@@ -0,0 +1,80 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.domain.event.WarehouseStockChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockTotalRefresherTest {
+
+    @Mock
+    private RawMaterialService rawMaterialService;
+
+    private StockTotalRefresher stockTotalRefresher;
+
+    @BeforeEach
+    void setUp() {
+        stockTotalRefresher = new StockTotalRefresher(rawMaterialService, Runnable::run);
+    }
+
+    @Test
+    void shouldNotReportAFailedRefreshToTheCommittedWriter() {
+        when(rawMaterialService.refreshTotals(List.of(1L))).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThatCode(() -> stockTotalRefresher.onWarehouseStockChanged(new WarehouseStockChangedEvent(1L, 1L, 5.0, 5.0, true)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldRefreshTotalsOnTheExecutorAfterCommit() {
+        List<Runnable> tasks = new ArrayList<>();
+        stockTotalRefresher = new StockTotalRefresher(rawMaterialService, tasks::add);
+
+        stockTotalRefresher.onWarehouseStockChanged(new WarehouseStockChangedEvent(1L, 1L, 5.0, 5.0, true));
+        stockTotalRefresher.onWarehouseStockChanged(new WarehouseStockChangedEvent(2L, 1L, 3.0, 8.0, true));
+        stockTotalRefresher.onWarehouseStockChanged(new WarehouseStockChangedEvent(1L, 2L, 1.0, 1.0, true));
+
+        verifyNoInteractions(rawMaterialService);
+        assertThat(tasks).hasSize(1);
+
+        tasks.get(0).run();
+
+        verify(rawMaterialService).refreshTotals(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+    }
+
+    @Test
+    void shouldNotRefreshTotalsForTransfers() {
+        stockTotalRefresher.onWarehouseStockChanged(new WarehouseStockChangedEvent(1L, 1L, -5.0, 0.0, false));
+
+        verifyNoInteractions(rawMaterialService);
+    }
+
+    @Test
+    void shouldRefreshOnlyStaleTotalsWhenReconciling() {
+        when(rawMaterialService.findIdsWithStaleStock()).thenReturn(List.of(2L, 3L));
+
+        stockTotalRefresher.reconcile();
+
+        verify(rawMaterialService).refreshTotals(List.of(2L, 3L));
+    }
+
+    @Test
+    void shouldSkipReconciliationWhenNothingIsStale() {
+        when(rawMaterialService.findIdsWithStaleStock()).thenReturn(List.of());
+
+        stockTotalRefresher.reconcile();
+
+        verify(rawMaterialService, never()).refreshTotals(any());
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.dto.sync.DeletedEntityResponse;
+import br.com.autoflex.dto.sync.ProductRawMaterialSyncResponse;
+import br.com.autoflex.dto.sync.SyncResponse;
+import br.com.autoflex.error.BusinessException;
+import br.com.autoflex.sync.SyncEntityType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SyncServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Test
+    void shouldReturnOnlyRowsChangedSinceTheGivenVersion() {
+
+        RawMaterialResponse pine = rawMaterialService.create(new RawMaterialRequest("Sync Pine", "Pine plank", 8.0, 40.0, null));
+        ProductResponse shelf = productService.create(new ProductRequest("Sync Shelf", "Pine shelf", new BigDecimal("70.00")));
+        ProductResponse crate = productService.create(new ProductRequest("Sync Crate", "Pine crate", new BigDecimal("30.00")));
+        productService.replaceRawMaterials(shelf.id(), List.of(new ProductRawMaterialRequest(pine.id(), 3.0)));
+
+        SyncResponse full = syncService.changesSince(0);
+
+        assertThat(full.products()).contains(shelf, crate);
+        assertThat(full.rawMaterials()).contains(pine);
+        assertThat(full.productRawMaterials()).extracting(ProductRawMaterialSyncResponse::productId).contains(shelf.id());
+
+        ProductResponse renamed = productService.update(shelf.id(),
+                new ProductRequest("Sync Bookshelf", "Pine bookshelf", new BigDecimal("90.00")));
+        productService.delete(crate.id());
+
+        SyncResponse delta = syncService.changesSince(full.version());
+
+        assertThat(delta.version()).isGreaterThan(full.version());
+        assertThat(delta.products()).containsExactly(renamed);
+        assertThat(delta.rawMaterials()).isEmpty();
+        assertThat(delta.productRawMaterials()).isEmpty();
+        assertThat(delta.deleted()).containsExactly(new DeletedEntityResponse(SyncEntityType.PRODUCT, crate.id()));
+
+        SyncResponse upToDate = syncService.changesSince(delta.version());
+
+        assertThat(upToDate.version()).isEqualTo(delta.version());
+        assertThat(upToDate.products()).isEmpty();
+        assertThat(upToDate.deleted()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectNegativeVersions() {
+
+        assertThatThrownBy(() -> syncService.changesSince(-1))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("since must not be negative");
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.autoflex.domain.service;
+
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.dto.warehouse.StockAdjustmentRequest;
+import br.com.autoflex.dto.warehouse.StockTransferRequest;
+import br.com.autoflex.dto.warehouse.WarehouseRequest;
+import br.com.autoflex.dto.warehouse.WarehouseResponse;
+import br.com.autoflex.dto.warehouse.WarehouseStockResponse;
+import br.com.autoflex.error.BusinessException;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WarehouseServiceTest {
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockTotalRefresher stockTotalRefresher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long mainId;
+    private Long plantId;
+    private RawMaterialResponse steel;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        mainId = warehouseService.findAll().stream()
+                .filter(WarehouseResponse::defaultWarehouse)
+                .findFirst().orElseThrow().id();
+        plantId = warehouseService.create(new WarehouseRequest("PLANT-" + suffix, "Plant " + suffix)).id();
+        steel = rawMaterialService.create(new RawMaterialRequest("Steel " + suffix, "Sheet", 10.0, 100.0, null));
+    }
+
+    @Test
+    void shouldPutStockWrittenThroughRawMaterialsInTheDefaultWarehouse() {
+        assertThat(quantity(mainId, steel.id())).isEqualTo(100.0);
+        assertThat(quantity(plantId, steel.id())).isZero();
+
+        rawMaterialService.create(new RawMaterialRequest(steel.name(), "Sheet", 10.0, 20.0, null));
+
+        assertThat(quantity(mainId, steel.id())).isEqualTo(120.0);
+        assertThat(rawMaterialService.findById(steel.id()).currentStock()).isEqualTo(120.0);
+    }
+
+    @Test
+    void shouldTransferAtomicallyWithoutChangingTheTotal() {
+        List<WarehouseStockResponse> result = warehouseService.transfer(new StockTransferRequest(steel.id(), mainId, plantId, 30.0));
+
+        assertThat(result).extracting(WarehouseStockResponse::quantity).containsExactly(70.0, 30.0);
+        assertThatThrownBy(() -> warehouseService.transfer(new StockTransferRequest(steel.id(), plantId, mainId, 31.0)))
+                .isInstanceOf(BusinessException.class);
+        assertThat(quantity(mainId, steel.id())).isEqualTo(70.0);
+        assertThat(quantity(plantId, steel.id())).isEqualTo(30.0);
+        assertThat(rawMaterialService.findById(steel.id()).currentStock()).isEqualTo(100.0);
+    }
+
+    @Test
+    void shouldRefreshTheTotalAfterAnAdjustmentCommits() {
+        warehouseService.adjust(plantId, new StockAdjustmentRequest(steel.id(), 25.0));
+        warehouseService.adjust(mainId, new StockAdjustmentRequest(steel.id(), -40.0));
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(rawMaterialService.findById(steel.id()).currentStock()).isEqualTo(85.0));
+        assertThatThrownBy(() -> warehouseService.adjust(plantId, new StockAdjustmentRequest(steel.id(), -26.0)))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> warehouseService.adjust(plantId, new StockAdjustmentRequest(-1L, 1.0)))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void shouldReconcileTotalsThatMissedTheirRefresh() {
+        warehouseService.adjust(plantId, new StockAdjustmentRequest(steel.id(), 25.0));
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(rawMaterialService.findById(steel.id()).currentStock()).isEqualTo(125.0));
+        jdbcTemplate.update("update raw_materials set current_stock = 1 where id = ?", steel.id());
+
+        assertThat(rawMaterialService.findIdsWithStaleStock()).contains(steel.id());
+        stockTotalRefresher.reconcile();
+
+        assertThat(rawMaterialService.findById(steel.id()).currentStock()).isEqualTo(125.0);
+        assertThat(rawMaterialService.findIdsWithStaleStock()).doesNotContain(steel.id());
+    }
+
+    @Test
+    void shouldNotSetATotalBelowTheStockHeldElsewhere() {
+        warehouseService.transfer(new StockTransferRequest(steel.id(), mainId, plantId, 60.0));
+
+        rawMaterialService.update(steel.id(), new RawMaterialRequest(steel.name(), "Sheet", 10.0, 65.0, null));
+        assertThat(quantity(mainId, steel.id())).isEqualTo(5.0);
+        assertThatThrownBy(() -> rawMaterialService.update(steel.id(),
+                new RawMaterialRequest(steel.name(), "Sheet", 10.0, 59.0, null)))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void shouldEvaluateProducibilityPerWarehouseOrAcrossSeveral() {
+        ProductResponse frame = productService.create(new ProductRequest("Frame " + steel.name(), "Welded", BigDecimal.TEN));
+        productService.replaceRawMaterials(frame.id(), List.of(new ProductRawMaterialRequest(steel.id(), 40.0)));
+        warehouseService.transfer(new StockTransferRequest(steel.id(), mainId, plantId, 70.0));
+
+        assertThat(productService.findProducibleInWarehouses(List.of(mainId))).extracting(ProductResponse::id)
+                .doesNotContain(frame.id());
+        assertThat(productService.findProducibleInWarehouses(List.of(plantId))).extracting(ProductResponse::id)
+                .contains(frame.id());
+        assertThat(productService.calculateMaxQuantity(frame.id(), List.of(plantId)).maxQuantity()).isEqualTo(1);
+        assertThat(productService.calculateMaxQuantity(frame.id(), List.of(mainId, plantId)).maxQuantity()).isEqualTo(2);
+        assertThatThrownBy(() -> productService.findProducibleInWarehouses(List.of(-1L)))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private double quantity(Long warehouseId, Long rawMaterialId) {
+        return warehouseService.findStock(warehouseId).stream()
+                .filter(stock -> stock.rawMaterialId().equals(rawMaterialId))
+                .findFirst().orElseThrow().quantity();
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.autoflex.history;
+
+import br.com.autoflex.dto.history.RollupResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupSeriesTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 12);
+
+    @Test
+    void shouldFillDaysWithoutChangesWithThePreviousClose() {
+        List<RollupResponse> days = RollupSeries.summarize(List.of(day(MONDAY.plusDays(1), 10, 4, 2, 12, 3)),
+                value(8), MONDAY, MONDAY.plusDays(2), RollupGranularity.DAILY);
+
+        assertThat(days).containsExactly(
+                new RollupResponse(MONDAY, MONDAY, value(8), value(8), value(8), value(8), 0),
+                new RollupResponse(MONDAY.plusDays(1), MONDAY.plusDays(1), value(10), value(4), value(2), value(12), 3),
+                new RollupResponse(MONDAY.plusDays(2), MONDAY.plusDays(2), value(4), value(4), value(4), value(4), 0));
+    }
+
+    @Test
+    void shouldLeaveOutDaysBeforeAnythingWasRecorded() {
+        List<RollupResponse> days = RollupSeries.summarize(List.of(day(MONDAY.plusDays(2), 5, 6, 5, 6, 2)),
+                null, MONDAY, MONDAY.plusDays(3), RollupGranularity.DAILY);
+
+        assertThat(days).extracting(RollupResponse::from).containsExactly(MONDAY.plusDays(2), MONDAY.plusDays(3));
+    }
+
+    @Test
+    void shouldSummarizeWeeksStartingOnMonday() {
+        List<RollupResponse> weeks = RollupSeries.summarize(List.of(
+                        day(MONDAY.minusDays(1), 7, 9, 1, 9, 4),
+                        day(MONDAY.plusDays(2), 9, 3, 3, 15, 2),
+                        day(MONDAY.plusDays(6), 3, 5, 3, 5, 1)),
+                null, MONDAY.minusDays(2), MONDAY.plusDays(7), RollupGranularity.WEEKLY);
+
+        assertThat(weeks).containsExactly(
+                new RollupResponse(MONDAY.minusDays(1), MONDAY.minusDays(1), value(7), value(9), value(1), value(9), 4),
+                new RollupResponse(MONDAY, MONDAY.plusDays(6), value(9), value(5), value(3), value(15), 3),
+                new RollupResponse(MONDAY.plusDays(7), MONDAY.plusDays(7), value(5), value(5), value(5), value(5), 0));
+    }
+
+    private static DailyRollup day(LocalDate day, int open, int close, int min, int max, long samples) {
+        return new DailyRollup(day, value(open), value(close), value(min), value(max), samples);
+    }
+
+    private static BigDecimal value(int value) {
+        return BigDecimal.valueOf(value);
+    }
+}
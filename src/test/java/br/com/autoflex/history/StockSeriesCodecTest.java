@@ -0,0 +1,64 @@
+package br.com.autoflex.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockSeriesCodecTest {
+
+    private static final long START = 1_792_368_000_000L;
+
+    @Test
+    void shouldRoundTripArbitraryValuesExactly() {
+        Random random = new Random(42);
+        List<StockSample> samples = new ArrayList<>();
+        long time = START;
+        for (int i = 0; i < 1000; i++) {
+            time += random.nextInt(60_000);
+            double stock = switch (i % 4) {
+                case 0 -> random.nextDouble() * 1000;
+                case 1 -> -0.0;
+                case 2 -> Double.MAX_VALUE;
+                default -> random.nextInt(500);
+            };
+            samples.add(new StockSample(time, stock));
+        }
+
+        assertThat(StockSeriesCodec.decode(StockSeriesCodec.encode(samples))).isEqualTo(samples);
+    }
+
+    @Test
+    void shouldEncodeTypicalStockMovementsInAFewBytesPerSample() {
+        List<StockSample> samples = new ArrayList<>();
+        double stock = 500;
+        for (int i = 0; i < 1000; i++) {
+            stock += i % 3 == 0 ? 25 : -10;
+            samples.add(new StockSample(START + i * 1_000L, stock));
+        }
+
+        byte[] encoded = StockSeriesCodec.encode(samples);
+
+        assertThat(encoded.length).isLessThan(samples.size() * 6);
+        assertThat(StockSeriesCodec.decode(encoded)).isEqualTo(samples);
+    }
+
+    @Test
+    void shouldEncodeAnUnchangedStockInOneByte() {
+        List<StockSample> once = List.of(new StockSample(START, 80.0));
+        List<StockSample> twice = List.of(new StockSample(START, 80.0), new StockSample(START + 1, 80.0));
+
+        assertThat(StockSeriesCodec.encode(twice).length - StockSeriesCodec.encode(once).length).isEqualTo(2);
+        assertThat(StockSeriesCodec.decode(StockSeriesCodec.encode(List.of()))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectSamplesOutOfTimeOrder() {
+        assertThatThrownBy(() -> StockSeriesCodec.encode(List.of(new StockSample(START, 1.0), new StockSample(START - 1, 2.0))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
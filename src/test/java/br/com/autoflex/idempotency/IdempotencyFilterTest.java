@@ -0,0 +1,84 @@
+package br.com.autoflex.idempotency;
+
+import br.com.autoflex.domain.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyFilterTest {
+
+    private static final String WOOD = """
+            {"name": "Idempotent Wood", "description": "Oak wood", "cost": 50.0, "currentStock": 100.0}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @AfterEach
+    void tearDown() {
+        rawMaterialRepository.findByName("Idempotent Wood").ifPresent(rawMaterialRepository::delete);
+    }
+
+    @Test
+    void shouldReplayStoredResponseInsteadOfAddingStockTwice() throws Exception {
+        String first = mockMvc.perform(post("/raw-materials")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(WOOD))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        String replayed = mockMvc.perform(post("/raw-materials")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(WOOD))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(replayed).isEqualTo(first);
+        assertThat(rawMaterialRepository.findByName("Idempotent Wood").orElseThrow().getCurrentStock())
+                .isEqualTo(100.0);
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentBody() throws Exception {
+        mockMvc.perform(post("/raw-materials")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(WOOD))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/raw-materials")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(WOOD.replace("100.0", "5.0")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.title").value("Idempotency Key Conflict"));
+    }
+
+    @Test
+    void shouldRejectBodiesOverTheLimitWithoutRunningTheRequest() throws Exception {
+        mockMvc.perform(post("/raw-materials")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("x".repeat(1024 * 1024 + 1)))
+                .andExpect(status().isPayloadTooLarge());
+    }
+}
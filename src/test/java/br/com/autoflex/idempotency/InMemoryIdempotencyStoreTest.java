@@ -0,0 +1,131 @@
+package br.com.autoflex.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.*;
+
+class InMemoryIdempotencyStoreTest {
+
+    private MutableClock clock;
+    private InMemoryIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        store = new InMemoryIdempotencyStore(clock, Duration.ofMinutes(10), 2);
+    }
+
+    @Test
+    void shouldNotReserveKeyTwiceWhileInFlight() {
+
+        assertThat(store.reserve("a")).isTrue();
+        assertThat(store.reserve("a")).isFalse();
+        assertThat(store.find("a")).isEmpty();
+    }
+
+    @Test
+    void shouldAllowRetryAfterRelease() {
+
+        store.reserve("a");
+        store.release("a");
+
+        assertThat(store.reserve("a")).isTrue();
+    }
+
+    @Test
+    void shouldReturnCompletedResponse() {
+
+        StoredResponse response = new StoredResponse("f", 201, "application/json", new byte[]{1});
+        store.reserve("a");
+        store.complete("a", response);
+
+        assertThat(store.find("a")).contains(response);
+        assertThat(store.reserve("a")).isFalse();
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+
+        store.complete("a", new StoredResponse("f", 201, null, new byte[0]));
+        clock.advance(Duration.ofMinutes(10));
+
+        assertThat(store.find("a")).isEmpty();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedCompletedEntryWhenFull() {
+
+        complete("a");
+        complete("b");
+        store.find("a");
+        complete("c");
+
+        assertThat(store.find("a")).isPresent();
+        assertThat(store.find("b")).isEmpty();
+        assertThat(store.find("c")).isPresent();
+    }
+
+    @Test
+    void shouldNeverEvictReservationsInFlight() {
+
+        store.reserve("a");
+        complete("b");
+        store.reserve("c");
+
+        assertThat(store.reserve("a")).isFalse();
+        assertThat(store.find("b")).isEmpty();
+    }
+
+    @Test
+    void shouldRefuseNewKeysWhenEveryEntryIsInFlight() {
+
+        store.reserve("a");
+        store.reserve("b");
+
+        assertThatThrownBy(() -> store.reserve("c")).isInstanceOf(IdempotencyCapacityException.class);
+        assertThat(store.reserve("a")).isFalse();
+
+        clock.advance(Duration.ofMinutes(10));
+        assertThat(store.reserve("c")).isTrue();
+    }
+
+    private void complete(String key) {
+        store.reserve(key);
+        store.complete(key, new StoredResponse("f", 201, null, new byte[0]));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
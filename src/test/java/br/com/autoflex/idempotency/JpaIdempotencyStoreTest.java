@@ -0,0 +1,99 @@
+package br.com.autoflex.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "autoflex.idempotency.store=jpa"
+})
+@ActiveProfiles("test")
+class JpaIdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldBeTheConfiguredStore() {
+        assertThat(store).isInstanceOf(JpaIdempotencyStore.class);
+    }
+
+    @Test
+    void shouldReserveCompleteAndReleaseKeys() {
+        StoredResponse response = new StoredResponse("f", 201, "application/json", new byte[]{1, 2});
+
+        assertThat(store.reserve("a")).isTrue();
+        assertThat(store.reserve("a")).isFalse();
+        assertThat(store.find("a")).isEmpty();
+
+        store.complete("a", response);
+        assertThat(store.find("a")).hasValueSatisfying(found -> {
+            assertThat(found.fingerprint()).isEqualTo("f");
+            assertThat(found.status()).isEqualTo(201);
+            assertThat(found.body()).containsExactly(1, 2);
+        });
+        assertThat(store.reserve("a")).isFalse();
+
+        assertThat(store.reserve("b")).isTrue();
+        store.release("b");
+        assertThat(store.reserve("b")).isTrue();
+    }
+
+    @Test
+    void shouldLetExactlyOneOfConcurrentReservationsWin() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return store.reserve("contended");
+                }));
+            }
+            start.countDown();
+            int won = 0;
+            for (Future<Boolean> result : results) {
+                won += result.get() ? 1 : 0;
+            }
+            assertThat(won).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldTreatExpiredRecordsAsAbsentAndPurgeThem() {
+        JpaIdempotencyStore expiring = new JpaIdempotencyStore(repository, Clock.systemUTC(), Duration.ZERO);
+        expiring.complete("old", new StoredResponse("f", 201, null, new byte[0]));
+
+        assertThat(expiring.find("old")).isEmpty();
+        assertThat(expiring.reserve("old")).isTrue();
+
+        expiring.purgeExpired();
+        assertThat(repository.count()).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.autoflex.metrics;
+
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.domain.service.RawMaterialService;
+import br.com.autoflex.dto.product.ProductRawMaterialRequest;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Test
+    void shouldRecordDatabaseCostAndServiceTimingsPerEndpoint() throws Exception {
+        Long rawMaterialId = rawMaterialService.create(new RawMaterialRequest("Metrics steel", "Sheet", 5.0, 100.0, null)).id();
+        Long productId = productService.create(new ProductRequest("Metrics shelf", "Steel shelf", BigDecimal.TEN)).id();
+        productService.replaceRawMaterials(productId, List.of(new ProductRawMaterialRequest(rawMaterialId, 2.0)));
+
+        mockMvc.perform(get("/products/producible")).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get(RequestDatabaseMetricsFilter.STATEMENTS)
+                .tags("method", "GET", "uri", "/products/producible").summary();
+        DistributionSummary entityLoads = meterRegistry.get(RequestDatabaseMetricsFilter.ENTITY_LOADS)
+                .tags("method", "GET", "uri", "/products/producible").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isPositive();
+        assertThat(entityLoads.totalAmount()).isGreaterThanOrEqualTo(3);
+
+        assertThat(meterRegistry.get("autoflex.producibility.evaluation").tag("scope", "all").timer().count())
+                .isPositive();
+        assertThat(meterRegistry.get("autoflex.service")
+                .tags("class", ProductService.class.getName(), "method", "replaceRawMaterials").timer().count())
+                .isPositive();
+    }
+
+    @Test
+    void shouldExposeApplicationPoolAndHibernateMetricsForPrometheus() throws Exception {
+        mockMvc.perform(get("/products")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("autoflex_catalog_size{"),
+                        containsString("autoflex_http_server_requests_sql_statements_count{"),
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("hikaricp_connections_active{"),
+                        containsString("hibernate_query_executions_total{"))));
+    }
+}
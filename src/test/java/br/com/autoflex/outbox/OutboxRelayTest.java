@@ -0,0 +1,222 @@
+package br.com.autoflex.outbox;
+
+import br.com.autoflex.domain.event.ProductChangedEvent;
+import br.com.autoflex.domain.service.ProductService;
+import br.com.autoflex.domain.service.RawMaterialService;
+import br.com.autoflex.domain.service.WarehouseService;
+import br.com.autoflex.dto.product.ProductRequest;
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialRequest;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.dto.warehouse.StockAdjustmentRequest;
+import br.com.autoflex.dto.warehouse.StockTransferRequest;
+import br.com.autoflex.dto.warehouse.WarehouseRequest;
+import br.com.autoflex.dto.warehouse.WarehouseResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.autoflex.outbox.OutboxEventType.BILL_OF_MATERIALS_CHANGED;
+import static br.com.autoflex.outbox.OutboxEventType.PRODUCT_DELETED;
+import static br.com.autoflex.outbox.OutboxEventType.PRODUCT_SAVED;
+import static br.com.autoflex.outbox.OutboxEventType.RAW_MATERIAL_SAVED;
+import static br.com.autoflex.outbox.OutboxEventType.STOCK_CHANGED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000",
+        "autoflex.outbox.poll-interval=PT1H"
+})
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxSink sink;
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private InMemoryOutboxSink memorySink;
+
+    @BeforeEach
+    void drain() {
+        memorySink = (InMemoryOutboxSink) sink;
+        relay.relay();
+        memorySink.clear();
+    }
+
+    @Test
+    void shouldRelayEveryCatalogChangeInTheOrderItWasWritten() {
+        RawMaterialResponse steel = rawMaterialService.create(new RawMaterialRequest("Outbox Steel", "Sheet", 10.0, 100.0, null));
+        ProductResponse frame = productService.create(new ProductRequest("Outbox Frame", "Welded", new BigDecimal("80.00")));
+        productService.addRawMaterialToProduct(frame.id(), steel.id(), 4.0);
+        productService.update(frame.id(), new ProductRequest("Outbox Frame", "Welded and painted", new BigDecimal("95.00")));
+        ProductResponse scrap = productService.create(new ProductRequest("Outbox Scrap", "Discontinued", new BigDecimal("1.00")));
+        productService.delete(scrap.id());
+
+        assertThat(relay.relay()).isEqualTo(6);
+
+        assertThat(memorySink.delivered()).extracting(OutboxMessage::eventType).containsExactly(
+                RAW_MATERIAL_SAVED, PRODUCT_SAVED, BILL_OF_MATERIALS_CHANGED, PRODUCT_SAVED, PRODUCT_SAVED, PRODUCT_DELETED);
+        assertThat(memorySink.delivered().get(2).payload())
+                .contains("\"productId\":" + frame.id())
+                .contains("\"rawMaterialId\":" + steel.id());
+        assertThat(repository.count()).isZero();
+        assertThat(meterRegistry.counter("autoflex.outbox.events", "outcome", "relayed").count()).isGreaterThanOrEqualTo(6);
+    }
+
+    @Test
+    void shouldRecordStockChangesAsDeltasOfTheWarehouseTheyHappenIn() {
+        RawMaterialResponse copper = rawMaterialService.create(new RawMaterialRequest("Outbox Copper", "Wire", 3.0, 10.0, null));
+        Long mainId = mainWarehouseId();
+        Long plantId = warehouseService.create(new WarehouseRequest("OUTBOX-PLANT", "Outbox Plant")).id();
+        relay.relay();
+        memorySink.clear();
+
+        warehouseService.adjust(mainId, new StockAdjustmentRequest(copper.id(), 5.0));
+        warehouseService.transfer(new StockTransferRequest(copper.id(), mainId, plantId, 4.0));
+        relay.relay();
+
+        assertThat(memorySink.delivered()).filteredOn(message -> message.eventType() == STOCK_CHANGED)
+                .satisfiesExactly(
+                        adjusted -> assertThat(adjusted.payload()).contains("\"delta\":5.0").contains("\"quantity\":15.0"),
+                        taken -> assertThat(taken.payload()).contains("\"delta\":-4.0").contains("\"quantity\":11.0"),
+                        received -> assertThat(received.payload()).contains("\"delta\":4.0").contains("\"quantity\":4.0"))
+                .extracting(OutboxMessage::aggregateId)
+                .containsExactly(mainId, mainId, plantId);
+    }
+
+    @Test
+    void shouldOrderConcurrentWritersOfAnAggregateByCommit() throws Exception {
+        RawMaterialResponse tin = rawMaterialService.create(new RawMaterialRequest("Outbox Tin", "Bar", 2.0, 10.0, null));
+        RawMaterialResponse zinc = rawMaterialService.create(new RawMaterialRequest("Outbox Zinc", "Bar", 2.0, 10.0, null));
+        Long mainId = mainWarehouseId();
+        Long plantId = warehouseService.create(new WarehouseRequest("OUTBOX-CONCURRENT", "Outbox Concurrent")).id();
+        relay.relay();
+        memorySink.clear();
+
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    warehouseService.adjust(mainId, new StockAdjustmentRequest(tin.id(), 1.0));
+                    written.countDown();
+                    awaitQuietly(commit);
+                }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                warehouseService.adjust(mainId, new StockAdjustmentRequest(zinc.id(), 2.0)));
+        CompletableFuture.runAsync(() -> warehouseService.adjust(plantId, new StockAdjustmentRequest(zinc.id(), 3.0)))
+                .get(10, TimeUnit.SECONDS);
+        Thread.sleep(200);
+
+        assertThat(second).isNotDone();
+        relay.relay();
+        assertThat(memorySink.delivered()).filteredOn(message -> message.eventType() == STOCK_CHANGED)
+                .extracting(OutboxMessage::aggregateId)
+                .containsExactly(plantId);
+
+        commit.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        relay.relay();
+
+        assertThat(memorySink.delivered()).filteredOn(message -> message.aggregateId() == mainId
+                        && message.eventType() == STOCK_CHANGED)
+                .satisfiesExactly(
+                        tinAdjusted -> assertThat(tinAdjusted.payload()).contains("\"rawMaterialId\":" + tin.id()),
+                        zincAdjusted -> assertThat(zincAdjusted.payload()).contains("\"rawMaterialId\":" + zinc.id()))
+                .extracting(OutboxMessage::version)
+                .satisfies(versions -> assertThat(versions.get(1)).isEqualTo(versions.get(0) + 1));
+    }
+
+    @Test
+    void shouldKeepABatchTheSinkRejectsForTheNextRound() {
+        productService.create(new ProductRequest("Outbox Rejected", "Once", new BigDecimal("5.00")));
+        OutboxRelay failing = new OutboxRelay(repository, messages -> {
+            throw new IllegalStateException("sink unavailable");
+        }, transactionManager, 500, meterRegistry);
+
+        assertThat(failing.relay()).isZero();
+        assertThat(repository.count()).isEqualTo(1);
+
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(memorySink.delivered()).extracting(OutboxMessage::eventType).containsExactly(PRODUCT_SAVED);
+    }
+
+    @Test
+    void shouldHoldBackAnAggregateWhoseEarlierEventsAnotherRelayClaimed() throws Exception {
+        ProductResponse first = productService.create(new ProductRequest("Outbox First", "v1", new BigDecimal("1.00")));
+        productService.update(first.id(), new ProductRequest("Outbox First", "v2", new BigDecimal("2.00")));
+        ProductResponse second = productService.create(new ProductRequest("Outbox Second", "v1", new BigDecimal("3.00")));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(repository.claimOldest(1)).singleElement()
+                    .satisfies(claimed -> assertThat(claimed.getAggregateId()).isEqualTo(first.id()));
+
+            int delivered = CompletableFuture.supplyAsync(relay::relay).join();
+
+            assertThat(delivered).isEqualTo(1);
+            assertThat(memorySink.delivered()).extracting(OutboxMessage::aggregateId).containsExactly(second.id());
+        });
+
+        relay.relay();
+
+        assertThat(memorySink.delivered()).filteredOn(message -> message.aggregateId() == first.id())
+                .extracting(OutboxMessage::payload)
+                .satisfiesExactly(v1 -> assertThat(v1).contains("v1"), v2 -> assertThat(v2).contains("v2"));
+    }
+
+    @Test
+    void shouldWriteNothingForChangesReplayedOutsideATransaction() {
+        long before = repository.count();
+
+        outboxWriter.onProductChanged(ProductChangedEvent.deleted(42L));
+
+        assertThat(repository.count()).isEqualTo(before);
+    }
+
+    private Long mainWarehouseId() {
+        return warehouseService.findAll().stream().filter(WarehouseResponse::defaultWarehouse).findFirst().orElseThrow().id();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
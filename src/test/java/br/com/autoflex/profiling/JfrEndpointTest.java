@@ -0,0 +1,80 @@
+package br.com.autoflex.profiling;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=jfr",
+        "autoflex.profiling.enabled=true",
+        "autoflex.profiling.token=secret"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JfrEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldRecordStopAndDownloadWithTheToken() throws Exception {
+        mockMvc.perform(post("/actuator/jfr").contentType(MediaType.APPLICATION_JSON).content("{\"preset\":\"cpu\"}"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/actuator/jfr").header(ProfilingAccessFilter.TOKEN_HEADER, "secret")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"preset\":\"cpu\",\"duration\":\"30s\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.preset").value("CPU"))
+                .andExpect(jsonPath("$.running").value(true));
+        mockMvc.perform(post("/actuator/jfr").header(ProfilingAccessFilter.TOKEN_HEADER, "secret")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"preset\":\"lock\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.running.preset").value("CPU"));
+        mockMvc.perform(get("/products").header(ProfilingAccessFilter.TOKEN_HEADER, "secret")).andExpect(status().isOk());
+
+        String fileName = JsonPath.read(
+                mockMvc.perform(delete("/actuator/jfr").header(ProfilingAccessFilter.TOKEN_HEADER, "secret"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.running").value(false))
+                        .andExpect(jsonPath("$.summary.cpu.unit").value("samples"))
+                        .andReturn().getResponse().getContentAsString(), "$.fileName");
+
+        byte[] recording = mockMvc.perform(get("/actuator/jfr/" + fileName).header(ProfilingAccessFilter.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new String(recording, 0, 4)).isEqualTo("FLR\0");
+
+        mockMvc.perform(delete("/actuator/jfr").header(ProfilingAccessFilter.TOKEN_HEADER, "secret"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/actuator/jfr/unknown.jfr").header(ProfilingAccessFilter.TOKEN_HEADER, "secret"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRefuseToStartWithoutATokenOutsideTheLocalProfile() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withBean("conversionService", ConversionService.class, ApplicationConversionService::getSharedInstance)
+                .withUserConfiguration(ProfilingConfig.class)
+                .withPropertyValues("autoflex.profiling.enabled=true");
+
+        runner.run(context -> assertThat(context).hasFailed().getFailure()
+                .hasRootCauseMessage("autoflex.profiling.token must be set when profiling is enabled outside the local profile"));
+        runner.withPropertyValues("spring.profiles.active=local")
+                .run(context -> assertThat(context).hasSingleBean(JfrEndpoint.class));
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.autoflex.profiling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrProfilerTest {
+
+    private final JfrProfiler profiler = new JfrProfiler(Duration.ofMinutes(1), 16 * 1024 * 1024, 5, Clock.systemUTC());
+
+    private volatile byte[] sink;
+
+    @AfterEach
+    void tearDown() {
+        profiler.close();
+    }
+
+    @Test
+    void shouldAttributeSampledAllocationsToApplicationFrames() throws Exception {
+        profiler.start(ProfilingPreset.ALLOCATION, null);
+        allocate(Duration.ofMillis(500));
+        RecordingStatus finished = profiler.stop();
+
+        assertThat(finished.running()).isFalse();
+        assertThat(finished.fileBytes()).isPositive();
+        assertThat(finished.summary().allocation().events()).isPositive();
+        assertThat(finished.summary().allocation().topFrames())
+                .anySatisfy(frame -> assertThat(frame.frame()).startsWith(JfrProfilerTest.class.getName() + ".allocate"));
+
+        Path file = profiler.file(finished.fileName()).orElseThrow();
+        assertThat(Files.size(file)).isEqualTo(finished.fileBytes());
+        assertThat(profiler.file("other.jfr")).isEmpty();
+    }
+
+    @Test
+    void shouldRunOneRecordingAtATime() {
+        profiler.start(ProfilingPreset.CPU, Duration.ofSeconds(30));
+
+        assertThat(profiler.running()).hasValueSatisfying(status -> assertThat(status.preset()).isEqualTo(ProfilingPreset.CPU));
+        assertThatThrownBy(() -> profiler.start(ProfilingPreset.LOCK, null)).isInstanceOf(IllegalStateException.class);
+
+        profiler.stop();
+        assertThat(profiler.running()).isEmpty();
+        assertThatThrownBy(profiler::stop).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldStopByItselfAfterItsDurationAndReplaceThePreviousFile() throws Exception {
+        profiler.start(ProfilingPreset.CPU, null);
+        Path first = profiler.file(profiler.stop().fileName()).orElseThrow();
+
+        profiler.start(ProfilingPreset.LOCK, Duration.ofMillis(200));
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (profiler.running().isPresent() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertThat(profiler.running()).isEmpty();
+        assertThat(profiler.last()).hasValueSatisfying(status -> assertThat(status.preset()).isEqualTo(ProfilingPreset.LOCK));
+        assertThat(first).doesNotExist();
+    }
+
+    private void allocate(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < end) {
+            sink = new byte[64 * 1024];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.autoflex.querycount;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the statements executed and the rows read through the proxied data source, but only on
+ * the thread that last called {@link #start()}. Work the application does on other threads, such
+ * as the producibility feed re-evaluating products after a write, does not leak into the count.
+ * A JDBC batch is one execution, since it is one round trip.
+ */
+public class SqlStatementCounter implements QueryExecutionListener, MethodExecutionListener {
+
+    private volatile Thread owner;
+    private final AtomicLong rows = new AtomicLong();
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    public void start() {
+        owner = Thread.currentThread();
+        rows.set(0);
+        statements.clear();
+    }
+
+    public int statementCount() {
+        return statements.size();
+    }
+
+    public long rowCount() {
+        return rows.get();
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (Thread.currentThread() == owner) {
+            statements.add(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (Thread.currentThread() == owner
+                && executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            rows.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.autoflex.search;
+
+import br.com.autoflex.dto.product.ProductResponse;
+import br.com.autoflex.dto.search.SearchResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    private SearchIndex<ProductResponse> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex<>(ProductResponse::id, ProductResponse::name, ProductResponse::description);
+        index.replaceAll(List.of(
+                product(1L, "Wooden Chair", "Oak seat with four legs"),
+                product(2L, "Office Chair", "Swivel chair with wheels"),
+                product(3L, "Dining Table", "Solid wood table for six"),
+                product(4L, "Cadeira de Balanço", "Rocking chair")
+        ));
+    }
+
+    @Test
+    void shouldMatchPrefixesAndRankNameMatchesFirst() {
+
+        SearchResponse<ProductResponse> result = index.search("woo", 0, 10);
+
+        assertThat(ids(result)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void shouldMatchSubstringsInsideTerms() {
+
+        SearchResponse<ProductResponse> result = index.search("ffic", 0, 10);
+
+        assertThat(ids(result)).containsExactly(2L);
+    }
+
+    @Test
+    void shouldTolerateTypos() {
+
+        SearchResponse<ProductResponse> result = index.search("cadiera", 0, 10);
+
+        assertThat(ids(result)).containsExactly(4L);
+    }
+
+    @Test
+    void shouldIgnoreCaseAndAccents() {
+
+        SearchResponse<ProductResponse> result = index.search("BALANCO", 0, 10);
+
+        assertThat(ids(result)).containsExactly(4L);
+    }
+
+    @Test
+    void shouldRequireEveryQueryTerm() {
+
+        SearchResponse<ProductResponse> result = index.search("chair wheels", 0, 10);
+
+        assertThat(ids(result)).containsExactly(2L);
+    }
+
+    @Test
+    void shouldBreakTiesByNameAndRankDescriptionMatchesLast() {
+
+        SearchResponse<ProductResponse> result = index.search("chair", 0, 10);
+
+        assertThat(ids(result)).containsExactly(2L, 1L, 4L);
+    }
+
+    @Test
+    void shouldReindexUpdatedDocuments() {
+
+        index.put(product(3L, "Coffee Table", "Glass top"));
+
+        assertThat(ids(index.search("dining", 0, 10))).isEmpty();
+        assertThat(ids(index.search("coffee", 0, 10))).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldForgetRemovedDocuments() {
+
+        index.remove(2L);
+
+        assertThat(ids(index.search("office", 0, 10))).isEmpty();
+        assertThat(ids(index.search("off", 0, 10))).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldPaginateRankedResults() {
+
+        index.replaceAll(IntStream.rangeClosed(1, 25)
+                .mapToObj(i -> product((long) i, "Bolt %02d".formatted(i), "Steel bolt"))
+                .toList());
+
+        SearchResponse<ProductResponse> result = index.search("bolt", 2, 10);
+
+        assertThat(result.totalElements()).isEqualTo(25);
+        assertThat(result.totalPages()).isEqualTo(3);
+        assertThat(ids(result)).containsExactly(21L, 22L, 23L, 24L, 25L);
+    }
+
+    @Test
+    void shouldReturnEmptyPageForQueriesWithoutTerms() {
+
+        SearchResponse<ProductResponse> result = index.search(" - ", 0, 10);
+
+        assertThat(result.content()).isEmpty();
+        assertThat(result.totalElements()).isZero();
+    }
+
+    private static List<Long> ids(SearchResponse<ProductResponse> result) {
+        return result.content().stream().map(ProductResponse::id).toList();
+    }
+
+    private static ProductResponse product(Long id, String name, String description) {
+        return new ProductResponse(id, name, description, BigDecimal.TEN);
+    }
+}
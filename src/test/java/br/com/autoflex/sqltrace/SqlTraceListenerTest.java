@@ -0,0 +1,55 @@
+package br.com.autoflex.sqltrace;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlTraceListenerTest {
+
+    private final SqlTraceListener listener = new SqlTraceListener(Duration.ofMillis(100));
+
+    @Test
+    void shouldRecordStatementsOnlyIntoTheTraceOfTheCurrentThread() {
+        RequestTrace trace = new RequestTrace("r-1", "GET", "/products", 10);
+        listener.begin(trace);
+        listener.afterQuery(execution(5, false, 0), List.of(new QueryInfo("select * from products")));
+        listener.end();
+        listener.afterQuery(execution(5, false, 0), List.of(new QueryInfo("select * from raw_materials")));
+
+        RequestTrace.Summary summary = trace.finish(200);
+        assertThat(summary.statementCount()).isEqualTo(1);
+        assertThat(summary.statements()).extracting(RequestTrace.StatementTrace::sql)
+                .containsExactly("select * from products");
+    }
+
+    @Test
+    void shouldCountSlowStatementsAndKeepTotalsBeyondTheStatementLimit() {
+        RequestTrace trace = new RequestTrace("r-2", "PUT", "/products/1/raw-materials", 2);
+        listener.begin(trace);
+        listener.afterQuery(execution(150, false, 0), List.of(new QueryInfo("select slow")));
+        listener.afterQuery(execution(10, true, 20), List.of(new QueryInfo("insert into x values (?)")));
+        listener.afterQuery(execution(10, false, 0), List.of(new QueryInfo("select fast")));
+        listener.end();
+
+        RequestTrace.Summary summary = trace.finish(200);
+        assertThat(summary.statementCount()).isEqualTo(3);
+        assertThat(summary.sqlMillis()).isEqualTo(170);
+        assertThat(summary.slowStatementCount()).isEqualTo(1);
+        assertThat(summary.statements()).hasSize(2);
+        assertThat(summary.statements().get(1).batchSize()).isEqualTo(20);
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis, boolean batch, int batchSize) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMillis);
+        info.setBatch(batch);
+        info.setBatchSize(batchSize);
+        info.setSuccess(true);
+        return info;
+    }
+}
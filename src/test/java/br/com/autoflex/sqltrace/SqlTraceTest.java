@@ -0,0 +1,65 @@
+package br.com.autoflex.sqltrace;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=sqltrace")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlTraceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldTraceTheSqlOfARequestUnderItsCorrelationId() throws Exception {
+        mockMvc.perform(get("/products").header(RequestTraceFilter.REQUEST_ID_HEADER, "trace-products-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestTraceFilter.REQUEST_ID_HEADER, "trace-products-1"));
+
+        mockMvc.perform(get("/actuator/sqltrace/trace-products-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.method").value("GET"))
+                .andExpect(jsonPath("$.uri").value("/products"))
+                .andExpect(jsonPath("$.status").value(200))
+                .andExpect(jsonPath("$.statementCount").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.statements[0].sql").value(containsString("from products")));
+    }
+
+    @Test
+    void shouldGenerateARequestIdWhenTheCallerSentNoneOrAMalformedOne() throws Exception {
+        String generated = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(RequestTraceFilter.REQUEST_ID_HEADER);
+        String replaced = mockMvc.perform(get("/products").header(RequestTraceFilter.REQUEST_ID_HEADER, "bad id\r\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(RequestTraceFilter.REQUEST_ID_HEADER);
+
+        assertThat(generated).isNotBlank();
+        assertThat(replaced).isNotBlank().isNotEqualTo("bad id\r\n").isNotEqualTo(generated);
+        mockMvc.perform(get("/actuator/sqltrace/" + generated)).andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldListRecentRequestsNewestFirst() throws Exception {
+        mockMvc.perform(get("/raw-materials").header(RequestTraceFilter.REQUEST_ID_HEADER, "trace-older"));
+        mockMvc.perform(get("/raw-materials").header(RequestTraceFilter.REQUEST_ID_HEADER, "trace-newer"));
+
+        mockMvc.perform(get("/actuator/sqltrace"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].requestId").value("trace-newer"))
+                .andExpect(jsonPath("$[1].requestId").value("trace-older"));
+    }
+}
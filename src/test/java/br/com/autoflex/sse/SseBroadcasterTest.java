@@ -0,0 +1,114 @@
+package br.com.autoflex.sse;
+
+import br.com.autoflex.sse.SseBroadcaster.Event;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseBroadcasterTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final SseBroadcaster broadcaster = new SseBroadcaster(tasks::add, 3, Duration.ofMinutes(1));
+
+    @Test
+    void shouldDeliverInitialEventsThenPublishedEventsInOrder() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(emitter, List.of(new Event("snapshot", "s")));
+
+        broadcaster.publish("change", "a");
+        broadcaster.publish("change", "b");
+        runTasks();
+
+        assertThat(emitter.sent).hasSize(3);
+        assertThat(emitter.sent.get(0)).contains("event:snapshot").contains("data:s");
+        assertThat(emitter.sent.get(2)).contains("event:change").contains("data:b");
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDrainEachSubscriberWithASingleTaskAtATime() {
+        broadcaster.register(new RecordingEmitter(), List.of());
+
+        broadcaster.publish("change", "a");
+        broadcaster.publish("change", "b");
+
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void shouldDropSubscribersThatFallBehind() {
+        RecordingEmitter slow = new RecordingEmitter();
+        broadcaster.register(slow, List.of());
+        broadcaster.publish("change", "a");
+        broadcaster.publish("change", "b");
+        broadcaster.publish("change", "c");
+
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.register(fast, List.of());
+        broadcaster.publish("change", "d");
+        runTasks();
+
+        assertThat(slow.completed).isTrue();
+        assertThat(slow.sent).isEmpty();
+        assertThat(fast.completed).isFalse();
+        assertThat(fast.sent).hasSize(1);
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropSubscribersWhoseConnectionFailed() {
+        RecordingEmitter broken = new RecordingEmitter();
+        broken.failing = true;
+        broadcaster.register(broken, List.of());
+
+        broadcaster.heartbeat();
+        runTasks();
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    private void runTask() {
+        tasks.remove().run();
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            runTask();
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+        private boolean failing;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.autoflex.stock;
+
+import br.com.autoflex.dto.rawmaterial.LowStockResponse;
+import br.com.autoflex.dto.rawmaterial.RawMaterialResponse;
+import br.com.autoflex.stock.LowStockIndex.Transition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LowStockIndexTest {
+
+    private LowStockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LowStockIndex();
+        index.replaceAll(List.of(
+                material(1L, "Wood", 5.0, 10.0),
+                material(2L, "Metal", 30.0, 10.0),
+                material(3L, "Glue", 1.0, 10.0),
+                material(4L, "Paint", 0.0, null)
+        ));
+    }
+
+    @Test
+    void shouldListMaterialsBelowThresholdLowestRatioFirst() {
+
+        assertThat(ids(index.belowThreshold())).containsExactly(3L, 1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReportMaterialsEnteringAndLeavingTheLowStockList() {
+
+        assertThat(index.update(material(2L, "Metal", 2.0, 10.0))).isEqualTo(Transition.ENTERED);
+        assertThat(ids(index.belowThreshold())).containsExactly(3L, 2L, 1L);
+
+        assertThat(index.update(material(3L, "Glue", 10.0, 10.0))).isEqualTo(Transition.LEFT);
+        assertThat(ids(index.belowThreshold())).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shouldReportChangesWhileBelowThresholdAndIgnoreIrrelevantOnes() {
+
+        assertThat(index.update(material(1L, "Wood", 4.0, 10.0))).isEqualTo(Transition.UPDATED);
+        assertThat(index.get(1L).ratio()).isEqualTo(0.4);
+
+        assertThat(index.update(material(1L, "Wood", 4.0, 10.0))).isEqualTo(Transition.NONE);
+        assertThat(index.update(material(2L, "Metal", 25.0, 10.0))).isEqualTo(Transition.NONE);
+    }
+
+    @Test
+    void shouldStopTrackingMaterialsWithoutThresholdOrDeleted() {
+
+        assertThat(index.update(material(1L, "Wood", 5.0, null))).isEqualTo(Transition.LEFT);
+        assertThat(index.remove(3L)).isEqualTo(Transition.LEFT);
+        assertThat(index.remove(2L)).isEqualTo(Transition.NONE);
+
+        assertThat(index.belowThreshold()).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void shouldTrackMaterialsOnceTheyGetAThreshold() {
+
+        assertThat(index.update(material(4L, "Paint", 0.0, 5.0))).isEqualTo(Transition.ENTERED);
+
+        assertThat(ids(index.belowThreshold())).containsExactly(4L, 3L, 1L);
+    }
+
+    private static RawMaterialResponse material(Long id, String name, Double stock, Double threshold) {
+        return new RawMaterialResponse(id, name, name + " description", 1.0, stock, threshold);
+    }
+
+    private static List<Long> ids(List<LowStockResponse> entries) {
+        return entries.stream().map(LowStockResponse::rawMaterialId).toList();
+    }
+}
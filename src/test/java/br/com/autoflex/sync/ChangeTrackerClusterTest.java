@@ -0,0 +1,91 @@
+package br.com.autoflex.sync;
+
+import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.domain.repository.RawMaterialRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Two trackers over one database, standing in for two instances of the service. */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sync-cluster;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class ChangeTrackerClusterTest {
+
+    @Autowired
+    private ChangeTracker nodeA;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Autowired
+    private SyncTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private SyncClockRepository clockRepository;
+
+    @Autowired
+    private SyncWriterRepository writerRepository;
+
+    @Autowired
+    private SyncLedger ledger;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldHoldTheWatermarkOfEveryInstanceBelowAWriterOpenOnAnother() throws Exception {
+        ChangeTracker nodeB = new ChangeTracker(productRepository, rawMaterialRepository, productRawMaterialRepository,
+                tombstoneRepository, clockRepository, writerRepository, ledger, transactionManager, Duration.ofMinutes(5));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch stamped = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Long> slowWrite = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            long drawn = nodeA.stamp();
+            stamped.countDown();
+            await(release);
+            return drawn;
+        }));
+        assertThat(stamped.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long fastWrite = transaction.execute(status -> nodeB.stamp());
+        assertThat(nodeB.committedThrough()).isLessThan(fastWrite);
+        assertThat(nodeA.committedThrough()).isLessThan(fastWrite);
+
+        release.countDown();
+        long slow = slowWrite.get(5, TimeUnit.SECONDS);
+
+        assertThat(slow).isLessThan(fastWrite);
+
+        nodeA.releaseCompletedWriters();
+        nodeB.releaseCompletedWriters();
+
+        assertThat(nodeA.committedThrough()).isGreaterThanOrEqualTo(fastWrite);
+        assertThat(nodeB.committedThrough()).isGreaterThanOrEqualTo(fastWrite);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package br.com.autoflex.sync;
+
+import br.com.autoflex.domain.repository.ProductRawMaterialRepository;
+import br.com.autoflex.domain.repository.ProductRepository;
+import br.com.autoflex.domain.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeTrackerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Mock
+    private SyncTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private SyncClockRepository clockRepository;
+
+    @Mock
+    private SyncWriterRepository writerRepository;
+
+    @Mock
+    private SyncLedger ledger;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChangeTracker changeTracker;
+
+    @BeforeEach
+    void setUp() {
+        changeTracker = tracker();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(changeTracker);
+    }
+
+    @Test
+    void shouldNotTouchTheDatabaseUntilTheApplicationHasStarted() {
+
+        verifyNoInteractions(ledger, clockRepository, productRepository, transactionManager);
+    }
+
+    @Test
+    void shouldAdvanceTheClockToTheHighestStoredSequence() {
+        givenClockAt(0L);
+
+        changeTracker.run(null);
+
+        verify(ledger).createClock();
+        verify(clockRepository).save(new SyncClock(SyncClock.ID, 12L));
+    }
+
+    @Test
+    void shouldNotMoveTheClockBackwards() {
+        givenClockAt(40L);
+
+        changeTracker.run(null);
+
+        verify(clockRepository).save(new SyncClock(SyncClock.ID, 40L));
+        verify(productRepository).assignMissingChangeSeq(41L);
+    }
+
+    @Test
+    void shouldStampMissingSequencesOnStartup() {
+        givenClockAt(0L);
+        when(productRepository.assignMissingChangeSeq(anyLong())).thenReturn(3);
+
+        changeTracker.run(null);
+
+        verify(productRepository).assignMissingChangeSeq(13L);
+        verify(clockRepository).save(new SyncClock(SyncClock.ID, 13L));
+    }
+
+    @Test
+    void shouldShareOneRegisteredSequencePerTransactionAndReleaseItAfterCompletion() {
+        when(ledger.draw(any())).thenReturn(13L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        long first = changeTracker.stamp();
+        long second = changeTracker.stamp();
+
+        assertThat(first).isEqualTo(13L).isEqualTo(second);
+        verify(ledger).draw(any());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        verify(ledger, never()).release(any());
+
+        changeTracker.releaseCompletedWriters();
+
+        verify(ledger).release(List.of(13L));
+    }
+
+    @Test
+    void shouldReleaseCompletedWritersInBatches() {
+        when(ledger.draw(any())).thenReturn(1L, 2L, 3L);
+        for (int i = 0; i < 3; i++) {
+            TransactionSynchronizationManager.initSynchronization();
+            changeTracker.stamp();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        changeTracker.releaseCompletedWriters();
+        changeTracker.releaseCompletedWriters();
+
+        verify(ledger).release(List.of(1L, 2L, 3L));
+        verifyNoMoreInteractions(ledger);
+    }
+
+    @Test
+    void shouldRetryReleasesThatFailed() {
+        when(ledger.draw(any())).thenReturn(5L);
+        when(ledger.release(any())).thenThrow(new IllegalStateException("Connection refused")).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        changeTracker.stamp();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        changeTracker.releaseCompletedWriters();
+        changeTracker.releaseCompletedWriters();
+
+        verify(ledger, times(2)).release(List.of(5L));
+    }
+
+    @Test
+    void shouldHoldTheWatermarkBelowTheOldestRegisteredWriter() {
+        when(clockRepository.findLastValue()).thenReturn(20L);
+        when(writerRepository.findOldestStartedSince(any())).thenReturn(null);
+
+        assertThat(changeTracker.committedThrough()).isEqualTo(20L);
+
+        when(writerRepository.findOldestStartedSince(any())).thenReturn(15L);
+
+        assertThat(changeTracker.committedThrough()).isEqualTo(14L);
+    }
+
+    @Test
+    void shouldRejectStampsOutsideTransactions() {
+
+        assertThatThrownBy(() -> changeTracker.stamp())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Change sequences can only be drawn inside a transaction");
+    }
+
+    private void givenClockAt(long lastValue) {
+        when(clockRepository.findForUpdate()).thenReturn(Optional.of(new SyncClock(SyncClock.ID, lastValue)));
+        when(productRepository.findMaxChangeSeq()).thenReturn(7L);
+        when(rawMaterialRepository.findMaxChangeSeq()).thenReturn(12L);
+    }
+
+    private ChangeTracker tracker() {
+        return new ChangeTracker(productRepository, rawMaterialRepository, productRawMaterialRepository,
+                tombstoneRepository, clockRepository, writerRepository, ledger, transactionManager, Duration.ofMinutes(5));
+    }
+}